@@ -23,10 +23,9 @@ public class ReportData {
         data.report = report;
         List<String> fields = report.isAutofields() ? dataSet.getColumnsLabels() : report.getFields().stream().map(ReportField::getName).toList();
         data.fieldNames = fields;
-        dataSet.getRows().forEach(row -> {
-            data.entries.add(ReportDataEntry.build(fields, row));
-        });
-        dataSet.close();
+        try (var rows = dataSet.stream()) {
+            rows.forEach(row -> data.entries.add(ReportDataEntry.build(fields, row)));
+        }
 
         return data;
     }
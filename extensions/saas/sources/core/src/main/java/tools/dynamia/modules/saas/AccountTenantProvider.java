@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.modules.saas;
+
+import tools.dynamia.domain.services.TenantProvider;
+import tools.dynamia.integration.sterotypes.Provider;
+import tools.dynamia.modules.saas.api.AccountServiceAPI;
+
+/**
+ * {@link TenantProvider} for SaaS environments, the current tenant is the current account id. Used by tenant aware
+ * services like {@link tools.dynamia.domain.services.CacheCrudService} query cache.
+ */
+@Provider
+public class AccountTenantProvider implements TenantProvider {
+
+    private final AccountServiceAPI accountServiceAPI;
+
+    public AccountTenantProvider(AccountServiceAPI accountServiceAPI) {
+        this.accountServiceAPI = accountServiceAPI;
+    }
+
+    @Override
+    public Object getCurrentTenant() {
+        return accountServiceAPI.getCurrentAccountId();
+    }
+}
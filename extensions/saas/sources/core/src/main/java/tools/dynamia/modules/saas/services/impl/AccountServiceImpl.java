@@ -52,6 +52,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * @author Mario Serrano Leones
@@ -249,8 +250,11 @@ public class AccountServiceImpl implements AccountService, ApplicationListener<C
     @Override
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void updateAllAccountsStats() {
-        List<Account> accounts = crudService.find(Account.class, QueryParameters.with("remote", false).add("status", AccountStatus.ACTIVE));
-        accounts.forEach(this::updateStats);
+        var query = QueryBuilder.select(Account.class, "a", "id")
+                .where(QueryParameters.with("remote", false).add("status", AccountStatus.ACTIVE));
+        try (Stream<Long> accountIds = crudService.executeQueryStream(query)) {
+            accountIds.forEach(id -> updateStats(new Account(id)));
+        }
     }
 
     @Override
@@ -28,7 +28,9 @@ public class JWTServiceImpl implements tools.dynamia.modules.security.services.J
 
     public static final int EXPIRATION_MARGIN = 30;
     public static final int CACHE_SIZE = 1000;
-    private static final SimpleCache<String, SignedJWT> tokenCache = new SimpleCache<>();
+    private static final SimpleCache<String, SignedJWT> tokenCache = SimpleCache.<String, SignedJWT>builder()
+            .maximumSize(CACHE_SIZE)
+            .build();
     public static final String ROLES = "roles";
 
     private final SecretKey secretKey;
@@ -105,19 +107,13 @@ public class JWTServiceImpl implements tools.dynamia.modules.security.services.J
     }
 
     private static SignedJWT parseToken(String token) {
-        var result = tokenCache.getOrLoad(token, t -> {
+        return tokenCache.getOrLoad(token, t -> {
             try {
                 return SignedJWT.parse(token);
             } catch (ParseException e) {
                 throw new RuntimeException(e);
             }
         });
-
-        if (tokenCache.keySet().size() >= CACHE_SIZE) {
-            tokenCache.clear();
-        }
-
-        return result;
     }
 
     @Override
@@ -11,6 +11,7 @@ import tools.dynamia.web.util.HttpRestClient;
 import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 public class CrudServiceRestClient extends AbstractCrudService {
 
@@ -82,6 +83,14 @@ public class CrudServiceRestClient extends AbstractCrudService {
         return restClient.post(uri(type, "/find"), parameters, List.class);
     }
 
+    /**
+     * Remote find is deferred until the stream is consumed, results are fetched in a single request
+     */
+    @Override
+    public <T> Stream<T> stream(Class<T> type, QueryParameters parameters) {
+        return Stream.of(type).flatMap(t -> find(t, parameters).stream());
+    }
+
     @Override
     public <T> List<T> executeQuery(QueryBuilder queryBuilder, QueryParameters parameters) {
         return List.of();
@@ -13,6 +13,7 @@ import tools.dynamia.navigation.Module;
 import tools.dynamia.navigation.ModuleProvider;
 import tools.dynamia.templates.ApplicationTemplate;
 import tools.dynamia.templates.ApplicationTemplates;
+import tools.dynamia.web.ReadRoutingRequestFilter;
 import tools.dynamia.web.navigation.PageNavigationConfiguration;
 import tools.dynamia.web.pwa.PWAIcon;
 import tools.dynamia.web.pwa.PWAManifest;
@@ -50,6 +51,17 @@ public class DynamiaToolsWebApplication extends DynamiaBaseConfiguration {
     }
 
 
+    /**
+     * Clears thread bound read routing state on each request, see {@link tools.dynamia.domain.util.ReadRouting}
+     *
+     * @return the read routing request filter
+     */
+    @Bean
+    @ConditionalOnMissingBean(ReadRoutingRequestFilter.class)
+    public ReadRoutingRequestFilter readRoutingRequestFilter() {
+        return new ReadRoutingRequestFilter();
+    }
+
     /**
      * Provides a default {@link PWAManifest} bean if none is registered.
      *
@@ -47,7 +47,7 @@ public abstract class AbstractCrudServiceRestController {
     /**
      * JSON object mapper for entity serialization/deserialization.
      */
-    private final JsonMapper mapper = StringPojoParser.createJsonMapper();
+    private final JsonMapper mapper = StringPojoParser.getJsonMapper();
 
     private SimpleCache<String, Class> allowedClasses = new SimpleCache<>();
 
@@ -17,10 +17,28 @@
 
 package tools.dynamia.commons;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
 import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 
@@ -30,7 +48,13 @@ import java.util.function.Function;
  * Provides thread-safe methods to add, retrieve, remove, and clear cached values. Supports lazy loading via loader functions.
  * Useful for caching frequently accessed data in applications.
  * <p>
- * All methods are stateless and thread-safe.
+ * By default the cache is unbounded. Use {@link #builder()} to create caches with a maximum size, split in
+ * independently locked shards and evicted using {@link Eviction#LRU} or {@link Eviction#TINY_LFU}, caches whose
+ * entries expire after write, or caches with weak keys. Weak keys are compared by identity and don't prevent
+ * the garbage collection of keys, useful for {@link Class} keys. {@link #getOrLoad(Object, Function)} is single-flight:
+ * concurrent misses of the same key wait for one loader call. Hit, miss, load and eviction counters are available with {@link #getStats()}.
+ * <p>
+ * All methods are thread-safe.
  *
  * @param <K> the type of cache key
  * @param <V> the type of cache value
@@ -38,32 +62,144 @@ import java.util.function.Function;
  */
 public class SimpleCache<K, V> implements Serializable {
 
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Eviction policy of size-bounded caches
+     */
+    public enum Eviction {
+        /**
+         * Evict the least recently used entry
+         */
+        LRU,
+        /**
+         * Window TinyLFU: new entries enter a small LRU window and are admitted into the main space only if they
+         * are requested more frequently than the entry they would evict. Resists scans and one-hit keys
+         */
+        TINY_LFU
+    }
+
+    /**
+     * Cache statistics since creation or last {@link #resetStats()}
+     */
+    public record Stats(long hits, long misses, long loads, long loadFailures, long evictions, long expirations, long size) {
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 1.0 : (double) hits / requests;
+        }
+    }
+
+    private final int maximumSize;
+    private final long expireAfterWriteNanos;
+    private final boolean weakKeys;
+    private final Eviction eviction;
+
     /**
-     * Internal data storage for cache entries.
+     * Internal data storage for cache entries, used by unbounded caches
      */
-    private final Map<K, V> data = new ConcurrentHashMap<>();
+    private transient Map<Object, Entry<V>> data;
+    private transient Shard<V>[] shards;
+    private transient Map<Object, CompletableFuture<V>> loading;
+    private transient ReferenceQueue<Object> collectedKeys;
+    private transient LongAdder hits;
+    private transient LongAdder misses;
+    private transient LongAdder loads;
+    private transient LongAdder loadFailures;
+    private transient LongAdder evictions;
+    private transient LongAdder expirations;
+
+    /**
+     * Create an unbounded cache
+     */
+    public SimpleCache() {
+        this(0, 0, false, Eviction.TINY_LFU);
+    }
+
+    /**
+     * Create a cache that hold up to maximumSize entries using {@link Eviction#TINY_LFU} eviction
+     *
+     * @param maximumSize the maximum size
+     */
+    public SimpleCache(int maximumSize) {
+        this(maximumSize, 0, false, Eviction.TINY_LFU);
+    }
+
+    private SimpleCache(int maximumSize, long expireAfterWriteNanos, boolean weakKeys, Eviction eviction) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Invalid maximum size " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.expireAfterWriteNanos = expireAfterWriteNanos;
+        this.weakKeys = weakKeys;
+        this.eviction = eviction;
+        init();
+    }
+
+    /**
+     * Create a builder to configure size, eviction, expiration and key strength of a new cache
+     */
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void init() {
+        hits = new LongAdder();
+        misses = new LongAdder();
+        loads = new LongAdder();
+        loadFailures = new LongAdder();
+        evictions = new LongAdder();
+        expirations = new LongAdder();
+        loading = new ConcurrentHashMap<>();
+        collectedKeys = weakKeys ? new ReferenceQueue<>() : null;
+
+        if (maximumSize > 0) {
+            int shardCount = Integer.highestOneBit(Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 2, maximumSize / 64)));
+            int shardCapacity = (maximumSize + shardCount - 1) / shardCount;
+            shards = new Shard[shardCount];
+            for (int i = 0; i < shardCount; i++) {
+                shards[i] = new Shard<>(shardCapacity, eviction, evictions);
+            }
+        } else {
+            data = new ConcurrentHashMap<>();
+        }
+    }
 
     /**
      * Adds a value to the cache for the specified key.
      *
-     * @param key the cache key
+     * @param key   the cache key
      * @param value the value to cache
      */
     public void add(K key, V value) {
-        data.put(key, value);
+        put(key, value);
     }
 
     /**
      * Alias to add
+     *
      * @param key
      * @param value
      */
     public void put(K key, V value) {
-        data.put(key, value);
+        store(key, newEntry(value, expireAfterWriteNanos), false);
+    }
+
+    /**
+     * Adds a value that expires after ttl, overriding the cache default expiration
+     *
+     * @param key   the cache key
+     * @param value the value to cache
+     * @param ttl   time to live of this entry
+     */
+    public void put(K key, V value, Duration ttl) {
+        store(key, newEntry(value, ttl.toNanos()), false);
     }
 
     public void putIfAbsent(K key, V value) {
-        data.putIfAbsent(key, value);
+        store(key, newEntry(value, expireAfterWriteNanos), true);
     }
 
     /**
@@ -73,25 +209,54 @@ public class SimpleCache<K, V> implements Serializable {
      * @return the cached value, or null if not present
      */
     public V get(K key) {
-        return data.get(key);
+        V value = getLive(lookupKey(key));
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
     }
 
     /**
-     * Retrieves a value from the cache by key, loading it with the provided function if not present.
+     * Retrieves a value from the cache by key, loading it with the provided function if not present. Concurrent
+     * calls for the same missing key wait for a single load.
      *
-     * @param key the cache key
+     * @param key            the cache key
      * @param loaderFunction the function to load the value if not present
      * @return the cached or loaded value
      */
     public V getOrLoad(K key, Function<K, V> loaderFunction) {
         V value = get(key);
-        if (value == null) {
-            value = loaderFunction.apply(key);
-            if (value != null) {
-                add(key, value);
+        if (value != null) {
+            return value;
+        }
+
+        Object loadingKey = lookupKey(key);
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loading.putIfAbsent(loadingKey, future);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+
+        try {
+            value = getLive(loadingKey);
+            if (value == null) {
+                value = loaderFunction.apply(key);
+                loads.increment();
+                if (value != null) {
+                    put(key, value);
+                }
             }
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            loadFailures.increment();
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(loadingKey, future);
         }
-        return value;
     }
 
     /**
@@ -101,14 +266,23 @@ public class SimpleCache<K, V> implements Serializable {
      * @return the removed value, or null if not present
      */
     public V remove(K key) {
-        return data.remove(key);
+        Object lookupKey = lookupKey(key);
+        Entry<V> entry = data != null ? data.remove(lookupKey) : shardFor(lookupKey).remove(lookupKey);
+        return entry != null && !entry.isExpired() ? entry.value : null;
     }
 
     /**
      * Clears all entries from the cache.
      */
     public void clear() {
-        data.clear();
+        if (data != null) {
+            data.clear();
+        } else {
+            for (Shard<V> shard : shards) {
+                shard.clear();
+            }
+        }
+        drainCollectedKeys();
     }
 
     /**
@@ -117,25 +291,50 @@ public class SimpleCache<K, V> implements Serializable {
      * @return true if the cache is empty, false otherwise
      */
     public boolean isEmpty() {
-        return data.isEmpty();
+        return size() == 0;
     }
 
     /**
-     * Returns the set of all cache keys.
+     * Number of entries in cache, it may include expired entries not yet removed
+     */
+    public int size() {
+        if (data != null) {
+            return data.size();
+        }
+        int size = 0;
+        for (Shard<V> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    /**
+     * Max entries of this cache, 0 if unbounded
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Returns a snapshot of all cache keys.
      *
      * @return the set of cache keys
      */
     public Set<K> keySet() {
-        return data.keySet();
+        Set<K> keys = new LinkedHashSet<>();
+        forEach((key, value) -> keys.add(key));
+        return keys;
     }
 
     /**
-     * Returns the set of all cache entries.
+     * Returns a snapshot of all cache entries.
      *
      * @return the set of cache entries
      */
     public Set<Map.Entry<K, V>> entrySet() {
-        return data.entrySet();
+        Set<Map.Entry<K, V>> entries = new LinkedHashSet<>();
+        forEach((key, value) -> entries.add(new AbstractMap.SimpleImmutableEntry<>(key, value)));
+        return entries;
     }
 
     /**
@@ -143,7 +342,467 @@ public class SimpleCache<K, V> implements Serializable {
      *
      * @param action the action to perform
      */
+    @SuppressWarnings("unchecked")
     public void forEach(BiConsumer<? super K, ? super V> action) {
-        data.forEach(action);
+        for (Map.Entry<Object, Entry<V>> entry : snapshot()) {
+            K key = (K) unwrap(entry.getKey());
+            if (key != null && !entry.getValue().isExpired()) {
+                action.accept(key, entry.getValue().value);
+            }
+        }
+    }
+
+    /**
+     * Remove expired entries and entries whose weak keys were collected. Expired entries are also removed lazily
+     * when accessed or evicted.
+     */
+    public void cleanUp() {
+        drainCollectedKeys();
+        for (Map.Entry<Object, Entry<V>> entry : snapshot()) {
+            if (entry.getValue().isExpired() && removeEntry(entry.getKey(), entry.getValue())) {
+                expirations.increment();
+            }
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), loads.sum(), loadFailures.sum(), evictions.sum(), expirations.sum(), size());
+    }
+
+    public void resetStats() {
+        hits.reset();
+        misses.reset();
+        loads.reset();
+        loadFailures.reset();
+        evictions.reset();
+        expirations.reset();
+    }
+
+    private V getLive(Object lookupKey) {
+        Entry<V> entry = data != null ? data.get(lookupKey) : shardFor(lookupKey).get(lookupKey);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired()) {
+            if (removeEntry(lookupKey, entry)) {
+                expirations.increment();
+            }
+            return null;
+        }
+        return entry.value;
+    }
+
+    private void store(K key, Entry<V> entry, boolean onlyIfAbsent) {
+        drainCollectedKeys();
+        Object storeKey = weakKeys ? new WeakKey(key, collectedKeys) : key;
+        if (data != null) {
+            if (onlyIfAbsent) {
+                data.compute(storeKey, (k, current) -> current == null || current.isExpired() ? entry : current);
+            } else {
+                data.put(storeKey, entry);
+            }
+        } else {
+            shardFor(storeKey).put(storeKey, entry, onlyIfAbsent);
+        }
+    }
+
+    private boolean removeEntry(Object key, Entry<V> entry) {
+        return data != null ? data.remove(key, entry) : shardFor(key).remove(key, entry);
+    }
+
+    private List<Map.Entry<Object, Entry<V>>> snapshot() {
+        if (data != null) {
+            return new ArrayList<>(data.entrySet());
+        }
+        List<Map.Entry<Object, Entry<V>>> entries = new ArrayList<>();
+        for (Shard<V> shard : shards) {
+            shard.snapshot(entries);
+        }
+        return entries;
+    }
+
+    private void drainCollectedKeys() {
+        if (collectedKeys != null) {
+            Reference<?> ref;
+            while ((ref = collectedKeys.poll()) != null) {
+                if (data != null) {
+                    data.remove(ref);
+                } else {
+                    shardFor(ref).remove(ref);
+                }
+            }
+        }
+    }
+
+    private Entry<V> newEntry(V value, long ttlNanos) {
+        if (value == null) {
+            throw new NullPointerException("Cache values cannot be null");
+        }
+        return new Entry<>(value, ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0);
+    }
+
+    private Object lookupKey(Object key) {
+        if (key == null) {
+            throw new NullPointerException("Cache keys cannot be null");
+        }
+        return weakKeys ? new LookupKey(key) : key;
+    }
+
+    private Object unwrap(Object storedKey) {
+        return storedKey instanceof WeakKey weakKey ? weakKey.get() : storedKey;
+    }
+
+    private Shard<V> shardFor(Object key) {
+        int hash = key.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & (shards.length - 1)];
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            } else if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    @Serial
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        List<Object[]> entries = new ArrayList<>();
+        forEach((key, value) -> entries.add(new Object[]{key, value}));
+        out.writeInt(entries.size());
+        for (Object[] entry : entries) {
+            out.writeObject(entry[0]);
+            out.writeObject(entry[1]);
+        }
+    }
+
+    @Serial
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        init();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            put((K) in.readObject(), (V) in.readObject());
+        }
+    }
+
+    /**
+     * Cached value and its expiration time in nanos, 0 if it never expires
+     */
+    private record Entry<V>(V value, long expiresAt) {
+
+        boolean isExpired() {
+            return expiresAt != 0 && System.nanoTime() - expiresAt >= 0;
+        }
+    }
+
+    /**
+     * Key stored by weak keys caches
+     */
+    private static final class WeakKey extends WeakReference<Object> {
+        private final int hash;
+
+        WeakKey(Object key, ReferenceQueue<Object> queue) {
+            super(key, queue);
+            this.hash = System.identityHashCode(key);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            Object key = get();
+            return key != null && (obj instanceof WeakKey other ? other.get() == key : obj instanceof LookupKey lookup && lookup.key == key);
+        }
+    }
+
+    /**
+     * Strong key used to find weak keys without creating references
+     */
+    private record LookupKey(Object key) {
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(key);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof LookupKey other ? other.key == key : obj instanceof WeakKey weakKey && weakKey.get() == key;
+        }
+    }
+
+    /**
+     * Independently locked part of a size-bounded cache
+     */
+    private static final class Shard<V> {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<Object, Entry<V>> window;
+        private final LinkedHashMap<Object, Entry<V>> main;
+        private final int windowCapacity;
+        private final int mainCapacity;
+        private final FrequencySketch sketch;
+        private final LongAdder evictions;
+
+        Shard(int capacity, Eviction eviction, LongAdder evictions) {
+            this.evictions = evictions;
+            if (eviction == Eviction.TINY_LFU && capacity > 1) {
+                windowCapacity = Math.max(1, capacity / 100);
+                mainCapacity = capacity - windowCapacity;
+                window = new LinkedHashMap<>(16, 0.75f, true);
+                sketch = new FrequencySketch(capacity);
+            } else {
+                windowCapacity = 0;
+                mainCapacity = capacity;
+                window = null;
+                sketch = null;
+            }
+            main = new LinkedHashMap<>(16, 0.75f, true);
+        }
+
+        Entry<V> get(Object key) {
+            lock.lock();
+            try {
+                if (sketch != null) {
+                    sketch.increment(key.hashCode());
+                }
+                Entry<V> entry = main.get(key);
+                if (entry == null && window != null) {
+                    entry = window.get(key);
+                }
+                return entry;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(Object key, Entry<V> entry, boolean onlyIfAbsent) {
+            lock.lock();
+            try {
+                LinkedHashMap<Object, Entry<V>> region = main;
+                Entry<V> current = main.get(key);
+                if (current == null && window != null) {
+                    region = window;
+                    current = window.get(key);
+                }
+
+                if (current != null) {
+                    if (!onlyIfAbsent || current.isExpired()) {
+                        region.put(key, entry);
+                    }
+                    return;
+                }
+
+                if (sketch != null) {
+                    sketch.increment(key.hashCode());
+                    window.put(key, entry);
+                } else {
+                    main.put(key, entry);
+                }
+                evict();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void evict() {
+            if (window == null) {
+                while (main.size() > mainCapacity) {
+                    Iterator<Entry<V>> eldest = main.values().iterator();
+                    eldest.next();
+                    eldest.remove();
+                    evictions.increment();
+                }
+                return;
+            }
+
+            while (window.size() > windowCapacity) {
+                Iterator<Map.Entry<Object, Entry<V>>> windowEldest = window.entrySet().iterator();
+                Map.Entry<Object, Entry<V>> candidate = windowEldest.next();
+                windowEldest.remove();
+                if (main.size() < mainCapacity) {
+                    main.put(candidate.getKey(), candidate.getValue());
+                    continue;
+                }
+
+                Map.Entry<Object, Entry<V>> victim = main.entrySet().iterator().next();
+                if (candidate.getValue().isExpired()) {
+                    // candidate discarded
+                } else if (victim.getValue().isExpired()
+                        || sketch.frequency(candidate.getKey().hashCode()) > sketch.frequency(victim.getKey().hashCode())) {
+                    main.remove(victim.getKey());
+                    main.put(candidate.getKey(), candidate.getValue());
+                }
+                evictions.increment();
+            }
+        }
+
+        Entry<V> remove(Object key) {
+            lock.lock();
+            try {
+                Entry<V> entry = main.remove(key);
+                if (entry == null && window != null) {
+                    entry = window.remove(key);
+                }
+                return entry;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean remove(Object key, Entry<V> entry) {
+            lock.lock();
+            try {
+                return main.remove(key, entry) || (window != null && window.remove(key, entry));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                main.clear();
+                if (window != null) {
+                    window.clear();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return main.size() + (window != null ? window.size() : 0);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void snapshot(List<Map.Entry<Object, Entry<V>>> entries) {
+            lock.lock();
+            try {
+                for (Map.Entry<Object, Entry<V>> entry : main.entrySet()) {
+                    entries.add(new AbstractMap.SimpleImmutableEntry<>(entry));
+                }
+                if (window != null) {
+                    for (Map.Entry<Object, Entry<V>> entry : window.entrySet()) {
+                        entries.add(new AbstractMap.SimpleImmutableEntry<>(entry));
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters estimating how often keys are requested. Counters are halved
+     * periodically so old popularity fades
+     */
+    private static final class FrequencySketch {
+
+        private static final int[] SEEDS = {0x97CB3127, 0xB7E15162, 0x9E3779B9, 0xC13FA9A9};
+        private static final int MAX_COUNT = 15;
+
+        private final byte[] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            int size = Integer.highestOneBit(Math.max(16, capacity * 4 - 1)) << 1;
+            this.table = new byte[size];
+            this.mask = size - 1;
+            this.sampleSize = Math.max(16, capacity * 10);
+        }
+
+        void increment(int hash) {
+            boolean added = false;
+            for (int seed : SEEDS) {
+                int index = index(hash, seed);
+                if (table[index] < MAX_COUNT) {
+                    table[index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] >>= 1;
+                }
+                additions /= 2;
+            }
+        }
+
+        int frequency(int hash) {
+            int frequency = MAX_COUNT;
+            for (int seed : SEEDS) {
+                frequency = Math.min(frequency, table[index(hash, seed)]);
+            }
+            return frequency;
+        }
+
+        private int index(int hash, int seed) {
+            int h = (hash ^ seed) * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+    }
+
+    /**
+     * Builder of {@link SimpleCache}
+     */
+    public static final class Builder<K, V> {
+        private int maximumSize;
+        private long expireAfterWriteNanos;
+        private boolean weakKeys;
+        private Eviction eviction = Eviction.TINY_LFU;
+
+        private Builder() {
+        }
+
+        /**
+         * Max entries, the cache may briefly hold a few more because each shard is bounded separately
+         */
+        public Builder<K, V> maximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public Builder<K, V> eviction(Eviction eviction) {
+            this.eviction = eviction;
+            return this;
+        }
+
+        public Builder<K, V> expireAfterWrite(Duration ttl) {
+            this.expireAfterWriteNanos = ttl.toNanos();
+            return this;
+        }
+
+        /**
+         * Hold keys with weak references and compare them by identity
+         */
+        public Builder<K, V> weakKeys() {
+            this.weakKeys = true;
+            return this;
+        }
+
+        public SimpleCache<K, V> build() {
+            return new SimpleCache<>(maximumSize, expireAfterWriteNanos, weakKeys, eviction);
+        }
     }
 }
@@ -22,6 +22,7 @@ import tools.jackson.core.JacksonException;
 import tools.jackson.core.type.TypeReference;
 import tools.jackson.databind.DeserializationFeature;
 import tools.jackson.databind.JavaType;
+import tools.jackson.databind.ObjectWriter;
 import tools.jackson.databind.SerializationFeature;
 import tools.jackson.databind.json.JsonMapper;
 import tools.jackson.dataformat.xml.XmlMapper;
@@ -36,12 +37,66 @@ import java.util.Map;
  * Provides static methods for serializing objects and maps to JSON, parsing JSON to objects and maps, and creating configured mappers.
  * Supports both JSON and XML formats using Jackson library, and handles Java 8 time types.
  * <p>
- * All methods are stateless and thread-safe.
+ * All methods are stateless and thread-safe. Conversions use shared immutable mappers (see {@link #getJsonMapper()}
+ * and {@link #getXmlMapper()}) so serializers and deserializers are created once and reused across calls. Output
+ * is compact by default, use the {@code pretty} overloads to get indented output.
  *
  * @author Mario A. Serrano Leones
  */
 public class StringPojoParser {
 
+    private static final JsonMapper JSON_MAPPER = JsonMapper.builder()
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .build();
+
+    private static final ObjectWriter JSON_PRETTY_WRITER = JSON_MAPPER.writer().with(SerializationFeature.INDENT_OUTPUT);
+
+    private static final XmlMapper XML_MAPPER = XmlMapper.builder()
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .build();
+
+    private static final ObjectWriter XML_PRETTY_WRITER = XML_MAPPER.writer().with(SerializationFeature.INDENT_OUTPUT);
+
+    /**
+     * Return the shared JSON mapper used by this parser. It is immutable and thread-safe, reuse it instead of
+     * creating new mappers per call. Writes compact output, use {@link #getJsonWriter(boolean)} for pretty output.
+     *
+     * @return the shared JSON mapper
+     */
+    public static JsonMapper getJsonMapper() {
+        return JSON_MAPPER;
+    }
+
+    /**
+     * Return a shared writer of the JSON mapper, with indented output if pretty is true
+     *
+     * @param pretty indent output
+     * @return the shared JSON writer
+     */
+    public static ObjectWriter getJsonWriter(boolean pretty) {
+        return pretty ? JSON_PRETTY_WRITER : JSON_MAPPER.writer();
+    }
+
+    /**
+     * Return the shared XML mapper used by this parser. It is immutable and thread-safe.
+     *
+     * @return the shared XML mapper
+     */
+    public static XmlMapper getXmlMapper() {
+        return XML_MAPPER;
+    }
+
+    /**
+     * Return a shared writer of the XML mapper, with indented output if pretty is true
+     *
+     * @param pretty indent output
+     * @return the shared XML writer
+     */
+    public static ObjectWriter getXmlWriter(boolean pretty) {
+        return pretty ? XML_PRETTY_WRITER : XML_MAPPER.writer();
+    }
+
     /**
      * Converts a {@link Map} to a JSON string using Jackson.
      *
@@ -49,19 +104,30 @@ public class StringPojoParser {
      * @return the JSON string, or an empty string if map is null or empty
      */
     public static String convertMapToJson(Map map) {
+        return convertMapToJson(map, false);
+    }
+
+    /**
+     * Converts a {@link Map} to a JSON string using Jackson.
+     *
+     * @param map    the map to convert
+     * @param pretty indent output
+     * @return the JSON string, or an empty string if map is null or empty
+     */
+    public static String convertMapToJson(Map map, boolean pretty) {
         try {
             if (map == null || map.isEmpty()) {
                 return "";
             }
-            var jsonMapper = createJsonMapper();
-            return jsonMapper.writeValueAsString(map);
+            return getJsonWriter(pretty).writeValueAsString(map);
         } catch (JacksonException e) {
             throw new JsonParsingException(e);
         }
     }
 
     /**
-     * Creates a configured JSON {@link JsonMapper} with indentation, disabled empty beans, and JavaTimeModule support.
+     * Creates a new configured JSON {@link JsonMapper} with indentation, disabled empty beans, and JavaTimeModule support.
+     * Use {@link #getJsonMapper()} unless you need a mapper of your own, building mappers is expensive.
      *
      * @return the configured JSON ObjectMapper
      */
@@ -81,12 +147,22 @@ public class StringPojoParser {
      * @return the JSON string, or an empty string if pojo is null
      */
     public static String convertPojoToJson(Object pojo) {
+        return convertPojoToJson(pojo, false);
+    }
+
+    /**
+     * Converts a POJO to a JSON string using Jackson.
+     *
+     * @param pojo   the object to convert
+     * @param pretty indent output
+     * @return the JSON string, or an empty string if pojo is null
+     */
+    public static String convertPojoToJson(Object pojo, boolean pretty) {
         try {
             if (pojo == null) {
                 return "";
             }
-            var jsonMapper = createJsonMapper();
-            return jsonMapper.writeValueAsString(pojo);
+            return getJsonWriter(pretty).writeValueAsString(pojo);
         } catch (JacksonException e) {
             throw new JsonParsingException(e);
         }
@@ -103,7 +179,7 @@ public class StringPojoParser {
             if (json == null || json.isBlank()) {
                 return Map.of();
             }
-            return createJsonMapper().readValue(json, new TypeReference<>() {
+            return JSON_MAPPER.readValue(json, new TypeReference<>() {
             });
         } catch (Exception e) {
             throw new JsonParsingException(e);
@@ -120,7 +196,7 @@ public class StringPojoParser {
             if (json == null || json.isBlank()) {
                 return Map.of();
             }
-            return createJsonMapper().readValue(json, new TypeReference<>() {
+            return JSON_MAPPER.readValue(json, new TypeReference<>() {
             });
         } catch (Exception e) {
             throw new JsonParsingException(e);
@@ -140,8 +216,7 @@ public class StringPojoParser {
                 return null;
             }
 
-            var jsonMapper = createJsonMapper();
-            return jsonMapper.readerFor(pojoType).readValue(json);
+            return JSON_MAPPER.readerFor(pojoType).readValue(json);
         } catch (JacksonException e) {
             throw new JsonParsingException(e);
         }
@@ -161,8 +236,7 @@ public class StringPojoParser {
                 return null;
             }
 
-            var jsonMapper = createJsonMapper();
-            return jsonMapper.convertValue(map, pojoType);
+            return JSON_MAPPER.convertValue(map, pojoType);
         } catch (IllegalArgumentException e) {
             throw new JsonParsingException(e);
         }
@@ -172,19 +246,26 @@ public class StringPojoParser {
      * Convert any plain old java object to XML
      */
     public static String convertPojoToXml(Object pojo) {
+        return convertPojoToXml(pojo, false);
+    }
+
+    /**
+     * Convert any plain old java object to XML, indented if pretty is true
+     */
+    public static String convertPojoToXml(Object pojo, boolean pretty) {
         try {
             if (pojo == null) {
                 return "";
             }
-            var xmlMapper = createXmlMapper();
-            return xmlMapper.writeValueAsString(pojo);
+            return getXmlWriter(pretty).writeValueAsString(pojo);
         } catch (JacksonException e) {
             throw new XmlParsingException(e);
         }
     }
 
     /**
-     * Create a xml {@link XmlMapper} with enable IDENT_OUTPUT and disabled FAIL_ON_EMPTY_BEANS. Also add support
+     * Create a new xml {@link XmlMapper} with enable IDENT_OUTPUT and disabled FAIL_ON_EMPTY_BEANS. Use
+     * {@link #getXmlMapper()} unless you need a mapper of your own.
      *
      * @return xml mapper
      */
@@ -204,8 +285,7 @@ public class StringPojoParser {
             if (xml == null || xml.isBlank()) {
                 return null;
             }
-            var xmlMap = createXmlMapper();
-            return xmlMap.readerFor(pojoType).readValue(xml);
+            return XML_MAPPER.readerFor(pojoType).readValue(xml);
         } catch (JacksonException e) {
             throw new XmlParsingException(e);
         }
@@ -222,11 +302,10 @@ public class StringPojoParser {
                 return List.of();
             }
 
-            var jsonMapper = createJsonMapper();
-            JavaType type = jsonMapper.getTypeFactory().
+            JavaType type = JSON_MAPPER.getTypeFactory().
                     constructCollectionType(List.class, pojoType);
 
-            return jsonMapper.readerFor(type).readValue(json);
+            return JSON_MAPPER.readerFor(type).readValue(json);
         } catch (JacksonException e) {
             throw new JsonParsingException(e);
         }
@@ -238,12 +317,20 @@ public class StringPojoParser {
      * @return json string or empty string is list is null or empty
      */
     public static <T> String convertListToJson(List<T> list) {
+        return convertListToJson(list, false);
+    }
+
+    /**
+     * Convert list of pojo to JSON string using Jackson, indented if pretty is true
+     *
+     * @return json string or empty string is list is null or empty
+     */
+    public static <T> String convertListToJson(List<T> list, boolean pretty) {
         try {
             if (list == null || list.isEmpty()) {
                 return "";
             }
-            var jsonMapper = createJsonMapper();
-            return jsonMapper.writeValueAsString(list);
+            return getJsonWriter(pretty).writeValueAsString(list);
         } catch (JacksonException e) {
             throw new JsonParsingException(e);
         }
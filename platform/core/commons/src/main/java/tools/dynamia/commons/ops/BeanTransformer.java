@@ -20,6 +20,8 @@ import org.springframework.beans.*;
 import tools.dynamia.commons.ObjectOperations;
 import tools.dynamia.commons.ValueWrapper;
 import tools.dynamia.commons.logger.LoggingService;
+import tools.dynamia.commons.reflect.ClassReflectionInfo;
+import tools.dynamia.commons.reflect.PropertyHandle;
 
 import java.util.*;
 import java.util.function.Consumer;
@@ -260,9 +262,15 @@ public final class BeanTransformer {
 
         values.forEach((key, value) -> {
             Object actualValue = value instanceof ValueWrapper wrapper ? wrapper.getValue() : value;
-            propertyValues.addPropertyValue(new PropertyValue(key, actualValue));
+            if (!trySetCompiled(bean, key, actualValue)) {
+                propertyValues.addPropertyValue(new PropertyValue(key, actualValue));
+            }
         });
 
+        if (propertyValues.isEmpty()) {
+            return;
+        }
+
         try {
             BeanWrapperImpl beanWrapper = new BeanWrapperImpl(bean);
             beanWrapper.setPropertyValues(propertyValues, true, true);
@@ -273,6 +281,22 @@ public final class BeanTransformer {
         }
     }
 
+    /**
+     * Writes a value using the compiled setter when no type conversion is needed.
+     *
+     * @return false if the value should be set using BeanWrapper
+     */
+    private static boolean trySetCompiled(Object bean, String property, Object value) {
+        if (property.indexOf('[') >= 0) {
+            return false;
+        }
+        try {
+            return ClassReflectionInfo.getAccessor(bean.getClass(), property).trySet(bean, value);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
     /**
      * Sets bean properties using another bean's properties.
      * <p>
@@ -534,7 +558,8 @@ public final class BeanTransformer {
 
         for (tools.dynamia.commons.reflect.PropertyInfo property : properties) {
             try {
-                Object value = property.getValue(bean);
+                PropertyHandle accessor = ClassReflectionInfo.getAccessor(bean.getClass(), property.getName());
+                Object value = accessor.isReadable() ? accessor.get(bean) : property.getValue(bean);
                 result.put(property.getName(), value);
             } catch (Exception e) {
                 // Skip properties that cannot be read
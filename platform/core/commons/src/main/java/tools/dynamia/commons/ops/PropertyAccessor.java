@@ -23,6 +23,8 @@ import tools.dynamia.commons.BeanMap;
 import tools.dynamia.commons.ValueWrapper;
 import tools.dynamia.commons.logger.LoggingService;
 import tools.dynamia.commons.logger.SLF4JLoggingService;
+import tools.dynamia.commons.reflect.ClassReflectionInfo;
+import tools.dynamia.commons.reflect.PropertyHandle;
 import tools.dynamia.commons.reflect.PropertyInfo;
 import tools.dynamia.commons.reflect.ReflectionException;
 
@@ -34,8 +36,9 @@ import java.util.Optional;
  * Specialized class for property access and manipulation operations.
  * <p>
  * This class provides efficient methods for getting and setting property values on Java beans
- * using both direct field access and JavaBeans getter/setter conventions. It leverages Spring's
- * BeanWrapper for enhanced performance and type conversion support.
+ * using both direct field access and JavaBeans getter/setter conventions. Accessors are compiled once
+ * per class and property path into {@link PropertyHandle}s (see {@link ClassReflectionInfo#getAccessor(Class, String)}),
+ * Spring's BeanWrapper is only used as fallback for indexed paths and values that need type conversion.
  * </p>
  *
  * <h2>Core Features</h2>
@@ -105,6 +108,13 @@ public final class PropertyAccessor {
     public static Object getFieldValue(final String fieldName, final Object object) {
         Object value = null;
         try {
+            if (fieldName.indexOf('.') < 0) {
+                PropertyHandle handle = ClassReflectionInfo.getFieldAccessor(object.getClass(), fieldName);
+                if (handle.isReadable()) {
+                    value = handle.get(object);
+                    return value instanceof ValueWrapper valueWrapper ? valueWrapper.getValue() : value;
+                }
+            }
             final Field field = tools.dynamia.commons.ObjectOperations.getField(object.getClass(), fieldName);
             field.setAccessible(true);
             value = field.get(object);
@@ -161,6 +171,9 @@ public final class PropertyAccessor {
     public static void setFieldValue(String fieldName, Object object, Object value) {
         try {
             Object actualValue = value instanceof ValueWrapper valueWrapper ? valueWrapper.value() : value;
+            if (fieldName.indexOf('.') < 0 && ClassReflectionInfo.getFieldAccessor(object.getClass(), fieldName).trySet(object, actualValue)) {
+                return;
+            }
             final Field field = tools.dynamia.commons.ObjectOperations.getField(object.getClass(), fieldName);
             field.setAccessible(true);
             field.set(object, actualValue);
@@ -221,7 +234,7 @@ public final class PropertyAccessor {
     }
 
     /**
-     * Invokes the getter method for a property using Spring's BeanWrapper.
+     * Invokes the getter method for a property using a compiled {@link PropertyHandle}.
      * <p>
      * This method provides high-performance property access with support for:
      * <ul>
@@ -251,6 +264,12 @@ public final class PropertyAccessor {
      */
     public static Object invokeGetMethod(final Object bean, final String propertyName) {
         try {
+            if (isSimplePath(propertyName)) {
+                PropertyHandle handle = ClassReflectionInfo.getAccessor(bean.getClass(), propertyName);
+                if (handle.isReadable()) {
+                    return handle.get(bean);
+                }
+            }
             BeanWrapper wrapper = new BeanWrapperImpl(bean);
             return wrapper.getPropertyValue(propertyName);
         } catch (Exception e) {
@@ -313,7 +332,7 @@ public final class PropertyAccessor {
     }
 
     /**
-     * Invokes the setter method for a property using Spring's BeanWrapper.
+     * Invokes the setter method for a property using a compiled {@link PropertyHandle}.
      * <p>
      * This method provides high-performance property setting with support for:
      * <ul>
@@ -328,7 +347,8 @@ public final class PropertyAccessor {
      * When a bean has overloaded setter methods (e.g., {@code setAddress(String)} and {@code setAddress(Address)}),
      * this method attempts multiple strategies to find the correct setter:
      * <ol>
-     *   <li>Try using Spring's BeanWrapper (fastest, handles most cases)</li>
+     *   <li>Try the compiled setter when the value is assignable to the property type (fastest)</li>
+     *   <li>Try using Spring's BeanWrapper (handles type conversion and null nested paths)</li>
      *   <li>If BeanWrapper fails, find the setter method matching the declared property type</li>
      *   <li>As a last resort, set the field value directly using reflection</li>
      * </ol>
@@ -360,7 +380,20 @@ public final class PropertyAccessor {
             return;
         }
 
-        // Strategy 1: Try BeanWrapper first (fastest, handles most cases including nested properties)
+        // Strategy 0: compiled setter, no type conversion needed
+        if (isSimplePath(name)) {
+            try {
+                if (ClassReflectionInfo.getAccessor(bean.getClass(), name).trySet(bean, actualValue)) {
+                    return;
+                }
+            } catch (Exception e) {
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Compiled setter failed for property " + name + " on " + bean.getClass() + ": " + e.getMessage());
+                }
+            }
+        }
+
+        // Strategy 1: Try BeanWrapper (handles type conversion and nested properties)
         try {
             BeanWrapper wrapper = new BeanWrapperImpl(bean);
             wrapper.setAutoGrowNestedPaths(true); // auto-create null intermediate objects (e.g. product.category.name)
@@ -458,6 +491,9 @@ public final class PropertyAccessor {
      */
     public static Optional<Class<?>> getPropertyType(Class<?> clazz, String propertyName) {
         try {
+            if (isSimplePath(propertyName)) {
+                return Optional.ofNullable(ClassReflectionInfo.getAccessor(clazz, propertyName).getType());
+            }
             BeanWrapper wrapper = new BeanWrapperImpl(clazz);
             Class<?> type = wrapper.getPropertyType(propertyName);
             return Optional.ofNullable(type);
@@ -485,6 +521,9 @@ public final class PropertyAccessor {
      */
     public static boolean hasProperty(Object bean, String propertyName) {
         try {
+            if (isSimplePath(propertyName)) {
+                return ClassReflectionInfo.getAccessor(bean.getClass(), propertyName).isReadable();
+            }
             BeanWrapper wrapper = new BeanWrapperImpl(bean);
             return wrapper.isReadableProperty(propertyName);
         } catch (Exception e) {
@@ -506,6 +545,9 @@ public final class PropertyAccessor {
      */
     public static boolean isReadableProperty(Object bean, String propertyName) {
         try {
+            if (isSimplePath(propertyName)) {
+                return ClassReflectionInfo.getAccessor(bean.getClass(), propertyName).isReadable();
+            }
             BeanWrapper wrapper = new BeanWrapperImpl(bean);
             return wrapper.isReadableProperty(propertyName);
         } catch (Exception e) {
@@ -527,6 +569,9 @@ public final class PropertyAccessor {
      */
     public static boolean isWritableProperty(Object bean, String propertyName) {
         try {
+            if (isSimplePath(propertyName)) {
+                return ClassReflectionInfo.getAccessor(bean.getClass(), propertyName).isWritable();
+            }
             BeanWrapper wrapper = new BeanWrapperImpl(bean);
             return wrapper.isWritableProperty(propertyName);
         } catch (Exception e) {
@@ -534,6 +579,17 @@ public final class PropertyAccessor {
         }
     }
 
+    /**
+     * Checks if a property path can be handled by compiled accessors. Indexed or mapped paths
+     * (e.g. "items[0].name" or "attributes[key]") are left to Spring's BeanWrapper.
+     *
+     * @param propertyName the property path
+     * @return true if the path only uses plain and dot notation
+     */
+    private static boolean isSimplePath(String propertyName) {
+        return propertyName.indexOf('[') < 0;
+    }
+
     /**
      * Finds a setter method that matches the given property name and value type.
      * <p>
@@ -4,6 +4,8 @@ import tools.dynamia.commons.SimpleCache;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>
@@ -30,6 +32,16 @@ public record ClassReflectionInfo(Class<?> targetClass, List<PropertyInfo> prope
      */
     private static final SimpleCache<Class<?>, ClassReflectionInfo> CACHE = new SimpleCache<>();
 
+    /**
+     * Compiled property accessors (getter/setter) by target class and property path.
+     */
+    private static final SimpleCache<Class<?>, Map<String, PropertyHandle>> ACCESSORS = new SimpleCache<>();
+
+    /**
+     * Compiled field accessors by target class and field name.
+     */
+    private static final SimpleCache<Class<?>, Map<String, PropertyHandle>> FIELD_ACCESSORS = new SimpleCache<>();
+
     /**
      * Retrieves the ClassReflectionInfo for the specified class from the cache.
      *
@@ -56,6 +68,51 @@ public record ClassReflectionInfo(Class<?> targetClass, List<PropertyInfo> prope
      */
     public static void clearCache(Class<?> targetClass) {
         CACHE.remove(targetClass);
+        ACCESSORS.remove(targetClass);
+        FIELD_ACCESSORS.remove(targetClass);
+    }
+
+    /**
+     * Returns the compiled {@link PropertyHandle} for the JavaBean property path of the specified class. Handles are
+     * built once per class and path (including nested dot-paths like {@code customer.address.city}) and reused.
+     *
+     * @param targetClass the bean class
+     * @param path        the property path
+     * @return the cached property handle, never null
+     */
+    public static PropertyHandle getAccessor(Class<?> targetClass, String path) {
+        return lookupHandle(ACCESSORS, targetClass, path, false);
+    }
+
+    /**
+     * Returns the compiled {@link PropertyHandle} that accesses the field with the given name directly.
+     *
+     * @param targetClass the bean class
+     * @param fieldName   the field name
+     * @return the cached field handle, never null
+     */
+    public static PropertyHandle getFieldAccessor(Class<?> targetClass, String fieldName) {
+        return lookupHandle(FIELD_ACCESSORS, targetClass, fieldName, true);
+    }
+
+    private static PropertyHandle lookupHandle(SimpleCache<Class<?>, Map<String, PropertyHandle>> cache,
+                                               Class<?> targetClass, String name, boolean field) {
+        Map<String, PropertyHandle> handles = cache.get(targetClass);
+        if (handles == null) {
+            cache.putIfAbsent(targetClass, new ConcurrentHashMap<>());
+            handles = cache.get(targetClass);
+        }
+
+        PropertyHandle handle = handles.get(name);
+        if (handle == null) {
+            // compile outside the map, nested paths look up their parent handles recursively
+            handle = field ? PropertyHandle.compileField(targetClass, name) : PropertyHandle.compile(targetClass, name);
+            PropertyHandle existing = handles.putIfAbsent(name, handle);
+            if (existing != null) {
+                handle = existing;
+            }
+        }
+        return handle;
     }
 
     /**
@@ -87,4 +144,15 @@ public record ClassReflectionInfo(Class<?> targetClass, List<PropertyInfo> prope
     public String getSimpleName() {
         return targetClass().getSimpleName();
     }
+
+    /**
+     * Returns the compiled accessor for the given property path of the target class.
+     *
+     * @param path the property path, supports dot notation
+     * @return the property handle
+     * @see #getAccessor(Class, String)
+     */
+    public PropertyHandle getAccessor(String path) {
+        return getAccessor(targetClass, path);
+    }
 }
@@ -0,0 +1,380 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.commons.reflect;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import tools.dynamia.commons.logger.LoggingService;
+import tools.dynamia.commons.logger.SLF4JLoggingService;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * PropertyHandle is a compiled accessor for a single property path of a class. Getters and setters are resolved
+ * once and turned into generated functions (using {@link LambdaMetafactory}) so reading or writing a property costs
+ * about the same as a direct method call. When a lambda cannot be generated (module restrictions, hidden classes)
+ * the handle falls back to a {@link MethodHandle} and finally to plain reflection.
+ * </p>
+ *
+ * <p>
+ * Nested paths like {@code customer.address.city} are supported. Each intermediate value is resolved against its
+ * runtime class, so polymorphic properties work the same way they do with Spring's BeanWrapper. Handles are
+ * immutable and thread-safe; get them from {@link ClassReflectionInfo#getAccessor(Class, String)} or
+ * {@link ClassReflectionInfo#getFieldAccessor(Class, String)} so they are built only once.
+ * </p>
+ *
+ * <pre>{@code
+ * PropertyHandle city = ClassReflectionInfo.getAccessor(Customer.class, "address.city");
+ * String value = (String) city.get(customer);
+ * city.trySet(customer, "Bogota");
+ * }</pre>
+ *
+ * @author Mario A. Serrano Leones
+ * @since 26.7
+ */
+public final class PropertyHandle {
+
+    private static final LoggingService LOGGER = new SLF4JLoggingService(PropertyHandle.class);
+
+    private final Class<?> beanClass;
+    private final String path;
+    private final Class<?> type;
+    private final Class<?> writeType;
+    private final Function<Object, Object> getter;
+    private final BiConsumer<Object, Object> setter;
+
+    // nested path support
+    private final PropertyHandle head;
+    private final String tailPath;
+    private volatile PropertyHandle tail;
+
+    private PropertyHandle(Class<?> beanClass, String path, Class<?> type, Function<Object, Object> getter,
+                           BiConsumer<Object, Object> setter) {
+        this.beanClass = beanClass;
+        this.path = path;
+        this.type = type;
+        this.writeType = type != null ? ClassUtils.resolvePrimitiveIfNecessary(type) : null;
+        this.getter = getter;
+        this.setter = setter;
+        this.head = null;
+        this.tailPath = null;
+    }
+
+    private PropertyHandle(Class<?> beanClass, String path, PropertyHandle head, String tailPath) {
+        this.beanClass = beanClass;
+        this.path = path;
+        this.head = head;
+        this.tailPath = tailPath;
+        this.getter = null;
+        this.setter = null;
+
+        PropertyHandle declaredTail = head.type != null ? ClassReflectionInfo.getAccessor(head.type, tailPath) : null;
+        this.type = declaredTail != null ? declaredTail.type : null;
+        this.writeType = declaredTail != null ? declaredTail.writeType : null;
+        this.tail = declaredTail;
+    }
+
+    /**
+     * Compiles a handle for the JavaBean property (getter/setter) with the given path. Paths may use dot notation.
+     * Prefer {@link ClassReflectionInfo#getAccessor(Class, String)} which caches the result.
+     *
+     * @param beanClass the bean class
+     * @param path      the property path
+     * @return a new handle, never null. Check {@link #isReadable()} and {@link #isWritable()}
+     */
+    public static PropertyHandle compile(Class<?> beanClass, String path) {
+        int dot = path.indexOf('.');
+        if (dot > 0) {
+            PropertyHandle head = ClassReflectionInfo.getAccessor(beanClass, path.substring(0, dot));
+            return new PropertyHandle(beanClass, path, head, path.substring(dot + 1));
+        }
+
+        PropertyDescriptor descriptor = null;
+        try {
+            descriptor = BeanUtils.getPropertyDescriptor(beanClass, path);
+        } catch (Exception e) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Cannot introspect property " + path + " in " + beanClass + ": " + e.getMessage());
+            }
+        }
+
+        if (descriptor == null || descriptor.getPropertyType() == null) {
+            return new PropertyHandle(beanClass, path, null, null, null);
+        }
+
+        Method readMethod = descriptor.getReadMethod();
+        Method writeMethod = descriptor.getWriteMethod();
+        return new PropertyHandle(beanClass, path, descriptor.getPropertyType(),
+                readMethod != null ? createGetter(readMethod) : null,
+                writeMethod != null ? createSetter(writeMethod) : null);
+    }
+
+    /**
+     * Compiles a handle that reads and writes the field with the given name directly, bypassing getters and setters.
+     * Prefer {@link ClassReflectionInfo#getFieldAccessor(Class, String)} which caches the result.
+     *
+     * @param beanClass the bean class
+     * @param fieldName the field name, nested paths are not supported
+     * @return a new handle, never null
+     */
+    public static PropertyHandle compileField(Class<?> beanClass, String fieldName) {
+        Field field = ReflectionUtils.findField(beanClass, fieldName);
+        if (field == null || Modifier.isStatic(field.getModifiers())) {
+            return new PropertyHandle(beanClass, fieldName, null, null, null);
+        }
+
+        Function<Object, Object> getter;
+        BiConsumer<Object, Object> setter;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+            MethodHandle getterHandle = lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+            getter = bean -> invokeGetter(getterHandle, bean);
+            if (Modifier.isFinal(field.getModifiers())) {
+                setter = reflectiveFieldSetter(field);
+            } else {
+                MethodHandle setterHandle = lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+                setter = (bean, value) -> invokeSetter(setterHandle, bean, value);
+            }
+        } catch (Exception | LinkageError e) {
+            field.trySetAccessible();
+            getter = bean -> {
+                try {
+                    return field.get(bean);
+                } catch (IllegalAccessException ex) {
+                    throw new ReflectionException(ex);
+                }
+            };
+            setter = reflectiveFieldSetter(field);
+        }
+        return new PropertyHandle(beanClass, fieldName, field.getType(), getter, setter);
+    }
+
+    /**
+     * Returns the class this handle was compiled for
+     *
+     * @return the bean class
+     */
+    public Class<?> getBeanClass() {
+        return beanClass;
+    }
+
+    /**
+     * Returns the property path
+     *
+     * @return the path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the declared type of the property, or null if the property doesn't exist
+     *
+     * @return the property type
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Returns true if this property path exists and can be read
+     *
+     * @return true if readable
+     */
+    public boolean isReadable() {
+        if (head != null) {
+            PropertyHandle declaredTail = tail;
+            return head.isReadable() && declaredTail != null && declaredTail.isReadable();
+        }
+        return getter != null;
+    }
+
+    /**
+     * Returns true if this property path exists and can be written
+     *
+     * @return true if writable
+     */
+    public boolean isWritable() {
+        if (head != null) {
+            PropertyHandle declaredTail = tail;
+            return head.isReadable() && declaredTail != null && declaredTail.isWritable();
+        }
+        return setter != null;
+    }
+
+    /**
+     * Reads the property value from the given bean. Nested paths return null when any intermediate value is null.
+     *
+     * @param bean the bean
+     * @return the property value
+     * @throws ReflectionException if the property is not readable
+     */
+    public Object get(Object bean) {
+        if (bean == null) {
+            return null;
+        }
+
+        if (head != null) {
+            Object value = head.get(bean);
+            return value != null ? resolveTail(value).get(value) : null;
+        }
+
+        if (getter == null) {
+            throw new ReflectionException("Property " + path + " is not readable in " + beanClass);
+        }
+        return getter.apply(bean);
+    }
+
+    /**
+     * Writes the property value if it can be done without type conversion. Returns false when the property is not
+     * writable, the value type is not compatible with the setter, a primitive setter receives null, or an intermediate
+     * value of a nested path is null. Callers should use a slower strategy (like Spring's BeanWrapper) in those cases.
+     *
+     * @param bean  the bean
+     * @param value the value
+     * @return true if the value was written
+     */
+    public boolean trySet(Object bean, Object value) {
+        if (bean == null) {
+            return false;
+        }
+
+        if (head != null) {
+            Object target = head.isReadable() ? head.get(bean) : null;
+            return target != null && resolveTail(target).trySet(target, value);
+        }
+
+        if (setter == null || (value == null ? type.isPrimitive() : !writeType.isInstance(value))) {
+            return false;
+        }
+        setter.accept(bean, value);
+        return true;
+    }
+
+    private PropertyHandle resolveTail(Object value) {
+        PropertyHandle current = tail;
+        if (current == null || current.beanClass != value.getClass()) {
+            current = ClassReflectionInfo.getAccessor(value.getClass(), tailPath);
+            tail = current;
+        }
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return beanClass.getName() + "." + path;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> createGetter(Method method) {
+        Class<?> owner = method.getDeclaringClass();
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflect(method);
+            if (lookup.hasFullPrivilegeAccess()) {
+                try {
+                    CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                            MethodType.methodType(Function.class),
+                            MethodType.methodType(Object.class, Object.class),
+                            handle,
+                            MethodType.methodType(ClassUtils.resolvePrimitiveIfNecessary(method.getReturnType()), owner));
+                    return (Function<Object, Object>) site.getTarget().invokeExact();
+                } catch (Throwable e) {
+                    if (LOGGER.isDebugEnabled()) {
+                        LOGGER.debug("Cannot generate getter for " + method + ", using method handle. " + e.getMessage());
+                    }
+                }
+            }
+            MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+            return bean -> invokeGetter(generic, bean);
+        } catch (Exception | LinkageError e) {
+            method.trySetAccessible();
+            return bean -> ReflectionUtils.invokeMethod(method, bean);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> createSetter(Method method) {
+        Class<?> owner = method.getDeclaringClass();
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflect(method);
+            if (lookup.hasFullPrivilegeAccess()) {
+                try {
+                    CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                            MethodType.methodType(BiConsumer.class),
+                            MethodType.methodType(void.class, Object.class, Object.class),
+                            handle,
+                            MethodType.methodType(void.class, owner, ClassUtils.resolvePrimitiveIfNecessary(method.getParameterTypes()[0])));
+                    return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+                } catch (Throwable e) {
+                    if (LOGGER.isDebugEnabled()) {
+                        LOGGER.debug("Cannot generate setter for " + method + ", using method handle. " + e.getMessage());
+                    }
+                }
+            }
+            MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (bean, value) -> invokeSetter(generic, bean, value);
+        } catch (Exception | LinkageError e) {
+            method.trySetAccessible();
+            return (bean, value) -> ReflectionUtils.invokeMethod(method, bean, value);
+        }
+    }
+
+    private static BiConsumer<Object, Object> reflectiveFieldSetter(Field field) {
+        field.trySetAccessible();
+        return (bean, value) -> {
+            try {
+                field.set(bean, value);
+            } catch (IllegalAccessException ex) {
+                throw new ReflectionException(ex);
+            }
+        };
+    }
+
+    private static Object invokeGetter(MethodHandle handle, Object bean) {
+        try {
+            return (Object) handle.invokeExact(bean);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ReflectionException(e);
+        }
+    }
+
+    private static void invokeSetter(MethodHandle handle, Object bean, Object value) {
+        try {
+            handle.invokeExact(bean, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ReflectionException(e);
+        }
+    }
+}
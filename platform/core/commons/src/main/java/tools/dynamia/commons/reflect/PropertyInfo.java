@@ -20,6 +20,7 @@ import tools.dynamia.commons.Alias;
 import tools.dynamia.commons.AliasResolver;
 import tools.dynamia.commons.ObjectOperations;
 import tools.dynamia.commons.StringUtils;
+import tools.dynamia.commons.ValueWrapper;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -97,6 +98,11 @@ public class PropertyInfo implements Serializable {
 
     private List<Alias> aliases;
 
+    /**
+     * Compiled field accessor for the last runtime class seen by {@link #getValue(Object)} or {@link #setValue(Object, Object)}.
+     */
+    private transient volatile PropertyHandle fieldHandle;
+
     /**
      * Constructs a new PropertyInfo instance with the specified metadata.
      *
@@ -368,6 +374,11 @@ public class PropertyInfo implements Serializable {
      * @return the value of the property
      */
     public Object getValue(Object source) {
+        PropertyHandle handle = getFieldHandle(source);
+        if (handle.isReadable()) {
+            Object value = handle.get(source);
+            return value instanceof ValueWrapper valueWrapper ? valueWrapper.getValue() : value;
+        }
         return ObjectOperations.getFieldValue(name, source);
     }
 
@@ -378,7 +389,19 @@ public class PropertyInfo implements Serializable {
      * @param value  the value to set
      */
     public void setValue(Object target, Object value) {
-        ObjectOperations.setFieldValue(name, target, value);
+        Object actualValue = value instanceof ValueWrapper valueWrapper ? valueWrapper.value() : value;
+        if (!getFieldHandle(target).trySet(target, actualValue)) {
+            ObjectOperations.setFieldValue(name, target, value);
+        }
+    }
+
+    private PropertyHandle getFieldHandle(Object bean) {
+        PropertyHandle handle = fieldHandle;
+        if (handle == null || handle.getBeanClass() != bean.getClass()) {
+            handle = ClassReflectionInfo.getFieldAccessor(bean.getClass(), name);
+            fieldHandle = handle;
+        }
+        return handle;
     }
 
     /**
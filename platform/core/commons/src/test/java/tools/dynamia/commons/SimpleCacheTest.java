@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.commons;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SimpleCacheTest {
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed() {
+        SimpleCache<Integer, String> cache = SimpleCache.<Integer, String>builder()
+                .maximumSize(3)
+                .eviction(SimpleCache.Eviction.LRU)
+                .build();
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.put(3, "three");
+        cache.get(1);
+        cache.put(4, "four");
+
+        assertEquals("one", cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getStats().evictions());
+    }
+
+    @Test
+    public void shouldKeepFrequentEntriesWithTinyLfu() {
+        SimpleCache<Integer, Integer> cache = new SimpleCache<>(100);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i);
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                cache.get(i);
+            }
+        }
+        // one-hit scan of new keys
+        for (int i = 1000; i < 2000; i++) {
+            cache.put(i, i);
+        }
+
+        int kept = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.get(i) != null) {
+                kept++;
+            }
+        }
+        assertTrue("Hot entries kept: " + kept, kept >= 45);
+        assertTrue(cache.size() <= 100);
+    }
+
+    @Test
+    public void shouldExpireEntries() throws InterruptedException {
+        SimpleCache<String, String> cache = SimpleCache.<String, String>builder()
+                .expireAfterWrite(Duration.ofMillis(20))
+                .build();
+        cache.put("a", "A");
+        cache.put("b", "B", Duration.ofHours(1));
+
+        Thread.sleep(40);
+
+        assertNull(cache.get("a"));
+        assertEquals("B", cache.get("b"));
+        assertEquals(1, cache.getStats().expirations());
+    }
+
+    @Test
+    public void shouldLoadOnceForConcurrentMisses() throws InterruptedException {
+        SimpleCache<String, String> cache = new SimpleCache<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                cache.getOrLoad("key", k -> {
+                    loads.incrementAndGet();
+                    sleep();
+                    return "value";
+                });
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().loads());
+    }
+
+    @Test
+    public void shouldUseWeakKeysByIdentity() {
+        SimpleCache<Class<?>, String> cache = SimpleCache.<Class<?>, String>builder().weakKeys().build();
+        cache.put(String.class, "string");
+        cache.putIfAbsent(String.class, "other");
+
+        assertEquals("string", cache.get(String.class));
+        assertTrue(cache.keySet().contains(String.class));
+        assertEquals("string", cache.remove(String.class));
+        assertTrue(cache.isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldSerializeEntries() throws Exception {
+        SimpleCache<String, String> cache = new SimpleCache<>(10);
+        cache.put("a", "A");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(cache);
+        }
+        SimpleCache<String, String> copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (SimpleCache<String, String>) in.readObject();
+        }
+
+        assertEquals("A", copy.get("a"));
+        assertEquals(10, copy.getMaximumSize());
+        assertFalse(copy.isEmpty());
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
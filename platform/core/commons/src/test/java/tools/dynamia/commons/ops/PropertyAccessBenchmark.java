@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.commons.ops;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.BeanWrapperImpl;
+import tools.dynamia.commons.ObjectOperations;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing compiled property accessors against the previous reflective path
+ * (a new BeanWrapperImpl per call and Field.setAccessible per call).
+ * <p>
+ * Run with: <code>mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=tools.dynamia.commons.ops.PropertyAccessBenchmark</code>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyAccessBenchmark {
+
+    public static class Address {
+        private String city;
+
+        public String getCity() {
+            return city;
+        }
+
+        public void setCity(String city) {
+            this.city = city;
+        }
+    }
+
+    public static class Customer {
+        private String name;
+        private int age;
+        private Address address;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public Address getAddress() {
+            return address;
+        }
+
+        public void setAddress(Address address) {
+            this.address = address;
+        }
+    }
+
+    private Customer customer;
+
+    @Setup
+    public void setup() {
+        customer = new Customer();
+        customer.setName("John");
+        customer.setAge(30);
+        customer.setAddress(new Address());
+        customer.getAddress().setCity("Bogota");
+    }
+
+    @Benchmark
+    public Object reflectiveGet() {
+        return new BeanWrapperImpl(customer).getPropertyValue("name");
+    }
+
+    @Benchmark
+    public Object compiledGet() {
+        return PropertyAccessor.invokeGetMethod(customer, "name");
+    }
+
+    @Benchmark
+    public Object reflectiveNestedGet() {
+        return new BeanWrapperImpl(customer).getPropertyValue("address.city");
+    }
+
+    @Benchmark
+    public Object compiledNestedGet() {
+        return PropertyAccessor.invokeGetMethod(customer, "address.city");
+    }
+
+    @Benchmark
+    public Object reflectiveSet() {
+        BeanWrapperImpl wrapper = new BeanWrapperImpl(customer);
+        wrapper.setAutoGrowNestedPaths(true);
+        wrapper.setPropertyValue("age", 31);
+        return customer;
+    }
+
+    @Benchmark
+    public Object compiledSet() {
+        PropertyAccessor.invokeSetMethod(customer, "age", 31);
+        return customer;
+    }
+
+    @Benchmark
+    public Object reflectiveFieldGet() throws Exception {
+        Field field = ObjectOperations.getField(customer.getClass(), "name");
+        field.setAccessible(true);
+        return field.get(customer);
+    }
+
+    @Benchmark
+    public Object compiledFieldGet() {
+        return PropertyAccessor.getFieldValue("name", customer);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PropertyAccessBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -17,6 +17,8 @@
 package tools.dynamia.commons.ops;
 
 import org.junit.Test;
+import tools.dynamia.commons.reflect.ClassReflectionInfo;
+import tools.dynamia.commons.reflect.PropertyHandle;
 
 import static org.junit.Assert.*;
 
@@ -252,6 +254,60 @@ public class PropertyAccessorTest {
 
         assertEquals("Field Value", result);
     }
+
+    static class Customer {
+        private PersonWithAddressOverloaded contact;
+
+        public PersonWithAddressOverloaded getContact() {
+            return contact;
+        }
+
+        public void setContact(PersonWithAddressOverloaded contact) {
+            this.contact = contact;
+        }
+    }
+
+    @Test
+    public void testCompiledAccessorIsCached() {
+        PropertyHandle first = ClassReflectionInfo.getAccessor(Customer.class, "contact.address.city");
+        PropertyHandle second = ClassReflectionInfo.getAccessor(Customer.class, "contact.address.city");
+
+        assertSame(first, second);
+        assertTrue(first.isReadable());
+        assertEquals(String.class, first.getType());
+    }
+
+    @Test
+    public void testInvokeGetMethodWithNestedPath() {
+        Customer customer = new Customer();
+        assertNull(PropertyAccessor.invokeGetMethod(customer, "contact.address.city"));
+
+        customer.setContact(new PersonWithAddressOverloaded());
+        customer.getContact().setAddress(new Address("Main St", "New York"));
+
+        assertEquals("New York", PropertyAccessor.invokeGetMethod(customer, "contact.address.city"));
+    }
+
+    @Test
+    public void testInvokeSetMethodWithNestedPath() {
+        Customer customer = new Customer();
+        customer.setContact(new PersonWithAddressOverloaded());
+
+        PropertyAccessor.invokeSetMethod(customer, "contact.name", "Jane");
+
+        assertEquals("Jane", customer.getContact().getName());
+    }
+
+    @Test
+    public void testCompiledSetterRejectsIncompatibleValues() {
+        TestBeanWithOverloadedSetters bean = new TestBeanWithOverloadedSetters();
+        PropertyHandle age = ClassReflectionInfo.getAccessor(TestBeanWithOverloadedSetters.class, "age");
+
+        assertFalse(age.trySet(bean, null));
+        assertFalse(age.trySet(bean, "30"));
+        assertTrue(age.trySet(bean, 30));
+        assertEquals(30, bean.getAge());
+    }
 }
 
 
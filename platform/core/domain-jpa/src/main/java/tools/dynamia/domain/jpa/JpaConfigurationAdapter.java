@@ -213,7 +213,8 @@ public class JpaConfigurationAdapter {
 
     /**
      * Create an HibernateJpaVendorAdapter and preconfigure with
-     * MySQL5InnoDBDialect GenerateDDL and ShowSQL, override for custom
+     * MySQL5InnoDBDialect GenerateDDL, ShowSQL and ordered inserts and updates (so
+     * JDBC batches group statements of the same entity), override for custom
      * JpaVendorAdapter
      *
      * @return JpaVendorAdapter
@@ -225,6 +226,8 @@ public class JpaConfigurationAdapter {
         va.setShowSql(true);
         va.setDatabasePlatform(jpaDialect());
         va.getJpaPropertyMap().put("hibernate.hbm2ddl.auto", "update");
+        va.getJpaPropertyMap().put("hibernate.order_inserts", "true");
+        va.getJpaPropertyMap().put("hibernate.order_updates", "true");
         configureJpaVendorAdapter(va);
         return va;
     }
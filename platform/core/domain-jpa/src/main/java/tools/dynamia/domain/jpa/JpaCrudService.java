@@ -21,9 +21,14 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
 import jakarta.persistence.Tuple;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionImplementor;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionCallbackWithoutResult;
 import org.springframework.transaction.support.TransactionTemplate;
@@ -37,20 +42,30 @@ import tools.dynamia.domain.AbstractEntity;
 import tools.dynamia.domain.OrderBy;
 import tools.dynamia.domain.jdbc.QueryInterruptedException;
 import tools.dynamia.domain.query.*;
+import tools.dynamia.domain.services.TextIndexService;
 import tools.dynamia.domain.services.ValidatorService;
 import tools.dynamia.domain.services.impl.AbstractCrudService;
 import tools.dynamia.domain.util.CrudServiceListener;
 import tools.dynamia.domain.util.QueryBuilder;
+import tools.dynamia.domain.util.ReadRouting;
 import tools.dynamia.integration.Containers;
+import tools.dynamia.integration.ProgressMonitor;
 import tools.dynamia.integration.sterotypes.Service;
 import tools.dynamia.io.converters.Converters;
 
 import java.io.Serializable;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static tools.dynamia.domain.jpa.JpaUtils.wrap;
 import static tools.dynamia.domain.query.QueryConditions.eq;
@@ -69,6 +84,8 @@ public class JpaCrudService extends AbstractCrudService {
 
     public static final String HINT_FETCH_GRAPH = "jakarta.persistence.fetchgraph";
     public static final String HINT_LOAD_GRAPH = "jakarta.persistence.loadgraph";
+    public static final String HINT_FETCH_SIZE = "org.hibernate.fetchSize";
+    public static final String HINT_READ_ONLY = "org.hibernate.readOnly";
     /**
      * The em.
      */
@@ -78,6 +95,9 @@ public class JpaCrudService extends AbstractCrudService {
     private final ValidatorService validatorService;
 
     private boolean fullyLoadEntities = false;
+    private int streamFetchSize = 500;
+    private int streamClearInterval = 1000;
+    private final JpqlShapeCache jpqlShapeCache = new JpqlShapeCache(1024);
 
     public JpaCrudService(ValidatorService validatorService) {
         this.validatorService = validatorService;
@@ -224,12 +244,10 @@ public class JpaCrudService extends AbstractCrudService {
      */
     @Override
     public <T> T findSingle(Class<T> type, QueryParameters parameters) {
-        parameters.setType(type);
+        parameters = withType(parameters, type);
         fireListeners(parameters, EventType.BEFORE_QUERY);
 
-        QueryBuilder qb = QueryBuilder.fromParameters(type, "t", parameters);
-
-        String queryText = qb.toString();
+        String queryText = jpqlShapeCache.get(parameters).queryText();
 
         Query query = em.createQuery(queryText, type);
         query.setMaxResults(1);
@@ -245,7 +263,7 @@ public class JpaCrudService extends AbstractCrudService {
         } catch (Exception ignored) {
         }
 
-        fireListeners(resultList, EventType.AFTER_QUERY);
+        fireListeners(resultList, EventType.AFTER_QUERY, type);
         return result;
     }
 
@@ -258,7 +276,7 @@ public class JpaCrudService extends AbstractCrudService {
     @Transactional
     public void delete(Object t) {
         fireListeners(t, EventType.BEFORE_DELETE);
-        this.em.remove(t);
+        this.em.remove(em.contains(t) ? t : em.merge(t));
         fireListeners(t, EventType.AFTER_DELETE);
     }
 
@@ -280,6 +298,46 @@ public class JpaCrudService extends AbstractCrudService {
         execute("delete from " + type.getSimpleName() + " e", new QueryParameters());
     }
 
+    @Override
+    @Transactional
+    public <T> List<T> createAll(Collection<T> entities, ProgressMonitor monitor) {
+        return super.createAll(entities, monitor);
+    }
+
+    @Override
+    @Transactional
+    public <T> List<T> updateAll(Collection<T> entities, ProgressMonitor monitor) {
+        return super.updateAll(entities, monitor);
+    }
+
+    @Override
+    @Transactional
+    public void deleteAll(Collection<?> entities, ProgressMonitor monitor) {
+        super.deleteAll(entities, monitor);
+    }
+
+    /**
+     * Use JDBC batches of the chunk size during the bulk operation. Inserts of entities with IDENTITY ids are not
+     * batched by Hibernate, but updates and deletes are.
+     */
+    @Override
+    protected <T> List<T> bulk(CrudServiceListener.BatchOperation operation, Collection<T> entities, ProgressMonitor monitor) {
+        Session session = em.unwrap(Session.class);
+        Integer jdbcBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(getBulkChunkSize());
+        try {
+            return super.bulk(operation, entities, monitor);
+        } finally {
+            session.setJdbcBatchSize(jdbcBatchSize);
+        }
+    }
+
+    @Override
+    protected void afterBulkChunk() {
+        em.flush();
+        em.clear();
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -310,6 +368,8 @@ public class JpaCrudService extends AbstractCrudService {
         query.setParameter("entity", entity);
         query.setParameter("value", value);
         query.executeUpdate();
+        ReadRouting.markWrite();
+        invalidateTextIndex(entity.getClass());
     }
 
     /*
@@ -325,6 +385,7 @@ public class JpaCrudService extends AbstractCrudService {
         String queryText = "update " + entity.getClass().getName() + " t set t." + counterName + "=" + counterName
                 + "+1 where t=:entity";
         this.em.createQuery(queryText).setParameter("entity", entity).executeUpdate();
+        ReadRouting.markWrite();
     }
 
     /*
@@ -340,6 +401,7 @@ public class JpaCrudService extends AbstractCrudService {
         String queryText = "update " + entity.getClass().getName() + " t set t." + counterName + "=" + counterName
                 + "-1 where t=:entity";
         this.em.createQuery(queryText).setParameter("entity", entity).executeUpdate();
+        ReadRouting.markWrite();
     }
 
     /*
@@ -375,7 +437,7 @@ public class JpaCrudService extends AbstractCrudService {
     @Override
     @Transactional
     public <T> List<T> find(Class<T> type, QueryParameters parameters) {
-        parameters.setType(type);
+        parameters = withType(parameters, type);
         return executeQuery((QueryBuilder) null, parameters);
     }
 
@@ -396,54 +458,84 @@ public class JpaCrudService extends AbstractCrudService {
     @Override
     @Transactional
     public <T> List<T> executeQuery(QueryBuilder queryBuilder, QueryParameters parameters) {
+        QueryDeadline deadline = QueryDeadline.resolve(parameters);
         try {
             if (queryBuilder != null && parameters.getType() == null) {
                 parameters.setType(queryBuilder.getType());
             }
 
-            if (parameters.getType().isAnnotationPresent(OrderBy.class) && parameters.getSorter() == null) {
-                OrderBy orderBy = parameters.getType().getAnnotation(OrderBy.class);
-                if (orderBy != null) {
-                    parameters.orderBy(orderBy.value());
-                }
-            }
+            applyDefaultOrder(parameters);
 
             fireListeners(parameters, EventType.BEFORE_QUERY);
 
+            JpqlShapeCache.Shape shape = null;
             if (queryBuilder == null && parameters != null && parameters.getType() != null) {
-                queryBuilder = QueryBuilder.fromParameters(parameters.getType(), "t", parameters);
+                shape = jpqlShapeCache.get(parameters);
+                queryBuilder = shape.template();
             } else if (queryBuilder == null) {
                 throw new NullPointerException("Cannot execute query, QueryBuilder is null");
             }
 
-            String queryText = queryBuilder.toString();
+            String queryText = shape != null ? shape.queryText() : queryBuilder.toString();
+
+            DataPaginator paginator = parameters.getPaginator();
+            JpaKeysetPagination keyset = paginator != null && paginator.isKeyset() ? JpaKeysetPagination.of(queryBuilder) : null;
+            Object[] seekKey = null;
+            if (keyset != null) {
+                queryText = keyset.createQueryText(null);
+                seekKey = paginator.getSeekKey();
+                if (seekKey != null && !keyset.canSeek(seekKey)) {
+                    seekKey = null;
+                }
+            }
+            String pageQueryText = seekKey != null ? keyset.createQueryText(seekKey) : queryText;
 
-            logger.debug("Executing Query: " + queryText);
+            logger.debug("Executing Query: " + pageQueryText);
 
-            Query query = queryBuilder.getResultType() == BeanMap.class ? em.createQuery(queryText, Tuple.class) : this.em.createQuery(queryText);
+            Query query = queryBuilder.getResultType() == BeanMap.class ? em.createQuery(pageQueryText, Tuple.class) : this.em.createQuery(pageQueryText);
 
             if (parameters.getMaxResults() > 0 && parameters.getPaginator() == null) {
                 query.setMaxResults(parameters.getMaxResults());
             }
 
             parameters.applyTo(wrap(query));
-            JpaUtils.configurePaginator(em, query, queryBuilder, parameters);
-
+            if (seekKey != null) {
+                keyset.applySeek(query, seekKey);
+            }
 
-            List result = mapResultsToBeanMaps(queryBuilder, query.getResultList());
+            List result;
+            try (QueryDeadline.Scope ignored = applyDeadline(query, deadline)) {
+                if (shape != null) {
+                    JpaUtils.configurePaginatorForShape(em, query, shape, parameters, seekKey != null);
+                } else {
+                    JpaUtils.configurePaginator(em, query, queryBuilder, parameters, seekKey != null);
+                }
+                result = mapResultsToBeanMaps(queryBuilder, query.getResultList());
+            }
+            result = JpaUtils.updateDeferredCount(paginator, result);
+            if (keyset != null) {
+                keyset.updatePaginator(paginator, result);
+            }
 
 
             if (parameters.getPaginator() != null) {
                 PagedListDataSource<T> dataSource = new JpaPagedListDataSource<>(
-                        new QueryMetadata(queryText, queryBuilder, parameters), result);
+                        new QueryMetadata(queryText, shape != null ? shape.bind(parameters) : queryBuilder, parameters), result);
                 result = new PagedList<>(dataSource);
             }
 
-            fireListeners(result, EventType.AFTER_QUERY);
+            fireListeners(result, EventType.AFTER_QUERY, parameters.getType());
             return result;
         } catch (Throwable ex) {
+            if (ex instanceof QueryInterruptedException) {
+                throw ex;
+            }
+            if (deadline != null && deadline.isDone()) {
+                throw deadline.interrupted(ex);
+            }
             if (ex.getCause() != null && ex.getCause().getCause() instanceof SQLException) {
                 if (ex.getCause().getCause().getMessage().toLowerCase().contains("interrupted")) {
+                    QueryDeadline.recordInterrupted();
                     throw new QueryInterruptedException(ex.getCause().getCause().getMessage(), ex);
                 }
             }
@@ -456,37 +548,40 @@ public class JpaCrudService extends AbstractCrudService {
         if (queryBuilder != null && queryBuilder.getResultType() == BeanMap.class && result != null && !result.isEmpty()) {
             List beanMapResult = new ArrayList<>();
             for (Object o : result) {
-                Tuple t = (Tuple) o;
-                String[] fields = queryBuilder.getFields();
-                BeanMap element = new BeanMap();
-                element.setBeanClass(queryBuilder.getType());
-                element.setFields(fields);
+                beanMapResult.add(toBeanMap(queryBuilder, (Tuple) o));
+            }
+            result = beanMapResult;
+        }
+        return result;
+    }
 
+    private BeanMap toBeanMap(QueryBuilder queryBuilder, Tuple t) {
+        String[] fields = queryBuilder.getFields();
+        BeanMap element = new BeanMap();
+        element.setBeanClass(queryBuilder.getType());
+        element.setFields(fields);
 
-                for (int i = 0; i < fields.length; i++) {
-                    try {
-                        String field = fields[i];
-                        Object value = t.get(i);
-                        var as = " as ";
-                        if (field.contains(as)) {
-                            field = field.substring(field.lastIndexOf(as) + as.length()).trim();
-                            field = field.replace("_", ".");
-                        }
-
-                        element.set(field, value);
-                        if (field.equalsIgnoreCase("id")) {
-                            element.setId(value);
-                        }
-                    } catch (Exception e) {
-                        logger.warn("Error mapping tuple to BeanMap: " + e.getMessage());
-                    }
 
+        for (int i = 0; i < fields.length; i++) {
+            try {
+                String field = fields[i];
+                Object value = t.get(i);
+                var as = " as ";
+                if (field.contains(as)) {
+                    field = field.substring(field.lastIndexOf(as) + as.length()).trim();
+                    field = field.replace("_", ".");
+                }
+
+                element.set(field, value);
+                if (field.equalsIgnoreCase("id")) {
+                    element.setId(value);
                 }
-                beanMapResult.add(element);
+            } catch (Exception e) {
+                logger.warn("Error mapping tuple to BeanMap: " + e.getMessage());
             }
-            result = beanMapResult;
+
         }
-        return result;
+        return element;
     }
 
     @Override
@@ -495,6 +590,135 @@ public class JpaCrudService extends AbstractCrudService {
         return executeQuery(queryBuilder, queryBuilder.getQueryParameters());
     }
 
+    /**
+     * Stream entities using a forward only scrollable result. Rows are fetched in chunks of {@link #getStreamFetchSize()}
+     * and loaded read only, unless the parameters override {@link #HINT_FETCH_SIZE} or {@link #HINT_READ_ONLY}. Every
+     * {@link #getStreamClearInterval()} rows the persistence context is flushed and cleared, so entities returned
+     * before are detached and memory stays flat. Must be called inside a transaction and the stream must be closed.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> Stream<T> stream(Class<T> type, QueryParameters parameters) {
+        parameters = withType(parameters, type);
+        return executeQueryStream(null, parameters);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> Stream<T> executeQueryStream(QueryBuilder queryBuilder) {
+        return executeQueryStream(queryBuilder, queryBuilder.getQueryParameters());
+    }
+
+    private <T> Stream<T> executeQueryStream(QueryBuilder queryBuilder, QueryParameters parameters) {
+        if (queryBuilder != null && parameters.getType() == null) {
+            parameters.setType(queryBuilder.getType());
+        }
+        applyDefaultOrder(parameters);
+        fireListeners(parameters, EventType.BEFORE_QUERY);
+
+        String queryText;
+        if (queryBuilder == null) {
+            JpqlShapeCache.Shape shape = jpqlShapeCache.get(parameters);
+            queryBuilder = shape.template();
+            queryText = shape.queryText();
+        } else {
+            queryText = queryBuilder.toString();
+        }
+        logger.debug("Streaming Query: " + queryText);
+
+        boolean beanMap = queryBuilder.getResultType() == BeanMap.class;
+        Query query = beanMap ? em.createQuery(queryText, Tuple.class) : em.createQuery(queryText);
+        if (parameters.getMaxResults() > 0) {
+            query.setMaxResults(parameters.getMaxResults());
+        }
+        query.setHint(HINT_FETCH_SIZE, streamFetchSize);
+        query.setHint(HINT_READ_ONLY, true);
+        parameters.applyTo(wrap(query));
+
+        Session session = em.unwrap(Session.class);
+        QueryDeadline deadline = QueryDeadline.resolve(parameters);
+        QueryDeadline.Scope deadlineScope = applyDeadline(query, deadline);
+        ScrollableResults<?> results;
+        try {
+            results = query.unwrap(org.hibernate.query.Query.class).scroll(ScrollMode.FORWARD_ONLY);
+        } catch (RuntimeException ex) {
+            deadlineScope.close();
+            throw translateQueryException(ex, deadline);
+        }
+        QueryBuilder builder = queryBuilder;
+
+        Iterator<T> iterator = new Iterator<>() {
+            private long count;
+            private Boolean hasNext;
+
+            @Override
+            public boolean hasNext() {
+                if (hasNext == null) {
+                    if (streamClearInterval > 0 && count > 0 && count % streamClearInterval == 0) {
+                        session.flush();
+                        session.clear();
+                    }
+                    try {
+                        hasNext = results.next();
+                    } catch (RuntimeException ex) {
+                        throw translateQueryException(ex, deadline);
+                    }
+                }
+                return hasNext;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                hasNext = null;
+                count++;
+                Object row = results.get();
+                return (T) (beanMap ? toBeanMap(builder, (Tuple) row) : row);
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    deadlineScope.close();
+                    results.close();
+                });
+    }
+
+    /**
+     * Apply the remaining time of the deadline as query timeout and cancel the running statement if the deadline
+     * is cancelled, until the returned scope is closed
+     */
+    private QueryDeadline.Scope applyDeadline(Query query, QueryDeadline deadline) {
+        if (deadline == null) {
+            return () -> {
+            };
+        }
+        deadline.check();
+        deadline.applyTo(wrap(query));
+        // the session of current transaction, unwrap(Session.class) return the shared proxy that cannot be used
+        // from the thread that cancel the deadline
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        return deadline.onCancel(session::cancelQuery);
+    }
+
+    private RuntimeException translateQueryException(RuntimeException ex, QueryDeadline deadline) {
+        if (deadline != null && deadline.isDone() && !(ex instanceof QueryInterruptedException)) {
+            return deadline.interrupted(ex);
+        }
+        return ex;
+    }
+
+    private void applyDefaultOrder(QueryParameters parameters) {
+        if (parameters.getType().isAnnotationPresent(OrderBy.class) && parameters.getSorter() == null) {
+            OrderBy orderBy = parameters.getType().getAnnotation(OrderBy.class);
+            if (orderBy != null) {
+                parameters.orderBy(orderBy.value());
+            }
+        }
+    }
+
     @Override
     @Transactional
     public <T> List<T> executeQuery(String queryText) {
@@ -517,7 +741,12 @@ public class JpaCrudService extends AbstractCrudService {
             }
         }
 
-        return query.getResultList();
+        QueryDeadline deadline = QueryDeadline.resolve(parameters);
+        try (QueryDeadline.Scope ignored = applyDeadline(query, deadline)) {
+            return query.getResultList();
+        } catch (RuntimeException ex) {
+            throw translateQueryException(ex, deadline);
+        }
     }
 
     /*
@@ -548,6 +777,8 @@ public class JpaCrudService extends AbstractCrudService {
         if (parameters != null) {
             parameters.applyTo(wrap(query));
         }
+        ReadRouting.markWrite();
+        invalidateTextIndex(null);
         return query.executeUpdate();
     }
 
@@ -561,16 +792,39 @@ public class JpaCrudService extends AbstractCrudService {
     @Override
     @Transactional
     public List find(QueryMetadata queryMetada) {
+        QueryParameters parameters = queryMetada.getParameters();
+        DataPaginator paginator = parameters.getPaginator();
+        JpaKeysetPagination keyset = paginator != null && paginator.isKeyset() ? JpaKeysetPagination.of(queryMetada.getQueryBuilder()) : null;
+        Object[] seekKey = keyset != null ? paginator.getSeekKey() : null;
+        if (seekKey != null && !keyset.canSeek(seekKey)) {
+            seekKey = null;
+        }
+        String queryText = keyset != null ? keyset.createQueryText(seekKey) : queryMetada.getText();
+
         Query query = null;
         if (queryMetada.getQueryBuilder() != null && queryMetada.getQueryBuilder().getResultType() == BeanMap.class) {
-            query = em.createQuery(queryMetada.getText(), Tuple.class);
+            query = em.createQuery(queryText, Tuple.class);
         } else {
-            query = em.createQuery(queryMetada.getText());
+            query = em.createQuery(queryText);
+        }
+        parameters.applyTo(wrap(query));
+        if (seekKey != null) {
+            keyset.applySeek(query, seekKey);
         }
-        queryMetada.getParameters().applyTo(wrap(query));
-        JpaUtils.configurePaginator(em, query, null, queryMetada.getParameters());
 
-        return mapResultsToBeanMaps(queryMetada.getQueryBuilder(), query.getResultList());
+        List result;
+        QueryDeadline deadline = QueryDeadline.resolve(parameters);
+        try (QueryDeadline.Scope ignored = applyDeadline(query, deadline)) {
+            JpaUtils.configurePaginator(em, query, null, parameters, seekKey != null);
+            result = mapResultsToBeanMaps(queryMetada.getQueryBuilder(), query.getResultList());
+        } catch (RuntimeException ex) {
+            throw translateQueryException(ex, deadline);
+        }
+        result = JpaUtils.updateDeferredCount(paginator, result);
+        if (keyset != null) {
+            keyset.updatePaginator(paginator, result);
+        }
+        return result;
     }
 
     @Transactional(readOnly = true)
@@ -607,14 +861,8 @@ public class JpaCrudService extends AbstractCrudService {
                                     String... fields) {
         List<T> result = null;
 
-
-        QueryParameters params = new QueryParameters();
-        if (defaultParams != null) {
-            params.sort(defaultParams.getSorter());
-            params.paginate(defaultParams.getPaginator());
-            params.setMaxResults(defaultParams.getMaxResults());
-            params.putAll(defaultParams);
-        }
+        // fields and candidates conditions are added to a copy, callers usually reuse their default params
+        QueryParameters params = defaultParams != null ? defaultParams.clone() : new QueryParameters();
 
         QueryParameters fieldsParams = new QueryParameters();
 
@@ -629,6 +877,10 @@ public class JpaCrudService extends AbstractCrudService {
             }
 
             if (!fieldsParams.isEmpty()) {
+                List<Object> candidates = findTextIndexCandidates(entityClass, param, fieldsParams);
+                if (candidates != null && !candidates.isEmpty()) {
+                    params.add("id", QueryConditions.in(candidates));
+                }
                 params.addGroup(fieldsParams, BooleanOp.AND);
                 result = find(entityClass, params);
             } else {
@@ -640,6 +892,37 @@ public class JpaCrudService extends AbstractCrudService {
         return result;
     }
 
+    /**
+     * Ask the {@link TextIndexService}, if any, for the ids of entities matching the term. Only used when all fields
+     * are searched with like conditions; the original conditions are still applied to verify the candidates. The
+     * service returns null when the index cannot give a superset of the matches (short terms or an outdated index),
+     * then the plain like query runs. No candidates is not a final answer either, so the query runs without them.
+     */
+    private List<Object> findTextIndexCandidates(Class<?> entityClass, String param, QueryParameters fieldsParams) {
+        for (Object condition : fieldsParams.values()) {
+            if (!(condition instanceof LikeEquals)) {
+                return null;
+            }
+        }
+
+        TextIndexService textIndexService = Containers.get().findObject(TextIndexService.class);
+        if (textIndexService == null) {
+            return null;
+        }
+        return textIndexService.search(entityClass, param, fieldsParams.keySet().toArray(String[]::new));
+    }
+
+    /**
+     * Bulk updates skip crud listeners, so text indexes of the updated entities, or all of them when unknown, are
+     * rebuilt
+     */
+    private void invalidateTextIndex(Class<?> entityClass) {
+        TextIndexService textIndexService = Containers.get().findObject(TextIndexService.class);
+        if (textIndexService != null) {
+            textIndexService.invalidate(entityClass);
+        }
+    }
+
     /**
      * Creates the query condition.
      *
@@ -844,7 +1127,7 @@ public class JpaCrudService extends AbstractCrudService {
     @Override
     public long count(Class type) {
         String queryText = select(type, "e").createProjection("count", "id");
-        return (Long) em.createQuery(queryText).getSingleResult();
+        return ReadRouting.replica(() -> (Long) em.createQuery(queryText).getSingleResult());
     }
 
     /*
@@ -856,13 +1139,16 @@ public class JpaCrudService extends AbstractCrudService {
      */
     @Override
     public long count(Class type, QueryParameters parameters) {
-
-        QueryBuilder qb = QueryBuilder.fromParameters(type, "t", parameters);
-
-        String queryText = qb.createProjection("count", "id");
+        parameters = withType(parameters, type);
+        String queryText = jpqlShapeCache.get(parameters).countQueryText();
         Query query = em.createQuery(queryText);
         parameters.applyTo(wrap(query));
-        return (Long) query.getSingleResult();
+        QueryDeadline deadline = QueryDeadline.resolve(parameters);
+        try (QueryDeadline.Scope ignored = applyDeadline(query, deadline)) {
+            return ReadRouting.replica(() -> (Long) query.getSingleResult());
+        } catch (RuntimeException ex) {
+            throw translateQueryException(ex, deadline);
+        }
 
     }
 
@@ -893,7 +1179,7 @@ public class JpaCrudService extends AbstractCrudService {
 
     @Override
     public List getPropertyValues(Class entityClass, String property, QueryParameters params) {
-        return executeQuery(select(property).from(entityClass, "p").where(params).groupBy(property), params);
+        return ReadRouting.replica(() -> executeQuery(select(property).from(entityClass, "p").where(params).groupBy(property), params));
     }
 
     /*
@@ -951,6 +1237,8 @@ public class JpaCrudService extends AbstractCrudService {
             params.applyTo(wrap(query));
         }
 
+        ReadRouting.markWrite();
+        invalidateTextIndex(type);
         return query.executeUpdate();
     }
 
@@ -985,7 +1273,8 @@ public class JpaCrudService extends AbstractCrudService {
      */
     @Override
     protected List<CrudServiceListener> getListeners() {
-        return new ArrayList<>(Containers.get().findObjects(CrudServiceListener.class));
+        var listeners = Containers.get().findObjects(CrudServiceListener.class);
+        return listeners instanceof List<CrudServiceListener> list ? list : new ArrayList<>(listeners);
     }
 
 
@@ -1031,6 +1320,55 @@ public class JpaCrudService extends AbstractCrudService {
         this.fullyLoadEntities = fullyLoadEntities;
     }
 
+    /**
+     * Copy of the caller parameters with the query type, so the caller instance is not modified. The copy shares
+     * the paginator, paging state is still visible to the caller.
+     */
+    private static QueryParameters withType(QueryParameters parameters, Class type) {
+        QueryParameters copy = parameters.clone();
+        copy.setType(type);
+        return copy;
+    }
+
+    /**
+     * Statistics of the JPQL generated from {@link QueryParameters} and cached by query shape, use
+     * {@link SimpleCache.Stats#hitRate()} to check how often query text building is skipped
+     *
+     * @return cache statistics
+     */
+    public SimpleCache.Stats getQueryCacheStats() {
+        return jpqlShapeCache.getStats();
+    }
+
+    /**
+     * Clear cached JPQL and its statistics
+     */
+    public void clearQueryCache() {
+        jpqlShapeCache.clear();
+    }
+
+    public int getStreamFetchSize() {
+        return streamFetchSize;
+    }
+
+    /**
+     * Rows fetched per database round trip by {@link #stream(Class, QueryParameters)}
+     */
+    public void setStreamFetchSize(int streamFetchSize) {
+        this.streamFetchSize = streamFetchSize;
+    }
+
+    public int getStreamClearInterval() {
+        return streamClearInterval;
+    }
+
+    /**
+     * Rows streamed between persistence context flush and clear, 0 to never clear it
+     */
+    public void setStreamClearInterval(int streamClearInterval) {
+        this.streamClearInterval = streamClearInterval;
+    }
+
     private <T> void validate(T t) {
         if (validatorService != null) {
             validatorService.validate(t);
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain.jpa;
+
+import jakarta.persistence.Id;
+import jakarta.persistence.Query;
+import tools.dynamia.commons.ObjectOperations;
+import tools.dynamia.commons.reflect.ClassReflectionInfo;
+import tools.dynamia.domain.query.DataPaginator;
+import tools.dynamia.domain.util.QueryBuilder;
+import tools.dynamia.io.converters.Converters;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Keyset (seek) pagination support for {@link JpaCrudService}. Rewrites an entity {@link QueryBuilder} ordered
+ * by simple properties to seek after the last sort key of the previous page:
+ * <pre>{@code where ((t.name > :keyset0 or t.name is null) or (t.name = :keyset0 and t.id > :keyset1))
+ * order by t.name ASC NULLS LAST, t.id ASC}</pre>
+ * Queries with projections, group by or computed orders are not supported and keep using offset pagination.
+ */
+class JpaKeysetPagination {
+
+    private static final Pattern PROPERTY_PATH = Pattern.compile("[A-Za-z_$][\\w$]*(\\.[A-Za-z_$][\\w$]*)*");
+    private static final String PARAM_PREFIX = "keyset";
+
+    private record SortKey(String path, boolean ascending) {
+    }
+
+    private final QueryBuilder queryBuilder;
+    private final List<SortKey> keys;
+
+    private JpaKeysetPagination(QueryBuilder queryBuilder, List<SortKey> keys) {
+        this.queryBuilder = queryBuilder;
+        this.keys = keys;
+    }
+
+    /**
+     * Create keyset pagination for the query builder, return null if the query cannot use it
+     */
+    static JpaKeysetPagination of(QueryBuilder queryBuilder) {
+        if (queryBuilder == null || queryBuilder.getType() == null || !queryBuilder.isEntitySelect()) {
+            return null;
+        }
+
+        String varPrefix = queryBuilder.getVarName();
+        List<SortKey> keys = new ArrayList<>();
+        for (String order : queryBuilder.getOrders()) {
+            String[] parts = order.trim().split("\\s+");
+            if (parts.length > 2) {
+                return null;
+            }
+            String path = parts[0];
+            if (!varPrefix.isEmpty() && path.startsWith(varPrefix)) {
+                path = path.substring(varPrefix.length());
+            }
+            if (!PROPERTY_PATH.matcher(path).matches()) {
+                return null;
+            }
+            boolean ascending = parts.length == 1 || !parts[1].equalsIgnoreCase("desc");
+            keys.add(new SortKey(path, ascending));
+        }
+
+        String idField = getIdField(queryBuilder.getType());
+        if (keys.stream().noneMatch(k -> k.path().equals(idField))) {
+            keys.add(new SortKey(idField, true));
+        }
+        return new JpaKeysetPagination(queryBuilder, keys);
+    }
+
+    private static String getIdField(Class<?> entityClass) {
+        Field field = ObjectOperations.getFirstFieldWithAnnotation(entityClass, Id.class);
+        return field != null ? field.getName() : "id";
+    }
+
+    /**
+     * Render the query text, seeking after the given key of previous page when it is not null. Sort keys are ordered
+     * with NULLS LAST and null key values are compared with {@code is null}, so rows with NULL sort keys are not lost
+     * between pages. The id is always added as a last order so pages are stable.
+     */
+    String createQueryText(Object[] seekKey) {
+        QueryBuilder copy = queryBuilder.clone().build();
+        String var = copy.getVarName();
+        if (seekKey != null) {
+            List<String> levels = new ArrayList<>();
+            for (int i = 0; i < keys.size(); i++) {
+                if (seekKey[i] == null) {
+                    // nulls are sorted last, nothing comes after a null at this level
+                    continue;
+                }
+                StringBuilder level = new StringBuilder("(");
+                for (int j = 0; j < i; j++) {
+                    level.append(var).append(keys.get(j).path());
+                    level.append(seekKey[j] == null ? " is null" : " = :" + PARAM_PREFIX + j).append(" and ");
+                }
+                SortKey key = keys.get(i);
+                String compare = var + key.path() + (key.ascending() ? " > :" : " < :") + PARAM_PREFIX + i;
+                if (isIdKey(i)) {
+                    level.append(compare);
+                } else {
+                    level.append("(").append(compare).append(" or ").append(var).append(key.path()).append(" is null)");
+                }
+                level.append(")");
+                levels.add(level.toString());
+            }
+            copy.and("(" + String.join(" or ", levels) + ")");
+        }
+
+        copy.clearOrderBy();
+        for (int i = 0; i < keys.size(); i++) {
+            SortKey key = keys.get(i);
+            copy.orderBy(key.path() + (key.ascending() ? " ASC" : " DESC") + (isIdKey(i) ? "" : " NULLS LAST"));
+        }
+        return copy.toString();
+    }
+
+    private boolean isIdKey(int index) {
+        return index == keys.size() - 1;
+    }
+
+    /**
+     * Convert and bind the seek key values to query parameters. Return false if the id is null or any value cannot
+     * be converted to the property type, in that case offset pagination should be used.
+     */
+    boolean canSeek(Object[] values) {
+        return convert(values) != null;
+    }
+
+    void applySeek(Query query, Object[] values) {
+        Object[] converted = convert(values);
+        if (converted == null) {
+            throw new IllegalStateException("Invalid keyset values");
+        }
+        for (int i = 0; i < converted.length; i++) {
+            if (converted[i] != null) {
+                query.setParameter(PARAM_PREFIX + i, converted[i]);
+            }
+        }
+    }
+
+    private Object[] convert(Object[] values) {
+        if (values == null || values.length != keys.size()) {
+            return null;
+        }
+
+        Object[] converted = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                if (isIdKey(i)) {
+                    return null;
+                }
+                continue;
+            }
+
+            Class<?> type = ClassReflectionInfo.getAccessor(queryBuilder.getType(), keys.get(i).path()).getType();
+            if (value instanceof String text && type != null && type != String.class) {
+                if (type.isEnum()) {
+                    try {
+                        //noinspection unchecked,rawtypes
+                        value = Enum.valueOf((Class) type, text);
+                    } catch (IllegalArgumentException e) {
+                        return null;
+                    }
+                } else {
+                    var converter = Converters.getConverter(type);
+                    if (converter == null) {
+                        return null;
+                    }
+                    try {
+                        value = converter.toObject(text);
+                    } catch (Exception e) {
+                        return null;
+                    }
+                    if (value == null) {
+                        return null;
+                    }
+                }
+            }
+            converted[i] = value;
+        }
+        return converted;
+    }
+
+    /**
+     * Read the sort key values of the last row of a page
+     */
+    Object[] readKey(Object row) {
+        if (row == null) {
+            return null;
+        }
+        Object[] values = new Object[keys.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = ObjectOperations.invokeGetMethod(row, keys.get(i).path());
+        }
+        return values[values.length - 1] != null ? values : null;
+    }
+
+    /**
+     * Remember the last key of loaded page
+     */
+    void updatePaginator(DataPaginator paginator, List<?> pageData) {
+        if (pageData != null && !pageData.isEmpty()) {
+            paginator.setPageKey(paginator.getPage(), readKey(pageData.getLast()));
+        }
+    }
+}
@@ -28,7 +28,9 @@ import tools.dynamia.io.converters.Converters;
 
 import java.io.Serializable;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 /**
  * The Class JpaUtils.
@@ -48,26 +50,109 @@ public abstract class JpaUtils {
      * @param params       the params
      */
     public static void configurePaginator(EntityManager em, Query query, QueryBuilder queryBuilder, QueryParameters params) {
+        configurePaginator(em, query, queryBuilder, params, false);
+    }
+
+    /**
+     * Configure paginator. When seek is true the query already filter rows after the previous page key
+     * (keyset pagination) and no offset is applied. With {@link DataPaginator.CountMode#DEFERRED} no count
+     * query is executed, with {@link DataPaginator.CountMode#ESTIMATED} rows are counted only up to a limit.
+     * Open ended paginators request one extra row to know if there are more pages, use
+     * {@link #updateDeferredCount(DataPaginator, List)} after loading the results.
+     *
+     * @param em           the em
+     * @param query        the query
+     * @param queryBuilder the query builder
+     * @param params       the params
+     * @param seek         the query seek after previous page key
+     */
+    public static void configurePaginator(EntityManager em, Query query, QueryBuilder queryBuilder, QueryParameters params, boolean seek) {
+        configurePaginator(em, query, queryBuilder != null ? function -> queryBuilder.createProjection(function, "id") : null, params, seek);
+    }
+
+    /**
+     * Configure paginator using count queries of a cached query shape
+     */
+    static void configurePaginatorForShape(EntityManager em, Query query, JpqlShapeCache.Shape shape, QueryParameters params, boolean seek) {
+        configurePaginator(em, query, function -> function.isEmpty() ? shape.idsQueryText() : shape.countQueryText(), params, seek);
+    }
+
+    /**
+     * @param idProjection render the query projecting the id with the aggregate function, empty for no function
+     */
+    private static void configurePaginator(EntityManager em, Query query, UnaryOperator<String> idProjection, QueryParameters params, boolean seek) {
         DataPaginator paginator = params.getPaginator();
         if (paginator != null && query != null) {
-            if (paginator.getTotalSize() == 0 && queryBuilder != null) {
-                Query counter = em.createQuery(queryBuilder.createProjection("count", "id"));
-                JpaQuery jpaQuery = new JpaQuery(counter);
-                params.applyTo(jpaQuery);
-                long count = 0;
-                try {
-                    count = (Long) counter.getSingleResult();
-                } catch (NonUniqueResultException e) {
-                    List<Long> result = counter.getResultList();
-                    for (Long res : result) {
-                        count += res;
+            if (paginator.getTotalSize() == 0 && idProjection != null) {
+                switch (paginator.getCountMode()) {
+                    case EXACT -> paginator.setTotalSize(count(em, idProjection.apply("count"), params));
+                    case ESTIMATED -> estimateCount(em, idProjection.apply(""), params, paginator);
+                    case DEFERRED -> {
+                        // total size is updated when results are loaded
                     }
                 }
-                paginator.setTotalSize(count);
             }
-            query.setFirstResult(paginator.getFirstResult());
-            query.setMaxResults(paginator.getPageSize());
+            query.setFirstResult(seek ? 0 : paginator.getFirstResult());
+            query.setMaxResults(paginator.isOpenEnded() ? paginator.getPageSize() + 1 : paginator.getPageSize());
+        }
+    }
+
+    private static long count(EntityManager em, String countQueryText, QueryParameters params) {
+        Query counter = em.createQuery(countQueryText);
+        JpaQuery jpaQuery = new JpaQuery(counter);
+        params.applyTo(jpaQuery);
+        long count = 0;
+        try {
+            count = (Long) counter.getSingleResult();
+        } catch (NonUniqueResultException e) {
+            List<Long> result = counter.getResultList();
+            for (Long res : result) {
+                count += res;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Count ids up to paginator count limit, cheaper than a full count on large tables
+     */
+    private static void estimateCount(EntityManager em, String idsQueryText, QueryParameters params, DataPaginator paginator) {
+        Query ids = em.createQuery(idsQueryText);
+        params.applyTo(new JpaQuery(ids));
+        ids.setMaxResults(paginator.getCountLimit() + 1);
+        int found = ids.getResultList().size();
+        if (found > paginator.getCountLimit()) {
+            paginator.setTotalSizeEstimated(true);
+            paginator.setTotalSize(paginator.getCountLimit());
+        } else {
+            paginator.setTotalSize(found);
+        }
+    }
+
+    /**
+     * Update total size of open ended paginators ({@link DataPaginator.CountMode#DEFERRED} or estimated). The
+     * total size includes one row of the next page while more results exist. Return the page results without
+     * the extra row.
+     *
+     * @param paginator the paginator
+     * @param result    the page results loaded with one extra row
+     * @return the page results
+     */
+    public static List updateDeferredCount(DataPaginator paginator, List result) {
+        if (paginator == null || !paginator.isOpenEnded() || result == null) {
+            return result;
+        }
+
+        long loaded = (long) paginator.getFirstResult() + Math.min(result.size(), paginator.getPageSize());
+        if (result.size() > paginator.getPageSize()) {
+            result = new ArrayList<>(result.subList(0, paginator.getPageSize()));
+            paginator.setTotalSize(Math.max(paginator.getTotalSize(), loaded + 1));
+        } else {
+            // last page reached, total size is exact now
+            paginator.setTotalSize(loaded);
+            paginator.setTotalSizeEstimated(false);
         }
+        return result;
     }
 
     /**
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain.jpa;
+
+import tools.dynamia.commons.SimpleCache;
+import tools.dynamia.domain.query.QueryParameters;
+import tools.dynamia.domain.util.QueryBuilder;
+
+/**
+ * Cache of the JPQL generated by {@link JpaCrudService} from {@link QueryParameters}, keyed by
+ * {@link QueryParameters#getShapeKey()}. Queries with the same shape reuse the query text, the count query texts
+ * and a built {@link QueryBuilder} template, so each call only binds parameter values.
+ */
+class JpqlShapeCache {
+
+    static final String VAR = "t";
+
+    record Shape(QueryBuilder template, String queryText, String countQueryText, String idsQueryText) {
+
+        /**
+         * Copy of the template bound to the call parameters, for consumers that read the builder parameters
+         */
+        QueryBuilder bind(QueryParameters parameters) {
+            return template.withParameters(parameters);
+        }
+    }
+
+    private final SimpleCache<Object, Shape> cache;
+
+    JpqlShapeCache(int maximumSize) {
+        this.cache = SimpleCache.<Object, Shape>builder().maximumSize(maximumSize).build();
+    }
+
+    /**
+     * Return the shape of the query generated from parameters, parameters type must be set
+     */
+    Shape get(QueryParameters parameters) {
+        return cache.getOrLoad(parameters.getShapeKey(), key -> create(parameters));
+    }
+
+    private static Shape create(QueryParameters parameters) {
+        // the template must not retain the parameters values of the first call
+        QueryBuilder template = QueryBuilder.fromParameters(parameters.getType(), VAR, parameters).withParameters(null);
+        return new Shape(template, template.toString(), template.createProjection("count", "id"),
+                template.createProjection("", "id"));
+    }
+
+    SimpleCache.Stats getStats() {
+        return cache.getStats();
+    }
+
+    void clear() {
+        cache.clear();
+        cache.resetStats();
+    }
+}
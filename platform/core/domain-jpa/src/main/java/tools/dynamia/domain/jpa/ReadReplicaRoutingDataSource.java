@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain.jpa;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import tools.dynamia.commons.logger.LoggingService;
+import tools.dynamia.commons.logger.SLF4JLoggingService;
+import tools.dynamia.domain.util.ReadRouting;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DataSource that send reads allowed by {@link ReadRouting} (read only transactions like
+ * {@link JpaCrudService#findReadOnly(Class, tools.dynamia.domain.query.QueryParameters)}, counts, paged list
+ * loads and aggregates) to a pool of read replicas, and everything else to the primary database.
+ * <p>
+ * Replicas are used in round robin. Each replica is checked in background at most every
+ * {@link #setCheckInterval(Duration)}, so reads never wait for a check: replicas that fail to connect or whose lag
+ * reported by the {@link ReplicaLagProbe} exceeds {@link #setMaxLag(Duration)} are skipped, and reads fall back to
+ * the primary when no replica is available. Replicas are assumed available until their first check completes, call
+ * {@link #checkReplicas()} to check them right away (i.e. at startup).
+ * Threads that wrote within {@link #setReadYourWritesWindow(Duration)} keep reading from the primary.
+ * <p>
+ * Read only transactions are flagged after the transaction manager acquires its connection, so use it through
+ * {@link #lazy()} to resolve the target on the first statement:
+ * <pre>{@code
+ * @Bean
+ * public DataSource dataSource() {
+ *     var routing = new ReadReplicaRoutingDataSource(primary(), replica1(), replica2());
+ *     routing.setLagProbe(ReplicaLagProbe.POSTGRESQL);
+ *     return routing.lazy();
+ * }
+ * }</pre>
+ */
+public class ReadReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final LoggingService LOGGER = new SLF4JLoggingService(ReadReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    private ReplicaLagProbe lagProbe;
+    private Duration maxLag = Duration.ofSeconds(10);
+    private Duration checkInterval = Duration.ofSeconds(5);
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource... replicas) {
+        this(primary, List.of(replicas));
+    }
+
+    public ReadReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        if (primary == null) {
+            throw new IllegalArgumentException("Primary data source is required");
+        }
+        this.primary = primary;
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica" + (i + 1), replicas.get(i)));
+        }
+    }
+
+    /**
+     * Wrap this data source in a {@link LazyConnectionDataSourceProxy}, required when used by transaction managers
+     */
+    public DataSource lazy() {
+        return new LazyConnectionDataSourceProxy(this);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (!replicas.isEmpty() && ReadRouting.isReplicaAllowed() && !ReadRouting.hasWrittenWithin(readYourWritesWindow)) {
+            Replica replica = selectReplica();
+            if (replica != null) {
+                try {
+                    Connection connection = connect(replica.dataSource, username, password);
+                    replicaConnections.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    replica.markUnavailable(e);
+                }
+            }
+            fallbacks.increment();
+        }
+
+        primaryConnections.increment();
+        return connect(primary, username, password);
+    }
+
+    private static Connection connect(DataSource dataSource, String username, String password) throws SQLException {
+        return username != null ? dataSource.getConnection(username, password) : dataSource.getConnection();
+    }
+
+    private Replica selectReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.isAvailable()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check availability and lag of all replicas now, in the calling thread
+     */
+    public void checkReplicas() {
+        replicas.forEach(Replica::check);
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    /**
+     * Number of replicas currently available for reads
+     */
+    public int getAvailableReplicas() {
+        return (int) replicas.stream().filter(Replica::isAvailable).count();
+    }
+
+    /**
+     * Connections served by the primary database
+     */
+    public long getPrimaryConnections() {
+        return primaryConnections.sum();
+    }
+
+    /**
+     * Connections served by read replicas
+     */
+    public long getReplicaConnections() {
+        return replicaConnections.sum();
+    }
+
+    /**
+     * Replica reads served by the primary because no replica was available
+     */
+    public long getFallbacks() {
+        return fallbacks.sum();
+    }
+
+    public ReplicaLagProbe getLagProbe() {
+        return lagProbe;
+    }
+
+    /**
+     * Probe used to measure replica lag. If null replicas are only checked for availability
+     */
+    public void setLagProbe(ReplicaLagProbe lagProbe) {
+        this.lagProbe = lagProbe;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    /**
+     * Replicas behind the primary by more than this are not used. Default 10 seconds
+     */
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public Duration getCheckInterval() {
+        return checkInterval;
+    }
+
+    /**
+     * How often replica availability and lag are checked. Default 5 seconds
+     */
+    public void setCheckInterval(Duration checkInterval) {
+        this.checkInterval = checkInterval;
+    }
+
+    public Duration getReadYourWritesWindow() {
+        return readYourWritesWindow;
+    }
+
+    /**
+     * Time reads of a thread stick to the primary after it writes. Default 5 seconds
+     */
+    public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+        this.readYourWritesWindow = readYourWritesWindow;
+    }
+
+    private final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean available = true;
+        private volatile long checkedAt;
+        private volatile boolean checked;
+        private final AtomicBoolean checking = new AtomicBoolean();
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        /**
+         * Return the last known state and schedule a background check if it is due
+         */
+        boolean isAvailable() {
+            if (isCheckDue() && checking.compareAndSet(false, true)) {
+                Thread.ofVirtual().name("read-" + name + "-check").start(() -> {
+                    try {
+                        check();
+                    } finally {
+                        checking.set(false);
+                    }
+                });
+            }
+            return available;
+        }
+
+        private boolean isCheckDue() {
+            return !checked || System.nanoTime() - checkedAt > checkInterval.toNanos();
+        }
+
+        void check() {
+            try (Connection connection = dataSource.getConnection()) {
+                long lag = lagProbe != null ? lagProbe.getLagMillis(connection) : 0;
+                boolean wasAvailable = available;
+                available = lag <= maxLag.toMillis();
+                if (wasAvailable && !available) {
+                    LOGGER.warn("Read " + name + " lag is " + lag + "ms, reads will use other replicas or primary");
+                }
+            } catch (SQLException e) {
+                markUnavailable(e);
+                return;
+            }
+            checkedAt = System.nanoTime();
+            checked = true;
+        }
+
+        void markUnavailable(SQLException e) {
+            if (available) {
+                LOGGER.warn("Read " + name + " is unavailable: " + e.getMessage());
+            }
+            available = false;
+            checkedAt = System.nanoTime();
+            checked = true;
+        }
+    }
+}
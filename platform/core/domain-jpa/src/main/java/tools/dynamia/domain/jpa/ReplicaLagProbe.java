@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain.jpa;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Measure how far a read replica is behind the primary database.
+ *
+ * @see ReadReplicaRoutingDataSource
+ */
+@FunctionalInterface
+public interface ReplicaLagProbe {
+
+    /**
+     * PostgreSQL streaming replication lag. Zero when the replica has replayed all received transactions
+     */
+    ReplicaLagProbe POSTGRESQL = query("select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 " +
+            "else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000, 0) end");
+
+    /**
+     * Return the replica lag in milliseconds
+     *
+     * @param replica a connection to the replica
+     */
+    long getLagMillis(Connection replica) throws SQLException;
+
+    /**
+     * Create a probe that run a SQL query returning the lag in milliseconds as first column. A null or missing
+     * value is treated as unknown lag and the replica is not used
+     */
+    static ReplicaLagProbe query(String sql) {
+        return replica -> {
+            try (Statement stm = replica.createStatement(); ResultSet rs = stm.executeQuery(sql)) {
+                if (rs.next()) {
+                    Number lag = (Number) rs.getObject(1);
+                    if (lag != null) {
+                        return lag.longValue();
+                    }
+                }
+                return Long.MAX_VALUE;
+            }
+        };
+    }
+}
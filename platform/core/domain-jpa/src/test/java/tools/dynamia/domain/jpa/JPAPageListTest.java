@@ -27,7 +27,10 @@ import tools.dynamia.domain.query.DataPaginator;
 import tools.dynamia.domain.query.QueryParameters;
 import tools.dynamia.domain.services.CrudService;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -90,6 +93,68 @@ public class JPAPageListTest {
         assertTrue(true);
     }
 
+    @Test
+    @Transactional
+    public void testKeysetPagedListJPA() {
+        for (int i = 0; i < 50; i++) {
+            crudService.save(new DummyEntity("Dummy" + (100 + i)));
+        }
+
+        DataPaginator paginator = new DataPaginator(10);
+        paginator.setKeyset(true);
+        paginator.setCountMode(DataPaginator.CountMode.DEFERRED);
+
+        QueryParameters params = new QueryParameters();
+        params.paginate(paginator);
+        params.orderBy("name", false);
+
+        List<DummyEntity> result = crudService.find(DummyEntity.class, params);
+        assertEquals(11, result.size());
+
+        List<String> names = new ArrayList<>();
+        for (DummyEntity entity : result) {
+            names.add(entity.getName());
+        }
+
+        assertEquals(50, names.size());
+        assertEquals(50, new HashSet<>(names).size());
+        assertEquals("Dummy149", names.getFirst());
+        assertEquals("Dummy100", names.getLast());
+        assertNotNull(paginator.getPageKey(4));
+    }
+
+    @Test
+    @Transactional
+    public void testKeysetPagedListWithNullSortKeys() {
+        for (int i = 0; i < 25; i++) {
+            crudService.save(new DummyEntity("Dummy" + (100 + i), i % 3 == 0 ? null : "Type" + (i % 4), i));
+        }
+
+        for (boolean ascending : new boolean[]{true, false}) {
+            DataPaginator paginator = new DataPaginator(4);
+            paginator.setKeyset(true);
+            paginator.setCountMode(DataPaginator.CountMode.DEFERRED);
+
+            QueryParameters params = new QueryParameters();
+            params.paginate(paginator);
+            params.orderBy("type", ascending);
+
+            List<DummyEntity> result = crudService.find(DummyEntity.class, params);
+            List<String> names = new ArrayList<>();
+            List<String> types = new ArrayList<>();
+            for (DummyEntity entity : result) {
+                names.add(entity.getName());
+                types.add(entity.getType());
+            }
+
+            assertEquals(25, names.size());
+            assertEquals(25, new HashSet<>(names).size());
+            // rows with null type are sorted last in both directions
+            assertEquals(9, types.stream().filter(Objects::isNull).count());
+            assertTrue(types.subList(16, 25).stream().allMatch(Objects::isNull));
+        }
+    }
+
     private void showPage(DataPaginator paginator) {
     }
 }
@@ -24,7 +24,9 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.transaction.annotation.Transactional;
 import tools.dynamia.domain.query.QueryConditions;
+import tools.dynamia.domain.query.QueryParameters;
 import tools.dynamia.domain.services.CrudService;
+import tools.dynamia.domain.services.TextIndexService;
 import tools.dynamia.domain.util.QueryBuilder;
 
 import java.util.List;
@@ -41,6 +43,9 @@ public class JpaCrudServiceTest {
     @Autowired
     private CrudService crudService;
 
+    @Autowired
+    private TextIndexService textIndexService;
+
     @Test
     @Transactional
     public void shouldUpdate4() {
@@ -65,6 +70,101 @@ public class JpaCrudServiceTest {
         Assert.assertTrue(result.isEmpty());
     }
 
+    @Test
+    @Transactional
+    public void findByFieldsShouldQueryDatabaseWhenTextIndexHasNoCandidates() {
+        textIndexService.rebuild(DummyEntity.class);
+        // the index is updated after commit, so it doesn't know this entity yet
+        crudService.save(new DummyEntity("Uncommitted"));
+
+        List<DummyEntity> result = crudService.findByFields(DummyEntity.class, "Uncommitted", "name");
+        Assert.assertEquals(1, result.size());
+    }
+
+    @Test
+    public void findByFieldsShouldNotChangeDefaultParams() {
+        DummyEntity entity = new DummyEntity("Indexed", "TypeI", 1);
+        crudService.executeWithinTransaction(() -> crudService.save(entity));
+        try {
+            textIndexService.rebuild(DummyEntity.class);
+            QueryParameters defaultParams = with("type", "TypeI");
+
+            List<DummyEntity> result = crudService.findByFields(DummyEntity.class, "Indexed", defaultParams, "name");
+
+            Assert.assertEquals(1, result.size());
+            Assert.assertEquals(1, defaultParams.size());
+            Assert.assertTrue(defaultParams.getGroups().isEmpty());
+        } finally {
+            crudService.executeWithinTransaction(() -> crudService.delete(DummyEntity.class, entity.getId()));
+        }
+    }
+
+    @Test
+    public void findByFieldsShouldFindShortTermsInsideWords() {
+        DummyEntity entity = new DummyEntity("Xjuanx");
+        DummyEntity prefixed = new DummyEntity("uaxe");
+        crudService.executeWithinTransaction(() -> {
+            crudService.save(entity);
+            crudService.save(prefixed);
+        });
+        try {
+            textIndexService.rebuild(DummyEntity.class);
+
+            // the index only knows "uaxe" starts with "ua", the like query also matches "Xjuanx"
+            List<DummyEntity> result = crudService.findByFields(DummyEntity.class, "ua", "name");
+
+            Assert.assertTrue(result.stream().anyMatch(e -> e.getId().equals(entity.getId())));
+            Assert.assertTrue(result.stream().anyMatch(e -> e.getId().equals(prefixed.getId())));
+        } finally {
+            crudService.executeWithinTransaction(() -> {
+                crudService.delete(DummyEntity.class, entity.getId());
+                crudService.delete(DummyEntity.class, prefixed.getId());
+            });
+        }
+    }
+
+    @Test
+    public void findByFieldsShouldNotTrustIndexAfterBulkUpdates() {
+        DummyEntity indexed = new DummyEntity("Zeta One", "TypeZ", 1);
+        DummyEntity updated = new DummyEntity("Other", "TypeZ", 2);
+        crudService.executeWithinTransaction(() -> {
+            crudService.save(indexed);
+            crudService.save(updated);
+        });
+        try {
+            textIndexService.rebuild(DummyEntity.class);
+            crudService.executeWithinTransaction(() ->
+                    crudService.batchUpdate(DummyEntity.class, "name", "Zeta Two", with("id", updated.getId())));
+
+            List<DummyEntity> result = crudService.findByFields(DummyEntity.class, "Zeta", "name");
+
+            Assert.assertEquals(2, result.size());
+        } finally {
+            crudService.executeWithinTransaction(() -> {
+                crudService.delete(DummyEntity.class, indexed.getId());
+                crudService.delete(DummyEntity.class, updated.getId());
+            });
+        }
+    }
+
+    @Test
+    public void findByFieldsShouldSeeEntitiesOfCurrentTransaction() {
+        DummyEntity committed = new DummyEntity("Gamma One");
+        crudService.executeWithinTransaction(() -> crudService.save(committed));
+        try {
+            textIndexService.rebuild(DummyEntity.class);
+
+            crudService.executeWithinTransaction(() -> {
+                DummyEntity pending = crudService.save(new DummyEntity("Gamma Two"));
+                List<DummyEntity> result = crudService.findByFields(DummyEntity.class, "Gamma", "name");
+                Assert.assertEquals(2, result.size());
+                crudService.delete(pending);
+            });
+        } finally {
+            crudService.executeWithinTransaction(() -> crudService.delete(DummyEntity.class, committed.getId()));
+        }
+    }
+
     @Test
     @Transactional
     public void shouldFind4UsingStaticHelperMethods() {
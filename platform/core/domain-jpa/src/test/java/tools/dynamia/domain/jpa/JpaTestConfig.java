@@ -10,8 +10,11 @@ import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.PlatformTransactionManager;
 import tools.dynamia.domain.EntityUtilsProvider;
 import tools.dynamia.domain.services.CrudService;
+import tools.dynamia.domain.services.TextIndexService;
+import tools.dynamia.domain.services.impl.DefaultTextIndexService;
 import tools.dynamia.integration.ObjectContainer;
 import tools.dynamia.integration.SpringObjectContainer;
+import tools.dynamia.io.converters.StringConverter;
 
 import javax.sql.DataSource;
 
@@ -57,6 +60,18 @@ public class JpaTestConfig {
         return new JpaCrudService(null);
     }
 
+    @Bean
+    public TextIndexService textIndexService() {
+        var service = new DefaultTextIndexService(crudService());
+        service.register(DummyEntity.class, "name");
+        return service;
+    }
+
+    @Bean
+    public StringConverter stringConverter() {
+        return new StringConverter();
+    }
+
     @Bean
     public EntityUtilsProvider entityUtilsProvider() {
         return new JpaEntityUtilsProvider();
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain.jpa;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+import tools.dynamia.domain.jdbc.JdbcHelper;
+import tools.dynamia.domain.jdbc.QueryInterruptedException;
+import tools.dynamia.domain.query.QueryDeadline;
+import tools.dynamia.domain.query.QueryParameters;
+import tools.dynamia.domain.services.CrudService;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Run slow queries in H2 to check that deadlines used by long operations stop them in the database
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = JpaTestConfig.class)
+public class QueryDeadlineH2Test {
+
+    private static final String SLOW_SQL = "select count(*) from system_range(1, 100000) a, system_range(1, 100000) b";
+    private static final String SLOW_JPQL = "select count(a) from DummyEntity a, DummyEntity b, DummyEntity c, DummyEntity d";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CrudService crudService;
+
+    @Test
+    public void jdbcHelperShouldApplyTimeout() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            JdbcHelper helper = new JdbcHelper(connection);
+            QueryDeadline deadline = QueryDeadline.of(Duration.ofMillis(500));
+
+            assertStopped(() -> deadline.run(() -> helper.query(SLOW_SQL)), 1);
+        }
+    }
+
+    @Test
+    public void jdbcHelperShouldStopStatementOnCancel() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            JdbcHelper helper = new JdbcHelper(connection);
+            QueryDeadline deadline = QueryDeadline.cancellable();
+
+            cancelLater(deadline);
+            assertStopped(() -> deadline.run(() -> helper.query(SLOW_SQL)), 0);
+        }
+    }
+
+    @Test
+    @Transactional
+    public void jpaCrudServiceShouldApplyTimeout() {
+        createRows();
+        QueryDeadline deadline = QueryDeadline.of(Duration.ofMillis(500));
+
+        assertStopped(() -> crudService.executeQuery(SLOW_JPQL, new QueryParameters().setDeadline(deadline)), 1);
+    }
+
+    @Test
+    @Transactional
+    public void jpaCrudServiceShouldStopStatementOnCancel() {
+        createRows();
+        QueryDeadline deadline = QueryDeadline.cancellable();
+
+        cancelLater(deadline);
+        assertStopped(() -> deadline.run(() -> crudService.executeQuery(SLOW_JPQL, new QueryParameters())), 0);
+    }
+
+    private void createRows() {
+        for (int i = 0; i < 300; i++) {
+            crudService.save(new DummyEntity("Dummy" + i));
+        }
+        // flush inserts now, so the cancel reach the slow query and not the auto flush
+        crudService.count(DummyEntity.class);
+    }
+
+    private static void cancelLater(QueryDeadline deadline) {
+        CompletableFuture.runAsync(deadline::cancel, CompletableFuture.delayedExecutor(500, TimeUnit.MILLISECONDS));
+    }
+
+    private static void assertStopped(Runnable query, long expectedTimeouts) {
+        QueryDeadline.resetCounters();
+        long start = System.nanoTime();
+
+        Assert.assertThrows(QueryInterruptedException.class, query::run);
+
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 10);
+        Assert.assertEquals(expectedTimeouts, QueryDeadline.getTimedOutCount());
+        Assert.assertEquals(1 - expectedTimeouts, QueryDeadline.getCancelledCount());
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain.jpa;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.dynamia.domain.services.CrudService;
+import tools.dynamia.domain.util.ReadRouting;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static tools.dynamia.domain.query.QueryParameters.with;
+
+public class ReadReplicaRoutingDataSourceTest {
+
+    private ReadReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @Before
+    public void setup() {
+        // other tests running in this thread may have written recently
+        ReadRouting.clear();
+        routing = new ReadReplicaRoutingDataSource(database("primary"), database("replica"));
+        DataSource dataSource = routing.lazy();
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(txManager);
+        readOnly = new TransactionTemplate(txManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @After
+    public void cleanup() {
+        ReadRouting.clear();
+    }
+
+    @Test
+    public void shouldReadFromReplicaInReadOnlyTransactions() {
+        assertEquals("replica", readOnly.execute(status -> source()));
+        assertEquals("primary", readWrite.execute(status -> source()));
+        assertEquals("primary", source());
+        assertEquals("replica", ReadRouting.replica(this::source));
+        assertEquals(2, routing.getReplicaConnections());
+    }
+
+    @Test
+    public void shouldReadYourWrites() {
+        readWrite.execute(status -> {
+            ReadRouting.markWrite();
+            return null;
+        });
+
+        assertEquals("primary", readOnly.execute(status -> source()));
+        assertEquals("primary", ReadRouting.replica(this::source));
+
+        routing.setReadYourWritesWindow(Duration.ZERO);
+        assertEquals("replica", readOnly.execute(status -> source()));
+    }
+
+    @Test
+    public void shouldFallbackToPrimaryWhenReplicaLags() {
+        routing.setLagProbe(replica -> 60_000);
+        routing.checkReplicas();
+
+        assertEquals("primary", readOnly.execute(status -> source()));
+        assertEquals(0, routing.getAvailableReplicas());
+        assertEquals(1, routing.getFallbacks());
+    }
+
+    @Test
+    public void shouldRouteFindReadOnlyToReplicaWithJpaTransactionManager() {
+        ReadReplicaRoutingDataSource jpaRouting = new ReadReplicaRoutingDataSource(jpaDatabase("primary"), jpaDatabase("replica"));
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(DataSource.class, jpaRouting::lazy);
+            context.register(RoutingJpaConfig.class);
+            context.refresh();
+            CrudService crudService = context.getBean(CrudService.class);
+
+            List<DummyEntity> replicaResult = crudService.findReadOnly(DummyEntity.class, with("type", "routing"));
+            assertEquals("replica", replicaResult.getFirst().getName());
+            assertTrue(jpaRouting.getReplicaConnections() > 0);
+
+            List<DummyEntity> primaryResult = crudService.find(DummyEntity.class, with("type", "routing"));
+            assertEquals("primary", primaryResult.getFirst().getName());
+        }
+    }
+
+    @Test
+    public void shouldWriteToPrimaryAfterCountWithBoundEntityManager() {
+        DataSource primary = jpaDatabase("primary");
+        DataSource replica = jpaDatabase("replica");
+        ReadReplicaRoutingDataSource jpaRouting = new ReadReplicaRoutingDataSource(primary, replica);
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(DataSource.class, jpaRouting::lazy);
+            context.register(RoutingJpaConfig.class);
+            context.refresh();
+            CrudService crudService = context.getBean(CrudService.class);
+            EntityManagerFactory emf = context.getBean(EntityManagerFactory.class);
+
+            // same binding done by open entity manager in view
+            EntityManager em = emf.createEntityManager();
+            TransactionSynchronizationManager.bindResource(emf, new EntityManagerHolder(em));
+            try {
+                assertEquals(1L, crudService.count(DummyEntity.class));
+                crudService.create(new DummyEntity("created", "routing", 2));
+            } finally {
+                TransactionSynchronizationManager.unbindResource(emf);
+                em.close();
+            }
+
+            assertEquals(0, jpaRouting.getReplicaConnections());
+        }
+
+        assertEquals(2, rows(primary));
+        assertEquals(1, rows(replica));
+    }
+
+    private static int rows(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("select count(*) from test_DummyEntity", Integer.class);
+    }
+
+    private String source() {
+        return jdbc.queryForObject("select name from source", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource ds = new DriverManagerDataSource("jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1", "sa", "sa");
+        ds.setDriverClassName("org.h2.Driver");
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        jdbc.execute("create table if not exists source (name varchar(20))");
+        jdbc.execute("delete from source");
+        jdbc.update("insert into source values (?)", name);
+        return ds;
+    }
+
+    private static DataSource jpaDatabase(String name) {
+        DriverManagerDataSource ds = new DriverManagerDataSource("jdbc:h2:mem:routing_jpa_" + name + ";DB_CLOSE_DELAY=-1", "sa", "sa");
+        ds.setDriverClassName("org.h2.Driver");
+        EntityManagerFactory emf = entityManagerFactory(ds);
+        try (EntityManager em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            em.createQuery("delete from DummyEntity").executeUpdate();
+            em.persist(new DummyEntity(name, "routing", 1));
+            em.getTransaction().commit();
+        } finally {
+            emf.close();
+        }
+        return ds;
+    }
+
+    private static EntityManagerFactory entityManagerFactory(DataSource dataSource) {
+        var emf = new LocalContainerEntityManagerFactoryBean();
+        emf.setPackagesToScan("tools.dynamia.domain.jpa");
+        emf.setDataSource(dataSource);
+        var hb = new HibernateJpaVendorAdapter();
+        hb.setGenerateDdl(true);
+        hb.setDatabasePlatform("org.hibernate.dialect.H2Dialect");
+        emf.setJpaVendorAdapter(hb);
+        emf.afterPropertiesSet();
+        return emf.getObject();
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class RoutingJpaConfig {
+
+        @Bean
+        public EntityManagerFactory entityManagerFactory(DataSource dataSource) {
+            return ReadReplicaRoutingDataSourceTest.entityManagerFactory(dataSource);
+        }
+
+        @Bean
+        public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+
+        @Bean
+        public CrudService crudService() {
+            return new JpaCrudService(null);
+        }
+    }
+}
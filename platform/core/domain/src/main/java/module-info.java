@@ -4,6 +4,7 @@ open module tools.dynamia.domain {
     requires jakarta.validation;
 
 
+    requires spring.core;
     requires spring.context;
     requires java.sql;
     requires spring.jdbc;
@@ -4,8 +4,6 @@ import tools.dynamia.commons.ObjectOperations;
 import tools.dynamia.commons.Callback;
 import tools.dynamia.commons.logger.LoggingService;
 import tools.dynamia.commons.logger.SLF4JLoggingService;
-import tools.dynamia.commons.reflect.ReflectionException;
-import tools.dynamia.domain.query.QueryCondition;
 import tools.dynamia.domain.query.QueryParameters;
 import tools.dynamia.domain.services.ValidatorService;
 import tools.dynamia.domain.services.impl.AbstractCrudService;
@@ -19,17 +17,29 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 /**
  * Very simple in memory implementation of {@link tools.dynamia.domain.services.CrudService} use only for unit testing.
  * Never use this class in production or something bad could happen.
+ * <p>
+ * Entities are stored per type with a primary key map. Query parameters are compiled to predicates and, when a type
+ * has at least {@link #getIndexThreshold()} entities, equality, in list, between and sort queries use secondary
+ * indexes created on demand for the queried properties. Indexes are maintained by create, update, delete, updateField
+ * and counter methods.
+ * <p>
+ * Candidates found by indexes are always tested again against current property values, so an entity changed
+ * without {@link #update(Object)} is never returned for a value it no longer has. But an indexed lookup cannot find
+ * it by its new value either, while a scan of a smaller type would. Entities changed directly after being indexed
+ * must be passed to {@link #update(Object)}, or call {@link #reindex(Class)} after bulk changes.
  */
 public class InMemoryCrudService extends AbstractCrudService {
 
     private static LoggingService LOGGER = new SLF4JLoggingService(InMemoryCrudService.class);
     private List<CrudServiceListener> listeners;
-    private Map<Class<?>, List<Object>> database = new ConcurrentHashMap<>();
+    private Map<Class<?>, InMemoryEntityTable> database = new ConcurrentHashMap<>();
     private ValidatorService validator;
+    private int indexThreshold = 1000;
 
     public InMemoryCrudService() {
     }
@@ -43,8 +53,22 @@ public class InMemoryCrudService extends AbstractCrudService {
         this.validator = validator;
     }
 
+    /**
+     * Return an unmodifiable view of stored entities of the given class in insertion order
+     */
     public List<Object> getEntities(Class<?> entityClass) {
-        return database.computeIfAbsent(entityClass, k -> new ArrayList<>());
+        return getTable(entityClass).rows();
+    }
+
+    private InMemoryEntityTable getTable(Class<?> entityClass) {
+        return database.computeIfAbsent(entityClass, k -> new InMemoryEntityTable(InMemoryCrudService::findId));
+    }
+
+    private void refresh(Object entity) {
+        InMemoryEntityTable table = entity != null ? database.get(entity.getClass()) : null;
+        if (table != null) {
+            table.refresh(entity);
+        }
     }
 
     protected List<?> filter(QueryParameters parameters, List<?> objects, Class<?> type) {
@@ -54,60 +78,17 @@ public class InMemoryCrudService extends AbstractCrudService {
         }
         parameters.setType(type);
         fireListeners(parameters, EventType.BEFORE_QUERY);
-        if (parameters.isEmpty()) {
-            return objects;
-        } else {
-            List<?> filtered = objects;
-            for (Map.Entry<String, Object> entry : parameters.entrySet()) {
-                String property = entry.getKey();
-                Object value = entry.getValue();
-
-                filtered = filterByProperty(filtered, property, value);
-
-            }
-            objects = filtered;
-        }
-        fireListeners(parameters, EventType.AFTER_QUERY);
-        return objects;
-    }
-
-    private List<?> filterByProperty(List<?> sample, String property, Object value) {
-        List<Object> result = new ArrayList<>();
-        for (Object bean : sample) {
-            if (bean != null) {
-                Object beanPropertyValue = null;
-
-                try {
-                    beanPropertyValue = ObjectOperations.invokeGetMethod(bean, property);
-                } catch (ReflectionException e) {
-                    try {
-                        beanPropertyValue = ObjectOperations.invokeBooleanGetMethod(bean, property);
-                    } catch (Exception ex) {
-                        LOGGER.warn("Cannot filter: " + ex.getMessage());
-                    }
-                }
-
-                if (beanPropertyValue != null) {
-                    if (value instanceof QueryCondition<?> queryCondition) {
-                        try {
-                            if (queryCondition.match(beanPropertyValue)) {
-                                result.add(bean);
-                            }
-                        } catch (UnsupportedOperationException e) {
-                            LOGGER.warn("QueryCondition " + value + " not supported");
-                        }
-                    } else if (beanPropertyValue.equals(value)) {
-                        result.add(bean);
-
-                    }
-                }
-            }
+        if (parameters.isEmpty() && !parameters.isSorted()) {
+            return new ArrayList<>(objects);
         }
 
+        InMemoryQuery query = InMemoryQuery.compile(type, parameters);
+        InMemoryEntityTable table = database.get(type);
+        List<Object> result = table != null && table.rows() == objects ? query.execute(table, indexThreshold) : query.execute(objects);
+        fireListeners(result, EventType.AFTER_QUERY, type);
         return result;
     }
 
-
     @Override
     protected List<CrudServiceListener> getListeners() {
         return listeners;
@@ -133,6 +114,29 @@ public class InMemoryCrudService extends AbstractCrudService {
         return validator;
     }
 
+    public int getIndexThreshold() {
+        return indexThreshold;
+    }
+
+    /**
+     * Min number of entities of a type to query them using indexes, smaller types are scanned. Default 1000. See the
+     * class documentation for the update contract of indexed types
+     */
+    public void setIndexThreshold(int indexThreshold) {
+        this.indexThreshold = indexThreshold;
+    }
+
+    /**
+     * Rebuild secondary indexes of the given type from current property values. Use it after changing stored
+     * entities without {@link #update(Object)}
+     */
+    public void reindex(Class<?> entityClass) {
+        InMemoryEntityTable table = database.get(entityClass);
+        if (table != null) {
+            table.dropIndexes();
+        }
+    }
+
     @Override
     public Serializable getId(Class entityClass, QueryParameters params) {
         Serializable id = null;
@@ -161,13 +165,13 @@ public class InMemoryCrudService extends AbstractCrudService {
             fireListeners(t, EventType.BEFORE_CREATE);
             validate(t);
             LOGGER.info("Creating entity: " + t);
-            var entities = getEntities(t.getClass());
-            entities.add(t);
+            var table = getTable(t.getClass());
             try {
-                ObjectOperations.setFieldValue("id", t, Long.valueOf(entities.size()));
+                ObjectOperations.setFieldValue("id", t, Long.valueOf(table.nextId()));
             } catch (Exception e) {
                 //ignore
             }
+            table.add(t);
             fireListeners(t, EventType.AFTER_CREATE);
         }
         return t;
@@ -178,6 +182,7 @@ public class InMemoryCrudService extends AbstractCrudService {
         fireListeners(t, EventType.BEFORE_UPDATE);
         validate(t);
         LOGGER.info("Updating entity: " + t);
+        refresh(t);
         fireListeners(t, EventType.AFTER_UPDATE);
         return t;
     }
@@ -187,7 +192,7 @@ public class InMemoryCrudService extends AbstractCrudService {
         if (t != null) {
             fireListeners(t, EventType.BEFORE_DELETE);
             LOGGER.info("Deleting entity: " + t);
-            getEntities(t.getClass()).remove(t);
+            getTable(t.getClass()).remove(t);
             fireListeners(t, EventType.AFTER_DELETE);
         }
     }
@@ -196,8 +201,10 @@ public class InMemoryCrudService extends AbstractCrudService {
     public void delete(Class type, Serializable id) {
 
         try {
-            List entities = getEntities(type);
-            Object entity = entities.stream().filter(o -> id.equals(findId(o))).findFirst().orElse(null);
+            Object entity = getTable(type).findById(id);
+            if (entity == null) {
+                entity = getEntities(type).stream().filter(o -> id.equals(findId(o))).findFirst().orElse(null);
+            }
             if (entity != null) {
                 delete(entity);
             }
@@ -209,7 +216,7 @@ public class InMemoryCrudService extends AbstractCrudService {
     @Override
     public void deleteAll(Class type) {
         LOGGER.info("Deleting all entities ");
-        getEntities(type).clear();
+        getTable(type).clear();
     }
 
     @Override
@@ -217,6 +224,7 @@ public class InMemoryCrudService extends AbstractCrudService {
         try {
             LOGGER.info("Updating entity: " + entity + " field: " + field + " value: " + value);
             ObjectOperations.setFieldValue(field, entity, value);
+            refresh(entity);
         } catch (Exception e) {
             LOGGER.error("Error updating field  [" + field + "] of entity " + entity + " with value [" + value + "]");
         }
@@ -248,6 +256,20 @@ public class InMemoryCrudService extends AbstractCrudService {
         return executeQuery(queryBuilder, queryBuilder.getQueryParameters());
     }
 
+    /**
+     * Stream a snapshot of matching entities, so the stream is not affected by entities created or deleted while consuming it
+     */
+    @Override
+    public <T> Stream<T> stream(Class<T> type, QueryParameters parameters) {
+        return new ArrayList<>(find(type, parameters)).stream();
+    }
+
+    @Override
+    public <T> Stream<T> executeQueryStream(QueryBuilder queryBuilder) {
+        List<T> result = executeQuery(queryBuilder);
+        return new ArrayList<>(result).stream();
+    }
+
     @Override
     public <T> List<T> executeQuery(String queryText) {
         return List.of();
@@ -277,13 +299,13 @@ public class InMemoryCrudService extends AbstractCrudService {
 
     @Override
     public <T> List<T> findByFields(Class<T> type, String param, String... fields) {
-        return (List<T>) getEntities(type);
+        return (List<T>) new ArrayList<>(getEntities(type));
     }
 
     @Override
     public <T> List<T> findByFields(Class<T> type, String param, QueryParameters defaultParams, String...
             fields) {
-        return (List<T>) getEntities(type);
+        return (List<T>) new ArrayList<>(getEntities(type));
     }
 
     @Override
@@ -349,6 +371,7 @@ public class InMemoryCrudService extends AbstractCrudService {
             number = number + 1;
             ObjectOperations.setFieldValue(counterName, entity, number);
         }
+        refresh(entity);
     }
 
     @Override
@@ -361,6 +384,7 @@ public class InMemoryCrudService extends AbstractCrudService {
             number = number - 1;
             ObjectOperations.setFieldValue(counterName, entity, number);
         }
+        refresh(entity);
     }
 
 
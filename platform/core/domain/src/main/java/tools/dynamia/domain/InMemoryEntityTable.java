@@ -0,0 +1,351 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Entities of a single type stored by {@link InMemoryCrudService}. Keeps rows in insertion order, a primary key
+ * hash map and secondary indexes created on demand for queried properties. Indexes are updated when entities are
+ * added, removed or refreshed by the service. Not thread safe.
+ */
+final class InMemoryEntityTable {
+
+    private final Function<Object, Object> idReader;
+    private final List<Object> rows = new ArrayList<>();
+    private final List<Object> rowsView = Collections.unmodifiableList(rows);
+    private final Map<Object, Row> rowInfo = new IdentityHashMap<>();
+    private final Map<Object, Object> byId = new HashMap<>();
+    private final Map<String, Index> indexes = new HashMap<>();
+    private long idSequence;
+    private long ordinalSequence;
+
+    InMemoryEntityTable(Function<Object, Object> idReader) {
+        this.idReader = idReader;
+    }
+
+    /**
+     * Unmodifiable view of all entities in insertion order
+     */
+    List<Object> rows() {
+        return rowsView;
+    }
+
+    int size() {
+        return rows.size();
+    }
+
+    long nextId() {
+        return ++idSequence;
+    }
+
+    void add(Object entity) {
+        if (rowInfo.containsKey(entity)) {
+            refresh(entity);
+            return;
+        }
+        Object id = idReader.apply(entity);
+        rows.add(entity);
+        rowInfo.put(entity, new Row(ordinalSequence++, id));
+        if (id != null) {
+            byId.put(id, entity);
+        }
+        indexes.values().forEach(index -> index.add(entity));
+    }
+
+    /**
+     * Remove the stored entity that is the same instance or equal to the given one
+     */
+    boolean remove(Object entity) {
+        Object stored = resolve(entity);
+        if (stored == null) {
+            return false;
+        }
+
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i) == stored) {
+                rows.remove(i);
+                break;
+            }
+        }
+        Row row = rowInfo.remove(stored);
+        if (row.id != null) {
+            byId.remove(row.id, stored);
+        }
+        indexes.values().forEach(index -> index.remove(stored));
+        return true;
+    }
+
+    /**
+     * Update the primary key and indexes of a stored entity after its properties changed
+     */
+    void refresh(Object entity) {
+        Row row = rowInfo.get(entity);
+        if (row == null) {
+            return;
+        }
+
+        Object id = idReader.apply(entity);
+        if (row.id != null && !row.id.equals(id)) {
+            byId.remove(row.id, entity);
+        }
+        row.id = id;
+        if (id != null) {
+            byId.put(id, entity);
+        }
+        indexes.values().forEach(index -> index.refresh(entity));
+    }
+
+    /**
+     * Drop secondary indexes, they are created again from current property values on next query
+     */
+    void dropIndexes() {
+        indexes.clear();
+    }
+
+    void clear() {
+        rows.clear();
+        rowInfo.clear();
+        byId.clear();
+        indexes.clear();
+        idSequence = 0;
+    }
+
+    Object findById(Object id) {
+        return id != null ? byId.get(id) : null;
+    }
+
+    /**
+     * Return the index of the property, building it from current rows the first time
+     */
+    Index index(String property, Function<Object, Object> accessor) {
+        Index index = indexes.get(property);
+        if (index == null) {
+            index = new Index(accessor);
+            rows.forEach(index::add);
+            indexes.put(property, index);
+        }
+        return index;
+    }
+
+    /**
+     * Sort entities taken from indexes back to insertion order
+     */
+    void sortByInsertion(List<Object> entities) {
+        entities.sort(Comparator.comparingLong(entity -> {
+            Row row = rowInfo.get(entity);
+            return row != null ? row.ordinal : Long.MAX_VALUE;
+        }));
+    }
+
+    private Object resolve(Object entity) {
+        if (rowInfo.containsKey(entity)) {
+            return entity;
+        }
+
+        Object stored = findById(idReader.apply(entity));
+        if (stored != null && stored.equals(entity)) {
+            return stored;
+        }
+
+        for (Object row : rows) {
+            if (row.equals(entity)) {
+                return row;
+            }
+        }
+        return null;
+    }
+
+    private static final class Row {
+        private final long ordinal;
+        private Object id;
+
+        private Row(long ordinal, Object id) {
+            this.ordinal = ordinal;
+            this.id = id;
+        }
+    }
+
+    /**
+     * Secondary index of a property. Non null values are hashed, and when all of them are {@link Comparable} of the
+     * same class a sorted view is built the first time a range or sort is requested.
+     */
+    static final class Index {
+
+        private final Function<Object, Object> accessor;
+        private final Map<Object, List<Object>> buckets = new HashMap<>();
+        private final Map<Object, Object> keys = new IdentityHashMap<>();
+        private final List<Object> nulls = new ArrayList<>();
+        private TreeMap<Object, List<Object>> sorted;
+        private Class<?> keyClass;
+        private boolean sortable = true;
+
+        private Index(Function<Object, Object> accessor) {
+            this.accessor = accessor;
+        }
+
+        /**
+         * Entities with the given property value, never null
+         */
+        List<Object> get(Object key) {
+            List<Object> bucket = buckets.get(key);
+            return bucket != null ? bucket : Collections.emptyList();
+        }
+
+        /**
+         * Return true if range queries with these bounds can be answered by this index
+         */
+        boolean canRange(Object lo, Object hi) {
+            return isSortable() && (keyClass == null || (lo.getClass() == keyClass && hi.getClass() == keyClass));
+        }
+
+        /**
+         * Entities with property values between lo and hi, both inclusive. Call only if {@link #canRange(Object, Object)}
+         */
+        List<Object> range(Object lo, Object hi) {
+            List<Object> result = new ArrayList<>();
+            if (keyClass != null && sorted.comparator().compare(lo, hi) <= 0) {
+                sorted.subMap(lo, true, hi, true).values().forEach(result::addAll);
+            }
+            return result;
+        }
+
+        /**
+         * Return true if values can be ranged and ordered by this index, building the sorted view if needed
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        boolean isSortable() {
+            if (sortable && sorted == null && keyClass != null) {
+                sorted = new TreeMap<>((a, b) -> ((Comparable) a).compareTo(b));
+                for (Map.Entry<Object, List<Object>> entry : buckets.entrySet()) {
+                    if (sorted.putIfAbsent(entry.getKey(), entry.getValue()) != null) {
+                        // equals and compareTo disagree, like BigDecimal scales
+                        sortable = false;
+                        sorted = null;
+                        break;
+                    }
+                }
+            }
+            return sortable;
+        }
+
+        /**
+         * All entities ordered by property value, null values at the end. Call only if {@link #isSortable()}
+         */
+        List<Object> ordered(boolean ascending) {
+            List<Object> result = new ArrayList<>(keys.size() + nulls.size());
+            if (keyClass != null) {
+                NavigableMap<Object, List<Object>> map = ascending ? sorted : sorted.descendingMap();
+                map.values().forEach(result::addAll);
+            }
+            result.addAll(nulls);
+            return result;
+        }
+
+        private void add(Object entity) {
+            Object key = accessor.apply(entity);
+            if (key == null) {
+                nulls.add(entity);
+                return;
+            }
+
+            keys.put(entity, key);
+            List<Object> bucket = buckets.get(key);
+            if (bucket == null) {
+                bucket = new ArrayList<>(1);
+                buckets.put(key, bucket);
+                trackKey(key, bucket);
+            }
+            bucket.add(entity);
+        }
+
+        private void remove(Object entity) {
+            Object key = keys.remove(entity);
+            if (key == null) {
+                removeSame(nulls, entity);
+                return;
+            }
+
+            List<Object> bucket = buckets.get(key);
+            if (bucket != null) {
+                removeSame(bucket, entity);
+                if (bucket.isEmpty()) {
+                    buckets.remove(key);
+                    if (sorted != null) {
+                        sorted.remove(key);
+                    }
+                }
+            }
+        }
+
+        private void refresh(Object entity) {
+            Object key = keys.get(entity);
+            Object current = accessor.apply(entity);
+            boolean indexed = key != null || containsSame(nulls, entity);
+            if (indexed && (key == null ? current == null : key.equals(current))) {
+                return;
+            }
+            remove(entity);
+            add(entity);
+        }
+
+        private void trackKey(Object key, List<Object> bucket) {
+            if (!sortable) {
+                return;
+            }
+
+            if (keyClass == null) {
+                keyClass = key.getClass();
+            }
+            if (key.getClass() != keyClass || !(key instanceof Comparable)) {
+                sortable = false;
+                sorted = null;
+            } else if (sorted != null && sorted.putIfAbsent(key, bucket) != null) {
+                sortable = false;
+                sorted = null;
+            }
+        }
+
+        private static void removeSame(List<Object> list, Object entity) {
+            for (int i = 0; i < list.size(); i++) {
+                if (list.get(i) == entity) {
+                    list.remove(i);
+                    return;
+                }
+            }
+        }
+
+        private static boolean containsSame(Collection<Object> list, Object entity) {
+            for (Object item : list) {
+                if (item == entity) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
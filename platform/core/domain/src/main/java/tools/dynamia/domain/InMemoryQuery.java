@@ -0,0 +1,290 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain;
+
+import tools.dynamia.commons.BeanSorter;
+import tools.dynamia.commons.ObjectOperations;
+import tools.dynamia.commons.logger.LoggingService;
+import tools.dynamia.commons.logger.SLF4JLoggingService;
+import tools.dynamia.commons.reflect.ClassReflectionInfo;
+import tools.dynamia.commons.reflect.PropertyHandle;
+import tools.dynamia.commons.reflect.ReflectionException;
+import tools.dynamia.domain.query.Between;
+import tools.dynamia.domain.query.Equals;
+import tools.dynamia.domain.query.Inlist;
+import tools.dynamia.domain.query.NotInList;
+import tools.dynamia.domain.query.QueryCondition;
+import tools.dynamia.domain.query.QueryParameters;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * {@link QueryParameters} compiled to predicates for in memory evaluation. Each parameter is bound to a cached
+ * {@link PropertyHandle} of the entity type and to a value matcher built once per query, so rows are tested without
+ * reflection lookups. When the table is big enough equality, in list and between conditions are answered using
+ * the table indexes and only the smallest candidate set is tested.
+ */
+final class InMemoryQuery {
+
+    private static final LoggingService LOGGER = new SLF4JLoggingService(InMemoryQuery.class);
+
+    private final Class<?> type;
+    private final List<Clause> clauses;
+    private final String sortProperty;
+    private final boolean ascending;
+
+    private InMemoryQuery(Class<?> type, List<Clause> clauses, String sortProperty, boolean ascending) {
+        this.type = type;
+        this.clauses = clauses;
+        this.sortProperty = sortProperty;
+        this.ascending = ascending;
+    }
+
+    static InMemoryQuery compile(Class<?> type, QueryParameters parameters) {
+        List<Clause> clauses = new ArrayList<>(parameters.size());
+        for (Map.Entry<String, Object> entry : parameters.entrySet()) {
+            clauses.add(new Clause(entry.getKey(), accessor(type, entry.getKey()), entry.getValue()));
+        }
+
+        BeanSorter<?> sorter = parameters.getSorter();
+        String sortProperty = parameters.isSorted() ? sorter.getColumnName() : null;
+        return new InMemoryQuery(type, clauses, sortProperty, sorter == null || sorter.isAscending());
+    }
+
+    boolean test(Object bean) {
+        if (bean == null) {
+            return false;
+        }
+        for (Clause clause : clauses) {
+            if (!clause.test(bean)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Evaluate the query against any list of entities
+     */
+    List<Object> execute(List<?> entities) {
+        List<Object> result = new ArrayList<>();
+        for (Object entity : entities) {
+            if (test(entity)) {
+                result.add(entity);
+            }
+        }
+        sort(result);
+        return result;
+    }
+
+    /**
+     * Evaluate the query using the table indexes when the table has at least indexThreshold entities
+     */
+    List<Object> execute(InMemoryEntityTable table, int indexThreshold) {
+        if (table.size() < indexThreshold) {
+            return execute(table.rows());
+        }
+
+        if (clauses.isEmpty() && sortProperty != null) {
+            InMemoryEntityTable.Index index = table.index(sortProperty, accessor(type, sortProperty));
+            if (index.isSortable()) {
+                // index order may be stale if entities changed without update, sorting an ordered list is linear
+                List<Object> result = new ArrayList<>(index.ordered(ascending));
+                sort(result);
+                return result;
+            }
+        }
+
+        Collection<Object> candidates = null;
+        for (Clause clause : clauses) {
+            Collection<Object> found = clause.lookup(table);
+            if (found != null && (candidates == null || found.size() < candidates.size())) {
+                candidates = found;
+                if (candidates.isEmpty()) {
+                    break;
+                }
+            }
+        }
+
+        if (candidates == null) {
+            return execute(table.rows());
+        }
+
+        List<Object> result = new ArrayList<>(candidates.size());
+        for (Object candidate : candidates) {
+            if (test(candidate)) {
+                result.add(candidate);
+            }
+        }
+        table.sortByInsertion(result);
+        sort(result);
+        return result;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void sort(List<Object> result) {
+        if (sortProperty == null || result.size() < 2) {
+            return;
+        }
+
+        Function<Object, Object> accessor = accessor(type, sortProperty);
+        Comparator<Object> comparator = Comparator.comparing(entity -> (Comparable) accessor.apply(entity),
+                Comparator.nullsLast(Comparator.naturalOrder()));
+        try {
+            result.sort(ascending ? comparator : comparator.reversed());
+        } catch (ClassCastException e) {
+            LOGGER.warn("Cannot sort " + type + " by " + sortProperty + ", values are not comparable");
+        }
+    }
+
+    /**
+     * Compiled getter of the property path, reflection is used when no JavaBean accessor exists
+     */
+    static Function<Object, Object> accessor(Class<?> type, String property) {
+        PropertyHandle handle = ClassReflectionInfo.getAccessor(type, property);
+        if (handle.isReadable()) {
+            return bean -> bean.getClass() == type ? handle.get(bean) : invokeGetter(bean, property);
+        }
+        return bean -> invokeGetter(bean, property);
+    }
+
+    private static Object invokeGetter(Object bean, String property) {
+        try {
+            return ObjectOperations.invokeGetMethod(bean, property);
+        } catch (ReflectionException e) {
+            try {
+                return ObjectOperations.invokeBooleanGetMethod(bean, property);
+            } catch (Exception ex) {
+                LOGGER.warn("Cannot filter: " + ex.getMessage());
+                return null;
+            }
+        }
+    }
+
+    private static final class Clause {
+
+        private final String property;
+        private final Function<Object, Object> accessor;
+        private final Object value;
+        private final Predicate<Object> matcher;
+        private boolean unsupported;
+
+        private Clause(String property, Function<Object, Object> accessor, Object value) {
+            this.property = property;
+            this.accessor = accessor;
+            this.value = value;
+            this.matcher = matcher(value);
+        }
+
+        /**
+         * Null property values never match, like the database would do for most conditions
+         */
+        boolean test(Object bean) {
+            if (unsupported) {
+                return false;
+            }
+
+            Object beanValue = accessor.apply(bean);
+            if (beanValue == null) {
+                return false;
+            }
+
+            try {
+                return matcher.test(beanValue);
+            } catch (UnsupportedOperationException e) {
+                unsupported = true;
+                LOGGER.warn("QueryCondition " + value + " not supported");
+                return false;
+            }
+        }
+
+        /**
+         * Candidate entities from table indexes, or null if this clause cannot use indexes
+         */
+        Collection<Object> lookup(InMemoryEntityTable table) {
+            Collection<?> keys = equalityKeys();
+            if (keys != null) {
+                if ("id".equals(property)) {
+                    List<Object> found = new ArrayList<>(keys.size());
+                    for (Object key : keys) {
+                        Object entity = table.findById(key);
+                        if (entity != null) {
+                            found.add(entity);
+                        }
+                    }
+                    return found;
+                }
+
+                InMemoryEntityTable.Index index = table.index(property, accessor);
+                if (keys.size() == 1) {
+                    return index.get(keys.iterator().next());
+                }
+                List<Object> found = new ArrayList<>();
+                for (Object key : new LinkedHashSet<>(keys)) {
+                    found.addAll(index.get(key));
+                }
+                return found;
+            }
+
+            if (value instanceof Between between && between.getValueLo() != null && between.getValueHi() != null) {
+                InMemoryEntityTable.Index index = table.index(property, accessor);
+                if (index.canRange(between.getValueLo(), between.getValueHi())) {
+                    return index.range(between.getValueLo(), between.getValueHi());
+                }
+            }
+            return null;
+        }
+
+        private Collection<?> equalityKeys() {
+            if (value instanceof Equals equals) {
+                return equals.getValue() != null ? List.of(equals.getValue()) : null;
+            } else if (value instanceof Inlist<?> inlist && !(value instanceof NotInList)) {
+                return inlist.getValue();
+            } else if (value != null && !(value instanceof QueryCondition)) {
+                return List.of(value);
+            }
+            return null;
+        }
+
+        private static Predicate<Object> matcher(Object value) {
+            if (value instanceof Equals equals) {
+                Object expected = equals.getValue();
+                return expected != null ? expected::equals : beanValue -> false;
+            } else if (value instanceof NotInList<?> notInList && notInList.getValue() != null) {
+                Set<Object> values = new HashSet<>(notInList.getValue());
+                return beanValue -> !values.contains(beanValue);
+            } else if (value instanceof Inlist<?> inlist && inlist.getValue() != null) {
+                Set<Object> values = new HashSet<>(inlist.getValue());
+                return values::contains;
+            } else if (value instanceof QueryCondition<?> condition) {
+                return condition::match;
+            } else if (value != null) {
+                return beanValue -> beanValue.equals(value);
+            }
+            return beanValue -> false;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain;
+
+import tools.dynamia.domain.services.QueryResultCache;
+import tools.dynamia.domain.util.CrudServiceListenerAdapter;
+import tools.dynamia.integration.sterotypes.Listener;
+
+/**
+ * Invalidate cached query results that depend on the class of created, updated or deleted entities.
+ *
+ * @see QueryResultCache
+ */
+@Listener
+public class QueryResultCacheCrudListener extends CrudServiceListenerAdapter<Object> {
+
+    @Override
+    public void afterCreate(Object entity) {
+        invalidate(entity);
+    }
+
+    @Override
+    public void afterUpdate(Object entity) {
+        invalidate(entity);
+    }
+
+    @Override
+    public void afterDelete(Object entity) {
+        invalidate(entity);
+    }
+
+    private static void invalidate(Object entity) {
+        if (entity != null) {
+            QueryResultCache.invalidateAll(entity.getClass());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain;
+
+import tools.dynamia.domain.util.CrudServiceListenerAdapter;
+import tools.dynamia.domain.util.ReadRouting;
+import tools.dynamia.integration.sterotypes.Listener;
+
+/**
+ * Record writes of the current thread so following reads are served by the primary database instead of read
+ * replicas.
+ *
+ * @see ReadRouting
+ */
+@Listener
+public class ReadRoutingCrudListener extends CrudServiceListenerAdapter<Object> {
+
+    @Override
+    public void afterCreate(Object entity) {
+        ReadRouting.markWrite();
+    }
+
+    @Override
+    public void afterUpdate(Object entity) {
+        ReadRouting.markWrite();
+    }
+
+    @Override
+    public void afterDelete(Object entity) {
+        ReadRouting.markWrite();
+    }
+}
@@ -21,6 +21,7 @@ import tools.dynamia.commons.collect.PagedList;
 import tools.dynamia.domain.query.DataPaginatorPagedListDataSource;
 import tools.dynamia.domain.services.CrudService;
 import tools.dynamia.domain.util.DomainUtils;
+import tools.dynamia.domain.util.ReadRouting;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -59,7 +60,7 @@ public class CrudServiceMultiFunctionProcessor<T> implements MultiFunctionProces
 
                 query.customSelect("select " + String.join(",", projections));
                 CrudService crudService = DomainUtils.lookupCrudService();
-                var queryResult = crudService.executeQuery(query);
+                List<Object> queryResult = ReadRouting.replica(() -> crudService.executeQuery(query));
                 if (!queryResult.isEmpty()) {
                     for (int i = 0; i < functions.size(); i++) {
                         var function = functions.get(i);
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain.jdbc;
+
+import tools.dynamia.commons.ObjectOperations;
+import tools.dynamia.commons.SimpleCache;
+import tools.dynamia.commons.reflect.ClassReflectionInfo;
+import tools.dynamia.commons.reflect.PropertyHandle;
+import tools.dynamia.commons.reflect.PropertyInfo;
+import tools.dynamia.commons.reflect.ReflectionException;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Maps {@link ResultSet} rows to beans of a class. The column index, value conversion and field writer of each
+ * property are resolved once per result columns and bean class, so mapping a row is a loop of
+ * <code>getObject(index)</code> and direct field writes. Mappers are cached by columns labels and class, use
+ * {@link #of(Class, ResultSet)}.
+ * <p>
+ * Properties are matched to columns by name ignoring case. Numbers are converted to the property number type,
+ * booleans can be mapped from Y, true or 1, and any value is converted to String for String properties. Null
+ * values or properties without column are passed to the {@link ObjectMapper}, if any.
+ *
+ * @param <T> the bean type
+ * @author Mario A. Serrano Leones
+ */
+public final class CompiledRowMapper<T> {
+
+    private static final SimpleCache<Key, CompiledRowMapper<?>> CACHE = SimpleCache.<Key, CompiledRowMapper<?>>builder()
+            .maximumSize(512)
+            .build();
+
+    private final Class<T> beanClass;
+    private final PropertyMapping[] mappings;
+
+    private CompiledRowMapper(Class<T> beanClass, List<String> columns) {
+        this.beanClass = beanClass;
+        List<PropertyMapping> list = new ArrayList<>();
+        for (PropertyInfo property : ObjectOperations.getPropertiesInfo(beanClass)) {
+            if (!property.isCollection()) {
+                list.add(new PropertyMapping(property, indexOf(columns, property.getName()), converterFor(property.getType()),
+                        ClassReflectionInfo.getFieldAccessor(beanClass, property.getName())));
+            }
+        }
+        this.mappings = list.toArray(new PropertyMapping[0]);
+    }
+
+    /**
+     * Get a cached mapper for the columns of result set and bean class
+     *
+     * @param beanClass the bean class
+     * @param rs        the result set
+     * @return the compiled mapper
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CompiledRowMapper<T> of(Class<T> beanClass, ResultSet rs) {
+        List<String> columns = columnLabels(rs);
+        return (CompiledRowMapper<T>) CACHE.getOrLoad(new Key(beanClass, columns), key -> new CompiledRowMapper<>(beanClass, columns));
+    }
+
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    /**
+     * Map the current row of result set
+     *
+     * @param rs     the result set
+     * @param mapper optional mapper for properties without value
+     * @return a new bean
+     */
+    public T map(ResultSet rs, ObjectMapper<T> mapper) {
+        T object = ObjectOperations.newInstance(beanClass);
+        for (PropertyMapping mapping : mappings) {
+            Object value = mapping.read(rs);
+            if (value != null) {
+                mapping.write(object, value);
+            } else if (mapper != null) {
+                mapper.map(object, mapping.property, rs);
+            }
+        }
+        return object;
+    }
+
+    public Class<T> getBeanClass() {
+        return beanClass;
+    }
+
+    private static List<String> columnLabels(ResultSet rs) {
+        try {
+            ResultSetMetaData metaData = rs.getMetaData();
+            int count = metaData.getColumnCount();
+            List<String> labels = new ArrayList<>(count);
+            for (int i = 1; i <= count; i++) {
+                labels.add(metaData.getColumnLabel(i));
+            }
+            return List.copyOf(labels);
+        } catch (SQLException e) {
+            throw new JdbcException("Error reading result set columns: " + e.getMessage(), e);
+        }
+    }
+
+    private static int indexOf(List<String> columns, String name) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).equalsIgnoreCase(name)) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static Function<Object, Object> converterFor(Class<?> type) {
+        if (type == Boolean.class || type == boolean.class) {
+            return CompiledRowMapper::toBoolean;
+        } else if (type == Long.class || type == long.class) {
+            return value -> value instanceof Number number ? number.longValue() : value;
+        } else if (type == Double.class || type == double.class) {
+            return value -> value instanceof Number number ? number.doubleValue() : value;
+        } else if (type == Integer.class || type == int.class) {
+            return value -> value instanceof Number number ? number.intValue() : value;
+        } else if (type == Float.class || type == float.class) {
+            return value -> value instanceof Number number ? number.floatValue() : value;
+        } else if (type == BigDecimal.class) {
+            return value -> value instanceof BigDecimal || !(value instanceof Number) ? value : new BigDecimal(value.toString());
+        } else if (type == String.class) {
+            return value -> value instanceof String ? value : value.toString();
+        }
+        return Function.identity();
+    }
+
+    static Object toBoolean(Object value) {
+        return switch (value) {
+            case Boolean b -> value;
+            case String s -> value.equals("Y") || value.equals("true");
+            case Number number -> number.intValue() == 1;
+            case null, default -> value;
+        };
+    }
+
+    private record Key(Class<?> beanClass, List<String> columns) {
+    }
+
+    private record PropertyMapping(PropertyInfo property, int column, Function<Object, Object> converter, PropertyHandle field) {
+
+        Object read(ResultSet rs) {
+            if (column < 0) {
+                return null;
+            }
+            try {
+                return rs.getObject(column);
+            } catch (SQLException e) {
+                return null;
+            }
+        }
+
+        void write(Object bean, Object value) {
+            Object converted = converter.apply(value);
+            if (!field.trySet(bean, converted)) {
+                try {
+                    ObjectOperations.setFieldValue(property, bean, converted);
+                } catch (ReflectionException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+}
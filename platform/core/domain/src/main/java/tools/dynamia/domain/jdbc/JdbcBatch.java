@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Batch of a parameterized statement created by {@link JdbcHelper#batch(String, int)}. Rows are added with
+ * {@link #add(Object...)} and sent to database every batch size rows. Closing the batch flush remaining rows.
+ * <p>
+ * When the helper is not in transaction each flush is committed, so rows flushed before an error are kept and
+ * {@link #getCount()} tells how many rows were added.
+ *
+ * @author Mario A. Serrano Leones
+ */
+public class JdbcBatch implements AutoCloseable {
+
+    private final JdbcHelper helper;
+    private final String sql;
+    private final int batchSize;
+    private final PreparedStatement statement;
+    private final boolean ownTransaction;
+    private final boolean batchSupported;
+    private int pending;
+    private long count;
+    private long updatedRows;
+    private boolean closed;
+
+    JdbcBatch(JdbcHelper helper, String sql, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than 0");
+        }
+        this.helper = helper;
+        this.sql = sql;
+        this.batchSize = batchSize;
+        try {
+            Connection con = helper.getConnection();
+            this.ownTransaction = !helper.isInTransaction() && con.getAutoCommit();
+            if (ownTransaction) {
+                con.setAutoCommit(false);
+            }
+            this.statement = con.prepareStatement(sql);
+            this.batchSupported = con.getMetaData().supportsBatchUpdates();
+        } catch (SQLException e) {
+            throw new JdbcException("Exception creating batch: " + sql + "  " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Add a row of parameters, the batch is flushed when batch size is reached
+     *
+     * @param params the statement params
+     * @return this batch
+     */
+    public JdbcBatch add(Object... params) {
+        if (closed) {
+            throw new JdbcException("Batch is closed");
+        }
+        try {
+            JdbcHelper.applyStatementParams(statement, params);
+            if (batchSupported) {
+                statement.addBatch();
+            } else {
+                updatedRows += statement.executeUpdate();
+            }
+            count++;
+            if (++pending >= batchSize) {
+                flush();
+            }
+        } catch (JdbcException e) {
+            throw e;
+        } catch (Exception e) {
+            throw failed(e);
+        }
+        return this;
+    }
+
+    /**
+     * Execute pending rows and commit them if the batch owns the transaction
+     */
+    public void flush() {
+        if (pending == 0) {
+            return;
+        }
+        try {
+            if (batchSupported) {
+                for (int result : statement.executeBatch()) {
+                    if (result > 0) {
+                        updatedRows += result;
+                    }
+                }
+            }
+            pending = 0;
+            if (ownTransaction) {
+                helper.getConnection().commit();
+            }
+        } catch (SQLException e) {
+            throw failed(e);
+        }
+    }
+
+    /**
+     * Rows added to this batch
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Rows updated as reported by the driver. Drivers may not report counts for batches
+     */
+    public long getUpdatedRows() {
+        return updatedRows;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            closed = true;
+            try {
+                statement.close();
+            } catch (SQLException ignored) {
+            }
+            if (ownTransaction) {
+                try {
+                    helper.getConnection().setAutoCommit(true);
+                } catch (SQLException ignored) {
+                }
+            }
+        }
+    }
+
+    private JdbcException failed(Exception e) {
+        if (ownTransaction || helper.isInTransaction()) {
+            helper.rollback();
+        }
+        pending = 0;
+        return new JdbcException("Exception executing batch: " + sql + "  " + e.getMessage(), e);
+    }
+}
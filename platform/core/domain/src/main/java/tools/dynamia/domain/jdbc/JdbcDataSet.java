@@ -28,13 +28,19 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * The Class JdbcDataSet.
  *
  * @author Mario A. Serrano Leones
  */
-public class JdbcDataSet extends DataSet<ResultSet> implements Iterable<Row> {
+public class JdbcDataSet extends DataSet<ResultSet> implements Iterable<Row>, AutoCloseable {
 
     /**
      * The statement.
@@ -43,6 +49,7 @@ public class JdbcDataSet extends DataSet<ResultSet> implements Iterable<Row> {
     private String name;
     private List<Row> rows;
     private List<String> cols;
+    private Runnable closeHandler;
 
     /**
      * Instantiates a new jdbc data set.
@@ -93,6 +100,7 @@ public class JdbcDataSet extends DataSet<ResultSet> implements Iterable<Row> {
     /**
      * Close.
      */
+    @Override
     public void close() {
         try {
             getResultSet().close();
@@ -102,6 +110,65 @@ public class JdbcDataSet extends DataSet<ResultSet> implements Iterable<Row> {
             statement.close();
         } catch (Exception ignored) {
         }
+        if (closeHandler != null) {
+            Runnable handler = closeHandler;
+            closeHandler = null;
+            handler.run();
+        }
+    }
+
+    /**
+     * Run action after this data set is closed
+     */
+    void onClose(Runnable closeHandler) {
+        Runnable previous = this.closeHandler;
+        this.closeHandler = previous == null ? closeHandler : () -> {
+            previous.run();
+            closeHandler.run();
+        };
+    }
+
+    /**
+     * Lazy stream of detached rows, each row is read from the cursor only when consumed. Closing the stream
+     * close this data set. Rows are not kept in memory so forward-only data sets from
+     * {@link JdbcHelper#stream(String, Object...)} can be processed with constant memory.
+     *
+     * @return the rows stream
+     */
+    public Stream<Row> stream() {
+        if (rows != null) {
+            return rows.stream();
+        }
+        return rowStream().onClose(this::close);
+    }
+
+    private Stream<Row> rowStream() {
+        reset();
+        List<String> columns = getColumnsLabels();
+        Spliterator<Row> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Row> action) {
+                if (!JdbcDataSet.this.next()) {
+                    return false;
+                }
+                action.accept(readRow(columns));
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    private Row readRow(List<String> columns) {
+        ResultSet rs = getResultSet();
+        Object[] values = new Object[columns.size()];
+        try {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rs.getObject(i + 1);
+            }
+        } catch (SQLException e) {
+            throw new JdbcException("Error reading row: " + e.getMessage(), e);
+        }
+        return new Row(columns, values);
     }
 
     /**
@@ -231,17 +298,12 @@ public class JdbcDataSet extends DataSet<ResultSet> implements Iterable<Row> {
         };
     }
 
+    /**
+     * Load all rows in memory. For large results use {@link #stream()}
+     */
     public List<Row> getRows() {
         if (rows == null) {
-            rows = new ArrayList<>();
-            List<String> columns = getColumnsLabels();
-
-            for (Row row : this) {
-
-                row.loadAll(columns);
-                rows.add(row);
-            }
-
+            rows = rowStream().collect(Collectors.toCollection(ArrayList::new));
         }
 
         return rows;
@@ -17,10 +17,8 @@
 package tools.dynamia.domain.jdbc;
 
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
-import tools.dynamia.commons.ObjectOperations;
 import tools.dynamia.commons.logger.AbstractLoggable;
-import tools.dynamia.commons.reflect.PropertyInfo;
-import tools.dynamia.commons.reflect.ReflectionException;
+import tools.dynamia.domain.query.QueryDeadline;
 
 import javax.sql.DataSource;
 import java.math.BigDecimal;
@@ -30,11 +28,17 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * The Class JdbcHelper.
@@ -62,6 +66,10 @@ public class JdbcHelper extends AbstractLoggable {
 
 	private boolean inTransaction;
 
+	private int fetchSize;
+
+	private int streamFetchSize = 1000;
+
 	/**
 	 * Instantiates a new jdbc helper.
 	 *
@@ -94,10 +102,15 @@ public class JdbcHelper extends AbstractLoggable {
 			showSQL(sql);
 			Statement stm = getConnection().createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE,
 					ResultSet.CONCUR_READ_ONLY);
-			ResultSet rs = stm.executeQuery(sql);
-			return new JdbcDataSet(stm, rs);
+			if (fetchSize > 0) {
+				stm.setFetchSize(fetchSize);
+			}
+			try (QueryDeadline.Scope ignored = applyDeadline(stm)) {
+				ResultSet rs = stm.executeQuery(sql);
+				return new JdbcDataSet(stm, rs);
+			}
 		} catch (Exception ex) {
-			throw new JdbcException("Exception executing query: " + sql + "  " + ex.getMessage(), ex);
+			throw queryException("Exception executing query: " + sql + "  " + ex.getMessage(), ex);
 		}
 	}
 
@@ -115,13 +128,18 @@ public class JdbcHelper extends AbstractLoggable {
 			showSQL(sql);
 			PreparedStatement pstm = getConnection().prepareStatement(sql, ResultSet.TYPE_SCROLL_INSENSITIVE,
 					ResultSet.CONCUR_READ_ONLY);
+			if (fetchSize > 0) {
+				pstm.setFetchSize(fetchSize);
+			}
 			if (sql.contains("?") && params != null && params.length > 0) {
 				applyStatementParams(pstm, params);
 			}
-			ResultSet rs = pstm.executeQuery();
-			return new JdbcDataSet(pstm, rs);
+			try (QueryDeadline.Scope ignored = applyDeadline(pstm)) {
+				ResultSet rs = pstm.executeQuery();
+				return new JdbcDataSet(pstm, rs);
+			}
 		} catch (Exception ex) {
-			throw new JdbcException("Exception executing query with params: " + sql + "  " + ex.getMessage(), ex);
+			throw queryException("Exception executing query with params: " + sql + "  " + ex.getMessage(), ex);
 		}
 	}
 
@@ -138,11 +156,123 @@ public class JdbcHelper extends AbstractLoggable {
 		try {
 			showSQL(sql);
 			NamedParameterJdbcTemplate tmp = new NamedParameterJdbcTemplate(dataSource);
+			QueryDeadline deadline = QueryDeadline.current();
+			if (deadline != null) {
+				deadline.check();
+				tmp.getJdbcTemplate().setQueryTimeout(deadline.getRemainingSeconds());
+			}
 			List<Map<String, Object>> result = tmp.queryForList(sql, params);
 			return new JdbcDataSet(result);
 
 		} catch (Exception ex) {
-			throw new JdbcException("Exception executing query with params: " + sql + "  " + ex.getMessage(), ex);
+			throw queryException("Exception executing query with params: " + sql + "  " + ex.getMessage(), ex);
+		}
+	}
+
+	/**
+	 * Execute a query with a forward-only, read-only cursor that fetch rows from database in chunks of
+	 * {@link #getStreamFetchSize()}, so large results are not loaded in memory. Use
+	 * {@link JdbcDataSet#stream()} or iterate the result once and close it, preferably with try-with-resources.
+	 * <p>
+	 * Some drivers (i.e. PostgreSQL) only use cursors when autocommit is disabled, so if the connection is in
+	 * autocommit mode it is disabled until the data set is closed.
+	 *
+	 * <pre>{@code
+	 * try (JdbcDataSet dataSet = helper.stream("select * from invoices where year = ?", 2024);
+	 *      Stream<Row> rows = dataSet.stream()) {
+	 *     rows.forEach(row -> process(row));
+	 * }
+	 * }</pre>
+	 *
+	 * @param sql
+	 *            the sql
+	 * @param params
+	 *            the params
+	 * @return the jdbc data set
+	 */
+	public JdbcDataSet stream(String sql, Object... params) {
+		PreparedStatement pstm = null;
+		boolean restoreAutoCommit = false;
+		try {
+			showSQL(sql);
+			Connection con = getConnection();
+			if (con.getAutoCommit()) {
+				con.setAutoCommit(false);
+				restoreAutoCommit = true;
+			}
+			pstm = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			pstm.setFetchSize(streamFetchSize);
+			if (sql.contains("?") && params != null && params.length > 0) {
+				applyStatementParams(pstm, params);
+			}
+			QueryDeadline.Scope deadlineScope = applyDeadline(pstm);
+			ResultSet rs;
+			try {
+				rs = pstm.executeQuery();
+			} catch (SQLException ex) {
+				deadlineScope.close();
+				throw ex;
+			}
+			JdbcDataSet dataSet = new JdbcDataSet(pstm, rs);
+			// rows are fetched while streaming, so the statement can be cancelled until the data set is closed
+			dataSet.onClose(deadlineScope::close);
+			if (restoreAutoCommit) {
+				dataSet.onClose(() -> restoreAutoCommit(con));
+			}
+			return dataSet;
+		} catch (Exception ex) {
+			if (pstm != null) {
+				try {
+					pstm.close();
+				} catch (SQLException ignored) {
+				}
+			}
+			if (restoreAutoCommit) {
+				restoreAutoCommit(getConnection());
+			}
+			throw queryException("Exception executing streaming query: " + sql + "  " + ex.getMessage(), ex);
+		}
+	}
+
+	/**
+	 * Apply the remaining time of the current {@link QueryDeadline} as statement timeout and cancel the statement
+	 * if the deadline is cancelled, until the returned scope is closed
+	 */
+	private QueryDeadline.Scope applyDeadline(Statement stm) throws SQLException {
+		QueryDeadline deadline = QueryDeadline.current();
+		if (deadline == null) {
+			return () -> {
+			};
+		}
+		deadline.check();
+		if (deadline.hasTimeout()) {
+			stm.setQueryTimeout(deadline.getRemainingSeconds());
+		}
+		return deadline.onCancel(() -> {
+			try {
+				stm.cancel();
+			} catch (SQLException e) {
+				log("Error cancelling statement", e);
+			}
+		});
+	}
+
+	private JdbcException queryException(String message, Exception ex) {
+		if (ex instanceof QueryInterruptedException interrupted) {
+			return interrupted;
+		}
+		QueryDeadline deadline = QueryDeadline.current();
+		if (deadline != null && deadline.isDone()) {
+			return deadline.interrupted(ex);
+		}
+		return new JdbcException(message, ex);
+	}
+
+	private void restoreAutoCommit(Connection con) {
+		try {
+			con.setAutoCommit(true);
+		} catch (SQLException e) {
+			log("Error setting autocommit true", e);
 		}
 	}
 
@@ -158,12 +288,14 @@ public class JdbcHelper extends AbstractLoggable {
 		try {
 			showSQL(sql);
 			stm = getConnection().createStatement();
-			return stm.executeUpdate(sql);
+			try (QueryDeadline.Scope ignored = applyDeadline(stm)) {
+				return stm.executeUpdate(sql);
+			}
 		} catch (Exception ex) {
 			if (isInTransaction()) {
 				rollback();
 			}
-			throw new JdbcException("Exception executing SQL: " + sql + "  " + ex.getMessage(), ex);
+			throw queryException("Exception executing SQL: " + sql + "  " + ex.getMessage(), ex);
 		} finally {
 			try {
 				stm.close();
@@ -189,13 +321,15 @@ public class JdbcHelper extends AbstractLoggable {
 			if (sql.contains("?") && params != null && params.length > 0) {
 				applyStatementParams(pstm, params);
 			}
-			return pstm.executeUpdate();
+			try (QueryDeadline.Scope ignored = applyDeadline(pstm)) {
+				return pstm.executeUpdate();
+			}
 
 		} catch (Exception ex) {
 			if (isInTransaction()) {
 				rollback();
 			}
-			throw new JdbcException("Exception executing SQL with params: " + sql + "  " + ex.getMessage(), ex);
+			throw queryException("Exception executing SQL with params: " + sql + "  " + ex.getMessage(), ex);
 		} finally {
 			try {
 				pstm.close();
@@ -324,7 +458,9 @@ public class JdbcHelper extends AbstractLoggable {
 	 */
 	private static void applyStatementParam(PreparedStatement s, Object o, int index) throws Exception {
 
-		if (o instanceof Integer) {
+		if (o == null) {
+			s.setNull(index, Types.NULL);
+		} else if (o instanceof Integer) {
 			s.setInt(index, (Integer) o);
 		} else if (o instanceof Long) {
 			s.setLong(index, (Long) o);
@@ -340,6 +476,10 @@ public class JdbcHelper extends AbstractLoggable {
 			s.setDate(index, new java.sql.Date(d.getTime()));
 		} else if (o instanceof Boolean) {
 			s.setBoolean(index, (Boolean) o);
+		} else if (o instanceof Double) {
+			s.setDouble(index, (Double) o);
+		} else {
+			s.setObject(index, o);
 		}
 	}
 
@@ -426,47 +566,13 @@ public class JdbcHelper extends AbstractLoggable {
 		return mapRow(classType, rs, null);
 	}
 
+	/**
+	 * Map current row to a new instance of classType. To map many rows use
+	 * {@link #mapDataSet(Class, JdbcDataSet, ObjectMapper)} or {@link #mapStream(Class, JdbcDataSet, ObjectMapper)}
+	 * that resolve the mapping once.
+	 */
 	public <T> T mapRow(Class<T> classType, ResultSet rs, ObjectMapper<T> mapper) {
-		T object = ObjectOperations.newInstance(classType);
-		List<PropertyInfo> properties = ObjectOperations.getPropertiesInfo(classType);
-
-		for (PropertyInfo property : properties) {
-			if (!property.isCollection()) {
-				Object value = columnValue(rs, property.getName());
-				if (value != null) {
-					if (property.is(Boolean.class) || property.is(boolean.class)) {
-						value = mapBoolean(value);
-					} else if (value instanceof Number number) {
-
-						if ((property.is(Long.class) || property.is(long.class))) {
-							value = number.longValue();
-						} else if (property.is(Double.class) || property.is(double.class)) {
-							value = number.doubleValue();
-						} else if (property.is(Integer.class) || property.is(int.class)) {
-							value = number.intValue();
-						} else if (property.is(Float.class) || property.is(float.class)) {
-							value = number.floatValue();
-						} else if (property.is(BigDecimal.class) && value instanceof Number) {
-							value = new BigDecimal(number.toString());
-						}
-					}
-
-					try {
-						if (property.is(String.class) && !(value instanceof String)) {
-							value = value.toString();
-						}
-
-						ObjectOperations.setFieldValue(property, object, value);
-					} catch (ReflectionException e) {
-						// ignore
-					}
-				} else if (mapper != null) {
-					mapper.map(object, property, rs);
-				}
-			}
-		}
-
-		return object;
+		return CompiledRowMapper.of(classType, rs).map(rs, mapper);
 	}
 
 	public <T> List<T> mapDataSet(Class<T> classType, JdbcDataSet recordset) {
@@ -475,17 +581,29 @@ public class JdbcHelper extends AbstractLoggable {
 
 	public <T> List<T> mapDataSet(Class<T> classType, JdbcDataSet recordset, ObjectMapper<T> mapper) {
 		List<T> list = new ArrayList<>();
-		recordset.forEach((rowIndex, rs) -> list.add(mapRow(classType, rs, mapper)));
+		CompiledRowMapper<T> rowMapper = CompiledRowMapper.of(classType, recordset.getResultSet());
+		recordset.forEach((rowIndex, rs) -> list.add(rowMapper.map(rs, mapper)));
 		return list;
 	}
 
-	private Object mapBoolean(Object value) {
-        return switch (value) {
-            case Boolean b -> value;
-            case String s -> value.equals("Y") || value.equals("true");
-            case Number number -> number.intValue() == 1;
-            case null, default -> value;
-        };
+	/**
+	 * Lazily map rows of data set to beans, useful with {@link #stream(String, Object...)}. Closing the
+	 * stream close the data set.
+	 */
+	public <T> Stream<T> mapStream(Class<T> classType, JdbcDataSet recordset, ObjectMapper<T> mapper) {
+		ResultSet rs = recordset.getResultSet();
+		CompiledRowMapper<T> rowMapper = CompiledRowMapper.of(classType, rs);
+		Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+			@Override
+			public boolean tryAdvance(Consumer<? super T> action) {
+				if (!recordset.next()) {
+					return false;
+				}
+				action.accept(rowMapper.map(rs, mapper));
+				return true;
+			}
+		};
+		return StreamSupport.stream(spliterator, false).onClose(recordset::close);
 	}
 
 	/**
@@ -521,6 +639,31 @@ public class JdbcHelper extends AbstractLoggable {
 
 	}
 
+	/**
+	 * Fetch size hint for regular queries, 0 to use driver default
+	 */
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	public void setFetchSize(int fetchSize) {
+		this.fetchSize = fetchSize;
+	}
+
+	/**
+	 * Rows fetched from database in each round trip by {@link #stream(String, Object...)}. Default 1000
+	 */
+	public int getStreamFetchSize() {
+		return streamFetchSize;
+	}
+
+	/**
+	 * Set stream fetch size. MySQL driver requires {@link Integer#MIN_VALUE} to stream rows one by one
+	 */
+	public void setStreamFetchSize(int streamFetchSize) {
+		this.streamFetchSize = streamFetchSize;
+	}
+
 	public boolean isShowSQL() {
 		return showSQL;
 	}
@@ -529,6 +672,25 @@ public class JdbcHelper extends AbstractLoggable {
 		this.showSQL = showSQL;
 	}
 
+	/**
+	 * Create a batch of a parameterized statement that is executed every batchSize rows. If the helper is not in
+	 * transaction autocommit is disabled and each flush is committed, otherwise commit is left to the caller.
+	 *
+	 * <pre>{@code
+	 * try (JdbcBatch batch = helper.batch("update invoice set status = ? where id = ?", 500)) {
+	 *     invoices.forEach(inv -> batch.add(inv.getStatus(), inv.getId()));
+	 * }
+	 * }</pre>
+	 *
+	 * @param sql       the sql with ? parameters
+	 * @param batchSize rows per flush
+	 * @return the batch, close it to flush remaining rows
+	 */
+	public JdbcBatch batch(String sql, int batchSize) {
+		showSQL("BATCH: " + sql);
+		return new JdbcBatch(this, sql, batchSize);
+	}
+
 	/**
 	 * Create a new batch statement, use addBatch(sql) later and call
 	 * executeBatch(). This method disable autocommit from connection
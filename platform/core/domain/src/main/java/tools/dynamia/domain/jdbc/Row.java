@@ -33,9 +33,26 @@ public class Row extends HashMap<String, Object> {
     private static final long serialVersionUID = 6405893485092211340L;
     public ResultSet resultSet;
     private Map<String, Object> cache;
+    private Object[] values;
 
     public Row(Map<String, Object> data) {
         this.cache = data;
+        this.values = data != null ? data.values().toArray() : null;
+    }
+
+    /**
+     * Detached row, values are stored in column order so columns with the same label can still be read by index.
+     * Reading by label returns the first column with that label, like {@link ResultSet#getObject(String)}
+     *
+     * @param columns the columns labels
+     * @param values  the values in column order
+     */
+    public Row(List<String> columns, Object[] values) {
+        this.values = values;
+        this.cache = new HashMap<>((int) (columns.size() / 0.75f) + 1);
+        for (int i = 0; i < columns.size(); i++) {
+            cache.putIfAbsent(columns.get(i), values[i]);
+        }
     }
 
 
@@ -55,6 +72,10 @@ public class Row extends HashMap<String, Object> {
 
     public Object col(int index) {
         try {
+            if (resultSet == null && values != null) {
+                // detached row, values are in column order
+                return index >= 1 && index <= values.length ? values[index - 1] : null;
+            }
             return resultSet.getObject(index);
         } catch (SQLException e) {
             throw new JdbcException(e);
@@ -16,11 +16,20 @@
  */
 package tools.dynamia.domain.query;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
 
 
 /**
  * The Class DataPaginator.
+ * <p>
+ * By default pages are loaded using offset and limit and the total size is computed with a count query. When
+ * {@link #setKeyset(boolean)} is enabled the last sort key of each loaded page is remembered and next pages seek
+ * directly after it ({@code where (sortKey, id) > (?, ?)}) instead of skipping rows, so deep pages are as fast as
+ * the first one. Use {@link CountMode#DEFERRED} to skip the count query on large tables.
  *
  * @author Mario Serrano Leones
  */
@@ -56,6 +65,31 @@ public final class DataPaginator implements Serializable {
      */
     private int pagesNumber;
 
+    /**
+     * Keyset (seek) pagination enabled
+     */
+    private boolean keyset;
+
+    /**
+     * How total size is computed
+     */
+    private CountMode countMode = CountMode.EXACT;
+
+    /**
+     * Max rows counted when total size is estimated
+     */
+    private int countLimit = 1000;
+
+    /**
+     * Total size is a lower bound estimate
+     */
+    private boolean totalSizeEstimated;
+
+    /**
+     * Last sort key values of each loaded page, used by keyset pagination.
+     */
+    private final Map<Integer, Object[]> pageKeys = new HashMap<>();
+
     /**
      * Instantiates a new data paginator.
      *
@@ -119,7 +153,7 @@ public final class DataPaginator implements Serializable {
      * @param page the new page
      */
     public void setPage(int page) {
-        if (page > 0 && page <= getPagesNumber()) {
+        if (page > 0 && (page <= getPagesNumber() || isOpenEnded())) {
             this.page = page;
             recalculate();
         }
@@ -146,6 +180,25 @@ public final class DataPaginator implements Serializable {
         if ((long) pagesNumber * pageSize < totalSize) {
             pagesNumber++;
         }
+
+        if (pagesNumber > 0 && page > pagesNumber && !isOpenEnded()) {
+            // initial page out of range
+            page = 1;
+            recalculate();
+        }
+    }
+
+    /**
+     * Sets the page to load before the total size is known, so the first query already fetch it. If the page is
+     * out of range once the total size is computed the first page is used.
+     *
+     * @param page the page
+     */
+    public void setInitialPage(int page) {
+        if (page > 0) {
+            this.page = page;
+            recalculate();
+        }
     }
 
     /**
@@ -202,6 +255,138 @@ public final class DataPaginator implements Serializable {
         page = 1;
         totalSize = 0;
         pagesNumber = 0;
+        totalSizeEstimated = false;
+        pageKeys.clear();
+    }
+
+    public boolean isKeyset() {
+        return keyset;
+    }
+
+    /**
+     * Enable keyset (seek) pagination. Only used by query engines that support it, others keep using offset
+     * pagination.
+     *
+     * @param keyset enable keyset pagination
+     */
+    public void setKeyset(boolean keyset) {
+        this.keyset = keyset;
+    }
+
+    public CountMode getCountMode() {
+        return countMode;
+    }
+
+    public void setCountMode(CountMode countMode) {
+        this.countMode = countMode != null ? countMode : CountMode.EXACT;
+    }
+
+    public int getCountLimit() {
+        return countLimit;
+    }
+
+    /**
+     * Max rows counted with {@link CountMode#ESTIMATED}
+     *
+     * @param countLimit the count limit
+     */
+    public void setCountLimit(int countLimit) {
+        if (countLimit > 0) {
+            this.countLimit = countLimit;
+        }
+    }
+
+    /**
+     * Return true if total size is an estimate, more results may exist
+     *
+     * @return is estimated
+     */
+    public boolean isTotalSizeEstimated() {
+        return totalSizeEstimated;
+    }
+
+    public void setTotalSizeEstimated(boolean totalSizeEstimated) {
+        this.totalSizeEstimated = totalSizeEstimated;
+    }
+
+    /**
+     * Return true if the total size is not exact and pages after it may exist. Open ended paginators load one
+     * extra row per page to know if there are more results.
+     *
+     * @return open ended
+     */
+    @JsonIgnore
+    public boolean isOpenEnded() {
+        return countMode == CountMode.DEFERRED || (countMode == CountMode.ESTIMATED && totalSizeEstimated);
+    }
+
+    /**
+     * Gets the last sort key values of the given page, or null if the page was not loaded yet
+     *
+     * @param page the page
+     * @return the page key
+     */
+    public Object[] getPageKey(int page) {
+        return pageKeys.get(page);
+    }
+
+    /**
+     * Store the last sort key values of the given page. Used by keyset pagination to seek the next page.
+     *
+     * @param page   the page
+     * @param values the sort key values, last one is the id
+     */
+    public void setPageKey(int page, Object[] values) {
+        if (values == null) {
+            pageKeys.remove(page);
+        } else {
+            pageKeys.put(page, values);
+        }
+    }
+
+    /**
+     * Gets the key to seek after to load the current page, or null if the current page should be loaded using
+     * offset pagination
+     *
+     * @return the seek key
+     */
+    @JsonIgnore
+    public Object[] getSeekKey() {
+        return keyset && page > 1 ? pageKeys.get(page - 1) : null;
+    }
+
+    /**
+     * Opaque cursor with the last sort key of current page, clients can send it back using
+     * {@link #setPageCursor(int, String)} to load the next page without offsets.
+     *
+     * @return the cursor or null
+     */
+    public String getNextCursor() {
+        Object[] key = keyset ? pageKeys.get(page) : null;
+        if (key == null) {
+            return null;
+        }
+        return KeysetCursor.encode(key);
+    }
+
+    /**
+     * Decode a cursor created by {@link #getNextCursor()} and use it as the seek key of the given page.
+     * Key values are restored with their original type (numbers, dates, temporal values), other values are restored
+     * as strings and converted by the query engine. Enables keyset pagination.
+     *
+     * @param page   the page to load
+     * @param cursor the cursor
+     */
+    public void setPageCursor(int page, String cursor) {
+        if (page <= 1 || cursor == null || cursor.isBlank()) {
+            return;
+        }
+        try {
+            setPageKey(page - 1, KeysetCursor.decode(cursor));
+            keyset = true;
+        } catch (IllegalArgumentException e) {
+            throw new QueryParametersException("Invalid pagination cursor " + cursor, e);
+        }
     }
 
     /**
@@ -245,6 +430,26 @@ public final class DataPaginator implements Serializable {
      */
     @Override
     public String toString() {
-        return "DataPaginator{" + "totalResult=" + totalSize + ", pageSize=" + pageSize + ", firstResult=" + firstResult + ", page=" + page + ", pagesNumber=" + pagesNumber + '}';
+        return "DataPaginator{" + "totalResult=" + totalSize + ", pageSize=" + pageSize + ", firstResult=" + firstResult + ", page=" + page + ", pagesNumber=" + pagesNumber + ", keyset=" + keyset + ", countMode=" + countMode + '}';
+    }
+
+    /**
+     * How a paginated query compute the total size
+     */
+    public enum CountMode {
+        /**
+         * Run a count query before loading the first page
+         */
+        EXACT,
+        /**
+         * Skip the count query. Total size grows as pages are loaded and only shows one page ahead while more
+         * results exist
+         */
+        DEFERRED,
+        /**
+         * Count up to {@link #getCountLimit()} rows. When there are more the total size is marked as estimated
+         * and grows like {@link #DEFERRED}
+         */
+        ESTIMATED
     }
 }
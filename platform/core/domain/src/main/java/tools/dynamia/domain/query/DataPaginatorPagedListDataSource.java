@@ -20,6 +20,7 @@ import tools.dynamia.commons.collect.PagedListDataSource;
 import tools.dynamia.commons.logger.LoggingService;
 import tools.dynamia.commons.logger.SLF4JLoggingService;
 import tools.dynamia.domain.services.CrudService;
+import tools.dynamia.domain.util.ReadRouting;
 import tools.dynamia.integration.Containers;
 
 import java.util.List;
@@ -106,12 +107,15 @@ public class DataPaginatorPagedListDataSource<T> implements PagedListDataSource<
 
     public List<T> loadActivePageData() {
         CrudService crudService = Containers.get().findObject(CrudService.class);
+        // pages are loaded after the first query, usually outside its transaction, so they can be read from replicas
         //noinspection unchecked
-        if(getQueryMetadata().getParameters().isReadOnly()){
-            return (List<T>) crudService.findReadOnly(getQueryMetadata());
-        }else {
-            return (List<T>) crudService.find(getQueryMetadata());
-        }
+        return ReadRouting.replica(() -> {
+            if (getQueryMetadata().getParameters().isReadOnly()) {
+                return (List<T>) crudService.findReadOnly(getQueryMetadata());
+            } else {
+                return (List<T>) crudService.find(getQueryMetadata());
+            }
+        });
     }
 
     /* (non-Javadoc)
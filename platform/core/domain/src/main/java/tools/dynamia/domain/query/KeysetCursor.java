@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain.query;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Encode and decode keyset pagination cursors. Each sort key value is written with a type tag, so numbers, dates and
+ * temporal values are restored with their original type and precision. Other values (i.e. enums) are restored as
+ * strings and converted by the query engine.
+ */
+final class KeysetCursor {
+
+    private static final char SEPARATOR = '\u001F';
+
+    private KeysetCursor() {
+    }
+
+    static String encode(Object[] key) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < key.length; i++) {
+            if (i > 0) {
+                sb.append(SEPARATOR);
+            }
+            sb.append(encodeValue(key[i]));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    static Object[] decode(String cursor) {
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] values = decoded.split(String.valueOf(SEPARATOR), -1);
+        Object[] key = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            key[i] = decodeValue(values[i]);
+        }
+        return key;
+    }
+
+    private static String encodeValue(Object value) {
+        return switch (value) {
+            case null -> "N";
+            case String text -> "S" + text;
+            case Long number -> "L" + number;
+            case Integer number -> "I" + number;
+            case Short number -> "H" + number;
+            case Double number -> "D" + number;
+            case Float number -> "F" + number;
+            case BigDecimal number -> "B" + number;
+            case BigInteger number -> "G" + number;
+            case Boolean bool -> "Z" + bool;
+            case UUID uuid -> "U" + uuid;
+            case java.sql.Timestamp timestamp -> "P" + timestamp.toInstant();
+            case java.sql.Date date -> "Q" + date;
+            case java.sql.Time time -> "R" + time;
+            case Date date -> "T" + date.getTime();
+            case Instant instant -> "i" + instant;
+            case LocalDate date -> "d" + date;
+            case LocalDateTime dateTime -> "t" + dateTime;
+            case LocalTime time -> "h" + time;
+            case OffsetDateTime dateTime -> "o" + dateTime;
+            case ZonedDateTime dateTime -> "z" + dateTime;
+            case Enum<?> constant -> "S" + constant.name();
+            default -> "S" + value;
+        };
+    }
+
+    private static Object decodeValue(String value) {
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("Empty cursor value");
+        }
+
+        String text = value.substring(1);
+        try {
+            return switch (value.charAt(0)) {
+                case 'N' -> null;
+                case 'S' -> text;
+                case 'L' -> Long.valueOf(text);
+                case 'I' -> Integer.valueOf(text);
+                case 'H' -> Short.valueOf(text);
+                case 'D' -> Double.valueOf(text);
+                case 'F' -> Float.valueOf(text);
+                case 'B' -> new BigDecimal(text);
+                case 'G' -> new BigInteger(text);
+                case 'Z' -> Boolean.valueOf(text);
+                case 'U' -> UUID.fromString(text);
+                case 'P' -> java.sql.Timestamp.from(Instant.parse(text));
+                case 'Q' -> java.sql.Date.valueOf(text);
+                case 'R' -> java.sql.Time.valueOf(text);
+                case 'T' -> new Date(Long.parseLong(text));
+                case 'i' -> Instant.parse(text);
+                case 'd' -> LocalDate.parse(text);
+                case 't' -> LocalDateTime.parse(text);
+                case 'h' -> LocalTime.parse(text);
+                case 'o' -> OffsetDateTime.parse(text);
+                case 'z' -> ZonedDateTime.parse(text);
+                default -> throw new IllegalArgumentException("Unknown cursor value type " + value.charAt(0));
+            };
+        } catch (java.time.format.DateTimeParseException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain.query;
+
+import tools.dynamia.domain.jdbc.QueryInterruptedException;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Deadline and cancellation token for database queries. A deadline is bound to the current thread, usually by the
+ * code that handles a request or starts a long operation, or set to a single query using
+ * {@link QueryParameters#setDeadline(QueryDeadline)}. Crud services and {@link tools.dynamia.domain.jdbc.JdbcHelper}
+ * apply the remaining time as query timeout and register the running statement, so {@link #cancel()} called from
+ * other thread stops it in the database.
+ *
+ * <pre>{@code
+ * QueryDeadline deadline = QueryDeadline.of(Duration.ofSeconds(30));
+ * List<Invoice> invoices = deadline.call(() -> crudService.find(Invoice.class, params));
+ * }</pre>
+ * <p>
+ * Queries stopped by a deadline throw {@link QueryInterruptedException} and are counted in
+ * {@link #getCancelledCount()} and {@link #getTimedOutCount()}.
+ */
+public final class QueryDeadline {
+
+    /**
+     * JPA hint used to set the query timeout in milliseconds
+     */
+    public static final String TIMEOUT_HINT = "jakarta.persistence.query.timeout";
+
+    private static final ThreadLocal<QueryDeadline> CURRENT = new ThreadLocal<>();
+    private static final LongAdder CANCELLED = new LongAdder();
+    private static final LongAdder TIMED_OUT = new LongAdder();
+
+    private final long deadlineNanos;
+    private final boolean timeout;
+    private final Set<Runnable> cancelHandlers = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    private QueryDeadline(long deadlineNanos, boolean timeout) {
+        this.deadlineNanos = deadlineNanos;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Create a deadline that expires after the timeout
+     */
+    public static QueryDeadline of(Duration timeout) {
+        return new QueryDeadline(System.nanoTime() + timeout.toNanos(), true);
+    }
+
+    /**
+     * Create a token without timeout that can only be cancelled
+     */
+    public static QueryDeadline cancellable() {
+        return new QueryDeadline(0, false);
+    }
+
+    /**
+     * Return the deadline bound to the current thread, or null
+     */
+    public static QueryDeadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Return the deadline of the parameters, or the deadline bound to the current thread
+     */
+    public static QueryDeadline resolve(QueryParameters parameters) {
+        QueryDeadline deadline = parameters != null ? parameters.getDeadline() : null;
+        return deadline != null ? deadline : CURRENT.get();
+    }
+
+    /**
+     * Bind this deadline to the current thread until the returned scope is closed
+     */
+    public Scope bind() {
+        QueryDeadline previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    /**
+     * Run the task with this deadline bound to the current thread
+     */
+    public <T> T call(Supplier<T> task) {
+        try (Scope ignored = bind()) {
+            return task.get();
+        }
+    }
+
+    /**
+     * Run the task with this deadline bound to the current thread
+     */
+    public void run(Runnable task) {
+        try (Scope ignored = bind()) {
+            task.run();
+        }
+    }
+
+    /**
+     * Cancel running and future queries of this deadline
+     */
+    public void cancel() {
+        if (!cancelled) {
+            cancelled = true;
+            for (Runnable handler : cancelHandlers) {
+                try {
+                    handler.run();
+                } catch (RuntimeException ignored) {
+                    // statement already closed or driver does not support cancel
+                }
+            }
+        }
+    }
+
+    /**
+     * Register a handler invoked if this deadline is cancelled, usually to cancel the running statement. Close the
+     * returned registration when the statement finish
+     */
+    public Scope onCancel(Runnable handler) {
+        cancelHandlers.add(handler);
+        if (cancelled) {
+            handler.run();
+        }
+        return () -> cancelHandlers.remove(handler);
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean hasTimeout() {
+        return timeout;
+    }
+
+    public boolean isExpired() {
+        return hasTimeout() && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * Return true if cancelled or expired
+     */
+    public boolean isDone() {
+        return cancelled || isExpired();
+    }
+
+    /**
+     * Remaining time in milliseconds, or -1 if this deadline has no timeout
+     */
+    public long getRemainingMillis() {
+        if (!hasTimeout()) {
+            return -1;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * Remaining time in seconds rounded up, as used by {@link java.sql.Statement#setQueryTimeout(int)}. Zero if
+     * this deadline has no timeout
+     */
+    public int getRemainingSeconds() {
+        long millis = getRemainingMillis();
+        return millis < 0 ? 0 : (int) Math.max(1, (millis + 999) / 1000);
+    }
+
+    /**
+     * Throw {@link QueryInterruptedException} if cancelled or expired, call it before running a query
+     */
+    public void check() {
+        if (isDone()) {
+            throw interrupted(null);
+        }
+    }
+
+    /**
+     * Set the remaining time as timeout hint of the query
+     */
+    public void applyTo(AbstractQuery<?> query) {
+        if (hasTimeout()) {
+            // integer millis rounded up to seconds, providers reject long values and round millis to seconds
+            query.setHint(TIMEOUT_HINT, (int) Math.min(Integer.MAX_VALUE, getRemainingSeconds() * 1000L));
+        }
+    }
+
+    /**
+     * Create the exception thrown when a query is stopped by this deadline and count it
+     */
+    public QueryInterruptedException interrupted(Throwable cause) {
+        if (cancelled) {
+            CANCELLED.increment();
+            return new QueryInterruptedException("Query cancelled", cause);
+        }
+        TIMED_OUT.increment();
+        return new QueryInterruptedException("Query timeout", cause);
+    }
+
+    /**
+     * Count a query interrupted by the database or driver without deadline
+     */
+    public static void recordInterrupted() {
+        CANCELLED.increment();
+    }
+
+    /**
+     * Queries stopped by {@link #cancel()} or interrupted by the database
+     */
+    public static long getCancelledCount() {
+        return CANCELLED.sum();
+    }
+
+    /**
+     * Queries stopped because their deadline expired
+     */
+    public static long getTimedOutCount() {
+        return TIMED_OUT.sum();
+    }
+
+    public static void resetCounters() {
+        CANCELLED.reset();
+        TIMED_OUT.reset();
+    }
+
+    /**
+     * Scope of a bound deadline or cancel handler registration
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -50,6 +50,8 @@ public class QueryParameters extends HashMap<String, Object> implements Serializ
 
     private boolean readOnly;
 
+    private transient QueryDeadline deadline;
+
     public QueryParameters() {
     }
 
@@ -459,6 +461,68 @@ public class QueryParameters extends HashMap<String, Object> implements Serializ
         return sorter != null && sorter.getColumnName() != null && !sorter.getColumnName().isEmpty();
     }
 
+    /**
+     * Return a structural key of the query generated from these parameters: entity type, parameter names,
+     * condition types and operators, groups and sort. Parameters with the same shape but different values
+     * generate the same JPQL, so this key can be used to cache generated queries. Values are not part of the key
+     * except when a condition render depends on them, like custom conditions or subqueries.
+     *
+     * @return an immutable key with value based equals and hashCode
+     */
+    public Object getShapeKey() {
+        List<Object> shape = new ArrayList<>();
+        shape.add(type);
+        appendShape(shape);
+        return Collections.unmodifiableList(shape);
+    }
+
+    private void appendShape(List<Object> shape) {
+        shape.add(autocreateSearcheableStrings);
+        for (String key : sortedKeys) {
+            Object value = get(key);
+            shape.add(key);
+            if (value instanceof QueryConditionGroup group) {
+                List<Object> nested = new ArrayList<>();
+                for (QueryCondition condition : group.getValue()) {
+                    nested.add(conditionShape(key, condition));
+                }
+                shape.add(nested);
+            } else if (value instanceof QueryCondition condition) {
+                shape.add(conditionShape(key, condition));
+            } else if (value != null) {
+                shape.add(value instanceof String && autocreateSearcheableStrings);
+            } else {
+                shape.add(null);
+            }
+        }
+
+        for (Group group : groups) {
+            shape.add(group.booleanOp());
+            if (group.params() != null) {
+                List<Object> nested = new ArrayList<>();
+                group.params().appendShape(nested);
+                shape.add(nested);
+            }
+        }
+
+        if (isSorted()) {
+            shape.add(sorter.getColumnName());
+            shape.add(sorter.isAscending());
+        }
+    }
+
+    /**
+     * Built-in conditions render the same text for any value, others are identified by its rendered text
+     */
+    private static Object conditionShape(String key, QueryCondition condition) {
+        Class<?> conditionClass = condition.getClass();
+        if (conditionClass.getPackage() == QueryCondition.class.getPackage() && conditionClass != CustomQueryCondition.class
+                && conditionClass != LikeEquals.class && !(condition instanceof Inlist)) {
+            return Arrays.asList(conditionClass, condition.getBooleanOperator());
+        }
+        return Arrays.asList(conditionClass, condition.getBooleanOperator(), condition.render(key));
+    }
+
     public void setNestedParameters(QueryParameters nestedParameters) {
         if (this != nestedParameters) {
             this.nestedParameters = nestedParameters;
@@ -475,12 +539,13 @@ public class QueryParameters extends HashMap<String, Object> implements Serializ
         clone.sorter = sorter;
         clone.paginator = paginator;
         clone.autocreateSearcheableStrings = autocreateSearcheableStrings;
-        clone.groups = groups;
+        clone.groups = new ArrayList<>(groups);
         clone.type = type;
         clone.hints.putAll(hints);
         clone.depth = depth;
         clone.maxResults = maxResults;
         clone.sortedKeys.addAll(sortedKeys);
+        clone.deadline = deadline;
         if (nestedParameters != null) {
             clone.setNestedParameters(nestedParameters.clone());
         }
@@ -556,4 +621,16 @@ public class QueryParameters extends HashMap<String, Object> implements Serializ
         this.readOnly = readOnly;
         return this;
     }
+
+    public QueryDeadline getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Set the deadline of queries executed with these parameters, overriding the deadline bound to the current thread
+     */
+    public QueryParameters setDeadline(QueryDeadline deadline) {
+        this.deadline = deadline;
+        return this;
+    }
 }
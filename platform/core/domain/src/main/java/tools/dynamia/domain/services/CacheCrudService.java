@@ -11,18 +11,27 @@ import tools.dynamia.domain.services.impl.AbstractCrudService;
 import tools.dynamia.domain.util.CrudServiceListener;
 import tools.dynamia.domain.util.QueryBuilder;
 import tools.dynamia.integration.Containers;
+import tools.dynamia.integration.ProgressMonitor;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static tools.dynamia.integration.CacheManagerUtils.getValue;
 
 /**
  * EXPERIMENTAL: CacheCrudService is a CrudService implementation that caches the results of some CRUD operations.
  * It uses the CacheManager to store and retrieve the results.
+ * <p>
+ * Query results of entity classes enabled with {@link #enableQueryCache(Class, QueryCacheConfig)} are cached in a
+ * {@link QueryResultCache} instead, keyed by the normalized query and the current tenant, and invalidated when
+ * entities of the classes they depend on are created, updated or deleted. The tenant is returned by
+ * {@link #setTenantResolver(Supplier)} or, by default, by the {@link TenantProvider} found in the container.
  */
 public class CacheCrudService extends AbstractCrudService {
 
@@ -39,6 +48,9 @@ public class CacheCrudService extends AbstractCrudService {
 
     private String cacheName = "crud";
     private CrudService delegate;
+    private final QueryResultCache queryCache = new QueryResultCache();
+    private Supplier<?> tenantResolver;
+    private TenantProvider tenantProvider;
 
     public CacheCrudService(CrudService delegate) {
         this.delegate = delegate;
@@ -50,6 +62,53 @@ public class CacheCrudService extends AbstractCrudService {
     }
 
 
+    /**
+     * Cache results of find, findAll, executeQuery and count queries of the entity class
+     *
+     * @param entityClass the query entity class
+     * @param config      the cache limits, null for defaults
+     */
+    public void enableQueryCache(Class<?> entityClass, QueryCacheConfig config) {
+        queryCache.enable(entityClass, config);
+    }
+
+    public void disableQueryCache(Class<?> entityClass) {
+        queryCache.disable(entityClass);
+    }
+
+    public QueryResultCache getQueryCache() {
+        return queryCache;
+    }
+
+    /**
+     * Set the supplier of the current tenant (i.e. account id) added to query cache keys. Multi tenant applications
+     * add tenant filters with listeners after the query is cached, so the tenant must be part of the key. If not set
+     * the {@link TenantProvider} found in the container is used.
+     *
+     * @param tenantResolver the current tenant supplier
+     */
+    public void setTenantResolver(Supplier<?> tenantResolver) {
+        this.tenantResolver = tenantResolver;
+    }
+
+    private Object currentTenant() {
+        if (tenantResolver != null) {
+            return tenantResolver.get();
+        }
+
+        if (tenantProvider == null) {
+            tenantProvider = Containers.get().findObject(TenantProvider.class);
+        }
+        return tenantProvider != null ? tenantProvider.getCurrentTenant() : null;
+    }
+
+    private <T> T invalidating(T entity) {
+        if (entity != null) {
+            queryCache.invalidate(entity.getClass());
+        }
+        return entity;
+    }
+
     /**
      * Build a key for the given prefix and arguments.
      *
@@ -121,17 +180,17 @@ public class CacheCrudService extends AbstractCrudService {
 
     @Override
     public <T> T save(T t, Serializable id) {
-        return delegate.save(t, id);
+        return invalidating(delegate.save(t, id));
     }
 
     @Override
     public <T> T save(T t) {
-        return delegate.save(t);
+        return invalidating(delegate.save(t));
     }
 
     @Override
     public <T> T create(T t) {
-        return delegate.create(t);
+        return invalidating(delegate.create(t));
     }
 
     @Override
@@ -154,67 +213,134 @@ public class CacheCrudService extends AbstractCrudService {
 
     @Override
     public <T> T update(T t) {
-        return delegate.update(t);
+        return invalidating(delegate.update(t));
     }
 
     @Override
     public <T> void delete(T t) {
         delegate.delete(t);
+        invalidating(t);
     }
 
     @Override
     public void delete(Class type, Serializable id) {
         delegate.delete(type, id);
+        queryCache.invalidate(type);
     }
 
     @Override
     public void deleteAll(Class type) {
         delegate.deleteAll(type);
+        queryCache.invalidate(type);
+    }
+
+    @Override
+    public <T> List<T> createAll(Collection<T> entities, ProgressMonitor monitor) {
+        List<T> result = delegate.createAll(entities, monitor);
+        invalidateClasses(entities);
+        return result;
+    }
+
+    @Override
+    public <T> List<T> updateAll(Collection<T> entities, ProgressMonitor monitor) {
+        List<T> result = delegate.updateAll(entities, monitor);
+        invalidateClasses(entities);
+        return result;
+    }
+
+    @Override
+    public void deleteAll(Collection<?> entities, ProgressMonitor monitor) {
+        delegate.deleteAll(entities, monitor);
+        invalidateClasses(entities);
+    }
+
+    private void invalidateClasses(Collection<?> entities) {
+        if (entities != null) {
+            entities.stream().filter(Objects::nonNull).map(Object::getClass).distinct().forEach(queryCache::invalidate);
+        }
     }
 
     @Override
     public void updateField(Object entity, String field, Object value) {
         delegate.updateField(entity, field, value);
+        invalidating(entity);
     }
 
     @Override
     public void increaseCounter(Object entity, String counterName) {
         delegate.increaseCounter(entity, counterName);
+        invalidating(entity);
     }
 
     @Override
     public void deacreaseCounter(Object entity, String counterName) {
         delegate.deacreaseCounter(entity, counterName);
+        invalidating(entity);
     }
 
     @Override
     public <T> List<T> findAll(Class<T> type) {
+        if (queryCache.isEnabled(type)) {
+            return queryCache.executeQuery(type, "findAll", null, currentTenant(), () -> delegate.findAll(type));
+        }
         String key = buildKey("FindAll", type);
         return getValue(cacheName, key, () -> delegate.findAll(type));
     }
 
     @Override
     public <T> List<T> findAll(Class<T> type, String orderBy) {
+        if (queryCache.isEnabled(type)) {
+            return queryCache.executeQuery(type, "findAll order by " + orderBy, null, currentTenant(), () -> delegate.findAll(type, orderBy));
+        }
         String key = buildKey("FindAll", type, orderBy);
         return getValue(cacheName, key, () -> delegate.findAll(type, orderBy));
     }
 
     @Override
     public <T> List<T> find(Class<T> type, QueryParameters parameters) {
+        if (queryCache.isEnabled(type) && parameters != null) {
+            return queryCache.find(type, parameters, currentTenant(), () -> delegate.find(type, parameters));
+        }
         String key = buildKey("Find", type, parameters);
         return getValue(cacheName, key, () -> delegate.find(type, parameters));
     }
 
     @Override
     public <T> List<T> executeQuery(QueryBuilder queryBuilder, QueryParameters parameters) {
+        if (queryCache.isEnabled(queryBuilder.getType())) {
+            return queryCache.executeQuery(queryBuilder.getType(), queryText(queryBuilder), parameters, currentTenant(),
+                    () -> delegate.executeQuery(queryBuilder, parameters));
+        }
         return delegate.executeQuery(queryBuilder, parameters);
     }
 
     @Override
     public <T> List<T> executeQuery(QueryBuilder queryBuilder) {
+        if (queryCache.isEnabled(queryBuilder.getType())) {
+            return queryCache.executeQuery(queryBuilder.getType(), queryText(queryBuilder), queryBuilder.getQueryParameters(),
+                    currentTenant(), () -> delegate.executeQuery(queryBuilder));
+        }
         return delegate.executeQuery(queryBuilder);
     }
 
+    /**
+     * Build a copy, building the caller query marks it as built and conditions added later by query listeners
+     * (i.e. the tenant account) would not be rendered
+     */
+    private static String queryText(QueryBuilder queryBuilder) {
+        return queryBuilder.clone().build().toString();
+    }
+
+    @Override
+    public <T> Stream<T> stream(Class<T> type, QueryParameters parameters) {
+        return delegate.stream(type, parameters);
+    }
+
+    @Override
+    public <T> Stream<T> executeQueryStream(QueryBuilder queryBuilder) {
+        return delegate.executeQueryStream(queryBuilder);
+    }
+
     @Override
     public <T> List<T> executeQuery(String queryText) {
         return delegate.executeQuery(queryText);
@@ -227,12 +353,17 @@ public class CacheCrudService extends AbstractCrudService {
 
     @Override
     public int execute(String queryText, QueryParameters parameters) {
-        return delegate.execute(queryText, parameters);
+        int result = delegate.execute(queryText, parameters);
+        // affected entity classes are unknown
+        queryCache.clear();
+        return result;
     }
 
     @Override
     public int execute(QueryBuilder query) {
-        return delegate.execute(query);
+        int result = delegate.execute(query);
+        queryCache.invalidate(query.getType());
+        return result;
     }
 
     @Override
@@ -287,6 +418,9 @@ public class CacheCrudService extends AbstractCrudService {
 
     @Override
     public long count(Class type, QueryParameters parameters) {
+        if (queryCache.isEnabled(type)) {
+            return queryCache.count(type, parameters, currentTenant(), () -> delegate.count(type, parameters));
+        }
         return delegate.count(type, parameters);
     }
 
@@ -347,12 +481,16 @@ public class CacheCrudService extends AbstractCrudService {
 
     @Override
     public int batchUpdate(Class type, String field, Object value, QueryParameters params) {
-        return delegate.batchUpdate(type, field, value, params);
+        int result = delegate.batchUpdate(type, field, value, params);
+        queryCache.invalidate(type);
+        return result;
     }
 
     @Override
     public int batchUpdate(Class type, Map<String, Object> fieldvalues, QueryParameters params) {
-        return delegate.batchUpdate(type, fieldvalues, params);
+        int result = delegate.batchUpdate(type, fieldvalues, params);
+        queryCache.invalidate(type);
+        return result;
     }
 
     @Override
@@ -373,6 +511,7 @@ public class CacheCrudService extends AbstractCrudService {
     @Override
     public void saveWithinTransaction(Object entity) {
         delegate.saveWithinTransaction(entity);
+        invalidating(entity);
     }
 
     @Override
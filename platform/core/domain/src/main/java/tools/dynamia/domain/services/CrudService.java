@@ -23,10 +23,13 @@ import tools.dynamia.domain.query.DataPaginator;
 import tools.dynamia.domain.query.QueryMetadata;
 import tools.dynamia.domain.query.QueryParameters;
 import tools.dynamia.domain.util.QueryBuilder;
+import tools.dynamia.integration.ProgressMonitor;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Core service interface providing comprehensive CRUD (Create, Read, Update, Delete) operations for domain entities.
@@ -183,6 +186,68 @@ public interface CrudService {
      */
     void deleteAll(Class type);
 
+    /**
+     * Create entities in chunks, see {@link #createAll(Collection, ProgressMonitor)}.
+     *
+     * @param <T>      the generic type
+     * @param entities the entities
+     * @return the created entities
+     */
+    default <T> List<T> createAll(Collection<T> entities) {
+        return createAll(entities, null);
+    }
+
+    /**
+     * Create entities in chunks. Listeners are fired for each entity and once per chunk using
+     * {@link tools.dynamia.domain.util.CrudServiceListener#beforeBatch}, then the chunk is written to the database.
+     * Implementations backed by a persistence context flush and clear it after each chunk, so returned entities
+     * are detached. Progress and throughput are reported to the monitor, stopping the monitor cancel remaining chunks.
+     *
+     * @param <T>      the generic type
+     * @param entities the entities
+     * @param monitor  progress monitor, can be null
+     * @return the created entities
+     */
+    <T> List<T> createAll(Collection<T> entities, ProgressMonitor monitor);
+
+    /**
+     * Update entities in chunks, see {@link #updateAll(Collection, ProgressMonitor)}.
+     *
+     * @param <T>      the generic type
+     * @param entities the entities
+     * @return the updated entities
+     */
+    default <T> List<T> updateAll(Collection<T> entities) {
+        return updateAll(entities, null);
+    }
+
+    /**
+     * Update (merge) entities in chunks, works like {@link #createAll(Collection, ProgressMonitor)}.
+     *
+     * @param <T>      the generic type
+     * @param entities the entities
+     * @param monitor  progress monitor, can be null
+     * @return the updated entities
+     */
+    <T> List<T> updateAll(Collection<T> entities, ProgressMonitor monitor);
+
+    /**
+     * Delete entities in chunks, see {@link #deleteAll(Collection, ProgressMonitor)}.
+     *
+     * @param entities the entities
+     */
+    default void deleteAll(Collection<?> entities) {
+        deleteAll(entities, null);
+    }
+
+    /**
+     * Delete entities in chunks, works like {@link #createAll(Collection, ProgressMonitor)}.
+     *
+     * @param entities the entities
+     * @param monitor  progress monitor, can be null
+     */
+    void deleteAll(Collection<?> entities, ProgressMonitor monitor);
+
     /**
      * do a bulk update to change the field value.
      *
@@ -268,6 +333,39 @@ public interface CrudService {
      */
     <T> List<T> executeQuery(QueryBuilder queryBuilder);
 
+    /**
+     * Stream entities using parameters. Unlike {@link #find(Class, QueryParameters)} results are fetched while the
+     * stream is consumed, so batch jobs and exports can process large tables without holding every entity in memory.
+     * Paginator and AFTER_QUERY listeners are ignored. The returned stream must be closed, use it in a
+     * try-with-resources block, and implementations backed by a database require an active transaction.
+     *
+     * <pre>{@code
+     * try (Stream<Invoice> invoices = crudService.stream(Invoice.class, QueryParameters.with("status", "PENDING"))) {
+     *     invoices.forEach(this::export);
+     * }
+     * }</pre>
+     *
+     * @param <T>        the generic type
+     * @param type       the type
+     * @param parameters the parameters
+     * @return a stream that must be closed
+     */
+    default <T> Stream<T> stream(Class<T> type, QueryParameters parameters) {
+        return find(type, parameters).stream();
+    }
+
+    /**
+     * Execute query and stream its results, see {@link #stream(Class, QueryParameters)}.
+     *
+     * @param <T>          the generic type
+     * @param queryBuilder the query builder
+     * @return a stream that must be closed
+     */
+    default <T> Stream<T> executeQueryStream(QueryBuilder queryBuilder) {
+        List<T> result = executeQuery(queryBuilder);
+        return result.stream();
+    }
+
     /**
      * Execute plain query
      *
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain.services;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Query result cache limits of an entity class. Use it with {@link CacheCrudService#enableQueryCache(Class, QueryCacheConfig)}
+ * <pre>{@code
+ * crudService.enableQueryCache(Product.class, new QueryCacheConfig()
+ *         .maxEntries(200)
+ *         .maxResultSize(500)
+ *         .ttl(Duration.ofMinutes(10))
+ *         .dependsOn(Category.class));
+ * }</pre>
+ */
+public class QueryCacheConfig {
+
+    private int maxEntries = 500;
+    private int maxResultSize = 1000;
+    private Duration ttl;
+    private final Set<Class<?>> dependencies = new LinkedHashSet<>();
+
+    /**
+     * Max number of cached queries of the entity class. Default 500
+     */
+    public QueryCacheConfig maxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+        return this;
+    }
+
+    /**
+     * Results with more rows than this limit are not cached. Default 1000
+     */
+    public QueryCacheConfig maxResultSize(int maxResultSize) {
+        this.maxResultSize = maxResultSize;
+        return this;
+    }
+
+    /**
+     * Time to live of cached results, null (default) keep them until invalidated or evicted
+     */
+    public QueryCacheConfig ttl(Duration ttl) {
+        this.ttl = ttl;
+        return this;
+    }
+
+    /**
+     * Other entity classes whose changes invalidate the cached results, like entities fetched by joins.
+     * Classes of path parameters (i.e. category.name) are detected automatically. Query builder results with joins
+     * or subqueries are only cached when dependencies are declared, and they must list every entity class read
+     */
+    public QueryCacheConfig dependsOn(Class<?>... entityClasses) {
+        Collections.addAll(dependencies, entityClasses);
+        return this;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public int getMaxResultSize() {
+        return maxResultSize;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public Set<Class<?>> getDependencies() {
+        return Collections.unmodifiableSet(dependencies);
+    }
+}
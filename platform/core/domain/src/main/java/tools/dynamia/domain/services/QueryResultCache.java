@@ -0,0 +1,365 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain.services;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.dynamia.commons.SimpleCache;
+import tools.dynamia.commons.collect.PagedList;
+import tools.dynamia.commons.reflect.ClassReflectionInfo;
+import tools.dynamia.domain.AbstractEntity;
+import tools.dynamia.domain.query.AbstractQuery;
+import tools.dynamia.domain.query.DataPaginator;
+import tools.dynamia.domain.query.QueryParameters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache of query results used by {@link CacheCrudService}. Results are cached only for entity classes enabled with
+ * {@link #enable(Class, QueryCacheConfig)} and keyed by the normalized query (shape, bound values, sort, paginator
+ * page and max results) and the tenant. Each entry records the entity classes it depends on: the query type, the
+ * classes of path parameters and the configured dependencies. {@link #invalidate(Class)} removes only the entries
+ * that depend on the changed class, and when a transaction is active it invalidates them again after completion.
+ * <p>
+ * Entities read by joins, subqueries or paths written in query text are not detected. Query texts with joins or
+ * subqueries are only cached when the entity class declares its dependencies ({@link QueryCacheConfig#dependsOn(Class[])}),
+ * and they must cover every other entity class the queries read, also the ones navigated by plain where conditions.
+ * <p>
+ * {@link PagedList} results are not cached: they load pages lazily from the query they were created for, and copying
+ * them would load every page. Paged queries are cached only when the crud service returns the page as plain list.
+ * <p>
+ * Cached entities are shared between callers, so they must be treated as read only.
+ */
+public class QueryResultCache {
+
+    private static final Set<QueryResultCache> INSTANCES = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private final Map<Class<?>, Region> regions = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public QueryResultCache() {
+        INSTANCES.add(this);
+    }
+
+    /**
+     * Invalidate the entries that depend on the entity class in every query result cache
+     */
+    public static void invalidateAll(Class<?> entityClass) {
+        List<QueryResultCache> caches;
+        synchronized (INSTANCES) {
+            caches = new ArrayList<>(INSTANCES);
+        }
+        caches.forEach(cache -> cache.invalidate(entityClass));
+    }
+
+    /**
+     * Enable result caching for queries of the entity class
+     */
+    public void enable(Class<?> entityClass, QueryCacheConfig config) {
+        regions.put(entityClass, new Region(entityClass, config != null ? config : new QueryCacheConfig()));
+    }
+
+    public void disable(Class<?> entityClass) {
+        regions.remove(entityClass);
+    }
+
+    public boolean isEnabled(Class<?> entityClass) {
+        return entityClass != null && regions.containsKey(entityClass);
+    }
+
+    /**
+     * Return the cached result of find(type, parameters) or load it
+     */
+    public <T> List<T> find(Class<?> type, QueryParameters parameters, Object tenant, Supplier<List<T>> loader) {
+        Region region = regions.get(type);
+        if (region == null || !isCacheable(parameters)) {
+            return loader.get();
+        }
+
+        QueryKey key = new QueryKey("find", tenant, parameters.getShapeKey(), boundValues(parameters), paging(parameters));
+        return region.getOrLoad(key, dependencies(region, parameters), parameters.getPaginator(), loader);
+    }
+
+    /**
+     * Return the cached result of a query text, like the JPQL of a QueryBuilder, or load it. Queries with joins or
+     * subqueries are not cached unless the entity class has declared dependencies
+     */
+    public <T> List<T> executeQuery(Class<?> type, String queryText, QueryParameters parameters, Object tenant, Supplier<List<T>> loader) {
+        Region region = regions.get(type);
+        if (region == null || (parameters != null && !isCacheable(parameters))
+                || (readsOtherEntities(queryText) && region.config.getDependencies().isEmpty())) {
+            return loader.get();
+        }
+
+        QueryKey key = new QueryKey(queryText, tenant, null, boundValues(parameters), paging(parameters));
+        return region.getOrLoad(key, dependencies(region, parameters), parameters != null ? parameters.getPaginator() : null, loader);
+    }
+
+    /**
+     * Return the cached count or load it
+     */
+    public long count(Class<?> type, QueryParameters parameters, Object tenant, Supplier<Long> loader) {
+        Region region = regions.get(type);
+        if (region == null || (parameters != null && !isCacheable(parameters))) {
+            return loader.get();
+        }
+
+        QueryKey key = new QueryKey("count", tenant, parameters != null ? parameters.getShapeKey() : null, boundValues(parameters), null);
+        return region.getOrLoad(key, dependencies(region, parameters), null, loader);
+    }
+
+    /**
+     * Remove cached results that depend on the entity class or any of its superclasses
+     */
+    public void invalidate(Class<?> entityClass) {
+        if (entityClass == null || regions.isEmpty()) {
+            return;
+        }
+
+        invalidateNow(entityClass);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // results loaded by other threads before commit still see old data
+            @SuppressWarnings("unchecked")
+            Set<Class<?>> pending = (Set<Class<?>>) TransactionSynchronizationManager.getResource(this);
+            if (pending == null) {
+                Set<Class<?>> classes = new LinkedHashSet<>();
+                TransactionSynchronizationManager.bindResource(this, classes);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(QueryResultCache.this);
+                        classes.forEach(QueryResultCache.this::invalidateNow);
+                    }
+                });
+                pending = classes;
+            }
+            pending.add(entityClass);
+        }
+    }
+
+    private void invalidateNow(Class<?> entityClass) {
+        generation.incrementAndGet();
+        regions.values().forEach(region -> region.invalidate(entityClass));
+    }
+
+    /**
+     * Remove all cached results
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        regions.values().forEach(region -> region.cache.clear());
+    }
+
+    /**
+     * Cache statistics by entity class
+     */
+    public Map<Class<?>, SimpleCache.Stats> getStats() {
+        Map<Class<?>, SimpleCache.Stats> stats = new HashMap<>();
+        regions.forEach((type, region) -> stats.put(type, region.cache.getStats()));
+        return stats;
+    }
+
+    /**
+     * Keyset paginators remember page keys while loading, so their results are not cached
+     */
+    private static boolean isCacheable(QueryParameters parameters) {
+        return parameters.getPaginator() == null || !parameters.getPaginator().isKeyset();
+    }
+
+    /**
+     * Joins and subqueries read entities that cannot be known from the query text without the persistence metamodel
+     */
+    private static boolean readsOtherEntities(String queryText) {
+        String text = queryText.toLowerCase(Locale.ROOT);
+        int from = text.indexOf(" from ");
+        return text.contains(" join ") || (from >= 0 && text.indexOf(" from ", from + 1) >= 0) || text.contains("(select");
+    }
+
+    private static List<Object> boundValues(QueryParameters parameters) {
+        if (parameters == null) {
+            return List.of();
+        }
+
+        ValueCollector collector = new ValueCollector();
+        parameters.applyTo(collector);
+        collector.getDelegate().add(parameters.getMaxResults());
+        return collector.getDelegate();
+    }
+
+    private static List<Object> paging(QueryParameters parameters) {
+        DataPaginator paginator = parameters != null ? parameters.getPaginator() : null;
+        if (paginator == null) {
+            return null;
+        }
+        return Arrays.asList(paginator.getPage(), paginator.getPageSize(), paginator.getCountMode(), paginator.getCountLimit());
+    }
+
+    private static Set<Class<?>> dependencies(Region region, QueryParameters parameters) {
+        Set<Class<?>> dependencies = new LinkedHashSet<>();
+        dependencies.add(region.type);
+        dependencies.addAll(region.config.getDependencies());
+        if (parameters != null) {
+            for (String key : parameters.keySet()) {
+                int dot = key.indexOf('.');
+                while (dot > 0) {
+                    Class<?> pathType = ClassReflectionInfo.getAccessor(region.type, key.substring(0, dot)).getType();
+                    if (pathType != null) {
+                        dependencies.add(pathType);
+                    }
+                    dot = key.indexOf('.', dot + 1);
+                }
+            }
+        }
+        return dependencies;
+    }
+
+    /**
+     * Entities are compared by class and id, they may not implement equals
+     */
+    private static Object normalize(Object value) {
+        if (value instanceof AbstractEntity<?> entity) {
+            return Arrays.asList(entity.getClass(), entity.getId());
+        } else if (value instanceof Collection<?> collection) {
+            List<Object> values = new ArrayList<>(collection.size());
+            collection.forEach(v -> values.add(normalize(v)));
+            return values;
+        } else if (value instanceof Object[] array) {
+            return normalize(Arrays.asList(array));
+        }
+        return value;
+    }
+
+    private static boolean dependsOn(Set<Class<?>> dependencies, Class<?> changed) {
+        for (Class<?> dependency : dependencies) {
+            if (dependency.isAssignableFrom(changed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record QueryKey(Object query, Object tenant, Object shape, List<Object> values, List<Object> paging) {
+    }
+
+    private record Entry(Object value, Set<Class<?>> dependencies, long totalSize, boolean totalSizeEstimated) {
+    }
+
+    private static final class ValueCollector extends AbstractQuery<List<Object>> {
+
+        private ValueCollector() {
+            super(new ArrayList<>());
+        }
+
+        @Override
+        public AbstractQuery setParameter(String name, Object value) {
+            getDelegate().add(name);
+            getDelegate().add(normalize(value));
+            return this;
+        }
+
+        @Override
+        public void setHint(String name, Object value) {
+            getDelegate().add("#" + name);
+            getDelegate().add(normalize(value));
+        }
+    }
+
+    private final class Region {
+
+        private final Class<?> type;
+        private final QueryCacheConfig config;
+        private final SimpleCache<QueryKey, Entry> cache;
+
+        private Region(Class<?> type, QueryCacheConfig config) {
+            this.type = type;
+            this.config = config;
+            SimpleCache.Builder<QueryKey, Entry> builder = SimpleCache.<QueryKey, Entry>builder().maximumSize(config.getMaxEntries());
+            if (config.getTtl() != null) {
+                builder.expireAfterWrite(config.getTtl());
+            }
+            this.cache = builder.build();
+        }
+
+        @SuppressWarnings("unchecked")
+        private <V> V getOrLoad(QueryKey key, Set<Class<?>> dependencies, DataPaginator paginator, Supplier<V> loader) {
+            Entry entry = cache.get(key);
+            if (entry != null) {
+                if (paginator != null) {
+                    paginator.setTotalSize(entry.totalSize());
+                    paginator.setTotalSizeEstimated(entry.totalSizeEstimated());
+                }
+                return (V) copy(entry.value());
+            }
+
+            long loadGeneration = generation.get();
+            V value = loader.get();
+            if (value instanceof PagedList<?>) {
+                return value;
+            }
+            if (value instanceof Collection<?> result && result.size() > config.getMaxResultSize()) {
+                return value;
+            }
+
+            // skip results loaded while entries were being invalidated, they could be stale
+            if (value != null && generation.get() == loadGeneration) {
+                cache.put(key, new Entry(copy(value), dependencies,
+                        paginator != null ? paginator.getTotalSize() : 0,
+                        paginator != null && paginator.isTotalSizeEstimated()));
+                // an invalidation between the check and the put may have missed this entry
+                if (generation.get() != loadGeneration) {
+                    cache.remove(key);
+                }
+            }
+            return value;
+        }
+
+        private void invalidate(Class<?> changed) {
+            if (type.isAssignableFrom(changed)) {
+                cache.clear();
+                return;
+            }
+
+            List<QueryKey> stale = new ArrayList<>();
+            cache.forEach((key, entry) -> {
+                if (dependsOn(entry.dependencies(), changed)) {
+                    stale.add(key);
+                }
+            });
+            stale.forEach(cache::remove);
+        }
+
+        /**
+         * Callers get their own list, they usually sort or add items to it
+         */
+        private static Object copy(Object value) {
+            return value instanceof List<?> list ? new ArrayList<>(list) : value;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain.services;
+
+/**
+ * Provides the current tenant (i.e. account id) of multi tenant applications. Register an implementation as a bean so
+ * tenant aware services like {@link CacheCrudService} can find it with {@link tools.dynamia.integration.Containers}.
+ */
+public interface TenantProvider {
+
+    /**
+     * Return the tenant of the current request or thread, null if there is no current tenant
+     */
+    Object getCurrentTenant();
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain.services;
+
+import java.util.List;
+
+/**
+ * Optional in-process text indexes of entity fields used to answer {@link CrudService#findByFields(Class, String, String...)}
+ * searches without <code>like '%term%'</code> scans. Indexes are declared per entity class and field set and kept
+ * up to date by create, update and delete events.
+ *
+ * @see tools.dynamia.domain.util.TextIndex
+ */
+public interface TextIndexService {
+
+    /**
+     * Declare a text index for the entity class fields. Call {@link #bootstrap(Class)} or {@link #rebuild(Class)}
+     * to load it
+     *
+     * @param entityClass the entity class
+     * @param fields      the indexed fields
+     */
+    void register(Class<?> entityClass, String... fields);
+
+    /**
+     * Return true if the entity class has a loaded index that covers all the fields
+     */
+    boolean isAvailable(Class<?> entityClass, String... fields);
+
+    /**
+     * Find ids of entities whose fields may contain the term. Results are candidates, a superset of the matching
+     * entities that must be verified by the caller query.
+     *
+     * @return candidate ids, or null if the index is not available or fresh, or cannot narrow the search (terms
+     * without fragments of 3 or more characters)
+     */
+    List<Object> search(Class<?> entityClass, String term, String... fields);
+
+    /**
+     * Mark the index of the entity class as outdated, for example after bulk updates or writes that skip crud
+     * service events, and rebuild it. Searches return null until rebuilt.
+     *
+     * @param entityClass the entity class, or null for all indexes
+     */
+    void invalidate(Class<?> entityClass);
+
+    /**
+     * Add or update the entity in its index, if any
+     */
+    void index(Object entity);
+
+    /**
+     * Remove the entity from its index, if any
+     */
+    void remove(Object entity);
+
+    /**
+     * Load the index from all entities in the database. Blocks until done
+     */
+    void rebuild(Class<?> entityClass);
+
+    /**
+     * Load the persisted index segment if available, so searches can use it right away, and rebuild it in background
+     */
+    void bootstrap(Class<?> entityClass);
+}
@@ -27,9 +27,18 @@ import tools.dynamia.domain.query.QueryMetadata;
 import tools.dynamia.domain.query.QueryParameters;
 import tools.dynamia.domain.services.CrudService;
 import tools.dynamia.domain.util.CrudServiceListener;
+import tools.dynamia.domain.util.CrudServiceListener.BatchOperation;
+import tools.dynamia.integration.ProgressMonitor;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * CrudService implementation.
@@ -45,6 +54,11 @@ public abstract class AbstractCrudService implements CrudService {
      */
     private final LoggingService logger = new SLF4JLoggingService(CrudService.class);
 
+    private volatile CrudServiceListenerPipeline listenerPipeline;
+    private final Map<Class<?>, CrudServiceListenerMetrics> listenerMetrics = new ConcurrentHashMap<>();
+    private long slowListenerThreshold = 500;
+    private int bulkChunkSize = 500;
+
     /*
      * (non-Javadoc)
      *
@@ -311,50 +325,242 @@ public abstract class AbstractCrudService implements CrudService {
         throw new UnsupportedOperationException("Method not supported in this CrudService");
     }
 
+    @Override
+    public <T> List<T> createAll(Collection<T> entities, ProgressMonitor monitor) {
+        return bulk(BatchOperation.CREATE, entities, monitor);
+    }
+
+    @Override
+    public <T> List<T> updateAll(Collection<T> entities, ProgressMonitor monitor) {
+        return bulk(BatchOperation.UPDATE, entities, monitor);
+    }
+
+    @Override
+    public void deleteAll(Collection<?> entities, ProgressMonitor monitor) {
+        bulk(BatchOperation.DELETE, entities, monitor);
+    }
+
+    /**
+     * Run a bulk operation splitting entities in chunks of {@link #getBulkChunkSize()}. Each chunk is grouped by
+     * entity class to fire batch listeners, then every entity is processed using create, update or delete and
+     * finally {@link #afterBulkChunk()} is called.
+     */
+    protected <T> List<T> bulk(BatchOperation operation, Collection<T> entities, ProgressMonitor monitor) {
+        if (entities == null || entities.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        int chunkSize = Math.max(1, bulkChunkSize);
+        List<T> result = new ArrayList<>(entities.size());
+        List<T> chunk = new ArrayList<>(Math.min(chunkSize, entities.size()));
+        long start = System.nanoTime();
+        if (monitor != null) {
+            monitor.setMax(entities.size());
+        }
+
+        for (T entity : entities) {
+            if (entity == null) {
+                continue;
+            }
+            chunk.add(entity);
+            if (chunk.size() == chunkSize) {
+                processChunk(operation, chunk, result);
+                chunk.clear();
+                if (reportProgress(operation, monitor, result.size(), start)) {
+                    return result;
+                }
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            processChunk(operation, chunk, result);
+            reportProgress(operation, monitor, result.size(), start);
+        }
+        return result;
+    }
+
+    private <T> void processChunk(BatchOperation operation, List<T> chunk, List<T> result) {
+        Map<Class<?>, List<T>> byClass = new LinkedHashMap<>();
+        for (T entity : chunk) {
+            byClass.computeIfAbsent(entity.getClass(), c -> new ArrayList<>()).add(entity);
+        }
+
+        for (Map.Entry<Class<?>, List<T>> entry : byClass.entrySet()) {
+            fireListeners(new Batch(operation, entry.getValue()), EventType.BEFORE_BATCH, entry.getKey());
+        }
+
+        for (T entity : chunk) {
+            switch (operation) {
+                case CREATE -> result.add(create(entity));
+                case UPDATE -> result.add(update(entity));
+                case DELETE -> {
+                    delete(entity);
+                    result.add(entity);
+                }
+            }
+        }
+
+        for (Map.Entry<Class<?>, List<T>> entry : byClass.entrySet()) {
+            fireListeners(new Batch(operation, entry.getValue()), EventType.AFTER_BATCH, entry.getKey());
+        }
+        afterBulkChunk();
+    }
+
+    /**
+     * Return true if monitor was stopped
+     */
+    private boolean reportProgress(BatchOperation operation, ProgressMonitor monitor, int processed, long start) {
+        if (monitor == null) {
+            return false;
+        }
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        long throughput = processed * TimeUnit.SECONDS.toNanos(1) / elapsed;
+        monitor.setMessage(operation + " " + processed + "/" + monitor.getMax() + " (" + throughput + "/s)");
+        monitor.setCurrent(processed);
+        return monitor.isStopped();
+    }
+
+    /**
+     * Called after each bulk operation chunk. Implementations backed by a persistence context should write pending
+     * changes and release managed entities here
+     */
+    protected void afterBulkChunk() {
+        // nothing by default
+    }
+
+    public int getBulkChunkSize() {
+        return bulkChunkSize;
+    }
+
+    /**
+     * Entities processed per chunk by bulk operations like {@link #createAll(Collection, ProgressMonitor)}
+     *
+     * @param bulkChunkSize the chunk size
+     */
+    public void setBulkChunkSize(int bulkChunkSize) {
+        this.bulkChunkSize = bulkChunkSize;
+    }
+
     /**
-     * Fire listeners.
+     * Fire listeners. The entity class is resolved from the value: the value class for entity events and
+     * {@link QueryParameters#getType()} for before query events.
      *
      * @param value the value
      * @param type  the type
      */
     protected void fireListeners(Object value, EventType type) {
-        List<CrudServiceListener> listeners = getListeners();
+        Class<?> entityClass = null;
+        if (value instanceof QueryParameters params) {
+            entityClass = params.getType();
+        } else if (value != null && !(value instanceof List)) {
+            entityClass = value.getClass();
+        }
+        fireListeners(value, type, entityClass);
+    }
 
-        if (listeners != null && !listeners.isEmpty()) {
-
-            for (CrudServiceListener listener : listeners) {
-                try {
-                    switch (type) {
-                        case BEFORE_CREATE -> listener.beforeCreate(value);
-                        case AFTER_CREATE -> listener.afterCreate(value);
-                        case BEFORE_UPDATE -> listener.beforeUpdate(value);
-                        case AFTER_UPDATE -> listener.afterUpdate(value);
-                        case BEFORE_DELETE -> listener.beforeDelete(value);
-                        case AFTER_DELETE -> listener.afterDelete(value);
-                        case BEFORE_QUERY -> {
-                            if (value != null && value instanceof QueryParameters) {
-                                listener.beforeQuery((QueryParameters) value);
-                            }
-                        }
-                        case AFTER_QUERY -> {
-                            if (value instanceof List) {
-                                listener.afterQuery((List) value);
-                            }
-                        }
-                    }
-                } catch (ClassCastException e) {
-                    // Ignore, this error is because generics
-                } catch (ValidationError v) {
-                    throw v;
-                } catch (Exception e) {
-                    logger.error("Exception Firing CrudServiceListener: " + listener.getClass(), e);
+    /**
+     * Fire listeners applicable to the entity class. Listeners are resolved once into a dispatch table by
+     * their generic type and the event methods they override. If entity class is null all listeners that
+     * handle the event are invoked.
+     *
+     * @param value       the value
+     * @param type        the type
+     * @param entityClass the entity class, can be null
+     */
+    protected void fireListeners(Object value, EventType type, Class<?> entityClass) {
+        if (type == EventType.BEFORE_QUERY && !(value instanceof QueryParameters)) {
+            return;
+        }
+        if (type == EventType.AFTER_QUERY && !(value instanceof List)) {
+            return;
+        }
+        if ((type == EventType.BEFORE_BATCH || type == EventType.AFTER_BATCH) && !(value instanceof Batch)) {
+            return;
+        }
 
+        CrudServiceListenerPipeline.Entry[] entries = getListenerPipeline().get(type, entityClass);
+        for (CrudServiceListenerPipeline.Entry entry : entries) {
+            CrudServiceListener listener = entry.listener;
+            boolean error = false;
+            long start = System.nanoTime();
+            try {
+                switch (type) {
+                    case BEFORE_CREATE -> listener.beforeCreate(value);
+                    case AFTER_CREATE -> listener.afterCreate(value);
+                    case BEFORE_UPDATE -> listener.beforeUpdate(value);
+                    case AFTER_UPDATE -> listener.afterUpdate(value);
+                    case BEFORE_DELETE -> listener.beforeDelete(value);
+                    case AFTER_DELETE -> listener.afterDelete(value);
+                    case BEFORE_QUERY -> listener.beforeQuery((QueryParameters) value);
+                    case AFTER_QUERY -> listener.afterQuery((List) value);
+                    case BEFORE_BATCH -> listener.beforeBatch(((Batch) value).operation(), ((Batch) value).entities());
+                    case AFTER_BATCH -> listener.afterBatch(((Batch) value).operation(), ((Batch) value).entities());
                 }
+            } catch (ValidationError v) {
+                error = true;
+                throw v;
+            } catch (Exception e) {
+                error = true;
+                logger.error("Exception Firing CrudServiceListener: " + entry.listenerClass, e);
+            } finally {
+                recordListenerInvocation(entry.listenerClass, type, System.nanoTime() - start, error);
             }
+        }
+    }
+
+    private CrudServiceListenerPipeline getListenerPipeline() {
+        List<CrudServiceListener> listeners = getListeners();
+        CrudServiceListenerPipeline current = listenerPipeline;
+        if (current == null || !current.isBuiltFrom(listeners)) {
+            current = new CrudServiceListenerPipeline(listeners);
+            listenerPipeline = current;
+        }
+        return current;
+    }
+
+    private void recordListenerInvocation(Class<?> listenerClass, EventType type, long elapsedNanos, boolean error) {
+        CrudServiceListenerMetrics metrics = listenerMetrics.get(listenerClass);
+        if (metrics == null) {
+            metrics = listenerMetrics.computeIfAbsent(listenerClass, CrudServiceListenerMetrics::new);
+        }
+        metrics.record(elapsedNanos, error);
 
+        if (slowListenerThreshold > 0 && elapsedNanos > TimeUnit.MILLISECONDS.toNanos(slowListenerThreshold)) {
+            logger.warn("Slow CrudServiceListener " + listenerClass.getName() + " on " + type + ": "
+                    + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + "ms");
         }
     }
 
+    /**
+     * Return invocation metrics of each {@link CrudServiceListener} class fired by this service
+     *
+     * @return metrics
+     */
+    public Collection<CrudServiceListenerMetrics> getListenerMetrics() {
+        return Collections.unmodifiableCollection(listenerMetrics.values());
+    }
+
+    /**
+     * Clear listeners invocation metrics
+     */
+    public void resetListenerMetrics() {
+        listenerMetrics.clear();
+    }
+
+    public long getSlowListenerThreshold() {
+        return slowListenerThreshold;
+    }
+
+    /**
+     * Listener invocations slower than this threshold (in milliseconds) are logged as warnings. Zero or
+     * negative disable the warning
+     *
+     * @param slowListenerThreshold the threshold in milliseconds
+     */
+    public void setSlowListenerThreshold(long slowListenerThreshold) {
+        this.slowListenerThreshold = slowListenerThreshold;
+    }
+
     /**
      * Gets the listeners.
      *
@@ -398,7 +604,18 @@ public abstract class AbstractCrudService implements CrudService {
         /**
          * The after query.
          */
-        AFTER_QUERY
+        AFTER_QUERY,
+        /**
+         * Before a bulk operation chunk.
+         */
+        BEFORE_BATCH,
+        /**
+         * After a bulk operation chunk.
+         */
+        AFTER_BATCH
+    }
+
+    private record Batch(BatchOperation operation, List entities) {
     }
 
     @Override
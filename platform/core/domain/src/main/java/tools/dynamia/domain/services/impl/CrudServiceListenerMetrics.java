@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain.services.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Invocation metrics of a {@link tools.dynamia.domain.util.CrudServiceListener} class collected by
+ * {@link AbstractCrudService}. Use it to find slow auditing, tenant or validation listeners.
+ *
+ * @author Mario A. Serrano Leones
+ */
+public class CrudServiceListenerMetrics {
+
+    private final Class<?> listenerClass;
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+    public CrudServiceListenerMetrics(Class<?> listenerClass) {
+        this.listenerClass = listenerClass;
+    }
+
+    void record(long elapsedNanos, boolean error) {
+        invocations.increment();
+        totalNanos.add(elapsedNanos);
+        maxNanos.accumulate(elapsedNanos);
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    public Class<?> getListenerClass() {
+        return listenerClass;
+    }
+
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * Total time spent in this listener in milliseconds
+     */
+    public long getTotalTime() {
+        return TimeUnit.NANOSECONDS.toMillis(totalNanos.sum());
+    }
+
+    /**
+     * Slowest invocation in milliseconds
+     */
+    public long getMaxTime() {
+        return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+    }
+
+    /**
+     * Average invocation time in microseconds
+     */
+    public double getAverageTime() {
+        long count = invocations.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalNanos.sum()) / (double) count;
+    }
+
+    public void reset() {
+        invocations.reset();
+        errors.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        return listenerClass.getName() + " [invocations=" + getInvocations() + ", errors=" + getErrors()
+                + ", total=" + getTotalTime() + "ms, max=" + getMaxTime() + "ms, avg=" + getAverageTime() + "us]";
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain.services.impl;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import tools.dynamia.domain.query.QueryParameters;
+import tools.dynamia.domain.util.CrudServiceListener;
+import tools.dynamia.domain.util.CrudServiceListenerAdapter;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dispatch table of {@link CrudServiceListener}s built once from a listeners snapshot. Each listener is resolved
+ * to its generic entity type and to the event methods it really overrides, so firing an event only invokes
+ * the listeners applicable to the entity class.
+ */
+class CrudServiceListenerPipeline {
+
+    static final Entry[] EMPTY = new Entry[0];
+
+    private final List<CrudServiceListener> snapshot;
+    private final Map<AbstractCrudService.EventType, Entry[]> byEvent = new EnumMap<>(AbstractCrudService.EventType.class);
+    private final Map<AbstractCrudService.EventType, Map<Class<?>, Entry[]>> byEntityClass = new EnumMap<>(AbstractCrudService.EventType.class);
+
+    CrudServiceListenerPipeline(List<CrudServiceListener> listeners) {
+        this.snapshot = listeners != null ? listeners.stream().filter(Objects::nonNull).toList() : List.of();
+
+        List<Entry> entries = snapshot.stream().map(Entry::new).toList();
+
+        for (AbstractCrudService.EventType type : AbstractCrudService.EventType.values()) {
+            byEvent.put(type, entries.stream().filter(e -> e.handles(type)).toArray(Entry[]::new));
+            byEntityClass.put(type, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Check if this pipeline was built from the same listeners. Compares against a snapshot so in place changes
+     * to mutable listeners lists are detected too
+     */
+    boolean isBuiltFrom(List<CrudServiceListener> listeners) {
+        if (listeners == null || listeners.isEmpty()) {
+            return snapshot.isEmpty();
+        }
+        if (listeners.size() != snapshot.size()) {
+            return false;
+        }
+        int i = 0;
+        for (CrudServiceListener listener : listeners) {
+            if (listener != snapshot.get(i++)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return the listeners to invoke for event type and entity class. A null entity class returns all listeners
+     * that handle the event
+     */
+    Entry[] get(AbstractCrudService.EventType type, Class<?> entityClass) {
+        Entry[] all = byEvent.get(type);
+        if (entityClass == null || all.length == 0) {
+            return all;
+        }
+
+        return byEntityClass.get(type).computeIfAbsent(entityClass, c -> {
+            List<Entry> applicable = new ArrayList<>(all.length);
+            for (Entry entry : all) {
+                if (entry.accepts(c)) {
+                    applicable.add(entry);
+                }
+            }
+            return applicable.size() == all.length ? all : applicable.toArray(EMPTY);
+        });
+    }
+
+    static final class Entry {
+        final CrudServiceListener listener;
+        final Class<?> listenerClass;
+        final Class<?> entityType;
+        private final boolean[] handles = new boolean[AbstractCrudService.EventType.values().length];
+
+        Entry(CrudServiceListener listener) {
+            this.listener = listener;
+            this.listenerClass = ClassUtils.getUserClass(listener);
+            Class<?> resolved = ResolvableType.forClass(listenerClass).as(CrudServiceListener.class).resolveGeneric(0);
+            this.entityType = resolved != null ? resolved : Object.class;
+
+            for (AbstractCrudService.EventType type : AbstractCrudService.EventType.values()) {
+                handles[type.ordinal()] = overrides(type);
+            }
+        }
+
+        boolean handles(AbstractCrudService.EventType type) {
+            return handles[type.ordinal()];
+        }
+
+        /**
+         * Check if the listener generic type accept the entity class. Raw or untyped listeners accept everything
+         */
+        boolean accepts(Class<?> entityClass) {
+            return entityType == Object.class || entityType.isAssignableFrom(entityClass);
+        }
+
+        private boolean overrides(AbstractCrudService.EventType type) {
+            String methodName;
+            Class<?>[] paramTypes = {Object.class};
+            switch (type) {
+                case BEFORE_CREATE -> methodName = "beforeCreate";
+                case AFTER_CREATE -> methodName = "afterCreate";
+                case BEFORE_UPDATE -> methodName = "beforeUpdate";
+                case AFTER_UPDATE -> methodName = "afterUpdate";
+                case BEFORE_DELETE -> methodName = "beforeDelete";
+                case AFTER_DELETE -> methodName = "afterDelete";
+                case BEFORE_QUERY -> {
+                    methodName = "beforeQuery";
+                    paramTypes = new Class<?>[]{QueryParameters.class};
+                }
+                case AFTER_QUERY -> {
+                    methodName = "afterQuery";
+                    paramTypes = new Class<?>[]{List.class};
+                }
+                case BEFORE_BATCH -> {
+                    methodName = "beforeBatch";
+                    paramTypes = new Class<?>[]{CrudServiceListener.BatchOperation.class, List.class};
+                }
+                case AFTER_BATCH -> {
+                    methodName = "afterBatch";
+                    paramTypes = new Class<?>[]{CrudServiceListener.BatchOperation.class, List.class};
+                }
+                default -> {
+                    return true;
+                }
+            }
+
+            // generic methods are overridden through bridge methods with erased parameter types
+            Method method = ReflectionUtils.findMethod(listenerClass, methodName, paramTypes);
+            if (method == null) {
+                return true;
+            }
+            Class<?> declaring = method.getDeclaringClass();
+            return declaring != CrudServiceListener.class && declaring != CrudServiceListenerAdapter.class;
+        }
+    }
+}
@@ -0,0 +1,476 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain.services.impl;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.dynamia.commons.logger.LoggingService;
+import tools.dynamia.commons.logger.SLF4JLoggingService;
+import tools.dynamia.commons.reflect.ClassReflectionInfo;
+import tools.dynamia.commons.reflect.PropertyHandle;
+import tools.dynamia.domain.query.QueryParameters;
+import tools.dynamia.domain.services.CrudService;
+import tools.dynamia.domain.services.TextIndexService;
+import tools.dynamia.domain.util.CrudServiceListenerAdapter;
+import tools.dynamia.domain.util.DomainUtils;
+import tools.dynamia.domain.util.TextIndex;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Default {@link TextIndexService}. Indexes are kept in memory and updated by crud service events after the
+ * transaction commits. When a storage directory is configured each index is saved as a segment file after
+ * rebuilding, so {@link #bootstrap(Class)} can load it right after startup while the index is rebuilt.
+ * <p>
+ * Searches only return candidates when the index is known to be fresh: it was rebuilt by this service, it was not
+ * invalidated since, and the current transaction has no pending changes of the entity class. Writes that skip crud
+ * service events (bulk updates, plain JDBC, other nodes) are not seen, call {@link #invalidate(Class)} after them or
+ * set a {@link #setMaxAge(Duration) max age} to bound how long the index is trusted. A loaded segment is only
+ * trusted when a max age is set and the segment is younger.
+ * <p>
+ * Declare it as a bean so it receives crud service events:
+ * <pre>{@code
+ * @Bean
+ * public TextIndexService textIndexService(CrudService crudService) {
+ *     var service = new DefaultTextIndexService(crudService);
+ *     service.setStorageDirectory(Path.of("/var/app/indexes"));
+ *     service.register(Customer.class, "name", "email", "identification");
+ *     service.bootstrap(Customer.class);
+ *     return service;
+ * }
+ * }</pre>
+ */
+public class DefaultTextIndexService extends CrudServiceListenerAdapter<Object> implements TextIndexService {
+
+    private static final LoggingService LOGGER = new SLF4JLoggingService(DefaultTextIndexService.class);
+    private static final String SEGMENT_EXTENSION = ".tidx";
+    private static final String REMOVED = new String("<removed>");
+    private static final Object PENDING_CHANGES = new Object();
+
+    private final Map<Class<?>, IndexEntry> entries = new ConcurrentHashMap<>();
+    private CrudService crudService;
+    private Path storageDirectory;
+    private int maxCandidates = 1000;
+    private Duration maxAge;
+
+    public DefaultTextIndexService() {
+    }
+
+    public DefaultTextIndexService(CrudService crudService) {
+        this.crudService = crudService;
+    }
+
+    @Override
+    public void register(Class<?> entityClass, String... fields) {
+        if (entityClass == null || fields == null || fields.length == 0) {
+            throw new IllegalArgumentException("Entity class and fields are required to register a text index");
+        }
+        entries.put(entityClass, new IndexEntry(entityClass, fields));
+    }
+
+    @Override
+    public boolean isAvailable(Class<?> entityClass, String... fields) {
+        IndexEntry entry = entries.get(entityClass);
+        return entry != null && entry.ready && entry.fields.containsAll(Arrays.asList(fields));
+    }
+
+    @Override
+    public List<Object> search(Class<?> entityClass, String term, String... fields) {
+        if (term == null || !TextIndex.isSubstringSearch(term) || !isAvailable(entityClass, fields)) {
+            return null;
+        }
+        IndexEntry entry = entries.get(entityClass);
+        if (!isFresh(entry) || hasPendingChanges(entry)) {
+            return null;
+        }
+        return entry.index.search(term, maxCandidates);
+    }
+
+    @Override
+    public void invalidate(Class<?> entityClass) {
+        List<IndexEntry> invalidated = entries.values().stream()
+                .filter(entry -> entityClass == null || entry.entityClass.isAssignableFrom(entityClass)
+                        || entityClass.isAssignableFrom(entry.entityClass))
+                .toList();
+        invalidated.forEach(IndexEntry::invalidate);
+
+        Runnable rebuild = () -> invalidated.forEach(entry -> {
+            // a rebuild started before the transaction ends may have loaded the old data
+            entry.invalidate();
+            rebuildInBackground(entry);
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    rebuild.run();
+                }
+            });
+        } else {
+            rebuild.run();
+        }
+    }
+
+    @Override
+    public void afterCreate(Object entity) {
+        index(entity);
+    }
+
+    @Override
+    public void afterUpdate(Object entity) {
+        index(entity);
+    }
+
+    @Override
+    public void afterDelete(Object entity) {
+        remove(entity);
+    }
+
+    @Override
+    public void index(Object entity) {
+        IndexEntry entry = findEntry(entity);
+        if (entry != null) {
+            Object id = DomainUtils.findEntityId(entity);
+            if (id != null) {
+                String text = entry.text(entity);
+                afterCommit(entry, () -> entry.apply(id, text));
+            }
+        }
+    }
+
+    @Override
+    public void remove(Object entity) {
+        IndexEntry entry = findEntry(entity);
+        if (entry != null) {
+            Object id = DomainUtils.findEntityId(entity);
+            if (id != null) {
+                afterCommit(entry, () -> entry.apply(id, REMOVED));
+            }
+        }
+    }
+
+    @Override
+    public void rebuild(Class<?> entityClass) {
+        IndexEntry entry = entries.get(entityClass);
+        if (entry == null) {
+            throw new IllegalArgumentException("No text index registered for " + entityClass);
+        }
+
+        long start = System.currentTimeMillis();
+        long invalidations;
+        synchronized (entry) {
+            entry.changes = new LinkedHashMap<>();
+            invalidations = entry.invalidations;
+        }
+
+        TextIndex index = new TextIndex();
+        try {
+            getCrudService().executeWithinTransaction(() -> {
+                try (Stream<?> entities = getCrudService().stream(entityClass, new QueryParameters())) {
+                    entities.forEach(entity -> {
+                        Object id = DomainUtils.findEntityId(entity);
+                        if (id != null) {
+                            index.put(id, entry.text(entity));
+                        }
+                    });
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (entry) {
+                entry.changes = null;
+            }
+            throw e;
+        }
+
+        synchronized (entry) {
+            // changes committed while loading may be missing or outdated in the loaded entities
+            entry.changes.forEach((id, text) -> putOrRemove(index, id, text));
+            entry.changes = null;
+            entry.index = index;
+            entry.ready = true;
+            // bulk writes invalidated while loading may be missing in the loaded entities
+            entry.fresh = entry.invalidations == invalidations;
+            entry.loadedAt = start;
+        }
+        LOGGER.info("Text index of " + entityClass.getName() + " rebuilt with " + index.size() + " entities in "
+                + (System.currentTimeMillis() - start) + "ms");
+        save(entry);
+    }
+
+    @Override
+    public void bootstrap(Class<?> entityClass) {
+        IndexEntry entry = entries.get(entityClass);
+        if (entry == null) {
+            throw new IllegalArgumentException("No text index registered for " + entityClass);
+        }
+
+        load(entry);
+        rebuildInBackground(entry);
+    }
+
+    /**
+     * Rebuild the index in a virtual thread, unless a rebuild is already running. Runs again if the index was
+     * invalidated while rebuilding
+     */
+    private void rebuildInBackground(IndexEntry entry) {
+        if (!entry.rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+
+        Thread.ofVirtual().name("text-index-" + entry.entityClass.getSimpleName()).start(() -> {
+            boolean rebuilt = false;
+            try {
+                rebuild(entry.entityClass);
+                rebuilt = true;
+            } catch (Exception e) {
+                LOGGER.error("Error rebuilding text index of " + entry.entityClass.getName(), e);
+            } finally {
+                entry.rebuilding.set(false);
+            }
+            if (rebuilt && !entry.fresh) {
+                rebuildInBackground(entry);
+            }
+        });
+    }
+
+    private boolean isFresh(IndexEntry entry) {
+        if (!entry.fresh) {
+            return false;
+        }
+        if (maxAge != null && System.currentTimeMillis() - entry.loadedAt > maxAge.toMillis()) {
+            rebuildInBackground(entry);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Changes of the current transaction are indexed after commit, so until then the index misses them
+     */
+    @SuppressWarnings("unchecked")
+    private static boolean hasPendingChanges(IndexEntry entry) {
+        Set<IndexEntry> pending = (Set<IndexEntry>) TransactionSynchronizationManager.getResource(PENDING_CHANGES);
+        return pending != null && pending.contains(entry);
+    }
+
+    private IndexEntry findEntry(Object entity) {
+        if (entity == null || entries.isEmpty()) {
+            return null;
+        }
+        IndexEntry entry = entries.get(entity.getClass());
+        if (entry == null) {
+            for (IndexEntry candidate : entries.values()) {
+                if (candidate.entityClass.isInstance(entity)) {
+                    return candidate;
+                }
+            }
+        }
+        return entry;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void afterCommit(IndexEntry entry, Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Set<IndexEntry> pending = (Set<IndexEntry>) TransactionSynchronizationManager.getResource(PENDING_CHANGES);
+            if (pending == null) {
+                pending = new HashSet<>();
+                TransactionSynchronizationManager.bindResource(PENDING_CHANGES, pending);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_CHANGES);
+                    }
+                });
+            }
+            pending.add(entry);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    private static void putOrRemove(TextIndex index, Object id, String text) {
+        if (text == REMOVED) {
+            index.remove(id);
+        } else {
+            index.put(id, text);
+        }
+    }
+
+    private Path segmentFile(IndexEntry entry) {
+        return storageDirectory.resolve(entry.entityClass.getName() + SEGMENT_EXTENSION);
+    }
+
+    private void save(IndexEntry entry) {
+        if (storageDirectory == null) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(storageDirectory);
+            Path file = segmentFile(entry);
+            Path temp = Files.createTempFile(storageDirectory, entry.entityClass.getSimpleName(), ".tmp");
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeUTF(String.join(",", entry.fields));
+                entry.index.writeTo(out);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("Cannot save text index of " + entry.entityClass.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private void load(IndexEntry entry) {
+        if (storageDirectory == null || !Files.exists(segmentFile(entry))) {
+            return;
+        }
+
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segmentFile(entry))))) {
+            if (!in.readUTF().equals(String.join(",", entry.fields))) {
+                LOGGER.info("Text index segment of " + entry.entityClass.getName() + " has different fields, ignored");
+                return;
+            }
+            TextIndex index = TextIndex.readFrom(in);
+            long savedAt = Files.getLastModifiedTime(segmentFile(entry)).toMillis();
+            synchronized (entry) {
+                if (!entry.ready) {
+                    entry.index = index;
+                    entry.ready = true;
+                    // writes made after the segment was saved are unknown, trust it only within max age
+                    entry.fresh = maxAge != null;
+                    entry.loadedAt = savedAt;
+                }
+            }
+            LOGGER.info("Text index of " + entry.entityClass.getName() + " loaded with " + index.size() + " entities");
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Cannot load text index of " + entry.entityClass.getName() + ": " + e.getMessage());
+        }
+    }
+
+    public CrudService getCrudService() {
+        if (crudService == null) {
+            crudService = DomainUtils.lookupCrudService();
+        }
+        return crudService;
+    }
+
+    public void setCrudService(CrudService crudService) {
+        this.crudService = crudService;
+    }
+
+    public Path getStorageDirectory() {
+        return storageDirectory;
+    }
+
+    /**
+     * Directory where index segments are saved. Null (default) disable persistence
+     */
+    public void setStorageDirectory(Path storageDirectory) {
+        this.storageDirectory = storageDirectory;
+    }
+
+    public int getMaxCandidates() {
+        return maxCandidates;
+    }
+
+    /**
+     * Max candidates a search can return. Broader terms return null so callers fall back to the database search
+     */
+    public void setMaxCandidates(int maxCandidates) {
+        this.maxCandidates = maxCandidates;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * How long a rebuilt index or a loaded segment is trusted by searches. Older indexes are rebuilt in background
+     * and searches fall back to the database meanwhile. Null (default) trusts rebuilt indexes until invalidated,
+     * use it only when all writes go through this application crud service
+     */
+    public void setMaxAge(Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    private static final class IndexEntry {
+        private final Class<?> entityClass;
+        private final List<String> fields;
+        private final PropertyHandle[] accessors;
+        private volatile TextIndex index = new TextIndex();
+        private volatile boolean ready;
+        private volatile boolean fresh;
+        private volatile long loadedAt;
+        private long invalidations;
+        private final AtomicBoolean rebuilding = new AtomicBoolean();
+        private Map<Object, String> changes;
+
+        IndexEntry(Class<?> entityClass, String[] fields) {
+            this.entityClass = entityClass;
+            this.fields = List.of(fields);
+            this.accessors = new PropertyHandle[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                accessors[i] = ClassReflectionInfo.getAccessor(entityClass, fields[i]);
+            }
+        }
+
+        String text(Object entity) {
+            StringBuilder text = new StringBuilder();
+            for (PropertyHandle accessor : accessors) {
+                Object value = accessor.isReadable() ? accessor.get(entity) : null;
+                if (value != null) {
+                    text.append(value).append('\n');
+                }
+            }
+            return text.toString();
+        }
+
+        synchronized void invalidate() {
+            invalidations++;
+            fresh = false;
+        }
+
+        synchronized void apply(Object id, String text) {
+            if (changes != null) {
+                changes.put(id, text);
+            }
+            putOrRemove(index, id, text);
+        }
+    }
+}
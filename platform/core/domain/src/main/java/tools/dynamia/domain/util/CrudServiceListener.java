@@ -82,6 +82,25 @@ public interface CrudServiceListener<T> {
     default void afterDelete(T entity) {
     }
 
+    /**
+     * Before a chunk of entities is processed by a bulk operation like {@link tools.dynamia.domain.services.CrudService#createAll}.
+     * Per entity methods are still invoked, use this one to prepare work shared by the whole chunk.
+     *
+     * @param operation the bulk operation
+     * @param entities  the chunk entities
+     */
+    default void beforeBatch(BatchOperation operation, List<T> entities) {
+    }
+
+    /**
+     * After a chunk of entities was processed by a bulk operation.
+     *
+     * @param operation the bulk operation
+     * @param entities  the chunk entities
+     */
+    default void afterBatch(BatchOperation operation, List<T> entities) {
+    }
+
     /**
      * Before query.
      *
@@ -97,4 +116,11 @@ public interface CrudServiceListener<T> {
      */
     default void afterQuery(List<T> result) {
     }
+
+    /**
+     * Bulk operations notified by {@link #beforeBatch(BatchOperation, List)}
+     */
+    enum BatchOperation {
+        CREATE, UPDATE, DELETE
+    }
 }
@@ -22,6 +22,7 @@ import tools.dynamia.domain.ValidationError;
 import tools.dynamia.domain.query.*;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -642,6 +643,16 @@ public class QueryBuilder implements Cloneable {
         return this;
     }
 
+    /**
+     * Removes all ORDER BY clauses, useful to render the order again on a built copy.
+     *
+     * @return this QueryBuilder for method chaining
+     */
+    public QueryBuilder clearOrderBy() {
+        orders.clear();
+        return this;
+    }
+
     /**
      * Adds GROUP BY clause to the query for aggregating results.
      * Multiple fields can be specified for multi-level grouping.
@@ -1142,6 +1153,22 @@ public class QueryBuilder implements Cloneable {
         return qb;
     }
 
+    /**
+     * Creates a copy of this built query bound to other parameters with the same shape (see
+     * {@link QueryParameters#getShapeKey()}). Conditions are not rendered again, so the copy produces the same
+     * query text and only the parameter values change.
+     *
+     * @param parameters the query parameters of the copy
+     * @return a new built QueryBuilder instance
+     */
+    public QueryBuilder withParameters(QueryParameters parameters) {
+        build();
+        QueryBuilder qb = clone();
+        qb.queryParameters = parameters;
+        qb.builded = true;
+        return qb;
+    }
+
     /**
      * Gets the array of fields selected in this query.
      *
@@ -1151,6 +1178,27 @@ public class QueryBuilder implements Cloneable {
         return fields;
     }
 
+    /**
+     * Gets the ORDER BY clauses of this query. The order created from {@link QueryParameters} sorter is
+     * included once the query is built or rendered.
+     *
+     * @return an unmodifiable list of order clauses like {@code t.name ASC}
+     */
+    public List<String> getOrders() {
+        return Collections.unmodifiableList(orders);
+    }
+
+    /**
+     * Checks if this is a plain entity SELECT query: no custom select, selected fields, result type or
+     * GROUP BY. Only these queries can be rewritten safely, for example for keyset pagination.
+     *
+     * @return true if the query select whole entities
+     */
+    public boolean isEntitySelect() {
+        return queryType == QueryType.SELECT && (customSelect == null || customSelect.isEmpty())
+                && (fields == null || fields.length == 0) && resultType == null && groups.isEmpty();
+    }
+
     /**
      * Creates a new UPDATE QueryBuilder for bulk update operations.
      * Use {@link #set(Map)} to specify fields and values to update.
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain.util;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Thread bound read routing intents used by replica aware data sources. Reads executed with {@link #replica(Supplier)}
+ * outside a transaction may be served by a read replica, and writes made by the current thread make following reads
+ * stick to the primary database for a short window (read your writes).
+ * <p>
+ * This class only records intents; routing is done by data sources that support it, so it is safe to use when no
+ * replicas are configured.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> REPLICA = new ThreadLocal<>();
+    private static final ThreadLocal<Long> LAST_WRITE = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    /**
+     * Execute the read allowing it to use a read replica. If the thread is already in a transaction or wrote
+     * recently the read runs as usual, so it sees its own changes.
+     * <p>
+     * The read also runs as usual when an EntityManager or connection is already bound to the thread (for example
+     * by open entity manager in view), because that resource keeps the connection taken by the read and later
+     * writes of the same request would go to the replica.
+     */
+    public static <T> T replica(Supplier<T> read) {
+        if (REPLICA.get() != null || TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.getResourceMap().isEmpty()) {
+            return read.get();
+        }
+
+        REPLICA.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            REPLICA.remove();
+        }
+    }
+
+    /**
+     * Execute the read in the primary database, even inside a {@link #replica(Supplier)} call
+     */
+    public static <T> T primary(Supplier<T> read) {
+        Boolean previous = REPLICA.get();
+        REPLICA.set(Boolean.FALSE);
+        try {
+            return read.get();
+        } finally {
+            if (previous != null) {
+                REPLICA.set(previous);
+            } else {
+                REPLICA.remove();
+            }
+        }
+    }
+
+    /**
+     * Return true if the current read may be served by a replica: it runs inside {@link #replica(Supplier)} or in
+     * a read only transaction
+     */
+    public static boolean isReplicaAllowed() {
+        Boolean replica = REPLICA.get();
+        if (replica != null) {
+            return replica;
+        }
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * Record that the current thread wrote to the primary database
+     */
+    public static void markWrite() {
+        LAST_WRITE.set(System.nanoTime());
+    }
+
+    /**
+     * Return true if the current thread wrote to the primary database within the window
+     */
+    public static boolean hasWrittenWithin(Duration window) {
+        Long lastWrite = LAST_WRITE.get();
+        return lastWrite != null && System.nanoTime() - lastWrite < window.toNanos();
+    }
+
+    /**
+     * Forget writes of the current thread, call it when a request finish. Web applications get it done by
+     * {@code tools.dynamia.web.ReadRoutingRequestFilter}
+     */
+    public static void clear() {
+        LAST_WRITE.remove();
+    }
+}
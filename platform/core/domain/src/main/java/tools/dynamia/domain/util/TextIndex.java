@@ -0,0 +1,392 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In memory inverted index of short texts by key, used to answer <code>like '%term%'</code> searches without
+ * scanning. Texts are normalized (lower case, no accents) and every word is indexed by its trigrams and by its one
+ * and two characters prefixes. Search terms are split in fragments like {@link DomainUtils#buildSearcheableString(Object)}
+ * does; fragments of 3 or more characters match anywhere in a word using trigrams, and when all fragments are
+ * shorter they match word prefixes.
+ * <p>
+ * For terms with a fragment of 3 or more characters ({@link #isSubstringSearch(String)}) results are candidates: a
+ * superset of the keys whose text contains the term, so callers should verify them, usually adding the key list as
+ * a condition of the original query. Word prefix results of shorter terms are not a superset of
+ * <code>like '%term%'</code> matches ("an" does not find "Juan"), use them only for prefix suggestions. Thread safe.
+ */
+public class TextIndex {
+
+    private static final int SEGMENT_MAGIC = 0x44544958;
+    private static final int SEGMENT_VERSION = 1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Object, Integer> docs = new HashMap<>();
+    private final Map<Long, Postings> grams = new HashMap<>();
+    private Object[] keys = new Object[64];
+    private String[] texts = new String[64];
+    private int docCount;
+    private int deleted;
+
+    /**
+     * Add or replace the text of the key
+     */
+    public void put(Object key, String text) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(key);
+            addDoc(key, normalize(text));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Object key) {
+        lock.writeLock().lock();
+        try {
+            if (removeDoc(key) && deleted > 1024 && deleted > docCount / 3) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            docs.clear();
+            grams.clear();
+            keys = new Object[64];
+            texts = new String[64];
+            docCount = 0;
+            deleted = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find keys whose text may contain the term.
+     *
+     * @param term          the search term
+     * @param maxCandidates max keys to return
+     * @return candidate keys in insertion order, or null if the term matches everything (no letters or digits)
+     * or there are more than maxCandidates candidates
+     */
+    public List<Object> search(String term, int maxCandidates) {
+        List<String> fragments = fragments(normalize(term));
+        if (fragments.isEmpty()) {
+            return null;
+        }
+        boolean trigramMode = fragments.stream().anyMatch(f -> f.length() >= 3);
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>();
+            for (String fragment : fragments) {
+                if (trigramMode && fragment.length() >= 3) {
+                    for (int i = 0; i + 3 <= fragment.length(); i++) {
+                        lists.add(grams.get(gram(fragment, i, 3)));
+                    }
+                } else if (!trigramMode) {
+                    lists.add(grams.get(gram(fragment, 0, fragment.length())));
+                }
+            }
+            if (lists.contains(null)) {
+                return List.of();
+            }
+            lists.sort(Comparator.comparingInt(p -> p.size));
+
+            List<Object> result = new ArrayList<>();
+            Postings driver = lists.getFirst();
+            int[] cursors = new int[lists.size()];
+            for (int i = 0; i < driver.size; i++) {
+                int doc = driver.values[i];
+                if (texts[doc] != null && containsAll(lists, cursors, doc)
+                        && (!trigramMode || containsInOrder(texts[doc], fragments))) {
+                    if (result.size() == maxCandidates) {
+                        return null;
+                    }
+                    result.add(keys[doc]);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Return true if the term has a fragment of 3 or more characters, so {@link #search(String, int)} matches it
+     * anywhere in the texts instead of by word prefix
+     */
+    public static boolean isSubstringSearch(String term) {
+        return fragments(normalize(term)).stream().anyMatch(f -> f.length() >= 3);
+    }
+
+    /**
+     * Write current keys and texts. Supported keys are Long, Integer, String and UUID
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(SEGMENT_MAGIC);
+            out.writeInt(SEGMENT_VERSION);
+            out.writeInt(docs.size());
+            for (int doc = 0; doc < docCount; doc++) {
+                if (texts[doc] != null) {
+                    writeKey(out, keys[doc]);
+                    out.writeUTF(texts[doc]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Read a segment written by {@link #writeTo(DataOutput)}
+     */
+    public static TextIndex readFrom(DataInput in) throws IOException {
+        if (in.readInt() != SEGMENT_MAGIC || in.readInt() != SEGMENT_VERSION) {
+            throw new IOException("Invalid text index segment");
+        }
+
+        TextIndex index = new TextIndex();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            Object key = readKey(in);
+            index.addDoc(key, in.readUTF());
+        }
+        return index;
+    }
+
+    /**
+     * Lower case text without accents, so indexed texts are a superset of database case or accent insensitive matches
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private void addDoc(Object key, String text) {
+        int doc = docCount++;
+        if (doc == keys.length) {
+            keys = Arrays.copyOf(keys, doc * 2);
+            texts = Arrays.copyOf(texts, doc * 2);
+        }
+        keys[doc] = key;
+        texts[doc] = text;
+        docs.put(key, doc);
+
+        for (String word : fragments(text)) {
+            addGram(gram(word, 0, 1), doc);
+            if (word.length() >= 2) {
+                addGram(gram(word, 0, 2), doc);
+            }
+            for (int i = 0; i + 3 <= word.length(); i++) {
+                addGram(gram(word, i, 3), doc);
+            }
+        }
+    }
+
+    private void addGram(long gram, int doc) {
+        grams.computeIfAbsent(gram, g -> new Postings()).add(doc);
+    }
+
+    private boolean removeDoc(Object key) {
+        Integer doc = docs.remove(key);
+        if (doc == null) {
+            return false;
+        }
+        keys[doc] = null;
+        texts[doc] = null;
+        deleted++;
+        return true;
+    }
+
+    /**
+     * Rebuild postings without deleted documents
+     */
+    private void compact() {
+        Object[] oldKeys = keys;
+        String[] oldTexts = texts;
+        int oldCount = docCount;
+        docs.clear();
+        grams.clear();
+        keys = new Object[Math.max(64, oldCount - deleted)];
+        texts = new String[keys.length];
+        docCount = 0;
+        deleted = 0;
+        for (int doc = 0; doc < oldCount; doc++) {
+            if (oldTexts[doc] != null) {
+                addDoc(oldKeys[doc], oldTexts[doc]);
+            }
+        }
+    }
+
+    private static boolean containsAll(List<Postings> lists, int[] cursors, int doc) {
+        for (int i = 1; i < lists.size(); i++) {
+            Postings list = lists.get(i);
+            int position = list.seek(doc, cursors[i]);
+            cursors[i] = position;
+            if (position >= list.size || list.values[position] != doc) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsInOrder(String text, List<String> fragments) {
+        int from = 0;
+        for (String fragment : fragments) {
+            int found = text.indexOf(fragment, from);
+            if (found < 0) {
+                return false;
+            }
+            from = found + fragment.length();
+        }
+        return true;
+    }
+
+    /**
+     * Runs of letters and digits
+     */
+    private static List<String> fragments(String text) {
+        List<String> fragments = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean alphanumeric = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (alphanumeric && start < 0) {
+                start = i;
+            } else if (!alphanumeric && start >= 0) {
+                fragments.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return fragments;
+    }
+
+    private static long gram(String text, int offset, int length) {
+        long gram = length;
+        for (int i = 0; i < length; i++) {
+            gram = (gram << 16) | text.charAt(offset + i);
+        }
+        return gram;
+    }
+
+    private static void writeKey(DataOutput out, Object key) throws IOException {
+        switch (key) {
+            case Long value -> {
+                out.writeByte('L');
+                out.writeLong(value);
+            }
+            case Integer value -> {
+                out.writeByte('I');
+                out.writeInt(value);
+            }
+            case String value -> {
+                out.writeByte('S');
+                out.writeUTF(value);
+            }
+            case UUID value -> {
+                out.writeByte('U');
+                out.writeLong(value.getMostSignificantBits());
+                out.writeLong(value.getLeastSignificantBits());
+            }
+            default -> throw new IOException("Unsupported text index key type " + key.getClass());
+        }
+    }
+
+    private static Object readKey(DataInput in) throws IOException {
+        return switch (in.readByte()) {
+            case 'L' -> in.readLong();
+            case 'I' -> in.readInt();
+            case 'S' -> in.readUTF();
+            case 'U' -> new UUID(in.readLong(), in.readLong());
+            default -> throw new IOException("Invalid text index key type");
+        };
+    }
+
+    /**
+     * Growable sorted list of document numbers, documents are always added in increasing order
+     */
+    private static final class Postings {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int doc) {
+            if (size > 0 && values[size - 1] == doc) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = doc;
+        }
+
+        /**
+         * Position of the first value greater or equal than doc, starting at from
+         */
+        private int seek(int doc, int from) {
+            int low = from;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < doc) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain;
+
+import org.junit.Assert;
+import org.junit.Test;
+import tools.dynamia.commons.collect.PagedList;
+import tools.dynamia.domain.query.DataPaginator;
+import tools.dynamia.domain.query.DataPaginatorPagedListDataSource;
+import tools.dynamia.domain.query.QueryParameters;
+import tools.dynamia.domain.services.CacheCrudService;
+import tools.dynamia.domain.services.QueryCacheConfig;
+import tools.dynamia.domain.util.CrudServiceListener;
+import tools.dynamia.domain.util.CrudServiceListenerAdapter;
+import tools.dynamia.domain.util.QueryBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CacheCrudServiceTest {
+
+    private final AtomicInteger queries = new AtomicInteger();
+    private final AtomicLong tenant = new AtomicLong(1);
+
+    private CacheCrudService createService() {
+        List<CrudServiceListener> listeners = new ArrayList<>();
+        listeners.add(new CrudServiceListenerAdapter<SomeEntity>() {
+            @Override
+            public void afterQuery(List<SomeEntity> result) {
+                queries.incrementAndGet();
+            }
+        });
+        CacheCrudService crudService = new CacheCrudService(new InMemoryCrudService(listeners));
+        crudService.enableQueryCache(SomeEntity.class, new QueryCacheConfig().maxResultSize(20));
+        crudService.setTenantResolver(tenant::get);
+
+        for (int i = 0; i < 10; i++) {
+            SomeEntity entity = new SomeEntity();
+            entity.setName("Test " + i);
+            entity.setActive(i % 2 == 0);
+            crudService.create(entity);
+        }
+        return crudService;
+    }
+
+    @Test
+    public void shouldCacheQueryResultsUntilEntityClassChanges() {
+        CacheCrudService crudService = createService();
+
+        Assert.assertEquals(5, crudService.find(SomeEntity.class, QueryParameters.with("active", true)).size());
+        Assert.assertEquals(5, crudService.find(SomeEntity.class, QueryParameters.with("active", true)).size());
+        Assert.assertEquals(1, queries.get());
+
+        Assert.assertEquals(5, crudService.find(SomeEntity.class, QueryParameters.with("active", false)).size());
+        Assert.assertEquals(2, queries.get());
+
+        SomeEntity entity = new SomeEntity();
+        entity.setActive(true);
+        crudService.create(entity);
+
+        Assert.assertEquals(6, crudService.find(SomeEntity.class, QueryParameters.with("active", true)).size());
+        Assert.assertEquals(3, queries.get());
+    }
+
+    @Test
+    public void shouldKeyResultsByTenant() {
+        CacheCrudService crudService = createService();
+
+        crudService.find(SomeEntity.class, QueryParameters.with("active", true));
+        tenant.set(2);
+        crudService.find(SomeEntity.class, QueryParameters.with("active", true));
+
+        Assert.assertEquals(2, queries.get());
+    }
+
+    @Test
+    public void shouldInvalidateDependentResults() {
+        CacheCrudService crudService = createService();
+        QueryParameters params = QueryParameters.with("otherEntity.name", "Other");
+
+        Assert.assertTrue(crudService.find(SomeEntity.class, params).isEmpty());
+        crudService.find(SomeEntity.class, QueryParameters.with("active", true));
+        crudService.create(new OtherEntity());
+        crudService.find(SomeEntity.class, QueryParameters.with("otherEntity.name", "Other"));
+        crudService.find(SomeEntity.class, QueryParameters.with("active", true));
+
+        Assert.assertEquals(3, queries.get());
+    }
+
+    @Test
+    public void shouldNotCacheLargeResults() {
+        CacheCrudService crudService = createService();
+        for (int i = 0; i < 16; i++) {
+            crudService.create(new SomeEntity());
+        }
+        queries.set(0);
+
+        crudService.find(SomeEntity.class, QueryParameters.with("active", false));
+        crudService.find(SomeEntity.class, QueryParameters.with("active", false));
+
+        Assert.assertEquals(2, queries.get());
+    }
+
+    @Test
+    public void shouldNotBuildCallerQueryBuilder() {
+        List<String> queryTexts = new ArrayList<>();
+        CacheCrudService crudService = new CacheCrudService(new InMemoryCrudService() {
+            @Override
+            public <T> List<T> executeQuery(QueryBuilder queryBuilder) {
+                // like query listeners adding the tenant account condition
+                queryBuilder.getQueryParameters().add("accountId", 1L);
+                queryTexts.add(queryBuilder.build().toString());
+                return new ArrayList<>();
+            }
+        });
+        crudService.enableQueryCache(SomeEntity.class, new QueryCacheConfig());
+
+        crudService.executeQuery(QueryBuilder.select(SomeEntity.class, "s").where(QueryParameters.with("active", true)));
+
+        Assert.assertEquals(1, queryTexts.size());
+        Assert.assertTrue(queryTexts.getFirst(), queryTexts.getFirst().contains("accountId"));
+    }
+
+    @Test
+    public void shouldCacheJoinedQueriesOnlyWithDeclaredDependencies() {
+        CacheCrudService crudService = new CacheCrudService(new InMemoryCrudService() {
+            @Override
+            public <T> List<T> executeQuery(QueryBuilder queryBuilder) {
+                queries.incrementAndGet();
+                return new ArrayList<>();
+            }
+        });
+        crudService.enableQueryCache(SomeEntity.class, new QueryCacheConfig());
+
+        crudService.executeQuery(joined());
+        crudService.executeQuery(joined());
+        Assert.assertEquals(2, queries.get());
+
+        crudService.enableQueryCache(SomeEntity.class, new QueryCacheConfig().dependsOn(OtherEntity.class));
+        crudService.executeQuery(joined());
+        crudService.executeQuery(joined());
+        Assert.assertEquals(3, queries.get());
+
+        crudService.create(new OtherEntity());
+        crudService.executeQuery(joined());
+        Assert.assertEquals(4, queries.get());
+    }
+
+    private static QueryBuilder joined() {
+        return QueryBuilder.select(SomeEntity.class, "s").join("s.otherEntity o").where("o.name = 'Other'");
+    }
+
+    @Test
+    public void shouldNotLoadPagesOrCachePagedListResults() {
+        AtomicInteger pageLoads = new AtomicInteger();
+        CacheCrudService crudService = new CacheCrudService(new InMemoryCrudService() {
+            @Override
+            public <T> List<T> find(Class<T> type, QueryParameters parameters) {
+                queries.incrementAndGet();
+                DataPaginator paginator = parameters.getPaginator();
+                paginator.setTotalSize(100);
+                List<T> activePage = new ArrayList<>();
+                return new PagedList<>(new DataPaginatorPagedListDataSource<>(paginator, null, activePage) {
+                    @Override
+                    public List<T> loadActivePageData() {
+                        pageLoads.incrementAndGet();
+                        return activePage;
+                    }
+                });
+            }
+        });
+        crudService.enableQueryCache(SomeEntity.class, new QueryCacheConfig().maxResultSize(1000));
+
+        List<SomeEntity> result = crudService.find(SomeEntity.class, QueryParameters.with("active", true).paginate(new DataPaginator(10)));
+        crudService.find(SomeEntity.class, QueryParameters.with("active", true).paginate(new DataPaginator(10)));
+
+        Assert.assertTrue(result instanceof PagedList);
+        Assert.assertEquals(100, result.size());
+        Assert.assertEquals(0, pageLoads.get());
+        Assert.assertEquals(2, queries.get());
+    }
+}
@@ -19,7 +19,16 @@ package tools.dynamia.domain;
 import org.junit.Test;
 import tools.dynamia.domain.query.DataPaginator;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  *
@@ -103,4 +112,74 @@ public class DataPaginatorTest {
         dp.scrollToIndex(600);
 
     }
+
+    @Test
+    public void testKeysetSeekKey() {
+        DataPaginator dp = new DataPaginator(100, 10, 1);
+        dp.setKeyset(true);
+        dp.setPageKey(1, new Object[]{"Mario", 10L});
+
+        assertNull(dp.getSeekKey());
+        dp.nextPage();
+        assertArrayEquals(new Object[]{"Mario", 10L}, dp.getSeekKey());
+
+        dp.reset();
+        assertNull(dp.getPageKey(1));
+    }
+
+    @Test
+    public void testCursorRoundTrip() {
+        DataPaginator dp = new DataPaginator(100, 10, 1);
+        dp.setKeyset(true);
+        dp.setPageKey(1, new Object[]{"Mario", 10L});
+        String cursor = dp.getNextCursor();
+        assertNotNull(cursor);
+
+        DataPaginator other = new DataPaginator(100, 10, 1);
+        other.setPageCursor(2, cursor);
+        other.setPage(2);
+        assertTrue(other.isKeyset());
+        assertArrayEquals(new Object[]{"Mario", 10L}, other.getSeekKey());
+    }
+
+    @Test
+    public void testCursorKeepsValueTypes() {
+        Date date = new Date(1700000000123L);
+        LocalDateTime dateTime = LocalDateTime.of(2024, 5, 17, 10, 30, 15, 123456789);
+        Object[] key = {date, dateTime, LocalDate.of(2024, 5, 17), new BigDecimal("10.50"), null, 7};
+
+        DataPaginator dp = new DataPaginator(100, 10, 1);
+        dp.setKeyset(true);
+        dp.setPageKey(1, key);
+
+        DataPaginator other = new DataPaginator(100, 10, 1);
+        other.setPageCursor(2, dp.getNextCursor());
+        other.setPage(2);
+        assertArrayEquals(key, other.getSeekKey());
+    }
+
+    @Test
+    public void testDeferredCountAllowsNextPages() {
+        DataPaginator dp = new DataPaginator(10);
+        dp.setCountMode(DataPaginator.CountMode.DEFERRED);
+        dp.setPage(3);
+        assertEquals(3, dp.getPage());
+        assertEquals(20, dp.getFirstResult());
+    }
+
+    @Test
+    public void testInitialPage() {
+        DataPaginator dp = new DataPaginator(10);
+        dp.setInitialPage(4);
+        assertEquals(30, dp.getFirstResult());
+
+        dp.setTotalSize(100);
+        assertEquals(4, dp.getPage());
+
+        DataPaginator outOfRange = new DataPaginator(10);
+        outOfRange.setInitialPage(20);
+        outOfRange.setTotalSize(35);
+        assertEquals(1, outOfRange.getPage());
+        assertEquals(0, outOfRange.getFirstResult());
+    }
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain;
+
+import jakarta.validation.ConstraintViolation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import tools.dynamia.domain.query.QueryConditions;
+import tools.dynamia.domain.query.QueryParameters;
+import tools.dynamia.domain.services.ValidatorService;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of {@link InMemoryCrudService} queries with 100k and 1M entities. Compares indexed lookups
+ * against full scans (index threshold above the table size).
+ * <p>
+ * Run with: <code>mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=tools.dynamia.domain.InMemoryCrudServiceBenchmark</code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class InMemoryCrudServiceBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int size;
+
+    private InMemoryCrudService indexed;
+    private InMemoryCrudService scanned;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        indexed = createService(0);
+        scanned = createService(Integer.MAX_VALUE);
+    }
+
+    private InMemoryCrudService createService(int indexThreshold) {
+        InMemoryCrudService crudService = new InMemoryCrudService();
+        crudService.setValidator(new ValidatorService() {
+            @Override
+            public void validate(Object obj) {
+                // benchmark queries, not validation
+            }
+
+            @Override
+            public <T> Set<ConstraintViolation<T>> validateAll(T obj) {
+                return Set.of();
+            }
+        });
+        crudService.setIndexThreshold(indexThreshold);
+        for (int i = 0; i < size; i++) {
+            SomeEntity entity = new SomeEntity();
+            entity.setName("Entity " + i);
+            entity.setAge(i % 100);
+            entity.setActive(i % 2 == 0);
+            entity.setAccountId((long) (i % 1000));
+            crudService.create(entity);
+        }
+        return crudService;
+    }
+
+    @Benchmark
+    public SomeEntity findByIdIndexed() {
+        return indexed.find(SomeEntity.class, (long) (size / 2));
+    }
+
+    @Benchmark
+    public SomeEntity findByIdScan() {
+        return scanned.find(SomeEntity.class, (long) (size / 2));
+    }
+
+    @Benchmark
+    public List<SomeEntity> findByEqualsIndexed() {
+        return indexed.find(SomeEntity.class, QueryParameters.with("accountId", 500L).add("active", true));
+    }
+
+    @Benchmark
+    public List<SomeEntity> findByEqualsScan() {
+        return scanned.find(SomeEntity.class, QueryParameters.with("accountId", 500L).add("active", true));
+    }
+
+    @Benchmark
+    public List<SomeEntity> findByInlistIndexed() {
+        return indexed.find(SomeEntity.class, QueryParameters.with("name", QueryConditions.in("Entity 10", "Entity 20", "Entity 30")));
+    }
+
+    @Benchmark
+    public List<SomeEntity> findByInlistScan() {
+        return scanned.find(SomeEntity.class, QueryParameters.with("name", QueryConditions.in("Entity 10", "Entity 20", "Entity 30")));
+    }
+
+    @Benchmark
+    public List<SomeEntity> findByRangeIndexed() {
+        return indexed.find(SomeEntity.class, QueryParameters.with("age", QueryConditions.between(10, 11)));
+    }
+
+    @Benchmark
+    public List<SomeEntity> findByRangeScan() {
+        return scanned.find(SomeEntity.class, QueryParameters.with("age", QueryConditions.between(10, 11)));
+    }
+
+    @Benchmark
+    public List<SomeEntity> sortIndexed() {
+        return indexed.find(SomeEntity.class, new QueryParameters().orderBy("age", false));
+    }
+
+    @Benchmark
+    public List<SomeEntity> sortScan() {
+        return scanned.find(SomeEntity.class, new QueryParameters().orderBy("age", false));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(InMemoryCrudServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -5,10 +5,16 @@ import org.junit.Test;
 import tools.dynamia.domain.query.QueryConditions;
 import tools.dynamia.domain.query.QueryParameters;
 import tools.dynamia.domain.services.CrudService;
+import tools.dynamia.domain.services.impl.CrudServiceListenerMetrics;
 import tools.dynamia.domain.util.CrudServiceListener;
+import tools.dynamia.domain.util.CrudServiceListenerAdapter;
+import tools.dynamia.integration.ProgressMonitor;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 public class InMemoryCrudServiceTest {
 
@@ -163,6 +169,53 @@ public class InMemoryCrudServiceTest {
 
     }
 
+    @Test
+    public void shouldFireOnlyListenersOfEntityType() {
+        AtomicInteger personEvents = new AtomicInteger();
+        AtomicInteger allEvents = new AtomicInteger();
+
+        var personListener = new CrudServiceListener<Person>() {
+            @Override
+            public void beforeCreate(Person entity) {
+                personEvents.incrementAndGet();
+            }
+        };
+        var anyListener = new CrudServiceListenerAdapter<Object>() {
+            @Override
+            public void beforeCreate(Object entity) {
+                allEvents.incrementAndGet();
+            }
+        };
+
+        InMemoryCrudService crudService = new InMemoryCrudService(List.of(personListener, anyListener));
+        crudService.create(new SomeEntity());
+        crudService.create(new Person("Mario", 20));
+
+        Assert.assertEquals(1, personEvents.get());
+        Assert.assertEquals(2, allEvents.get());
+
+        var metrics = crudService.getListenerMetrics();
+        Assert.assertEquals(2, metrics.size());
+        Assert.assertEquals(3, metrics.stream().mapToLong(CrudServiceListenerMetrics::getInvocations).sum());
+    }
+
+    @Test
+    public void shouldFireAfterQueryListeners() {
+        AtomicInteger results = new AtomicInteger(-1);
+        var listener = new CrudServiceListenerAdapter<SomeEntity>() {
+            @Override
+            public void afterQuery(List<SomeEntity> result) {
+                results.set(result.size());
+            }
+        };
+
+        CrudService crudService = new InMemoryCrudService(List.of(listener));
+        createSamples(crudService);
+        crudService.find(SomeEntity.class, QueryParameters.with("active", true));
+
+        Assert.assertEquals(5, results.get());
+    }
+
     @Test
     public void shouldUpdateCounters() {
         CrudService crudService = new InMemoryCrudService();
@@ -195,6 +248,112 @@ public class InMemoryCrudServiceTest {
 
     }
 
+    @Test
+    public void shouldStreamWhileDeleting() {
+        CrudService crudService = new InMemoryCrudService();
+        createSamples(crudService);
+
+        try (Stream<SomeEntity> entities = crudService.stream(SomeEntity.class, new QueryParameters())) {
+            entities.forEach(crudService::delete);
+        }
+
+        Assert.assertTrue(crudService.findAll(SomeEntity.class).isEmpty());
+    }
+
+    @Test
+    public void shouldCreateAllInChunks() {
+        List<Integer> chunks = new ArrayList<>();
+        List<Integer> deletedChunks = new ArrayList<>();
+        AtomicInteger created = new AtomicInteger();
+        var listener = new CrudServiceListener<SomeEntity>() {
+            @Override
+            public void beforeCreate(SomeEntity entity) {
+                created.incrementAndGet();
+            }
+
+            @Override
+            public void afterBatch(BatchOperation operation, List<SomeEntity> entities) {
+                switch (operation) {
+                    case CREATE -> chunks.add(entities.size());
+                    case DELETE -> deletedChunks.add(entities.size());
+                    default -> Assert.fail("Unexpected batch operation " + operation);
+                }
+            }
+        };
+
+        InMemoryCrudService crudService = new InMemoryCrudService(List.of(listener));
+        crudService.setBulkChunkSize(4);
+        List<SomeEntity> entities = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            entities.add(new SomeEntity());
+        }
+        ProgressMonitor monitor = new ProgressMonitor();
+
+        var result = crudService.createAll(entities, monitor);
+
+        Assert.assertEquals(10, result.size());
+        Assert.assertEquals(10, created.get());
+        Assert.assertEquals(List.of(4, 4, 2), chunks);
+        Assert.assertEquals(10, monitor.getCurrent());
+        Assert.assertEquals(10, crudService.findAll(SomeEntity.class).size());
+
+        crudService.deleteAll(result);
+        Assert.assertEquals(List.of(4, 4, 2), deletedChunks);
+        Assert.assertEquals(List.of(4, 4, 2), chunks);
+        Assert.assertTrue(crudService.findAll(SomeEntity.class).isEmpty());
+    }
+
+    @Test
+    public void shouldQueryUsingIndexes() {
+        InMemoryCrudService crudService = new InMemoryCrudService();
+        crudService.setIndexThreshold(1);
+        createSamples(crudService);
+
+        Assert.assertEquals("Test 3", crudService.find(SomeEntity.class, 4L).getName());
+        Assert.assertEquals(5, crudService.find(SomeEntity.class, QueryParameters.with("accountId", 1L)).size());
+        Assert.assertEquals(2, crudService.find(SomeEntity.class, QueryParameters.with("name", QueryConditions.in("Test 1", "Test 8"))).size());
+
+        List<SomeEntity> range = crudService.find(SomeEntity.class, QueryParameters.with("age", QueryConditions.between(11, 41))
+                .add("active", true));
+        Assert.assertEquals(List.of("Test 2", "Test 4"), range.stream().map(SomeEntity::getName).toList());
+
+        List<SomeEntity> sorted = crudService.find(SomeEntity.class, new QueryParameters().orderBy("age", false));
+        Assert.assertEquals("Test 9", sorted.get(0).getName());
+        Assert.assertEquals(10, sorted.size());
+
+        SomeEntity entity = crudService.findSingle(SomeEntity.class, "name", "Test 2");
+        entity.setAge(500);
+        crudService.update(entity);
+        crudService.updateField(entity, "accountId", 3L);
+        Assert.assertEquals(entity, crudService.findSingle(SomeEntity.class, QueryParameters.with("age", QueryConditions.between(400, 600))));
+        Assert.assertEquals(entity, crudService.findSingle(SomeEntity.class, "accountId", 3L));
+        Assert.assertEquals(4, crudService.find(SomeEntity.class, QueryParameters.with("accountId", 1L)).size());
+
+        crudService.delete(SomeEntity.class, entity.getId());
+        Assert.assertNull(crudService.findSingle(SomeEntity.class, "accountId", 3L));
+        Assert.assertEquals(9, crudService.find(SomeEntity.class, new QueryParameters().orderBy("age", true)).size());
+    }
+
+    @Test
+    public void shouldVerifyIndexedCandidatesAgainstCurrentValues() {
+        InMemoryCrudService crudService = new InMemoryCrudService();
+        crudService.setIndexThreshold(1);
+        createSamples(crudService);
+        Assert.assertEquals(5, crudService.find(SomeEntity.class, QueryParameters.with("accountId", 1L)).size());
+
+        // changed without update, indexes still have the old value
+        SomeEntity entity = crudService.findSingle(SomeEntity.class, "name", "Test 0");
+        entity.setAccountId(2L);
+        entity.setAge(1000);
+
+        Assert.assertEquals(4, crudService.find(SomeEntity.class, QueryParameters.with("accountId", 1L)).size());
+        Assert.assertEquals(entity, crudService.find(SomeEntity.class, new QueryParameters().orderBy("age", false)).get(0));
+        Assert.assertEquals(5, crudService.find(SomeEntity.class, QueryParameters.with("accountId", 2L)).size());
+
+        crudService.reindex(SomeEntity.class);
+        Assert.assertEquals(6, crudService.find(SomeEntity.class, QueryParameters.with("accountId", 2L)).size());
+    }
+
     private static void createSamples(CrudService crudService) {
         for (int i = 0; i < 10; i++) {
             var entity = new SomeEntity();
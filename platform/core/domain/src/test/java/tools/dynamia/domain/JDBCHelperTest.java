@@ -17,7 +17,20 @@
 package tools.dynamia.domain;
 
 import junit.framework.TestCase;
+import org.h2.jdbcx.JdbcDataSource;
+import tools.dynamia.domain.jdbc.CompiledRowMapper;
+import tools.dynamia.domain.jdbc.JdbcBatch;
+import tools.dynamia.domain.jdbc.JdbcDataSet;
 import tools.dynamia.domain.jdbc.JdbcHelper;
+import tools.dynamia.domain.jdbc.Row;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  *
@@ -31,4 +44,126 @@ public class JDBCHelperTest extends TestCase {
 
         assertEquals(expected, result);
     }
+
+    public void testMapRowWithCompiledMapper() {
+        ResultSet rs = resultSet(new String[]{"ID", "NAME", "AGE"}, new Object[]{new BigDecimal("10"), "Ana", 30L});
+        JdbcHelper helper = new JdbcHelper((Connection) null);
+
+        Person person = helper.mapRow(Person.class, rs);
+
+        assertEquals(Long.valueOf(10), person.getId());
+        assertEquals("Ana", person.getName());
+        assertEquals(30, person.getAge());
+        assertSame(CompiledRowMapper.of(Person.class, rs), CompiledRowMapper.of(Person.class, rs));
+    }
+
+    public void testStreamRows() throws Exception {
+        try (Connection connection = h2("stream")) {
+            JdbcHelper helper = new JdbcHelper(connection);
+            helper.setStreamFetchSize(2);
+            insertPeople(helper, 5);
+
+            List<String> names;
+            try (JdbcDataSet dataSet = helper.stream("select id, name from person where age > ? order by id", 0);
+                 Stream<Row> rows = dataSet.stream()) {
+                assertFalse(connection.getAutoCommit());
+                names = rows.map(row -> (String) row.col("NAME")).toList();
+            }
+
+            assertEquals(List.of("Person2", "Person3", "Person4", "Person5"), names);
+            assertTrue(connection.getAutoCommit());
+        }
+    }
+
+    public void testBatch() throws Exception {
+        try (Connection connection = h2("batch")) {
+            JdbcHelper helper = new JdbcHelper(connection);
+            helper.execute("create table person (id bigint primary key, name varchar(50), age int)");
+
+            try (JdbcBatch batch = helper.batch("insert into person (id, name, age) values (?, ?, ?)", 2)) {
+                for (int i = 1; i <= 5; i++) {
+                    batch.add((long) i, "Person" + i, i);
+                }
+                assertEquals(5, batch.getCount());
+                assertEquals(4, count(helper, "select count(*) from person"));
+            }
+
+            assertEquals(5, count(helper, "select count(*) from person"));
+            assertTrue(connection.getAutoCommit());
+        }
+    }
+
+    public void testNullParameters() throws Exception {
+        try (Connection connection = h2("nulls")) {
+            JdbcHelper helper = new JdbcHelper(connection);
+            helper.execute("create table person (id bigint primary key, name varchar(50), age int)");
+
+            helper.execute("insert into person (id, name, age) values (?, ?, ?)", 1L, null, null);
+            try (JdbcBatch batch = helper.batch("insert into person (id, name, age) values (?, ?, ?)", 10)) {
+                batch.add(2L, "Ana", null);
+                batch.add(3L, null, 30);
+            }
+
+            assertEquals(1, count(helper, "select count(*) from person where name is null and age is null"));
+            assertEquals(2, count(helper, "select count(*) from person where name is null"));
+            assertEquals(2, count(helper, "select count(*) from person where age is null"));
+        }
+    }
+
+    public void testDetachedRowsKeepDuplicatedColumns() throws Exception {
+        try (Connection connection = h2("duplicated")) {
+            JdbcHelper helper = new JdbcHelper(connection);
+
+            try (JdbcDataSet dataSet = helper.stream("select 1 as v, 2 as v, 3 as w");
+                 Stream<Row> rows = dataSet.stream()) {
+                Row row = rows.findFirst().orElseThrow();
+                assertEquals(1, row.col(1));
+                assertEquals(2, row.col(2));
+                assertEquals(3, row.col(3));
+                assertEquals(1, row.col("V"));
+                assertNull(row.col(4));
+            }
+        }
+    }
+
+    private static Connection h2(String name) throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name);
+        return dataSource.getConnection();
+    }
+
+    private static void insertPeople(JdbcHelper helper, int count) {
+        helper.execute("create table person (id bigint primary key, name varchar(50), age int)");
+        for (int i = 1; i <= count; i++) {
+            helper.execute("insert into person (id, name, age) values (?, ?, ?)", (long) i, "Person" + i, i - 1);
+        }
+    }
+
+    private static long count(JdbcHelper helper, String sql) {
+        try (JdbcDataSet dataSet = helper.query(sql)) {
+            dataSet.next();
+            return ((Number) dataSet.getResultSet().getObject(1)).longValue();
+        } catch (java.sql.SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ResultSet resultSet(String[] labels, Object[] values) {
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(getClassLoader(), new Class[]{ResultSetMetaData.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getColumnCount" -> labels.length;
+                    case "getColumnLabel" -> labels[(Integer) args[0] - 1];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        return (ResultSet) Proxy.newProxyInstance(getClassLoader(), new Class[]{ResultSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getMetaData" -> metaData;
+                    case "getObject" -> values[(Integer) args[0] - 1];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static ClassLoader getClassLoader() {
+        return JDBCHelperTest.class.getClassLoader();
+    }
 }
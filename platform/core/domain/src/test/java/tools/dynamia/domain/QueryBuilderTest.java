@@ -26,6 +26,7 @@ import tools.dynamia.domain.util.QueryBuilder;
 import java.util.TreeMap;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static tools.dynamia.domain.query.QueryConditions.eq;
 import static tools.dynamia.domain.query.QueryConditions.in;
 import static tools.dynamia.domain.query.QueryParameters.with;
@@ -159,4 +160,34 @@ public class QueryBuilderTest {
 
     }
 
+    @Test
+    public void testShapeKeyIgnoresValues() {
+        QueryParameters first = with("name", "abc").add("value", eq(1)).orderBy("name", true);
+        QueryParameters second = with("name", "xyz").add("value", eq(2)).orderBy("name", true);
+        first.setType(Parameter.class);
+        second.setType(Parameter.class);
+
+        assertEquals(first.getShapeKey(), second.getShapeKey());
+        assertEquals(first.getShapeKey().hashCode(), second.getShapeKey().hashCode());
+
+        second.add("id", in(1, 2));
+        assertNotEquals(first.getShapeKey(), second.getShapeKey());
+
+        QueryParameters like = with("name", "abc");
+        QueryParameters equals = with("name", 123);
+        assertNotEquals(like.getShapeKey(), equals.getShapeKey());
+    }
+
+    @Test
+    public void testWithParametersKeepsQueryText() {
+        QueryParameters params = with("name", "123").orderBy("name", false);
+        QueryBuilder template = fromParameters(Parameter.class, "p", params).withParameters(null);
+        QueryParameters other = with("name", "456").orderBy("name", false);
+
+        QueryBuilder bound = template.withParameters(other);
+
+        assertEquals(fromParameters(Parameter.class, "p", params).toString(), bound.toString());
+        assertEquals(other, bound.getQueryParameters());
+    }
+
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain;
+
+import org.junit.Test;
+import tools.dynamia.domain.jdbc.QueryInterruptedException;
+import tools.dynamia.domain.query.QueryDeadline;
+import tools.dynamia.domain.query.QueryParameters;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class QueryDeadlineTest {
+
+    @Test
+    public void shouldBindToCurrentThread() {
+        QueryDeadline outer = QueryDeadline.cancellable();
+        QueryDeadline inner = QueryDeadline.of(Duration.ofMinutes(1));
+
+        assertNull(QueryDeadline.current());
+        try (QueryDeadline.Scope ignored = outer.bind()) {
+            assertSame(outer, QueryDeadline.current());
+            inner.run(() -> assertSame(inner, QueryDeadline.current()));
+            assertSame(outer, QueryDeadline.current());
+            assertSame(inner, QueryDeadline.resolve(new QueryParameters().setDeadline(inner)));
+        }
+        assertNull(QueryDeadline.current());
+    }
+
+    @Test
+    public void shouldRunCancelHandlers() {
+        QueryDeadline deadline = QueryDeadline.cancellable();
+        AtomicInteger cancelled = new AtomicInteger();
+
+        deadline.onCancel(cancelled::incrementAndGet);
+        deadline.onCancel(cancelled::incrementAndGet).close();
+        deadline.cancel();
+        deadline.cancel();
+
+        assertEquals(1, cancelled.get());
+        assertTrue(deadline.isDone());
+    }
+
+    @Test
+    public void shouldFailAndCountWhenDone() {
+        QueryDeadline.resetCounters();
+        QueryDeadline expired = QueryDeadline.of(Duration.ZERO);
+        QueryDeadline cancelled = QueryDeadline.cancellable();
+        cancelled.cancel();
+
+        assertThrows(QueryInterruptedException.class, expired::check);
+        assertThrows(QueryInterruptedException.class, cancelled::check);
+        assertEquals(1, QueryDeadline.getTimedOutCount());
+        assertEquals(1, QueryDeadline.getCancelledCount());
+    }
+
+    @Test
+    public void shouldRoundRemainingSecondsUp() {
+        QueryDeadline deadline = QueryDeadline.of(Duration.ofMillis(1500));
+
+        assertEquals(2, deadline.getRemainingSeconds());
+        assertEquals(0, QueryDeadline.cancellable().getRemainingSeconds());
+        assertEquals(-1, QueryDeadline.cancellable().getRemainingMillis());
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.domain.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TextIndexTest {
+
+    private TextIndex index() {
+        TextIndex index = new TextIndex();
+        index.put(1L, "Mario Serrano\nmario@dynamia.tools");
+        index.put(2L, "María José Pérez\nmaria@mail.com");
+        index.put(3L, "Pedro Serna\npedro@mail.com");
+        return index;
+    }
+
+    @Test
+    public void shouldFindByTrigramsIgnoringCaseAndAccents() {
+        TextIndex index = index();
+
+        assertEquals(List.of(2L), index.search("PEREZ", 100));
+        assertEquals(List.of(1L), index.search("serr", 100));
+        assertEquals(List.of(1L, 3L), index.search("ser", 100));
+    }
+
+    @Test
+    public void shouldMatchFragmentsInOrder() {
+        TextIndex index = index();
+
+        assertEquals(List.of(2L), index.search("maria perez", 100));
+        assertTrue(index.search("mail maria", 100).isEmpty());
+    }
+
+    @Test
+    public void shouldFindShortTermsByWordPrefix() {
+        TextIndex index = index();
+
+        assertEquals(List.of(2L, 3L), index.search("pe", 100));
+        assertTrue(index.search("xz", 100).isEmpty());
+    }
+
+    @Test
+    public void shouldTellSubstringSearches() {
+        assertTrue(TextIndex.isSubstringSearch("ser"));
+        assertTrue(TextIndex.isSubstringSearch("ma ser"));
+        assertFalse(TextIndex.isSubstringSearch("an"));
+        assertFalse(TextIndex.isSubstringSearch("ma pe"));
+    }
+
+    @Test
+    public void shouldReturnNullWhenTooManyCandidates() {
+        TextIndex index = index();
+
+        assertNull(index.search("mail", 1));
+        assertNull(index.search("  ", 100));
+    }
+
+    @Test
+    public void shouldUpdateAndRemove() {
+        TextIndex index = index();
+        index.put(3L, "Pedro Gomez");
+        index.remove(1L);
+
+        assertTrue(index.search("serna", 100).isEmpty());
+        assertTrue(index.search("serrano", 100).isEmpty());
+        assertEquals(List.of(3L), index.search("gomez", 100));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void shouldWriteAndReadSegment() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index().writeTo(new DataOutputStream(bytes));
+
+        TextIndex loaded = TextIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(3, loaded.size());
+        assertEquals(List.of(2L), loaded.search("josé", 100));
+    }
+}
@@ -21,14 +21,21 @@ import tools.dynamia.commons.logger.SLF4JLoggingService;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 
 /**
  * This class acts as a facade for managing various object containers, such as those for Spring, SLI, and others.
  * It provides a unified interface to find and retrieve objects from registered containers.
+ * <p>
+ * Results of {@link #findObjects(Class)} are kept in an immutable per-type index when every installed container
+ * reports the type as cacheable (see {@link ObjectContainer#isCacheable(Class)}). The index is built lazily and
+ * cleared when a container is installed or removed, or when {@link #clearCache()} is called (for example on
+ * Spring context refresh).
  *
  * @author Mario A. Serrano Leones
  */
@@ -46,6 +53,20 @@ public class Containers {
 
     private static final LoggingService logger = new SLF4JLoggingService(Containers.class);
 
+    /**
+     * Marker for types whose lookups cannot be cached.
+     */
+    private static final List<Object> NOT_CACHEABLE = Collections.unmodifiableList(new ArrayList<>());
+
+    /**
+     * Immutable lookup results by type. Replaced (not cleared) on invalidation so lookups running
+     * concurrently never write stale results into the new index.
+     */
+    private volatile Map<Class<?>, List<?>> typeIndex = new ConcurrentHashMap<>();
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
     /**
      * Returns the singleton instance of the Containers facade.
      *
@@ -146,7 +167,8 @@ public class Containers {
     }
 
     /**
-     * Finds all objects of the specified type across all registered containers.
+     * Finds all objects of the specified type across all registered containers. The returned
+     * collection should be treated as read only, cached results are immutable.
      *
      * @param <T> the type of the objects
      * @param type the class type of the objects
@@ -165,6 +187,27 @@ public class Containers {
      * @return a collection of matching objects
      */
     public <T> Collection<T> findObjects(Class<T> type, ObjectMatcher<T> matcher) {
+        List<T> objects = lookupObjects(type);
+        if (matcher != null) {
+            objects = objects.stream().filter(matcher::match).toList();
+        }
+        return objects;
+    }
+
+    /**
+     * Return objects of the given type from the type index or from the installed containers
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> lookupObjects(Class<T> type) {
+        final Map<Class<?>, List<?>> index = typeIndex;
+        List<?> cached = index.get(type);
+        if (cached != null && cached != NOT_CACHEABLE) {
+            cacheHits.increment();
+            return (List<T>) cached;
+        }
+        cacheMisses.increment();
+
+        boolean cacheable = cached == null && isCacheable(type);
         List<T> objects = new ArrayList<>();
         if (objectContainers != null && !objectContainers.isEmpty()) {
             for (ObjectContainer oc : objectContainers.values()) {
@@ -174,12 +217,71 @@ public class Containers {
                 }
             }
         }
-        if (matcher != null) {
-            objects = objects.stream().filter(matcher::match).toList();
+
+        if (cacheable) {
+            objects = Collections.unmodifiableList(objects);
+            index.putIfAbsent(type, objects);
+        } else if (cached == null) {
+            index.putIfAbsent(type, NOT_CACHEABLE);
         }
         return objects;
     }
 
+    private boolean isCacheable(Class<?> type) {
+        if (objectContainers == null || objectContainers.isEmpty()) {
+            return false;
+        }
+        for (ObjectContainer oc : objectContainers.values()) {
+            if (!oc.isCacheable(type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Clears the per-type lookup index. Call it when objects are added or removed from an installed
+     * container at runtime. Installing or removing containers clears the index automatically.
+     */
+    public void clearCache() {
+        typeIndex = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the number of {@link #findObjects(Class)} lookups served from the type index.
+     *
+     * @return the cache hits
+     */
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * Returns the number of {@link #findObjects(Class)} lookups that queried the installed containers.
+     *
+     * @return the cache misses
+     */
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    /**
+     * Returns the number of types currently indexed, including types marked as not cacheable.
+     *
+     * @return the index size
+     */
+    public int getCacheSize() {
+        return typeIndex.size();
+    }
+
+    /**
+     * Resets hit and miss counters
+     */
+    public void resetCacheStats() {
+        cacheHits.reset();
+        cacheMisses.reset();
+    }
+
 
     /**
      * Manually installs a new ObjectContainer into the facade.
@@ -189,6 +291,7 @@ public class Containers {
     public void installObjectContainer(ObjectContainer obj) {
         logger.info("Installing Object Container: " + obj.getName() + "  = " + obj.getClass());
         objectContainers.put(obj.getName(), obj);
+        clearCache();
     }
 
     /**
@@ -205,6 +308,7 @@ public class Containers {
      */
     public void removeAllContainers() {
         objectContainers.clear();
+        clearCache();
     }
 
     /**
@@ -214,7 +318,9 @@ public class Containers {
      * @return the removed ObjectContainer, or null if not found
      */
     public ObjectContainer removeContainer(String name) {
-        return objectContainers.remove(name);
+        ObjectContainer removed = objectContainers.remove(name);
+        clearCache();
+        return removed;
     }
 
     /**
@@ -69,4 +69,17 @@ public interface ObjectContainer {
      * @return the object instance, or null if not found
      */
     Object getObject(String name);
+
+    /**
+     * Returns true if the result of {@link #getObjects(Class)} for the given type is stable and can be
+     * cached by {@link Containers} until the container is installed, removed or its context is refreshed.
+     * Containers that return new instances per call (prototype or session scoped objects) or that change
+     * their content at any time should return false. Default is false.
+     *
+     * @param type the class type of the objects
+     * @return true if lookups for the type can be cached
+     */
+    default boolean isCacheable(Class<?> type) {
+        return false;
+    }
 }
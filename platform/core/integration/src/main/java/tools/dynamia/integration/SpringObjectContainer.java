@@ -20,6 +20,10 @@ import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.NoUniqueBeanDefinitionException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ApplicationContextEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.stereotype.Component;
 import tools.dynamia.commons.LocaleProvider;
 import tools.dynamia.commons.Messages;
@@ -33,11 +37,14 @@ import java.util.*;
  * Implementation of {@link ObjectContainer} for Spring-based applications.
  * This container uses the Spring {@link ApplicationContext} to retrieve beans.
  * It automatically registers itself with the {@link Containers} facade upon instantiation.
+ * <p>
+ * Once the context is refreshed, lookups by type are cacheable when every matching bean is a singleton, so
+ * {@link Containers} can index them. The index is cleared on every context refresh or close.
  *
  * @author Mario A. Serrano Leones
  */
 @Component
-public class SpringObjectContainer implements ObjectContainer, ApplicationContextAware {
+public class SpringObjectContainer implements ObjectContainer, ApplicationContextAware, ApplicationListener<ApplicationContextEvent> {
 
     private final LoggingService logger = new SLF4JLoggingService(SpringObjectContainer.class, "Containers");
 
@@ -46,6 +53,11 @@ public class SpringObjectContainer implements ObjectContainer, ApplicationContex
      */
     private ApplicationContext appContext;
 
+    /**
+     * True after the context is refreshed, singletons are not fully created before that.
+     */
+    private volatile boolean contextReady;
+
     /**
      * Creates a new SpringObjectContainer and automatically installs it into the Containers facade.
      */
@@ -136,6 +148,45 @@ public class SpringObjectContainer implements ObjectContainer, ApplicationContex
         return appContext.getBean(name);
     }
 
+    /**
+     * Lookups are cacheable after context refresh when all beans of the given type are singletons.
+     * Prototype, request and session scoped beans are always resolved from the application context.
+     *
+     * @param type the class type of the beans
+     * @return true if the beans of this type can be cached
+     */
+    @Override
+    public boolean isCacheable(Class<?> type) {
+        if (!contextReady || appContext == null) {
+            return false;
+        }
+        for (String beanName : appContext.getBeanNamesForType(type)) {
+            if (!appContext.isSingleton(beanName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Clears the {@link Containers} type index when the application context is refreshed or closed.
+     *
+     * @param event the context event
+     */
+    @Override
+    public void onApplicationEvent(ApplicationContextEvent event) {
+        if (event instanceof ContextRefreshedEvent && event.getApplicationContext() == appContext) {
+            contextReady = true;
+            Containers.get().clearCache();
+        } else if (event instanceof ContextClosedEvent && event.getApplicationContext() == appContext) {
+            contextReady = false;
+            Containers.get().clearCache();
+        } else if (event instanceof ContextRefreshedEvent || event instanceof ContextClosedEvent) {
+            // child or parent context changed, beans visible from this context may have changed too
+            Containers.get().clearCache();
+        }
+    }
+
     /**
      * Sets the Spring ApplicationContext and configures the Messages class with suppliers for LocaleProvider and TimeZoneProvider.
      *
@@ -144,6 +195,7 @@ public class SpringObjectContainer implements ObjectContainer, ApplicationContex
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) {
         this.appContext = applicationContext;
+        Containers.get().clearCache();
 
         Messages.setLocaleProvidersSupplier(() -> Containers.get().findObjects(LocaleProvider.class));
         Messages.setTimeZoneProviders(() -> Containers.get().findObjects(TimeZoneProvider.class));
@@ -0,0 +1,525 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.integration.ms;
+
+import tools.dynamia.commons.StringUtils;
+import tools.dynamia.commons.logger.LoggingService;
+import tools.dynamia.commons.logger.SLF4JLoggingService;
+import tools.dynamia.integration.Containers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Constructor;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MessageChannel} backed by a {@link MessageLog} on local disk. Published messages are appended to the log
+ * and each subscriber reads them in order from its own offset in a virtual thread, so messages survive restarts
+ * and slow subscribers never block publishers.
+ * <p>
+ * Delivery is at-least-once: a failing listener is retried with exponential backoff and the subscriber offset
+ * only moves forward after the message was handled. Messages still failing after <code>maxRetries</code> are
+ * reported to the listener if it is a {@link MessageExceptionHandler} and skipped; use
+ * {@link #replay(String, long)} to deliver them again.
+ * <p>
+ * Named subscribers and {@link MessageListener} beans (named by their class) are durable: their offsets are
+ * stored in the channel directory and they resume where they left. Anonymous subscriptions start at the end of
+ * the log. Segments are deleted once every known subscriber consumed them, so durable subscribers that are gone
+ * for good must be removed with {@link #removeSubscriber(String)} or their stored offset keeps every segment after
+ * it. The <code>maxSegments</code> property bounds the log anyway: older segments are deleted and subscribers
+ * behind them skip to the oldest stored message. Messages must be {@link Serializable}, or {@link GenericMessage}
+ * subclasses with serializable content.
+ *
+ * @author Mario A. Serrano Leones
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class DurableMessageChannel implements MessageChannel, AutoCloseable {
+
+    private static final LoggingService LOGGER = new SLF4JLoggingService(DurableMessageChannel.class);
+    private static final String OFFSETS_FILE = "offsets.properties";
+    private static final int COMMIT_INTERVAL = 256;
+    private static final byte SERIALIZED_MESSAGE = 1;
+    private static final byte GENERIC_MESSAGE = 2;
+
+    private final String name;
+    private final Path directory;
+    private final MessageLog log;
+    private final MessageChannelMetrics metrics;
+    private final int maxRetries;
+    private final long retryBackoff;
+    private final long maxRetryBackoff;
+    private final Map<String, Long> storedOffsets = new ConcurrentHashMap<>();
+    private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * Open or create the channel log in directory. Supported properties are <code>segmentSize</code> (bytes),
+     * <code>syncOnAppend</code>, <code>maxSegments</code> (0 is unlimited), <code>maxRetries</code>, <code>retryBackoff</code>
+     * and <code>maxRetryBackoff</code> (millis).
+     *
+     * @param name       the channel name
+     * @param directory  the channel directory
+     * @param properties channel properties, can be null
+     */
+    public DurableMessageChannel(String name, Path directory, Properties properties) throws IOException {
+        Properties props = properties != null ? properties : new Properties();
+        this.name = name;
+        this.directory = directory;
+        this.maxRetries = Integer.parseInt(props.getProperty("maxRetries", "5"));
+        this.retryBackoff = Long.parseLong(props.getProperty("retryBackoff", "200"));
+        this.maxRetryBackoff = Long.parseLong(props.getProperty("maxRetryBackoff", "30000"));
+        this.log = new MessageLog(directory, Long.parseLong(props.getProperty("segmentSize", String.valueOf(64 * 1024 * 1024))),
+                Boolean.parseBoolean(props.getProperty("syncOnAppend", "false")),
+                Integer.parseInt(props.getProperty("maxSegments", "0")));
+        this.metrics = new MessageChannelMetrics(name);
+        this.metrics.bindQueue(this::getLag, 0);
+        loadOffsets();
+        subscribeContainerListeners();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public MessageChannelMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Offset of the next message to be published
+     */
+    public long getEndOffset() {
+        return log.getEndOffset();
+    }
+
+    /**
+     * Offset of the oldest message still stored
+     */
+    public long getStartOffset() {
+        return log.getStartOffset();
+    }
+
+    @Override
+    public void publish(Message message) {
+        publish(message, "");
+    }
+
+    @Override
+    public void publish(Message message, String topic) {
+        publish(message, topic, "");
+    }
+
+    @Override
+    public void publish(Message message, String topic, String callback) {
+        if (closed) {
+            throw new MessageException("Channel " + name + " is closed");
+        }
+        log.append(encode(message, topic, callback));
+        metrics.recordPublished();
+    }
+
+    @Override
+    public <T extends Message> MessageChannelSubscription subscribe(MessageListener<T> listener) {
+        return subscribe(MessageChannels.ALL_TOPICS, listener);
+    }
+
+    @Override
+    public <T extends Message> MessageChannelSubscription subscribe(String topic, MessageListener<T> listener) {
+        return startSubscriber(StringUtils.randomString(), topic, listener, false, log.getEndOffset());
+    }
+
+    /**
+     * Subscribe a durable listener. If the subscriber was seen before it resumes from its stored offset,
+     * otherwise it starts at the end of the log.
+     *
+     * @param subscriberName unique and stable subscriber name
+     * @param topic          the topic
+     * @param listener       the listener
+     * @return the subscription
+     */
+    public <T extends Message> MessageChannelSubscription subscribe(String subscriberName, String topic, MessageListener<T> listener) {
+        Subscriber current = subscribers.get(subscriberName);
+        if (current != null) {
+            current.unsubscribe();
+        }
+        return startSubscriber(subscriberName, topic, listener, true, storedOffsets.getOrDefault(subscriberName, log.getEndOffset()));
+    }
+
+    /**
+     * Move a durable subscriber to offset, messages from that offset are delivered again. Offsets older than
+     * {@link #getStartOffset()} are moved to the oldest stored message.
+     *
+     * @param subscriberName the subscriber name
+     * @param offset         the offset
+     */
+    public void replay(String subscriberName, long offset) {
+        long target = Math.max(offset, log.getStartOffset());
+        Subscriber subscriber = subscribers.get(subscriberName);
+        if (subscriber != null) {
+            subscriber.committed = Math.min(subscriber.committed, target);
+            subscriber.seek = target;
+        } else {
+            storedOffsets.put(subscriberName, target);
+            storeOffsets();
+        }
+    }
+
+    /**
+     * Stop a durable subscriber and forget its stored offset, so segments it did not consume can be deleted.
+     * If it subscribes again it starts at the end of the log.
+     *
+     * @param subscriberName the subscriber name
+     */
+    public void removeSubscriber(String subscriberName) {
+        Subscriber subscriber = subscribers.get(subscriberName);
+        if (subscriber != null) {
+            subscriber.removed = true;
+            subscriber.stop();
+            subscribers.remove(subscriberName, subscriber);
+        }
+        if (storedOffsets.remove(subscriberName) != null) {
+            storeOffsets();
+        }
+        deleteConsumedSegments();
+    }
+
+    /**
+     * Current offset of a subscriber, -1 if unknown
+     */
+    public long getOffset(String subscriberName) {
+        Subscriber subscriber = subscribers.get(subscriberName);
+        return subscriber != null ? subscriber.offset : storedOffsets.getOrDefault(subscriberName, -1L);
+    }
+
+    /**
+     * Messages published and not yet handled by the slowest subscriber
+     */
+    public int getLag() {
+        long end = log.getEndOffset();
+        long lag = 0;
+        for (Subscriber subscriber : subscribers.values()) {
+            lag = Math.max(lag, end - subscriber.offset);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, lag);
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            List<Subscriber> current = List.copyOf(subscribers.values());
+            current.forEach(Subscriber::stop);
+            for (Subscriber subscriber : current) {
+                try {
+                    subscriber.thread.join(TimeUnit.SECONDS.toMillis(5));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (subscriber.durable) {
+                    storedOffsets.put(subscriber.getSubscriberId(), subscriber.offset);
+                }
+            }
+            storeOffsets();
+            log.close();
+        }
+    }
+
+    private void subscribeContainerListeners() {
+        for (MessageListener listener : Containers.get().findObjects(MessageListener.class)) {
+            MessageChannelExchange exchange = MessageChannels.getMessageChannelExchange(listener);
+            if (exchange != null && !exchange.channel().isEmpty() && !exchange.channel().equals(name)) {
+                continue;
+            }
+            String subscriberName = listener.getClass().getName();
+            startSubscriber(subscriberName, null, listener, true, storedOffsets.getOrDefault(subscriberName, log.getEndOffset()));
+        }
+    }
+
+    private Subscriber startSubscriber(String subscriberName, String topic, MessageListener listener, boolean durable, long offset) {
+        Subscriber subscriber = new Subscriber(subscriberName, topic, listener, durable, Math.max(offset, log.getStartOffset()));
+        subscribers.put(subscriberName, subscriber);
+        subscriber.thread = Thread.ofVirtual().name("msg-log-" + name + "-" + subscriberName).start(subscriber::run);
+        return subscriber;
+    }
+
+    private void commit(Subscriber subscriber) {
+        if (subscriber.durable && !subscriber.removed) {
+            storedOffsets.put(subscriber.getSubscriberId(), subscriber.offset);
+            storeOffsets();
+        }
+        subscriber.committed = subscriber.offset;
+        deleteConsumedSegments();
+    }
+
+    /**
+     * Delete segments before the lowest known offset, or all but the active one if no subscriber is known
+     */
+    private void deleteConsumedSegments() {
+        long minOffset = log.getEndOffset();
+        for (Long offset : storedOffsets.values()) {
+            minOffset = Math.min(minOffset, offset);
+        }
+        for (Subscriber s : subscribers.values()) {
+            minOffset = Math.min(minOffset, s.committed);
+        }
+        log.deleteBefore(minOffset);
+    }
+
+    private void loadOffsets() throws IOException {
+        Path file = directory.resolve(OFFSETS_FILE);
+        if (Files.exists(file)) {
+            Properties offsets = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                offsets.load(in);
+            }
+            offsets.forEach((key, value) -> storedOffsets.put(key.toString(), Long.parseLong(value.toString())));
+        }
+    }
+
+    /**
+     * Write offsets to a temp file and atomically replace the offsets file
+     */
+    private synchronized void storeOffsets() {
+        Properties offsets = new Properties();
+        storedOffsets.forEach((key, value) -> offsets.setProperty(key, String.valueOf(value)));
+        Path temp = directory.resolve(OFFSETS_FILE + ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                offsets.store(out, "Subscriber offsets of channel " + name);
+            }
+            Files.move(temp, directory.resolve(OFFSETS_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.error("Error storing offsets of channel " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] encode(Message message, String topic, String callback) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeLong(System.currentTimeMillis());
+            out.writeUTF(topic != null ? topic : "");
+            out.writeUTF(callback != null ? callback : "");
+            if (message instanceof Serializable) {
+                out.writeByte(SERIALIZED_MESSAGE);
+                out.writeObject(message);
+            } else if (message instanceof GenericMessage<?> && (message.getContent() == null || message.getContent() instanceof Serializable)) {
+                // generic messages are stored as type, headers and content
+                HashMap<String, Object> headers = new HashMap<>();
+                for (String header : message.getHeaderNames()) {
+                    headers.put(header, message.getHeader(header));
+                }
+                out.writeByte(GENERIC_MESSAGE);
+                out.writeUTF(message.getClass().getName());
+                out.writeObject(headers);
+                out.writeObject(message.getContent());
+            } else {
+                throw new MessageException("Cannot store message " + message + ", durable messages must be Serializable");
+            }
+        } catch (IOException e) {
+            throw new MessageException("Cannot store message " + message + ", durable messages must be Serializable: " + e.getMessage(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static MessageEvent decode(byte[] data) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            long timestamp = in.readLong();
+            String topic = in.readUTF();
+            String callback = in.readUTF();
+            Message message;
+            if (in.readByte() == GENERIC_MESSAGE) {
+                String type = in.readUTF();
+                Map<String, Object> headers = (Map<String, Object>) in.readObject();
+                message = createGenericMessage(type, in.readObject(), headers);
+            } else {
+                message = (Message) in.readObject();
+            }
+            return new MessageEvent(message, topic, callback, Instant.ofEpochMilli(timestamp));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new MessageException("Cannot read message: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Create the stored generic message type using its single argument constructor, or a plain
+     * {@link GenericMessage} if the type is not available
+     */
+    private static Message createGenericMessage(String type, Object content, Map<String, Object> headers) {
+        GenericMessage message = null;
+        try {
+            Class<?> messageClass = Class.forName(type, true, Thread.currentThread().getContextClassLoader());
+            for (Constructor<?> constructor : messageClass.getConstructors()) {
+                Class<?>[] parameters = constructor.getParameterTypes();
+                if (parameters.length == 1 && (content == null ? !parameters[0].isPrimitive() : parameters[0].isInstance(content))) {
+                    message = (GenericMessage) constructor.newInstance(content);
+                    break;
+                }
+            }
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            LOGGER.warn("Cannot create message " + type + ", using GenericMessage: " + e.getMessage());
+        }
+
+        if (message == null) {
+            message = new GenericMessage<>(content);
+        }
+        for (Map.Entry<String, Object> header : headers.entrySet()) {
+            message.addHeader(header.getKey(), (Serializable) header.getValue());
+        }
+        return message;
+    }
+
+    private final class Subscriber extends BaseMessageChannelSubscription {
+
+        private final String topic;
+        private final boolean durable;
+        private volatile long offset;
+        private volatile long committed;
+        private volatile long seek = -1;
+        private volatile boolean active = true;
+        private volatile boolean removed;
+        private Thread thread;
+
+        Subscriber(String subscriberId, String topic, MessageListener listener, boolean durable, long offset) {
+            super(name, topic, subscriberId, listener);
+            this.topic = topic;
+            this.durable = durable;
+            this.offset = offset;
+            this.committed = offset;
+        }
+
+        @Override
+        public void unsubscribe() {
+            stop();
+            if (subscribers.remove(getSubscriberId(), this)) {
+                commit(this);
+            }
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+
+        void stop() {
+            active = false;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+
+        void run() {
+            try {
+                while (active && !closed) {
+                    if (seek >= 0) {
+                        offset = seek;
+                        seek = -1;
+                    }
+                    if (offset < log.getStartOffset()) {
+                        // messages deleted by the log retention
+                        offset = log.getStartOffset();
+                    }
+                    if (!log.awaitRecord(offset, 1, TimeUnit.SECONDS)) {
+                        if (committed != offset) {
+                            commit(this);
+                        }
+                        continue;
+                    }
+
+                    handle(offset);
+                    if (seek < 0) {
+                        offset++;
+                    }
+                    if (offset - committed >= COMMIT_INTERVAL) {
+                        commit(this);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // unsubscribed or closed, offset of unhandled message is kept
+            }
+        }
+
+        private void handle(long offset) throws InterruptedException {
+            MessageEvent event;
+            try {
+                byte[] data = log.read(offset);
+                if (data == null) {
+                    return;
+                }
+                event = decode(data);
+            } catch (Exception e) {
+                LOGGER.error("Skipping unreadable message " + offset + " in channel " + name + ": " + e.getMessage(), e);
+                return;
+            }
+
+            String eventTopic = event.getTopic();
+            boolean match = topic == null ? MessageChannels.match(name, eventTopic, getListener())
+                    : MessageChannels.topicMatch(eventTopic, topic);
+            if (match) {
+                deliver(offset, event);
+            }
+        }
+
+        private void deliver(long offset, MessageEvent event) throws InterruptedException {
+            MessageListener listener = getListener();
+            long backoff = retryBackoff;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    listener.onMessage(event);
+                    metrics.recordDelivered();
+                    metrics.recordLatency(TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - event.getCreatedAt().toEpochMilli()));
+                    return;
+                } catch (ClassCastException e) {
+                    // No generic type, nothing to do
+                    return;
+                } catch (Throwable e) {
+                    metrics.recordError();
+                    var msg = "Exception firing message " + offset + " of channel " + name + " to subscriber " + getSubscriberId() + ": " + e.getMessage();
+                    if (attempt > maxRetries) {
+                        if (listener instanceof MessageExceptionHandler handler) {
+                            handler.onMessageException(event, new MessageException(msg, e));
+                        } else {
+                            LOGGER.error(msg + ". Giving up after " + attempt + " attempts", e);
+                        }
+                        return;
+                    }
+                    LOGGER.warn(msg + ". Retrying in " + backoff + "ms");
+                    Thread.sleep(backoff);
+                    backoff = Math.min(backoff * 2, maxRetryBackoff);
+                }
+            }
+        }
+    }
+}
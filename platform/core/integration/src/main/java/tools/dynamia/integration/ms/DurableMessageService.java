@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.integration.ms;
+
+import tools.dynamia.commons.logger.LoggingService;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link MessageService} that stores messages in a local append-only log per channel, see {@link DurableMessageChannel}.
+ * Messages survive node restarts and are delivered at-least-once with retries, without an external broker.
+ * Each channel is stored in its own subdirectory of the service directory.
+ * <pre>{@code
+ * @Bean
+ * public MessageService messageService() {
+ *     return new DurableMessageService(Path.of("/var/lib/myapp/messages"));
+ * }
+ * }</pre>
+ *
+ * @author Mario A. Serrano Leones
+ */
+public class DurableMessageService implements MessageService, AutoCloseable {
+
+    private final LoggingService LOGGER = LoggingService.get(DurableMessageService.class);
+
+    private final Path directory;
+    private final Properties defaultProperties;
+    private final Map<String, DurableMessageChannel> channels = new ConcurrentHashMap<>();
+
+    public DurableMessageService(Path directory) {
+        this(directory, null);
+    }
+
+    /**
+     * @param directory         base directory of channel logs
+     * @param defaultProperties properties applied to every channel, see {@link DurableMessageChannel}
+     */
+    public DurableMessageService(Path directory, Properties defaultProperties) {
+        this.directory = directory;
+        this.defaultProperties = defaultProperties;
+    }
+
+    @Override
+    public MessageChannel createChannel(String name) {
+        return createChannel(name, null);
+    }
+
+    @Override
+    public MessageChannel createChannel(String name, Properties properties) {
+        return channels.computeIfAbsent(name, n -> {
+            Properties channelProperties = new Properties();
+            if (defaultProperties != null) {
+                channelProperties.putAll(defaultProperties);
+            }
+            if (properties != null) {
+                channelProperties.putAll(properties);
+            }
+            try {
+                return new DurableMessageChannel(n, directory.resolve(URLEncoder.encode(n, StandardCharsets.UTF_8)), channelProperties);
+            } catch (IOException e) {
+                throw new MessageException("Error opening durable channel " + n + ": " + e.getMessage(), e);
+            }
+        });
+    }
+
+    @Override
+    public Optional<MessageChannel> getChannel(String name) {
+        return Optional.ofNullable(channels.get(name));
+    }
+
+    @Override
+    public void publish(String channelName, Message message) {
+        publish(channelName, message, "");
+    }
+
+    @Override
+    public void publish(String channelName, Message message, String topic) {
+        publish(channelName, message, topic, "");
+    }
+
+    @Override
+    public void publish(String channelName, Message message, String topic, String callback) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Publishing Message " + message + " to channel " + channelName + "   Topic: " + topic);
+        }
+        createChannel(channelName).publish(message, topic, callback);
+    }
+
+    @Override
+    public void broadcast(Message message) {
+        broadcast(message, MessageChannels.ALL_TOPICS);
+    }
+
+    @Override
+    public void broadcast(Message message, String topic) {
+        broadcast(message, topic, "");
+    }
+
+    @Override
+    public void broadcast(Message message, String topic, String callback) {
+        if (message != null) {
+            message.addHeader("broadcast", 1);
+            message.addHeader("channelCount", channels.size());
+            channels.values().forEach(channel -> channel.publish(message, topic, callback));
+        }
+    }
+
+    @Override
+    public <T extends Message> MessageChannelSubscription subscribe(String channelName, MessageListener<T> listener) {
+        return createChannel(channelName).subscribe(listener);
+    }
+
+    @Override
+    public <T extends Message> MessageChannelSubscription subscribe(String channelName, String topic, MessageListener<T> listener) {
+        return createChannel(channelName).subscribe(topic, listener);
+    }
+
+    /**
+     * Subscribe a durable listener that resumes from its stored offset after restarts
+     *
+     * @param channelName    the channel name
+     * @param topic          the topic
+     * @param subscriberName unique and stable subscriber name
+     * @param listener       the listener
+     * @return the subscription
+     */
+    public <T extends Message> MessageChannelSubscription subscribe(String channelName, String topic, String subscriberName, MessageListener<T> listener) {
+        LOGGER.info("Subscribing " + subscriberName + " to durable channel: " + channelName + " topic: " + topic);
+        return getDurableChannel(channelName).subscribe(subscriberName, topic, listener);
+    }
+
+    /**
+     * Deliver again the messages of channel starting at offset to a durable subscriber
+     */
+    public void replay(String channelName, String subscriberName, long offset) {
+        getDurableChannel(channelName).replay(subscriberName, offset);
+    }
+
+    /**
+     * Stop a durable subscriber of channel and forget its stored offset, see {@link DurableMessageChannel#removeSubscriber(String)}
+     */
+    public void removeSubscriber(String channelName, String subscriberName) {
+        getDurableChannel(channelName).removeSubscriber(subscriberName);
+    }
+
+    @Override
+    public Optional<MessageChannelMetrics> getChannelMetrics(String channelName) {
+        return Optional.ofNullable(channels.get(channelName)).map(DurableMessageChannel::getMetrics);
+    }
+
+    @Override
+    public List<MessageChannelMetrics> getChannelMetrics() {
+        return channels.values().stream().map(DurableMessageChannel::getMetrics).toList();
+    }
+
+    /**
+     * Stop subscribers, store their offsets and close channel logs
+     */
+    @Override
+    public void close() {
+        channels.values().forEach(DurableMessageChannel::close);
+        channels.clear();
+    }
+
+    private DurableMessageChannel getDurableChannel(String channelName) {
+        return (DurableMessageChannel) createChannel(channelName);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.integration.ms;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Delivery metrics of a {@link MessageChannel}. Latency is the time a message waits in the channel queue before
+ * its listeners are invoked, so it is only collected by asynchronous channels.
+ *
+ * @author Mario A. Serrano Leones
+ */
+public class MessageChannelMetrics {
+
+    private final String channelName;
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder dequeued = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Long::max, 0);
+    private volatile IntSupplier queueDepth = () -> 0;
+    private volatile int queueCapacity;
+
+    public MessageChannelMetrics(String channelName) {
+        this.channelName = channelName;
+    }
+
+    void recordPublished() {
+        published.increment();
+    }
+
+    void recordDelivered() {
+        delivered.increment();
+    }
+
+    void recordError() {
+        errors.increment();
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    void recordCallerRuns() {
+        callerRuns.increment();
+    }
+
+    void recordLatency(long latencyNanos) {
+        dequeued.increment();
+        totalLatencyNanos.add(latencyNanos);
+        maxLatencyNanos.accumulate(latencyNanos);
+    }
+
+    void bindQueue(IntSupplier queueDepth, int queueCapacity) {
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+    }
+
+    public String getChannelName() {
+        return channelName;
+    }
+
+    /**
+     * Messages published to the channel
+     */
+    public long getPublished() {
+        return published.sum();
+    }
+
+    /**
+     * Successful listener invocations
+     */
+    public long getDelivered() {
+        return delivered.sum();
+    }
+
+    /**
+     * Listener invocations that threw an exception
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * Messages discarded because the queue was full
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Messages delivered by the publisher thread because the queue was full
+     */
+    public long getCallerRuns() {
+        return callerRuns.sum();
+    }
+
+    /**
+     * Messages waiting in the channel queue
+     */
+    public int getQueueDepth() {
+        return queueDepth.getAsInt();
+    }
+
+    /**
+     * Max messages the channel queue can hold, 0 for synchronous channels
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Average time messages wait in queue in microseconds
+     */
+    public double getAverageLatency() {
+        long count = dequeued.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalLatencyNanos.sum()) / (double) count;
+    }
+
+    /**
+     * Longest time a message waited in queue in milliseconds
+     */
+    public long getMaxLatency() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get());
+    }
+
+    public void reset() {
+        published.reset();
+        delivered.reset();
+        errors.reset();
+        dropped.reset();
+        callerRuns.reset();
+        dequeued.reset();
+        totalLatencyNanos.reset();
+        maxLatencyNanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        return channelName + " [published=" + getPublished() + ", delivered=" + getDelivered() + ", errors=" + getErrors()
+                + ", dropped=" + getDropped() + ", callerRuns=" + getCallerRuns() + ", queue=" + getQueueDepth() + "/" + getQueueCapacity()
+                + ", avgLatency=" + getAverageLatency() + "us, maxLatency=" + getMaxLatency() + "ms]";
+    }
+}
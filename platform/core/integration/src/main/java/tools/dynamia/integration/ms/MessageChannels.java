@@ -22,13 +22,17 @@ import tools.dynamia.integration.Containers;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.regex.Matcher;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 public class MessageChannels {
 
     public static final String ALL_TOPICS = "*";
 
+    private static final int MAX_CACHED_PATTERNS = 1024;
+    private static final Map<String, Pattern> TOPIC_PATTERNS = new ConcurrentHashMap<>();
+
     /**
      * Lookup listeners.
      *
@@ -80,23 +84,35 @@ public class MessageChannels {
     }
 
     private static boolean topicMatch(String messageTopic, MessageChannelExchange exchange) {
+        return topicMatch(messageTopic, exchange.topic());
+    }
 
-        boolean match = false;
-        for (String topic : exchange.topic()) {
-            if (messageTopic.equals(topic) || topic.equals(ALL_TOPICS)) {
-                match = true;
-            } else {
-                Pattern pattern = Pattern.compile(topic);
-                Matcher matcher = pattern.matcher(messageTopic);
-                match = matcher.matches();
+    /**
+     * Check if the message topic match any of the topics. Topics can be exact names, {@link #ALL_TOPICS} or
+     * regular expressions. Compiled expressions are cached.
+     *
+     * @param messageTopic the message topic
+     * @param topics       the subscribed topics
+     * @return true if any topic match
+     */
+    public static boolean topicMatch(String messageTopic, String... topics) {
+        for (String topic : topics) {
+            if (messageTopic.equals(topic) || topic.equals(ALL_TOPICS) || getTopicPattern(topic).matcher(messageTopic).matches()) {
+                return true;
             }
+        }
+        return false;
+    }
 
-            if (match) {
-                break;
+    private static Pattern getTopicPattern(String topic) {
+        Pattern pattern = TOPIC_PATTERNS.get(topic);
+        if (pattern == null) {
+            pattern = Pattern.compile(topic);
+            if (TOPIC_PATTERNS.size() < MAX_CACHED_PATTERNS) {
+                TOPIC_PATTERNS.put(topic, pattern);
             }
         }
-
-        return match;
+        return pattern;
     }
 
     private MessageChannels() {
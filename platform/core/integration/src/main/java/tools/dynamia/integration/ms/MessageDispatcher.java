@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.integration.ms;
+
+import tools.dynamia.commons.logger.LoggingService;
+import tools.dynamia.commons.logger.SLF4JLoggingService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded asynchronous dispatcher used by {@link SimpleMessageChannel}. Deliveries are queued in lanes served by
+ * virtual thread workers that are started on demand and stop after being idle. Unordered dispatchers use one lane
+ * with several workers; ordered dispatchers use one single-worker lane per worker and route each topic to the
+ * same lane, so messages of a topic are delivered in publish order.
+ * <p>
+ * With the BLOCK policy, listeners running on a worker that publish to the same dispatcher never wait for space: a
+ * worker waiting on its own full lane would wait forever, because it is the only thread that drains it. When the
+ * lane is full they deliver the message themselves, like CALLER_RUNS.
+ */
+class MessageDispatcher {
+
+    private static final LoggingService LOGGER = new SLF4JLoggingService(MessageDispatcher.class);
+    private static final long KEEP_ALIVE_SECONDS = 30;
+    private static final ThreadLocal<MessageDispatcher> CURRENT_WORKER = new ThreadLocal<>();
+
+    private final String name;
+    private final Lane[] lanes;
+    private final int capacity;
+    private final int batchSize;
+    private final SimpleMessageChannel.OverflowPolicy overflowPolicy;
+    private final MessageChannelMetrics metrics;
+
+    MessageDispatcher(String name, int capacity, int workers, boolean ordered, int batchSize,
+                      SimpleMessageChannel.OverflowPolicy overflowPolicy, MessageChannelMetrics metrics) {
+        this.name = name;
+        this.batchSize = Math.max(1, batchSize);
+        this.overflowPolicy = overflowPolicy;
+        this.metrics = metrics;
+
+        int laneCount = ordered ? Math.max(1, workers) : 1;
+        int laneCapacity = Math.max(1, (capacity + laneCount - 1) / laneCount);
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(i, laneCapacity, ordered ? 1 : Math.max(1, workers));
+        }
+        this.capacity = laneCapacity * laneCount;
+        metrics.bindQueue(this::getQueueDepth, this.capacity);
+    }
+
+    /**
+     * Queue the delivery applying the overflow policy when the lane is full. Return false if it was dropped
+     */
+    boolean dispatch(String topic, Runnable delivery) {
+        Lane lane = lanes.length == 1 ? lanes[0] : lanes[Math.floorMod(topic.hashCode(), lanes.length)];
+        Delivery item = new Delivery(delivery, System.nanoTime());
+
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                if (CURRENT_WORKER.get() == this) {
+                    if (!lane.queue.offer(item)) {
+                        metrics.recordCallerRuns();
+                        run(item);
+                        return true;
+                    }
+                    break;
+                }
+                lane.ensureWorker();
+                try {
+                    lane.queue.put(item);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    metrics.recordDropped();
+                    return false;
+                }
+            }
+            case DROP -> {
+                if (!lane.queue.offer(item)) {
+                    metrics.recordDropped();
+                    if (LOGGER.isDebugEnabled()) {
+                        LOGGER.debug("Message channel " + name + " queue is full, message dropped");
+                    }
+                    return false;
+                }
+            }
+            case CALLER_RUNS -> {
+                if (!lane.queue.offer(item)) {
+                    metrics.recordCallerRuns();
+                    run(item);
+                    return true;
+                }
+            }
+        }
+        lane.ensureWorker();
+        return true;
+    }
+
+    int getQueueDepth() {
+        int depth = 0;
+        for (Lane lane : lanes) {
+            depth += lane.queue.size();
+        }
+        return depth;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    private void run(Delivery item) {
+        metrics.recordLatency(System.nanoTime() - item.enqueuedNanos());
+        try {
+            item.task().run();
+        } catch (Throwable e) {
+            LOGGER.error("Error delivering message in channel " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+    private record Delivery(Runnable task, long enqueuedNanos) {
+    }
+
+    private final class Lane {
+        private final int index;
+        private final BlockingQueue<Delivery> queue;
+        private final int maxWorkers;
+        private final AtomicInteger workers = new AtomicInteger();
+
+        Lane(int index, int capacity, int maxWorkers) {
+            this.index = index;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.maxWorkers = maxWorkers;
+        }
+
+        void ensureWorker() {
+            if (workers.get() < maxWorkers && tryAcquireWorker()) {
+                Thread.ofVirtual().name("msg-" + name + "-" + index).start(this::work);
+            }
+        }
+
+        private boolean tryAcquireWorker() {
+            int current;
+            while ((current = workers.get()) < maxWorkers) {
+                if (workers.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void work() {
+            CURRENT_WORKER.set(MessageDispatcher.this);
+            try {
+                serve();
+            } finally {
+                CURRENT_WORKER.remove();
+            }
+        }
+
+        private void serve() {
+            List<Delivery> batch = new ArrayList<>(batchSize);
+            while (true) {
+                Delivery first;
+                try {
+                    first = queue.poll(KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    workers.decrementAndGet();
+                    return;
+                }
+
+                if (first == null) {
+                    workers.decrementAndGet();
+                    // a delivery may have been queued after the poll timed out and saw this worker still running
+                    if (queue.isEmpty() || !tryAcquireWorker()) {
+                        return;
+                    }
+                    continue;
+                }
+
+                batch.add(first);
+                if (batchSize > 1) {
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                for (Delivery item : batch) {
+                    run(item);
+                }
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.integration.ms;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of records stored in memory-mapped segment files. Each record gets a sequential offset and
+ * is framed as <code>[length][crc32c][data]</code>; the length is written last so a record interrupted by a crash
+ * is detected and discarded when the segment is reopened. Segments are named by the offset of their first record.
+ * When <code>maxSegments</code> is positive the oldest segments beyond that count are deleted as new ones are
+ * created, even if some reader did not consume them yet.
+ */
+class MessageLog implements AutoCloseable {
+
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_SIZE = 8;
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final boolean syncOnAppend;
+    private final int maxSegments;
+    private final List<Segment> segments = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private volatile long startOffset;
+    private volatile long endOffset;
+    private boolean closed;
+
+    MessageLog(Path directory, long segmentSize, boolean syncOnAppend) throws IOException {
+        this(directory, segmentSize, syncOnAppend, 0);
+    }
+
+    MessageLog(Path directory, long segmentSize, boolean syncOnAppend, int maxSegments) throws IOException {
+        if (segmentSize <= HEADER_SIZE || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid log segment size " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.syncOnAppend = syncOnAppend;
+        this.maxSegments = maxSegments;
+
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(f -> f.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+        for (Path file : files) {
+            String fileName = file.getFileName().toString();
+            long baseOffset = Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length()));
+            segments.add(Segment.open(file, baseOffset, segmentSize));
+        }
+        if (segments.isEmpty()) {
+            segments.add(Segment.open(segmentFile(0), 0, segmentSize));
+        }
+        Segment last = segments.getLast();
+        this.startOffset = segments.getFirst().baseOffset;
+        this.endOffset = last.baseOffset + last.count;
+    }
+
+    /**
+     * Append a record and return its offset
+     */
+    long append(byte[] data) {
+        if (HEADER_SIZE + (long) data.length > segmentSize) {
+            throw new MessageException("Record of " + data.length + " bytes exceeds log segment size " + segmentSize);
+        }
+
+        lock.lock();
+        try {
+            ensureOpen();
+            Segment active = segments.getLast();
+            if (!active.hasRoom(data.length)) {
+                active.force();
+                active = Segment.open(segmentFile(endOffset), endOffset, segmentSize);
+                segments.add(active);
+                if (maxSegments > 0) {
+                    deleteFirst(segments.size() - maxSegments);
+                }
+            }
+            active.append(data);
+            if (syncOnAppend) {
+                active.force();
+            }
+            long offset = endOffset;
+            endOffset = offset + 1;
+            appended.signalAll();
+            return offset;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Read the record at offset, null if it was deleted or not yet written
+     */
+    byte[] read(long offset) {
+        lock.lock();
+        try {
+            ensureOpen();
+            for (int i = segments.size() - 1; i >= 0; i--) {
+                Segment segment = segments.get(i);
+                if (offset >= segment.baseOffset) {
+                    return offset < segment.baseOffset + segment.count ? segment.read((int) (offset - segment.baseOffset)) : null;
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until a record exists at offset. Return false on timeout or if the log was closed
+     */
+    boolean awaitRecord(long offset, long timeout, TimeUnit unit) throws InterruptedException {
+        if (offset < endOffset) {
+            return true;
+        }
+
+        lock.lock();
+        try {
+            long nanos = unit.toNanos(timeout);
+            while (offset >= endOffset && !closed) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = appended.awaitNanos(nanos);
+            }
+            return offset < endOffset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getStartOffset() {
+        return startOffset;
+    }
+
+    long getEndOffset() {
+        return endOffset;
+    }
+
+    /**
+     * Delete segments whose records are all before offset. The active segment is never deleted
+     */
+    void deleteBefore(long offset) {
+        lock.lock();
+        try {
+            int count = 0;
+            while (count + 1 < segments.size() && segments.get(count + 1).baseOffset <= offset) {
+                count++;
+            }
+            deleteFirst(count);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void flush() {
+        lock.lock();
+        try {
+            if (!closed) {
+                segments.getLast().force();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (!closed) {
+                closed = true;
+                for (Segment segment : segments) {
+                    segment.close();
+                }
+                appended.signalAll();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new MessageException("Message log " + directory + " is closed");
+        }
+    }
+
+    private void deleteFirst(int count) throws IOException {
+        for (int i = 0; i < count && segments.size() > 1; i++) {
+            segments.removeFirst().delete();
+        }
+        startOffset = segments.getFirst().baseOffset;
+    }
+
+    private Path segmentFile(long baseOffset) {
+        return directory.resolve(String.format("%020d", baseOffset) + SEGMENT_SUFFIX);
+    }
+
+    private static int checksum(byte[] data) {
+        CRC32C crc = new CRC32C();
+        crc.update(data);
+        return (int) crc.getValue();
+    }
+
+    private static final class Segment {
+        private final Path file;
+        private final long baseOffset;
+        private final FileChannel channel;
+        private final Arena arena;
+        private final MemorySegment memory;
+        private int[] positions = new int[1024];
+        private int count;
+        private long writePosition;
+
+        private Segment(Path file, long baseOffset, FileChannel channel, Arena arena, MemorySegment memory) {
+            this.file = file;
+            this.baseOffset = baseOffset;
+            this.channel = channel;
+            this.arena = arena;
+            this.memory = memory;
+        }
+
+        static Segment open(Path file, long baseOffset, long size) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Arena arena = Arena.ofShared();
+            MemorySegment memory = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()), arena);
+            Segment segment = new Segment(file, baseOffset, channel, arena, memory);
+            segment.recover();
+            return segment;
+        }
+
+        /**
+         * Index valid records and discard the tail after the first incomplete or corrupted one
+         */
+        private void recover() {
+            long size = memory.byteSize();
+            long position = 0;
+            boolean clean = true;
+            while (position + HEADER_SIZE <= size) {
+                int length = memory.get(INT, position);
+                if (length == 0) {
+                    break;
+                }
+                if (length < 0 || position + HEADER_SIZE + length > size || checksum(readData(position, length)) != memory.get(INT, position + 4)) {
+                    clean = false;
+                    break;
+                }
+                index(position);
+                position += HEADER_SIZE + length;
+            }
+            writePosition = position;
+            if (!clean) {
+                memory.asSlice(position).fill((byte) 0);
+            }
+        }
+
+        boolean hasRoom(int length) {
+            return writePosition + HEADER_SIZE + length <= memory.byteSize();
+        }
+
+        void append(byte[] data) {
+            long position = writePosition;
+            MemorySegment.copy(data, 0, memory, ValueLayout.JAVA_BYTE, position + HEADER_SIZE, data.length);
+            memory.set(INT, position + 4, checksum(data));
+            memory.set(INT, position, data.length);
+            index(position);
+            writePosition = position + HEADER_SIZE + data.length;
+        }
+
+        byte[] read(int index) {
+            long position = positions[index];
+            return readData(position, memory.get(INT, position));
+        }
+
+        private byte[] readData(long position, int length) {
+            byte[] data = new byte[length];
+            MemorySegment.copy(memory, ValueLayout.JAVA_BYTE, position + HEADER_SIZE, data, 0, length);
+            return data;
+        }
+
+        private void index(long position) {
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            positions[count++] = (int) position;
+        }
+
+        void force() {
+            memory.force();
+        }
+
+        void close() throws IOException {
+            force();
+            arena.close();
+            channel.close();
+        }
+
+        void delete() throws IOException {
+            arena.close();
+            channel.close();
+            Files.deleteIfExists(file);
+        }
+    }
+}
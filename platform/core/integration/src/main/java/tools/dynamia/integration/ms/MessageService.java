@@ -17,6 +17,7 @@
 package tools.dynamia.integration.ms;
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
@@ -109,15 +110,15 @@ public interface MessageService {
      */
     default void publish(String channelName, Serializable message, String topic) {
         if (message instanceof Message msg) {
-            publish(channelName, msg);
+            publish(channelName, msg, topic);
         } else if (message instanceof String strMsg) {
-            publish(channelName, new TextMessage(strMsg));
+            publish(channelName, new TextMessage(strMsg), topic);
         } else if (message instanceof Map<?, ?> map) {
-            publish(channelName, new MapMessage((Map<String, Object>) map));
+            publish(channelName, new MapMessage((Map<String, Object>) map), topic);
         } else if (message instanceof Number number) {
-            publish(channelName, new NumberMessage(number));
+            publish(channelName, new NumberMessage(number), topic);
         } else {
-            publish(channelName, new ObjectMessage(message));
+            publish(channelName, new ObjectMessage(message), topic);
         }
     }
 
@@ -191,6 +192,26 @@ public interface MessageService {
     <T extends Message> MessageChannelSubscription subscribe(String channelName, String topic, MessageListener<T> listener);
 
 
+    /**
+     * Returns delivery metrics (published, dropped, queue depth, latency) of the specified channel.
+     * Implementations without local channels return an empty Optional.
+     *
+     * @param channelName the name of the channel
+     * @return the channel metrics if available
+     */
+    default Optional<MessageChannelMetrics> getChannelMetrics(String channelName) {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns delivery metrics of all channels created by this service
+     *
+     * @return the channels metrics
+     */
+    default List<MessageChannelMetrics> getChannelMetrics() {
+        return List.of();
+    }
+
     /**
      * Subscribes to a channel with a simple text message consumer. Its acts as a shortcut for a MessageListener that processes TextMessage only.
      *
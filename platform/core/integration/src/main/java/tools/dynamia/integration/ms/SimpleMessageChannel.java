@@ -17,23 +17,60 @@
 package tools.dynamia.integration.ms;
 
 import tools.dynamia.commons.StringUtils;
+import tools.dynamia.integration.Containers;
 import tools.dynamia.integration.scheduling.SchedulerUtil;
-import tools.dynamia.integration.scheduling.Task;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * The Class SimpleMessageChannel.
+ * The Class SimpleMessageChannel. Listeners are resolved once per topic and cached in a subscriber table that is
+ * rebuilt only when subscriptions or container listeners change. Asynchronous channels deliver messages through a
+ * bounded queue, see {@link OverflowPolicy} for the behavior when the queue is full.
  */
 @SuppressWarnings("rawtypes")
 public class SimpleMessageChannel implements MessageChannel {
 
+    /**
+     * What to do when an asynchronous channel queue is full
+     */
+    public enum OverflowPolicy {
+        /**
+         * Publisher thread waits until there is space in queue. Listeners of the channel that publish to it from a
+         * worker thread deliver the message themselves instead, a worker waiting for its own queue would wait forever
+         */
+        BLOCK,
+        /**
+         * Message is discarded and counted in {@link MessageChannelMetrics#getDropped()}
+         */
+        DROP,
+        /**
+         * Publisher thread delivers the message itself. Ordered delivery is not guaranteed for these messages
+         */
+        CALLER_RUNS
+    }
+
+    private static final int MAX_CACHED_TOPICS = 1024;
+    private static final MessageListener[] NO_LISTENERS = new MessageListener[0];
+
     private final String name;
     private boolean async = false;
+    private int queueCapacity = 1024;
+    private int workers = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private boolean ordered = false;
+    private int batchSize = 16;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
     private final Map<String, BaseMessageChannelSubscription> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriptionsVersion = new AtomicInteger();
+    private final MessageChannelMetrics metrics;
+    private volatile SubscriberTable subscriberTable;
+    private volatile MessageDispatcher dispatcher;
 
     /**
      * Instantiates a new simple message channel.
@@ -43,6 +80,7 @@ public class SimpleMessageChannel implements MessageChannel {
     public SimpleMessageChannel(String name) {
         super();
         this.name = name;
+        this.metrics = new MessageChannelMetrics(name);
     }
 
     /*
@@ -63,6 +101,53 @@ public class SimpleMessageChannel implements MessageChannel {
         this.async = async;
     }
 
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    /**
+     * If true messages with the same topic are delivered in publish order
+     */
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    void setOrdered(boolean ordered) {
+        this.ordered = ordered;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public MessageChannelMetrics getMetrics() {
+        return metrics;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -81,23 +166,45 @@ public class SimpleMessageChannel implements MessageChannel {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public void publish(Message message, String topic, String callback) {
+        String key = topic != null ? topic : "";
+        MessageListener[] listeners = getMessageListeners(key);
         MessageEvent event = new MessageEvent(message, topic, callback);
-        List<MessageListener> listeners = getMessageListeners(topic);
         message.addHeader(Message.HEADER_LISTENER_COUNT, 0);
+        metrics.recordPublished();
 
-        for (MessageListener messageListener : listeners) {
-            if (!isAsync()) {
-                fireListener(event, messageListener);
-            } else {
-                SchedulerUtil.run(new Task("MessageListenerTask: " + messageListener) {
-                    @Override
-                    public void doWork() {
-                        fireListener(event, messageListener);
-                    }
-                });
-            }
+        if (!isAsync()) {
+            fireListeners(event, listeners, true);
+        } else {
+            getDispatcher().dispatch(key, SchedulerUtil.getWithContext(() -> fireListeners(event, listeners, false)));
+        }
+    }
+
+    /**
+     * Publish several messages with the same topic. Listeners are resolved once and asynchronous channels
+     * deliver the whole batch using a single queue slot, useful for high rate publishers.
+     *
+     * @param messages the messages
+     * @param topic    the topic
+     */
+    public void publishBatch(Collection<? extends Message> messages, String topic) {
+        if (messages == null || messages.isEmpty()) {
+            return;
+        }
+
+        String key = topic != null ? topic : "";
+        MessageListener[] listeners = getMessageListeners(key);
+        List<MessageEvent> events = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            message.addHeader(Message.HEADER_LISTENER_COUNT, 0);
+            events.add(new MessageEvent(message, topic, ""));
+            metrics.recordPublished();
+        }
+
+        if (!isAsync()) {
+            events.forEach(event -> fireListeners(event, listeners, true));
+        } else {
+            getDispatcher().dispatch(key, SchedulerUtil.getWithContext(() -> events.forEach(event -> fireListeners(event, listeners, false))));
         }
     }
 
@@ -105,19 +212,54 @@ public class SimpleMessageChannel implements MessageChannel {
      * Find and filter message listeners for topic.
      *
      * @param topic the topic
-     * @return the list of message listeners
+     * @return the message listeners
      */
-    private List<MessageListener> getMessageListeners(String topic) {
-        List<MessageListener> listeners = new ArrayList<>();
-
-        var subscriptionListeners = subscriptions.values()
-                .stream().map(BaseMessageChannelSubscription::getListener)
-                .toList();
+    private MessageListener[] getMessageListeners(String topic) {
+        Collection<MessageListener> containerListeners = Containers.get().findObjects(MessageListener.class);
+        SubscriberTable table = subscriberTable;
+        int version = subscriptionsVersion.get();
+        if (table == null || !table.isBuiltFrom(version, containerListeners)) {
+            table = new SubscriberTable(version, List.copyOf(subscriptions.values()), containerListeners);
+            subscriberTable = table;
+        }
+        return table.getListeners(topic);
+    }
 
-        listeners.addAll(MessageChannels.filterListeners(getName(), topic, subscriptionListeners));
-        listeners.addAll(MessageChannels.lookupListeners(getName(), topic));
+    private MessageDispatcher getDispatcher() {
+        MessageDispatcher current = dispatcher;
+        if (current == null) {
+            synchronized (this) {
+                current = dispatcher;
+                if (current == null) {
+                    current = new MessageDispatcher(name, queueCapacity, workers, ordered, batchSize, overflowPolicy, metrics);
+                    dispatcher = current;
+                }
+            }
+        }
+        return current;
+    }
 
-        return listeners;
+    /**
+     * Fire listeners and update the listener count header once. Synchronous delivery propagates listener
+     * exceptions, asynchronous delivery reports them and continue with next listener.
+     */
+    private void fireListeners(MessageEvent event, MessageListener[] listeners, boolean propagate) {
+        int count = 0;
+        try {
+            for (MessageListener listener : listeners) {
+                try {
+                    if (fireListener(event, listener)) {
+                        count++;
+                    }
+                } catch (MessageException e) {
+                    if (propagate) {
+                        throw e;
+                    }
+                }
+            }
+        } finally {
+            event.message().addHeader(Message.HEADER_LISTENER_COUNT, count);
+        }
     }
 
     /**
@@ -125,20 +267,24 @@ public class SimpleMessageChannel implements MessageChannel {
      *
      * @param event           the event
      * @param messageListener the message listener
+     * @return true if the listener handled the message
      */
-    private void fireListener(MessageEvent event, MessageListener messageListener) {
+    private boolean fireListener(MessageEvent event, MessageListener messageListener) {
         try {
             //noinspection unchecked
             messageListener.onMessage(event);
-            event.message().addHeader(Message.HEADER_LISTENER_COUNT,
-                    (Integer) event.message().getHeader(Message.HEADER_LISTENER_COUNT) + 1);
+            metrics.recordDelivered();
+            return true;
         } catch (ClassCastException e) {
             // No generic type, nothing to do
+            return false;
         } catch (Throwable e) {
+            metrics.recordError();
             var msg = "Exception firing " + event + " to listener " + messageListener + ": " + e.getMessage();
             if (messageListener instanceof MessageExceptionHandler) {
                 //noinspection unchecked
                 ((MessageExceptionHandler) messageListener).onMessageException(event, new MessageException(msg, e));
+                return false;
             } else {
                 throw new MessageException(msg, e);
             }
@@ -153,14 +299,81 @@ public class SimpleMessageChannel implements MessageChannel {
     @Override
     public <T extends Message> MessageChannelSubscription subscribe(String topic, MessageListener<T> listener) {
         String subscriptionId = StringUtils.randomString();
-        var subcription = new BaseMessageChannelSubscription<>(getName(), subscriptionId, topic, listener) {
+        var subcription = new BaseMessageChannelSubscription<>(getName(), topic, subscriptionId, listener) {
             @Override
             public void unsubscribe() {
-                subscriptions.remove(subscriptionId);
+                if (subscriptions.remove(subscriptionId) != null) {
+                    subscriptionsVersion.incrementAndGet();
+                }
             }
         };
         subscriptions.put(subscriptionId, subcription);
+        subscriptionsVersion.incrementAndGet();
 
         return subcription;
     }
+
+    /**
+     * Immutable snapshot of channel subscribers with listeners resolved by topic
+     */
+    private class SubscriberTable {
+
+        private final int version;
+        private final List<BaseMessageChannelSubscription> subscriptions;
+        private final Collection<MessageListener> containerListeners;
+        private final List<MessageListener> containerListenersSnapshot;
+        private final Map<String, MessageListener[]> byTopic = new ConcurrentHashMap<>();
+
+        SubscriberTable(int version, List<BaseMessageChannelSubscription> subscriptions, Collection<MessageListener> containerListeners) {
+            this.version = version;
+            this.subscriptions = subscriptions;
+            this.containerListeners = containerListeners;
+            this.containerListenersSnapshot = containerListeners != null ? List.copyOf(containerListeners) : List.of();
+        }
+
+        boolean isBuiltFrom(int version, Collection<MessageListener> containerListeners) {
+            if (this.version != version) {
+                return false;
+            }
+            if (this.containerListeners == containerListeners) {
+                return true;
+            }
+            if (containerListeners == null || containerListeners.size() != containerListenersSnapshot.size()) {
+                return false;
+            }
+            Iterator<MessageListener> iterator = containerListeners.iterator();
+            for (MessageListener listener : containerListenersSnapshot) {
+                if (iterator.next() != listener) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        MessageListener[] getListeners(String topic) {
+            MessageListener[] listeners = byTopic.get(topic);
+            if (listeners == null) {
+                listeners = resolve(topic);
+                if (byTopic.size() < MAX_CACHED_TOPICS) {
+                    byTopic.put(topic, listeners);
+                }
+            }
+            return listeners;
+        }
+
+        private MessageListener[] resolve(String topic) {
+            List<MessageListener> subscriptionListeners = new ArrayList<>();
+            for (BaseMessageChannelSubscription subscription : subscriptions) {
+                String subscriptionTopic = subscription.getTopic();
+                if (subscriptionTopic == null || MessageChannels.topicMatch(topic, subscriptionTopic)) {
+                    subscriptionListeners.add(subscription.getListener());
+                }
+            }
+
+            List<MessageListener> listeners = new ArrayList<>();
+            listeners.addAll(MessageChannels.filterListeners(getName(), topic, subscriptionListeners));
+            listeners.addAll(MessageChannels.filterListeners(getName(), topic, containerListenersSnapshot));
+            return listeners.isEmpty() ? NO_LISTENERS : listeners.toArray(NO_LISTENERS);
+        }
+    }
 }
@@ -60,8 +60,14 @@ public class SimpleMessageService implements MessageService {
         if (properties != null) {
             try {
                 channel.setAsync(Boolean.parseBoolean(properties.getProperty("async", "false")));
+                channel.setOrdered(Boolean.parseBoolean(properties.getProperty("ordered", String.valueOf(channel.isOrdered()))));
+                channel.setQueueCapacity(Integer.parseInt(properties.getProperty("queueCapacity", String.valueOf(channel.getQueueCapacity()))));
+                channel.setWorkers(Integer.parseInt(properties.getProperty("workers", String.valueOf(channel.getWorkers()))));
+                channel.setBatchSize(Integer.parseInt(properties.getProperty("batchSize", String.valueOf(channel.getBatchSize()))));
+                channel.setOverflowPolicy(SimpleMessageChannel.OverflowPolicy.valueOf(
+                        properties.getProperty("overflowPolicy", channel.getOverflowPolicy().name()).toUpperCase()));
             } catch (Exception e) {
-                LOGGER.error("Error parsing property async: " + e.getMessage());
+                LOGGER.error("Error parsing channel " + channel.getName() + " properties: " + e.getMessage());
             }
         }
 
@@ -72,6 +78,19 @@ public class SimpleMessageService implements MessageService {
         return Optional.ofNullable(container.getObject(name, SimpleMessageChannel.class));
     }
 
+    @Override
+    public Optional<MessageChannelMetrics> getChannelMetrics(String channelName) {
+        return Optional.ofNullable(container.getObject(channelName, SimpleMessageChannel.class))
+                .map(SimpleMessageChannel::getMetrics);
+    }
+
+    @Override
+    public List<MessageChannelMetrics> getChannelMetrics() {
+        return container.getObjects(SimpleMessageChannel.class).stream()
+                .map(SimpleMessageChannel::getMetrics)
+                .toList();
+    }
+
     @Override
     public void publish(String channelName, Message message) {
         publish(channelName, message, "");
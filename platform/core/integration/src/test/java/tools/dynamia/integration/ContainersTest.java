@@ -25,6 +25,7 @@ import java.util.Collection;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 
 public class ContainersTest {
 
@@ -78,4 +79,37 @@ public class ContainersTest {
         assertEquals(2, strings.size());
     }
 
+    @Test
+    public void shouldCacheLookupsFromCacheableContainers() {
+        SimpleObjectContainer cacheable = new SimpleObjectContainer("cacheable") {
+            @Override
+            public boolean isCacheable(Class<?> type) {
+                return true;
+            }
+        };
+        cacheable.addObject("one", 1L);
+        Containers.get().removeAllContainers();
+        Containers.get().installObjectContainer(cacheable);
+        Containers.get().resetCacheStats();
+
+        Collection<Long> first = Containers.get().findObjects(Long.class);
+        Collection<Long> second = Containers.get().findObjects(Long.class);
+
+        assertSame(first, second);
+        assertEquals(1, Containers.get().getCacheHits());
+        assertEquals(1, Containers.get().getCacheMisses());
+
+        cacheable.addObject("two", 2L);
+        Containers.get().installObjectContainer(soc);
+        assertEquals(2, Containers.get().findObjects(Long.class).size());
+    }
+
+    @Test
+    public void shouldNotCacheLookupsFromMutableContainers() {
+        Containers.get().findObjects(String.class);
+        soc.addObject("alias", "mars");
+
+        assertEquals(3, Containers.get().findObjects(String.class).size());
+    }
+
 }
@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.integration.ms;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import tools.dynamia.integration.Containers;
+import tools.dynamia.integration.SimpleObjectContainer;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class DurableMessageServiceTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+    private DurableMessageService service;
+
+    @Before
+    public void init() {
+        Containers.get().removeAllContainers();
+        Containers.get().installObjectContainer(new SimpleObjectContainer());
+        directory = folder.getRoot().toPath();
+        service = newService();
+    }
+
+    @After
+    public void close() {
+        service.close();
+    }
+
+    @Test
+    public void shouldResumeDurableSubscriberAfterRestart() throws InterruptedException {
+        List<String> received = new CopyOnWriteArrayList<>();
+        CountDownLatch first = new CountDownLatch(1);
+        service.subscribe("orders", "*", "billing", (MessageEvent<TextMessage> evt) -> {
+            received.add(evt.message().getContent());
+            first.countDown();
+        });
+        service.publish("orders", new TextMessage("order-1"));
+        Assert.assertTrue(first.await(5, TimeUnit.SECONDS));
+        service.close();
+
+        service = newService();
+        service.publish("orders", new TextMessage("order-2"));
+        service.publish("orders", new TextMessage("order-3"));
+
+        CountDownLatch rest = new CountDownLatch(2);
+        service.subscribe("orders", "*", "billing", (MessageEvent<TextMessage> evt) -> {
+            received.add(evt.message().getContent());
+            rest.countDown();
+        });
+        Assert.assertTrue(rest.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(List.of("order-1", "order-2", "order-3"), received);
+    }
+
+    @Test
+    public void shouldRetryFailedDelivery() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch delivered = new CountDownLatch(1);
+        service.subscribe("payments", "*", "processor", evt -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("not yet");
+            }
+            delivered.countDown();
+        });
+
+        service.publish("payments", new TextMessage("payment"));
+
+        Assert.assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(3, attempts.get());
+        Assert.assertEquals(2, service.getChannelMetrics("payments").orElseThrow().getErrors());
+    }
+
+    @Test
+    public void shouldReplayFromOffset() throws InterruptedException {
+        CountDownLatch firstPass = new CountDownLatch(3);
+        CountDownLatch secondPass = new CountDownLatch(5);
+        service.subscribe("events", "*", "audit", evt -> {
+            firstPass.countDown();
+            secondPass.countDown();
+        });
+        for (int i = 0; i < 3; i++) {
+            service.publish("events", new NumberMessage(i));
+        }
+        Assert.assertTrue(firstPass.await(5, TimeUnit.SECONDS));
+
+        service.replay("events", "audit", 1);
+
+        Assert.assertTrue(secondPass.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldDeleteSegmentsAfterSubscriberIsRemoved() throws Exception {
+        CountDownLatch delivered = new CountDownLatch(1);
+        service.subscribe("reports", "*", "exporter", evt -> delivered.countDown());
+        service.publish("reports", new TextMessage("report"));
+        Assert.assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        service.close();
+
+        // exporter never comes back
+        service = newService();
+        for (int i = 0; i < 200; i++) {
+            service.publish("reports", new TextMessage("report-" + i + "-" + "x".repeat(1000)));
+        }
+        DurableMessageChannel channel = (DurableMessageChannel) service.getChannel("reports").orElseThrow();
+        Assert.assertEquals(0, channel.getStartOffset());
+        Assert.assertTrue(countSegments(directory.resolve("reports")) > 1);
+
+        service.removeSubscriber("reports", "exporter");
+
+        Assert.assertEquals(-1, channel.getOffset("exporter"));
+        Assert.assertTrue(channel.getStartOffset() > 0);
+        Assert.assertEquals(1, countSegments(directory.resolve("reports")));
+    }
+
+    @Test
+    public void shouldDeleteSegmentsBeyondRetentionLimit() throws InterruptedException {
+        CountDownLatch delivered = new CountDownLatch(1);
+        service.subscribe("reports", "*", "exporter", evt -> delivered.countDown());
+        service.publish("reports", new TextMessage("report"));
+        Assert.assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        service.close();
+
+        Properties properties = new Properties();
+        properties.setProperty("segmentSize", "65536");
+        properties.setProperty("maxSegments", "2");
+        service = new DurableMessageService(directory, properties);
+        for (int i = 0; i < 200; i++) {
+            service.publish("reports", new TextMessage("report-" + i + "-" + "x".repeat(1000)));
+        }
+        DurableMessageChannel channel = (DurableMessageChannel) service.getChannel("reports").orElseThrow();
+        Assert.assertTrue(channel.getStartOffset() > 0);
+
+        CountDownLatch resumed = new CountDownLatch(1);
+        List<String> received = new CopyOnWriteArrayList<>();
+        service.subscribe("reports", "*", "exporter", (MessageEvent<TextMessage> evt) -> {
+            received.add(evt.message().getContent());
+            resumed.countDown();
+        });
+        Assert.assertTrue(resumed.await(5, TimeUnit.SECONDS));
+        Assert.assertNotEquals("report", received.getFirst());
+    }
+
+    @Test
+    public void shouldRecoverLogAfterTornWrite() throws Exception {
+        Path logDirectory = directory.resolve("raw");
+        try (MessageLog log = new MessageLog(logDirectory, 64, false)) {
+            for (int i = 0; i < 5; i++) {
+                log.append(("record-" + i).getBytes(StandardCharsets.UTF_8));
+            }
+            Assert.assertEquals(5, log.getEndOffset());
+        }
+
+        // half written record after the last one of the active segment
+        try (RandomAccessFile file = new RandomAccessFile(logDirectory.resolve("00000000000000000004.log").toFile(), "rw")) {
+            file.seek(16);
+            file.writeInt(12);
+            file.writeInt(42);
+        }
+
+        try (MessageLog log = new MessageLog(logDirectory, 64, false)) {
+            Assert.assertEquals(5, log.getEndOffset());
+            Assert.assertEquals("record-4", new String(log.read(4), StandardCharsets.UTF_8));
+            log.deleteBefore(4);
+            Assert.assertTrue(log.getStartOffset() > 0);
+            Assert.assertNull(log.read(0));
+        }
+    }
+
+    private static long countSegments(Path channelDirectory) throws IOException {
+        try (Stream<Path> files = Files.list(channelDirectory)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(".log")).count();
+        }
+    }
+
+    private DurableMessageService newService() {
+        Properties properties = new Properties();
+        properties.setProperty("retryBackoff", "1");
+        properties.setProperty("segmentSize", "65536");
+        return new DurableMessageService(directory, properties);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.integration.ms;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import tools.dynamia.integration.Containers;
+import tools.dynamia.integration.SimpleObjectContainer;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SimpleMessageChannelTest {
+
+    @Before
+    public void init() {
+        Containers.get().removeAllContainers();
+        Containers.get().installObjectContainer(new SimpleObjectContainer());
+    }
+
+    @Test
+    public void shouldDeliverAsync() throws InterruptedException {
+        SimpleMessageChannel channel = asyncChannel("async", "BLOCK", false, 16);
+        CountDownLatch latch = new CountDownLatch(100);
+        channel.subscribe(evt -> latch.countDown());
+
+        for (int i = 0; i < 100; i++) {
+            channel.publish(new NumberMessage(i));
+        }
+
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(100, channel.getMetrics().getPublished());
+    }
+
+    @Test
+    public void shouldDropWhenQueueIsFull() throws InterruptedException {
+        SimpleMessageChannel channel = asyncChannel("dropping", "DROP", false, 2);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        channel.subscribe(evt -> {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        channel.publish(new NumberMessage(0));
+        Assert.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= 10; i++) {
+            channel.publish(new NumberMessage(i));
+        }
+        release.countDown();
+
+        Assert.assertEquals(8, channel.getMetrics().getDropped());
+        Assert.assertEquals(2, channel.getMetrics().getQueueCapacity());
+    }
+
+    @Test
+    public void shouldNotBlockWorkersPublishingToTheirOwnFullQueue() throws InterruptedException {
+        SimpleMessageChannel channel = asyncChannel("reentrant", "BLOCK", true, 1);
+        CountDownLatch latch = new CountDownLatch(6);
+        channel.subscribe(evt -> {
+            if (((Number) evt.getContent()).intValue() == 0) {
+                for (int i = 1; i <= 5; i++) {
+                    channel.publish(new NumberMessage(i));
+                }
+            }
+            latch.countDown();
+        });
+
+        channel.publish(new NumberMessage(0));
+
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(channel.getMetrics().getCallerRuns() > 0);
+    }
+
+    @Test
+    public void shouldDeliverSameTopicInOrder() throws InterruptedException {
+        SimpleMessageChannel channel = asyncChannel("ordered", "BLOCK", true, 64);
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(50);
+        channel.subscribe("orders", (MessageEvent<NumberMessage> evt) -> {
+            received.add(evt.message().getContent().intValue());
+            latch.countDown();
+        });
+
+        for (int i = 0; i < 50; i++) {
+            channel.publish(new NumberMessage(i), "orders");
+        }
+
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 50; i++) {
+            Assert.assertEquals(i, received.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void shouldDeliverTopicSubscriptionsOnlyMatchingTopics() {
+        SimpleMessageChannel channel = new SimpleMessageChannel("topics");
+        AtomicInteger count = new AtomicInteger();
+        channel.subscribe("news", evt -> count.incrementAndGet());
+
+        channel.publish(new TextMessage("a"), "news");
+        channel.publish(new TextMessage("b"), "sports");
+        channel.publish(new TextMessage("c"));
+
+        Assert.assertEquals(1, count.get());
+    }
+
+    @Test
+    public void shouldPublishBatch() {
+        SimpleMessageChannel channel = new SimpleMessageChannel("batch");
+        AtomicInteger count = new AtomicInteger();
+        channel.subscribe(evt -> count.incrementAndGet());
+
+        List<TextMessage> messages = List.of(new TextMessage("a"), new TextMessage("b"), new TextMessage("c"));
+        channel.publishBatch(messages, "");
+
+        Assert.assertEquals(3, count.get());
+        Assert.assertEquals(1, messages.getFirst().getHeader(Message.HEADER_LISTENER_COUNT));
+        Assert.assertEquals(3, channel.getMetrics().getDelivered());
+    }
+
+    @Test
+    public void shouldExposeMetricsInService() {
+        MessageService service = new SimpleMessageService();
+        service.subscribe("metered", evt -> {
+        });
+        service.publish("metered", new TextMessage("hello"));
+
+        MessageChannelMetrics metrics = service.getChannelMetrics("metered").orElseThrow();
+        Assert.assertEquals(1, metrics.getPublished());
+        Assert.assertEquals(1, metrics.getDelivered());
+        Assert.assertTrue(service.getChannelMetrics("unknown").isEmpty());
+    }
+
+    private SimpleMessageChannel asyncChannel(String name, String overflowPolicy, boolean ordered, int queueCapacity) {
+        Properties properties = new Properties();
+        properties.setProperty("async", "true");
+        properties.setProperty("ordered", String.valueOf(ordered));
+        properties.setProperty("queueCapacity", String.valueOf(queueCapacity));
+        properties.setProperty("workers", "1");
+        properties.setProperty("batchSize", "1");
+        properties.setProperty("overflowPolicy", overflowPolicy);
+        return (SimpleMessageChannel) new SimpleMessageService().createChannel(name, properties);
+    }
+}
@@ -28,6 +28,7 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * {@link Module} container store modules instances loaded from  {@link ModuleProvider}s
@@ -44,10 +45,18 @@ public final class ModuleContainer implements Serializable {
     private final transient LoggingService LOGGER = new SLF4JLoggingService(ModuleContainer.class);
 
     private final List<Module> modules;
-    private final List<Page> featuredPages;
 
     @Autowired
     private transient List<ModuleProvider> _providers;
+
+    /**
+     * Lookup index of installed modules, rebuilt and replaced when modules are installed
+     */
+    private transient volatile NavigationIndex navigationIndex = NavigationIndex.EMPTY;
+
+    /**
+     * Pages found outside the index, i.e. pages added to a module after it was installed
+     */
     private final SimpleCache<String, Page> PAGE_PATH_INDEX = new SimpleCache<>();
     private final SimpleCache<String, Page> PAGE_PRETTY_PATH_INDEX = new SimpleCache<>();
 
@@ -56,12 +65,11 @@ public final class ModuleContainer implements Serializable {
 
     public ModuleContainer() {
         LOGGER.info("Creating " + getClass());
-        modules = new ArrayList<>();
-        featuredPages = new ArrayList<>();
+        modules = new CopyOnWriteArrayList<>();
     }
 
     @PostConstruct
-    private void loadModules() {
+    private synchronized void loadModules() {
 
         if (getModulesProviders() != null) {
             List<Module> modulesReferences = new ArrayList<>();
@@ -76,14 +84,17 @@ public final class ModuleContainer implements Serializable {
                     if (module.isReference()) {
                         modulesReferences.add(module);
                     } else {
-                        installModule(module);
+                        install(module);
+                        LOGGER.info("Module [" + module.getId() + "] installed ");
                     }
                 }
             }
 
             for (Module moduleRef : modulesReferences) {
-                installModule(moduleRef);
+                install(moduleRef);
+                LOGGER.info("Module Reference [" + moduleRef.getId() + "] installed ");
             }
+            rebuildIndex();
         }
     }
 
@@ -91,9 +102,10 @@ public final class ModuleContainer implements Serializable {
         return _providers;
     }
 
-    public void installModule(Module module) {
+    public synchronized void installModule(Module module) {
         if (module != null) {
             install(module);
+            rebuildIndex();
             if (module.isReference()) {
                 LOGGER.info("Module Reference [" + module.getId() + "] installed ");
             } else {
@@ -115,10 +127,7 @@ public final class ModuleContainer implements Serializable {
                 existingModule.addBaseClass(newModule.getBaseClass());
             }
 
-            newModule.getDefaultPageGroup().getPages().forEach(page -> {
-                existingModule.addPage(page);
-                index(page);
-            });
+            newModule.getDefaultPageGroup().getPages().forEach(page -> existingModule.addPage(page));
 
             List<PageGroup> groups = newModule.getPageGroups();
             mergePageGroups(groups, existingModule, null);
@@ -129,7 +138,6 @@ public final class ModuleContainer implements Serializable {
     protected void add(Module newModule) {
         if (newModule != null) {
             modules.add(newModule);
-            index(newModule);
         }
     }
 
@@ -140,15 +148,11 @@ public final class ModuleContainer implements Serializable {
             if (existingGroup == null) {
                 if (parentGroup != null) {
                     parentGroup.addPageGroup(newGroup);
-                    if (!newGroup.isDynamic()) {
-                        newGroup.getPages().forEach(this::index);
-                    }
                 } else {
                     parentModule.addPageGroup(newGroup);
                 }
             } else if (!newGroup.isDynamic()) {
                 for (Page newPage : newGroup.getPages()) {
-                    index(newPage);
                     Page oldPage = existingGroup.getPageById(newPage.getId());
                     if (oldPage == null) {
                         existingGroup.addPage(newPage);
@@ -166,27 +170,39 @@ public final class ModuleContainer implements Serializable {
     }
 
 
-    protected void index(Module module) {
-        if (module != null) {
-            module.forEachPage(this::index);
-        }
-    }
-
     protected void index(Page page) {
         PAGE_PATH_INDEX.add(page.getVirtualPath(), page);
-        PAGE_PRETTY_PATH_INDEX.add(page.getPrettyVirtualPath(), page);
-        if (page.isFeatured()) {
-            featuredPages.add(page);
-        }
+    }
 
-        if (page.isMain()) {
+    /**
+     * Build a new lookup index from installed modules and replace the current one
+     */
+    private void rebuildIndex() {
+        navigationIndex = new NavigationIndex(modules);
+        PAGE_PATH_INDEX.clear();
+        PAGE_PRETTY_PATH_INDEX.clear();
+    }
 
+    private NavigationIndex getNavigationIndex() {
+        NavigationIndex index = navigationIndex;
+        if (index == null) {
+            // deserialized container
+            synchronized (this) {
+                if (navigationIndex == null) {
+                    navigationIndex = new NavigationIndex(modules);
+                }
+                index = navigationIndex;
+            }
         }
+        return index;
     }
 
     void reloadModule(Module module) {
         try {
             module.reload();
+            synchronized (this) {
+                rebuildIndex();
+            }
         } catch (Exception ex) {
             LOGGER.error("Error reloading web module " + module.getName(), ex);
         }
@@ -200,6 +216,12 @@ public final class ModuleContainer implements Serializable {
     }
 
     public Module getModuleById(String id) {
+        Module module = getNavigationIndex().getModuleById(id);
+        if (module != null) {
+            return module;
+        }
+
+        // modules being installed are not indexed yet
         for (Module webModule : modules) {
             if (webModule.getId().equalsIgnoreCase(id)) {
                 return webModule;
@@ -220,7 +242,10 @@ public final class ModuleContainer implements Serializable {
     }
 
     public Page findPage(String path) {
-        Page page = PAGE_PATH_INDEX.get(path);
+        Page page = getNavigationIndex().findPage(path);
+        if (page == null && path != null) {
+            page = PAGE_PATH_INDEX.get(path);
+        }
 
         try {
             if (page == null) {
@@ -244,14 +269,17 @@ public final class ModuleContainer implements Serializable {
     }
 
     public Page findPageByPrettyVirtualPath(String prettyPath) {
-        Page page = PAGE_PRETTY_PATH_INDEX.get(prettyPath);
+        Page page = getNavigationIndex().findPageByPrettyPath(prettyPath);
+        if (page == null && prettyPath != null) {
+            page = PAGE_PRETTY_PATH_INDEX.get(prettyPath);
+        }
 
         try {
             if (page == null) {
                 for (Module module : modules) {
                     page = module.findPageByPrettyPath(prettyPath);
                     if (page != null) {
-                        index(page);
+                        PAGE_PRETTY_PATH_INDEX.add(prettyPath, page);
                         break;
                     }
                 }
@@ -268,44 +296,21 @@ public final class ModuleContainer implements Serializable {
     }
 
     public List<Page> findPagesByName(String name) {
-
-        List<Page> result = new ArrayList<>();
-
         if (name == null || name.isEmpty()) {
-            return result;
+            return new ArrayList<>();
         }
-        name = name.toLowerCase();
-        for (Module module : modules) {
-
-            List<PageGroup> modulePageGroups = new ArrayList<>();
-            modulePageGroups.add(module.getDefaultPageGroup());
-            modulePageGroups.addAll(module.getPageGroups());
-
-            for (PageGroup pageGroup : modulePageGroups) {
-                for (Page page : pageGroup.getPages()) {
-                    if (page.getName().toLowerCase().contains(name) || (pageGroup.getName() != null && pageGroup.getName().toLowerCase().contains(name))) {
-                        result.add(page);
-                    }
-                }
-
-                for (PageGroup subgroup : pageGroup.getPageGroups()) {
-                    for (Page page : subgroup.getPages()) {
-                        if (page.getName().toLowerCase().contains(name) || (subgroup.getName() != null && subgroup.getName().toLowerCase().contains(name))) {
-                            result.add(page);
-                        }
-                    }
-                }
-            }
-        }
-        return result;
+        return getNavigationIndex().findPagesByName(name.toLowerCase());
     }
 
     public Collection<Page> getFeaturedPages() {
-        return featuredPages;
+        return getNavigationIndex().getFeaturedPages();
     }
 
     public NavigationElement findElement(String path) {
-        NavigationElement elem = PAGE_PATH_INDEX.get(path);
+        NavigationElement elem = getNavigationIndex().find(path);
+        if (elem == null && path != null) {
+            elem = PAGE_PATH_INDEX.get(path);
+        }
         if (elem != null) {
             return elem;
         }
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.navigation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable lookup index of installed modules used by {@link ModuleContainer}. Virtual paths of modules, groups and
+ * pages are stored in a trie, so lookups walk the path once. Pretty paths and module ids are hashed and page names are
+ * precomputed in lower case in navigation order. Pages of dynamic groups are not indexed because they can change
+ * on each call.
+ *
+ * @author Mario A. Serrano Leones
+ */
+final class NavigationIndex {
+
+    static final NavigationIndex EMPTY = new NavigationIndex(List.of());
+
+    private final Node root = new Node();
+    private final Map<String, Module> modulesById = new HashMap<>();
+    private final Map<String, Page> prettyPaths = new HashMap<>();
+    private final List<NameEntry> names = new ArrayList<>();
+    private final List<Page> featuredPages = new ArrayList<>();
+    private int pageCount;
+
+    NavigationIndex(Collection<Module> modules) {
+        for (Module module : modules) {
+            modulesById.putIfAbsent(module.getId().toLowerCase(), module);
+            put(module.getVirtualPath(), module);
+
+            List<PageGroup> groups = new ArrayList<>();
+            groups.add(module.getDefaultPageGroup());
+            groups.addAll(module.getPageGroups());
+            for (PageGroup group : groups) {
+                indexGroup(group);
+                if (group.isDynamic()) {
+                    names.add(new NameEntry(group, true));
+                } else {
+                    indexNames(group);
+                    group.getPageGroups().forEach(subgroup -> {
+                        if (subgroup.isDynamic()) {
+                            names.add(new NameEntry(subgroup, false));
+                        } else {
+                            indexNames(subgroup);
+                        }
+                    });
+                }
+            }
+        }
+    }
+
+    private void indexGroup(PageGroup group) {
+        put(group.getVirtualPath(), group);
+        if (group.isDynamic()) {
+            return;
+        }
+
+        for (Page page : group.getPages()) {
+            put(page.getVirtualPath(), page);
+            prettyPaths.putIfAbsent(page.getPrettyVirtualPath(), page);
+            if (page.isFeatured()) {
+                featuredPages.add(page);
+            }
+            pageCount++;
+        }
+        if (group.getPageGroups() != null) {
+            group.getPageGroups().forEach(this::indexGroup);
+        }
+    }
+
+    /**
+     * Names are searched in groups and their direct subgroups only
+     */
+    private void indexNames(PageGroup group) {
+        String groupName = group.getName() != null ? group.getName().toLowerCase() : null;
+        for (Page page : group.getPages()) {
+            names.add(new NameEntry(page, page.getName().toLowerCase(), groupName));
+        }
+    }
+
+    private void put(String path, NavigationElement element) {
+        if (path == null) {
+            return;
+        }
+
+        Node node = root;
+        int start = 0;
+        while (true) {
+            int end = path.indexOf('/', start);
+            String segment = end < 0 ? path.substring(start) : path.substring(start, end);
+            node = node.children.computeIfAbsent(segment, s -> new Node());
+            if (end < 0) {
+                break;
+            }
+            start = end + 1;
+        }
+
+        // pages win over modules and groups with the same path, first installed page wins
+        if (node.element == null || (element instanceof Page && !(node.element instanceof Page))) {
+            node.element = element;
+        }
+    }
+
+    /**
+     * Find the module, group or page with this virtual path
+     */
+    NavigationElement find(String path) {
+        if (path == null) {
+            return null;
+        }
+
+        Node node = root;
+        int start = 0;
+        while (node != null) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                node = node.children.get(path.substring(start));
+                return node != null ? node.element : null;
+            }
+            node = node.children.get(path.substring(start, end));
+            start = end + 1;
+        }
+        return null;
+    }
+
+    Page findPage(String path) {
+        return find(path) instanceof Page page ? page : null;
+    }
+
+    Page findPageByPrettyPath(String prettyPath) {
+        return prettyPaths.get(prettyPath);
+    }
+
+    Module getModuleById(String id) {
+        return id != null ? modulesById.get(id.toLowerCase()) : null;
+    }
+
+    /**
+     * Pages whose name or group name contains the text, text must be in lower case
+     */
+    List<Page> findPagesByName(String text) {
+        List<Page> result = new ArrayList<>();
+        for (NameEntry entry : names) {
+            if (entry.dynamicGroup() != null) {
+                findPagesByName(entry.dynamicGroup(), text, result);
+                if (entry.withSubgroups()) {
+                    entry.dynamicGroup().getPageGroups().forEach(subgroup -> findPagesByName(subgroup, text, result));
+                }
+            } else if (entry.name().contains(text) || (entry.groupName() != null && entry.groupName().contains(text))) {
+                result.add(entry.page());
+            }
+        }
+        return result;
+    }
+
+    private void findPagesByName(PageGroup group, String text, List<Page> result) {
+        boolean groupMatch = group.getName() != null && group.getName().toLowerCase().contains(text);
+        for (Page page : group.getPages()) {
+            if (groupMatch || page.getName().toLowerCase().contains(text)) {
+                result.add(page);
+            }
+        }
+    }
+
+    List<Page> getFeaturedPages() {
+        return Collections.unmodifiableList(featuredPages);
+    }
+
+    int getPageCount() {
+        return pageCount;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>(4);
+        private NavigationElement element;
+    }
+
+    /**
+     * A static page with its lower case names or a dynamic group evaluated on each search
+     */
+    private record NameEntry(Page page, String name, String groupName, PageGroup dynamicGroup, boolean withSubgroups) {
+
+        NameEntry(PageGroup dynamicGroup, boolean withSubgroups) {
+            this(null, null, null, dynamicGroup, withSubgroups);
+        }
+
+        NameEntry(Page page, String name, String groupName) {
+            this(page, name, groupName, null, false);
+        }
+    }
+}
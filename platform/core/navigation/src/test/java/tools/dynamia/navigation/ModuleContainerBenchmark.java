@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.navigation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of {@link ModuleContainer} lookups with 5k pages in 20 modules. Compares indexed lookups against
+ * scanning modules pages like {@link Module#findPage(String)} does.
+ * <p>
+ * Run with: <code>mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=tools.dynamia.navigation.ModuleContainerBenchmark</code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModuleContainerBenchmark {
+
+    private static final int MODULES = 20;
+    private static final int GROUPS = 10;
+
+    @Param({"5000"})
+    private int pages;
+
+    private ModuleContainer container;
+    private String lastPagePath;
+    private String lastPagePrettyPath;
+    private String lastGroupPath;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        container = new ModuleContainer();
+        int pagesPerGroup = pages / (MODULES * GROUPS);
+        Page last = null;
+        for (int m = 0; m < MODULES; m++) {
+            Module module = new Module("module" + m, "Module " + m);
+            for (int g = 0; g < GROUPS; g++) {
+                PageGroup group = new PageGroup("group" + g, "Group " + g);
+                for (int p = 0; p < pagesPerGroup; p++) {
+                    last = new Page("page" + p, "Page " + m + " " + g + " " + p, "/pages/page.zul");
+                    group.addPage(last);
+                }
+                module.addPageGroup(group);
+            }
+            container.installModule(module);
+        }
+        lastPagePath = last.getVirtualPath();
+        lastPagePrettyPath = last.getPrettyVirtualPath();
+        lastGroupPath = last.getPageGroup().getVirtualPath();
+    }
+
+    @Benchmark
+    public Page findPageIndexed() {
+        return container.findPage(lastPagePath);
+    }
+
+    @Benchmark
+    public Page findPageScan() {
+        for (Module module : container.getModules()) {
+            Page page = module.findPage(lastPagePath);
+            if (page != null) {
+                return page;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Page findPageByPrettyVirtualPathIndexed() {
+        return container.findPageByPrettyVirtualPath(lastPagePrettyPath);
+    }
+
+    @Benchmark
+    public Page findPageByPrettyVirtualPathScan() {
+        for (Module module : container.getModules()) {
+            Page page = module.findPageByPrettyPath(lastPagePrettyPath);
+            if (page != null) {
+                return page;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public NavigationElement findElement() {
+        return container.findElement(lastGroupPath);
+    }
+
+    @Benchmark
+    public List<Page> findPagesByName() {
+        return container.findPagesByName("page 19 9");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ModuleContainerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -18,7 +18,12 @@ package tools.dynamia.navigation;
 
 import org.junit.Test;
 
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
 
 /**
  * @author Mario A. Serrano Leones
@@ -49,6 +54,49 @@ public class ModuleInstallerTest {
         assertEquals("cfg1", config1.getId());
     }
 
+    @Test
+    public void shouldFindElementsByPath() {
+        ModuleContainer container = new ModuleContainer();
+        container.installModule(createModule1());
+        container.installModule(createModule3());
+
+        Module module = container.getModuleById("MOD");
+        PageGroup group = module.getPageGroupById("grp1");
+
+        assertSame(module, container.findElement("mod"));
+        assertSame(group, container.findElement("mod/grp1"));
+        assertSame(group.getPageGroupById("config"), container.findElement("mod/grp1/config"));
+        assertSame(container.findPage("mod/grp1/config/cfg2"), container.findElement("mod/grp1/config/cfg2"));
+        assertNull(container.findElement("mod/grp1/none"));
+        assertNull(container.findElement("other/grp1"));
+        assertThrows(PageNotFoundException.class, () -> container.findPage("mod/grp1"));
+    }
+
+    @Test
+    public void shouldFindPagesByPrettyPathAndName() {
+        ModuleContainer container = new ModuleContainer();
+        container.installModule(createModule1());
+        container.installModule(createModule3());
+
+        assertEquals("page2", container.findPageByPrettyVirtualPath("module/grupo/page2").getId());
+        assertEquals("cfg1", container.findPageByPrettyVirtualPath("module/grupo/config/config1").getId());
+
+        List<Page> configPages = container.findPagesByName("CONFIG");
+        assertEquals(2, configPages.size());
+        assertEquals(4, container.findPagesByName("g").size());
+        assertEquals(0, container.findPagesByName("").size());
+    }
+
+    @Test
+    public void shouldIndexPagesOfModulesInstalledLater() {
+        ModuleContainer container = new ModuleContainer();
+        container.installModule(createModule1());
+        assertThrows(PageNotFoundException.class, () -> container.findPage("mod/grp1/page3"));
+
+        container.installModule(createModule2());
+        assertEquals("page3", container.findPage("mod/grp1/page3").getId());
+        assertEquals("page3", container.findPageByPrettyVirtualPath("module/grupo/page3").getId());
+    }
 
     @Test
     public void shouldGenerateVirtualPath() {
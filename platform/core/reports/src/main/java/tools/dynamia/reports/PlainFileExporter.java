@@ -30,7 +30,9 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class PlainFileExporter<T> {
 
@@ -86,13 +88,30 @@ public class PlainFileExporter<T> {
 	}
 
 	public void export(File outputFile, Collection<T> data, ProgressMonitor monitor) {
+		export(outputFile, data.iterator(), data.size(), monitor);
+	}
+
+	/**
+	 * Export rows while they are read from the stream, so only current row is kept in memory. The stream is not
+	 * closed by this method.
+	 *
+	 * @param outputFile the output file
+	 * @param data       the rows stream
+	 * @param total      expected rows used as progress max, zero or less if unknown
+	 * @param monitor    the progress monitor, can be null
+	 */
+	public void export(File outputFile, Stream<T> data, long total, ProgressMonitor monitor) {
+		export(outputFile, data.iterator(), total, monitor);
+	}
+
+	private void export(File outputFile, Iterator<T> data, long total, ProgressMonitor monitor) {
 
 		int line = 0;
 		try (BufferedWriter writer = new BufferedWriter(
 				new OutputStreamWriter(new FileOutputStream(outputFile), encoding))) {
 
-			if (monitor != null) {
-				monitor.setMax(data.size());
+			if (monitor != null && total > 0) {
+				monitor.setMax(total);
 			}
 
 			for (ExporterColumn<T> column : columns) {
@@ -101,7 +120,8 @@ public class PlainFileExporter<T> {
 
 			writer.append(lineSeparator);
 
-			for (T bean : data) {
+			while (data.hasNext()) {
+				T bean = data.next();
 				if (matcher == null || matcher.match(bean)) {
 					for (ExporterColumn<T> col : columns) {
 						Object value = " ";
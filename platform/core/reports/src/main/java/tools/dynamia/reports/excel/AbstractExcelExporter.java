@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * @author Mario A. Serrano Leones
@@ -85,14 +86,22 @@ public abstract class AbstractExcelExporter<T, DATA> extends AbstractLoggable {
     }
 
     public void export(File file, DATA data, ProgressMonitor monitor) {
+        writeFile(file, writer -> writeRows(writer, data, monitor));
+    }
+
+    /**
+     * Write a complete file, columns titles first and then the rows written by rowsWriter
+     */
+    protected void writeFile(File file, Consumer<ExcelFileWriter> rowsWriter) {
+        ExcelFileWriter writer = new ExcelFileWriter(file);
         try {
-            ExcelFileWriter writer = new ExcelFileWriter(file);
             writeColumns(writer);
-            writeRows(writer, data, monitor);
+            rowsWriter.accept(writer);
             writer.write();
-            writer.close();
         } catch (IOException ex) {
             throw new ExcelExporterException("Error exporting excel file: " + file, ex);
+        } finally {
+            writer.close();
         }
     }
 
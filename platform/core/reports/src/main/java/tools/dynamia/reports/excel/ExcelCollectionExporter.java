@@ -25,8 +25,11 @@ import tools.dynamia.reports.EnumValueType;
 import tools.dynamia.reports.ExporterColumn;
 import tools.dynamia.reports.ExporterUtils;
 
+import java.io.File;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * @author Mario A. Serrano Leones
@@ -37,15 +40,33 @@ public class ExcelCollectionExporter<T> extends AbstractExcelExporter<T, Collect
     private String trueValue = "true";
     private String falseValue = "false";
 
+    /**
+     * Export rows while they are read from the stream, so only current row is kept in memory. The stream is not
+     * closed by this method.
+     *
+     * @param file    the output file
+     * @param data    the rows stream
+     * @param total   expected rows used as progress max, zero or less if unknown
+     * @param monitor the progress monitor, can be null
+     */
+    public void export(File file, Stream<T> data, long total, ProgressMonitor monitor) {
+        writeFile(file, writer -> writeRows(writer, data.iterator(), total, monitor));
+    }
+
     @Override
     protected void writeRows(ExcelFileWriter writer, Collection<T> data, ProgressMonitor monitor) {
+        writeRows(writer, data.iterator(), data.size(), monitor);
+    }
+
+    protected void writeRows(ExcelFileWriter writer, Iterator<T> data, long total, ProgressMonitor monitor) {
         int row = 0;
 
-        if (monitor != null) {
-            monitor.setMax(data.size());
+        if (monitor != null && total > 0) {
+            monitor.setMax(total);
         }
 
-        for (T object : data) {
+        while (data.hasNext()) {
+            T object = data.next();
             writer.newRow();
             for (ExporterColumn<T> col : getColumns()) {
                 Object value = "";
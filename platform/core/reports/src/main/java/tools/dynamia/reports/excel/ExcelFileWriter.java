@@ -16,6 +16,7 @@
  */
 package tools.dynamia.reports.excel;
 
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
@@ -43,6 +44,7 @@ import java.util.Map;
 public class ExcelFileWriter {
 
     private static final LoggingService LOGGER = new SLF4JLoggingService(ExcelFileWriter.class);
+    private static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
 
     private final File file;
     private Workbook workbook;
@@ -95,6 +97,11 @@ public class ExcelFileWriter {
     }
 
     public ExcelFileWriter newRow() {
+        if (lastRowNum >= MAX_ROWS) {
+            // xlsx sheets are limited, continue large exports in a new sheet
+            sheet = workbook.createSheet();
+            lastRowNum = 0;
+        }
         lastRow = sheet.createRow(lastRowNum);
         lastColNum = 0;
         lastRowNum++;
@@ -159,6 +166,10 @@ public class ExcelFileWriter {
 
     public void close() {
         try {
+            if (workbook instanceof SXSSFWorkbook streamingWorkbook) {
+                // delete temporary sheet files
+                streamingWorkbook.dispose();
+            }
             workbook.close();
         } catch (IOException e) {
             throw new ExcelExporterException("Error closing excel file", e);
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.reports;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import tools.dynamia.integration.ProgressMonitor;
+import tools.dynamia.reports.excel.ExcelCollectionExporter;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+
+public class StreamExportTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldExportPlainFileFromStream() throws Exception {
+        PlainFileExporter<Row> exporter = new PlainFileExporter<>();
+        exporter.setSeparator(",");
+        exporter.addColumn("name", "Name");
+        exporter.addColumn("value", "Value");
+
+        File file = folder.newFile("rows.csv");
+        ProgressMonitor monitor = new ProgressMonitor();
+        exporter.export(file, rows(3), 3, monitor);
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertEquals(4, lines.size());
+        assertEquals("Name,Value,", lines.get(0));
+        assertEquals("row2,2,", lines.get(3));
+        assertEquals(3, monitor.getMax());
+        assertEquals(3, monitor.getCurrent());
+    }
+
+    @Test
+    public void shouldExportExcelFromStream() throws Exception {
+        ExcelCollectionExporter<Row> exporter = new ExcelCollectionExporter<>();
+        exporter.addColumn("name", "Name");
+        exporter.addColumn("value", "Value");
+
+        File file = folder.newFile("rows.xlsx");
+        exporter.export(file, rows(100), 0, null);
+
+        try (Workbook workbook = WorkbookFactory.create(file)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertEquals(100, sheet.getLastRowNum());
+            assertEquals("row99", sheet.getRow(100).getCell(0).getStringCellValue());
+        }
+    }
+
+    private static Stream<Row> rows(int count) {
+        return IntStream.range(0, count).mapToObj(i -> new Row("row" + i, i));
+    }
+
+    public static class Row {
+        private final String name;
+        private final int value;
+
+        public Row(String name, int value) {
+            this.name = name;
+            this.value = value;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getValue() {
+            return value;
+        }
+    }
+}
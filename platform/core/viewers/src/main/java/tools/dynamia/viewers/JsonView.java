@@ -23,9 +23,31 @@ import tools.jackson.databind.SerializationFeature;
 import tools.jackson.databind.json.JsonMapper;
 import tools.jackson.databind.module.SimpleModule;
 
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * View that renders and parses JSON using a {@link ViewDescriptor}. Mappers are built once per view descriptor
+ * and shared by all views of that descriptor, so serializer caches stay warm across requests. Output is compact
+ * by default, use {@link #renderJson(boolean)} for pretty output.
+ */
 @SuppressWarnings("unchecked")
 public class JsonView<T> implements View<T> {
 
+    private static final int MAX_CACHED_MAPPERS = 256;
+
+    /**
+     * Shared mappers by view descriptor identity. Bounded because descriptors can be created on the fly
+     */
+    private static final Map<ViewDescriptor, JsonMapper> MAPPERS = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ViewDescriptor, JsonMapper> eldest) {
+            return size() > MAX_CACHED_MAPPERS;
+        }
+    });
+
 
     private T value;
     private View parentView;
@@ -77,15 +99,41 @@ public class JsonView<T> implements View<T> {
     }
 
     public String renderJson() {
+        return renderJson(false);
+    }
 
+    /**
+     * Render value as JSON, indented if pretty is true
+     */
+    public String renderJson(boolean pretty) {
         try {
             var mapper = getJsonMapper();
+            if (pretty) {
+                return mapper.writer().with(SerializationFeature.INDENT_OUTPUT).writeValueAsString(value);
+            }
             return mapper.writeValueAsString(value);
         } catch (JacksonException e) {
             throw new ViewRendererException("Exception rendering json view of " + value + " with descriptor " + viewDescriptor, e);
         }
     }
 
+    /**
+     * Write value as JSON directly to the output stream, without building the whole payload in memory first.
+     * Useful for large lists sent to HTTP responses
+     */
+    public void renderJson(OutputStream out, boolean pretty) {
+        try {
+            var mapper = getJsonMapper();
+            if (pretty) {
+                mapper.writer().with(SerializationFeature.INDENT_OUTPUT).writeValue(out, value);
+            } else {
+                mapper.writeValue(out, value);
+            }
+        } catch (JacksonException e) {
+            throw new ViewRendererException("Exception rendering json view of " + value + " with descriptor " + viewDescriptor, e);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public void parse(String json) {
         if (viewDescriptor.getBeanClass() == null) {
@@ -102,18 +150,26 @@ public class JsonView<T> implements View<T> {
 
     private JsonMapper getJsonMapper() {
         if (mapper == null) {
-            SimpleModule module = new SimpleModule();
-            module.addSerializer(viewDescriptor.getBeanClass(), new JsonViewDescriptorSerializer(viewDescriptor));
-            module.addDeserializer((Class) viewDescriptor.getBeanClass(), new JsonViewDescriptorDeserializer(viewDescriptor));
+            mapper = MAPPERS.computeIfAbsent(viewDescriptor, JsonView::createJsonMapper);
+        }
+        return mapper;
+    }
 
-            mapper = JsonMapper.builder()
-                    .enable(SerializationFeature.INDENT_OUTPUT)
-                    .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
-                    .addModule(module)
-                    .build();
+    private static JsonMapper createJsonMapper(ViewDescriptor viewDescriptor) {
+        SimpleModule module = new SimpleModule();
+        module.addSerializer(viewDescriptor.getBeanClass(), new JsonViewDescriptorSerializer(viewDescriptor));
+        module.addDeserializer((Class) viewDescriptor.getBeanClass(), new JsonViewDescriptorDeserializer(viewDescriptor));
 
+        return JsonMapper.builder()
+                .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                .addModule(module)
+                .build();
+    }
 
-        }
-        return mapper;
+    /**
+     * Remove the shared mapper of view descriptor, call it when descriptor fields change
+     */
+    public static void evictJsonMapper(ViewDescriptor viewDescriptor) {
+        MAPPERS.remove(viewDescriptor);
     }
 }
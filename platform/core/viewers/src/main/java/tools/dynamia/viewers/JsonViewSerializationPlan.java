@@ -0,0 +1,538 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.viewers;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import tools.dynamia.commons.BeanMap;
+import tools.dynamia.commons.DateTimeUtils;
+import tools.dynamia.commons.Formatters;
+import tools.dynamia.commons.ObjectOperations;
+import tools.dynamia.commons.URLable;
+import tools.dynamia.commons.logger.LoggingService;
+import tools.dynamia.commons.logger.SLF4JLoggingService;
+import tools.dynamia.commons.reflect.ClassReflectionInfo;
+import tools.dynamia.commons.reflect.PropertyHandle;
+import tools.dynamia.commons.reflect.PropertyInfo;
+import tools.dynamia.domain.EntityReference;
+import tools.dynamia.domain.EntityReferenceRepository;
+import tools.dynamia.domain.Reference;
+import tools.dynamia.domain.util.DomainUtils;
+import tools.dynamia.viewers.util.Viewers;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.util.StdDateFormat;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compiled JSON serialization plan of a {@link ViewDescriptor}, used by {@link JsonViewDescriptorSerializer}.
+ * Field order, dot-path groups, property accessors, date formats and reference handling are resolved once per
+ * descriptor, so serializing an entity only reads its values and writes them to the generator.
+ * <p>
+ * Plans are cached by descriptor instance and dropped by {@link #clearCache()} when descriptors are reloaded.
+ */
+final class JsonViewSerializationPlan {
+
+    private static final LoggingService LOGGER = new SLF4JLoggingService(JsonViewSerializationPlan.class);
+
+    private static final ThreadLocal<DateFormat> FULL_DATE_FORMAT = ThreadLocal.withInitial(StdDateFormat::new);
+    private static final ThreadLocal<DateFormat> DATE_FORMAT = ThreadLocal.withInitial(() -> new SimpleDateFormat("yyyy-MM-dd"));
+    private static final ThreadLocal<DateFormat> TIME_FORMAT = ThreadLocal.withInitial(() -> new SimpleDateFormat("HH:mm:ss"));
+    private static final ThreadLocal<DateFormat> BASIC_DATE_FORMAT = ThreadLocal.withInitial(() -> new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss"));
+    private static final Leaf ENTITY_ID = new Leaf("id", null);
+
+    private static final int MAX_CACHED_PLANS = 256;
+    private static final Map<ViewDescriptor, JsonViewSerializationPlan> PLANS = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ViewDescriptor, JsonViewSerializationPlan> eldest) {
+            return size() > MAX_CACHED_PLANS;
+        }
+    });
+    private static final Map<Class<?>, ViewDescriptor> DESCRIPTORS = new ConcurrentHashMap<>();
+    private static final AtomicInteger GENERATION = new AtomicInteger();
+
+    private final ViewDescriptor viewDescriptor;
+    private final int generation;
+    private final Leaf idLeaf;
+    private final Leaf nameLeaf;
+    private final Node[] nodes;
+
+    private JsonViewSerializationPlan(ViewDescriptor viewDescriptor) {
+        this.viewDescriptor = viewDescriptor;
+        this.generation = GENERATION.get();
+        this.idLeaf = new Leaf("id", viewDescriptor.getField("id"));
+        this.nameLeaf = new Leaf("name", viewDescriptor.getField("name"));
+        this.nodes = compile();
+    }
+
+    /**
+     * Return the plan of view descriptor, compiling it the first time
+     */
+    static JsonViewSerializationPlan of(ViewDescriptor viewDescriptor) {
+        JsonViewSerializationPlan plan = PLANS.computeIfAbsent(viewDescriptor, JsonViewSerializationPlan::new);
+        if (plan.isStale()) {
+            plan = new JsonViewSerializationPlan(viewDescriptor);
+            PLANS.put(viewDescriptor, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Drop all compiled plans and the class to descriptor lookups. Plans already referenced by serializers are
+     * recompiled on next use
+     */
+    static void clearCache() {
+        GENERATION.incrementAndGet();
+        PLANS.clear();
+        DESCRIPTORS.clear();
+    }
+
+    boolean isStale() {
+        return generation != GENERATION.get();
+    }
+
+    ViewDescriptor getViewDescriptor() {
+        return viewDescriptor;
+    }
+
+    private Node[] compile() {
+        // Group fields by their root prefix (part before the first dot).
+        // Fields without a dot are stored under their own name as key.
+        Map<String, List<Field>> groups = new LinkedHashMap<>();
+        for (Field field : Viewers.getFields(viewDescriptor)) {
+            String name = field.getName();
+            String root = name.contains(".") ? name.substring(0, name.indexOf('.')) : name;
+            groups.computeIfAbsent(root, k -> new ArrayList<>()).add(field);
+        }
+
+        List<Node> compiled = new ArrayList<>(groups.size());
+        for (Map.Entry<String, List<Field>> entry : groups.entrySet()) {
+            List<Field> groupFields = entry.getValue();
+            boolean isPathGroup = groupFields.size() > 1 || groupFields.get(0).getName().contains(".");
+
+            if (isPathGroup) {
+                List<PathField> pathFields = groupFields.stream().map(f -> new PathField(f, f.getName())).toList();
+                compiled.add(compilePathGroup(entry.getKey(), pathFields));
+            } else {
+                Field field = groupFields.get(0);
+                PropertyInfo fieldInfo = field.getPropertyInfo();
+                if (field.isCollection() && fieldInfo != null) {
+                    compiled.add(new CollectionNode(field, fieldInfo));
+                } else if (isSerializable(field, fieldInfo)) {
+                    Reference reference = fieldInfo != null ? fieldInfo.getAnnotation(Reference.class) : null;
+                    compiled.add(new SimpleNode(field, reference));
+                }
+            }
+        }
+        return compiled.toArray(new Node[0]);
+    }
+
+    /**
+     * Compile a group of dot-path fields written as a nested JSON object, recursively. Values are always read
+     * using the full field path from the root bean
+     */
+    private PathGroupNode compilePathGroup(String rootName, List<PathField> fields) {
+        // Split fields into: leaf fields (no more dots after stripping rootName)
+        // and sub-groups (need another nesting level).
+        Map<String, List<PathField>> subGroups = new LinkedHashMap<>();
+        List<Leaf> leaves = new ArrayList<>();
+        List<Accessor> accessors = new ArrayList<>();
+
+        for (PathField pathField : fields) {
+            Field field = pathField.field();
+            if (!field.isVisible()) {
+                continue;
+            }
+            String name = pathField.name();
+            String remainder = name.contains(".") ? name.substring(name.indexOf('.') + 1) : name;
+            if (remainder.contains(".")) {
+                String nextRoot = remainder.substring(0, remainder.indexOf('.'));
+                subGroups.computeIfAbsent(nextRoot, k -> new ArrayList<>()).add(new PathField(field, remainder));
+            } else {
+                String fullName = field.getName();
+                String subName = fullName.contains(".") ? fullName.substring(fullName.lastIndexOf('.') + 1) : fullName;
+                leaves.add(new Leaf(subName, field));
+                accessors.add(new Accessor(fullName));
+            }
+        }
+
+        PathGroupNode[] subNodes = subGroups.entrySet().stream()
+                .map(e -> compilePathGroup(e.getKey(), e.getValue()))
+                .toArray(PathGroupNode[]::new);
+
+        return new PathGroupNode(rootName, leaves.toArray(new Leaf[0]), accessors.toArray(new Accessor[0]), subNodes);
+    }
+
+    private static boolean isSerializable(Field field, PropertyInfo fieldInfo) {
+        if (!field.isVisible()) {
+            return false;
+        }
+
+        if (fieldInfo != null) {
+            if (fieldInfo.isAnnotationPresent(JsonIgnore.class)) {
+                return false;
+            }
+
+            return !fieldInfo.isTransient();
+        }
+
+        return true;
+    }
+
+    /**
+     * Write the bean as a JSON object
+     */
+    void write(Object value, JsonGenerator gen) {
+        gen.writeStartObject();
+        Object id = DomainUtils.findEntityId(value);
+        if (id != null) {
+            idLeaf.write(gen, id);
+        }
+
+        for (Node node : nodes) {
+            node.write(value, gen);
+        }
+
+        gen.writeEndObject();
+    }
+
+    private static JsonViewSerializationPlan planOf(Class<?> clazz) {
+        ViewDescriptor descriptor = DESCRIPTORS.computeIfAbsent(clazz, type -> {
+            ViewDescriptor found = Viewers.findViewDescriptor(type, "json");
+            if (found == null) {
+                found = Viewers.findViewDescriptor(type, "tree");
+            }
+            if (found == null) {
+                found = Viewers.getViewDescriptor(type, "table");
+            }
+            return found;
+        });
+        return descriptor != null ? of(descriptor) : null;
+    }
+
+    private record PathField(Field field, String name) {
+    }
+
+    private interface Node {
+        void write(Object bean, JsonGenerator gen);
+    }
+
+    /**
+     * Reads a property path, reusing the compiled handle of the last bean class seen
+     */
+    private static final class Accessor {
+        private final String path;
+        private volatile PropertyHandle handle;
+
+        Accessor(String path) {
+            this.path = path;
+        }
+
+        Object get(Object bean) {
+            if (bean == null || bean instanceof BeanMap) {
+                return bean != null ? ObjectOperations.invokeGetMethod(bean, path) : null;
+            }
+
+            PropertyHandle current = handle;
+            if (current == null || current.getBeanClass() != bean.getClass()) {
+                current = ClassReflectionInfo.getAccessor(bean.getClass(), path);
+                handle = current;
+            }
+            if (!current.isReadable()) {
+                return ObjectOperations.invokeGetMethod(bean, path);
+            }
+
+            try {
+                return current.get(bean);
+            } catch (Exception e) {
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Error getting property " + path + " from " + bean.getClass() + ": " + e.getMessage());
+                }
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Writes a named value, with the date format and entity handling of its field resolved once
+     */
+    private static final class Leaf {
+        private final String name;
+        private final String format;
+        private final ThreadLocal<DateFormat> dateFormat;
+        private final boolean includeEntity;
+        private final Class<?> entityClass;
+        private volatile JsonViewSerializationPlan entityPlan;
+
+        Leaf(String name, Field field) {
+            this.name = name;
+            Object fieldFormat = field != null ? field.getParams().get("format") : null;
+            this.format = fieldFormat != null ? fieldFormat.toString() : null;
+            this.includeEntity = field != null && field.getParams().get("include") == Boolean.TRUE;
+            this.entityClass = field != null ? field.getFieldClass() : null;
+
+            String dateFormatName = "basic";
+            if (format != null) {
+                dateFormatName = format;
+            } else if ("creationDate".equals(name) || "lastUpdate".equals(name)) {
+                dateFormatName = "date";
+            } else if ("creationTime".equals(name)) {
+                dateFormatName = "time";
+            }
+            this.dateFormat = switch (dateFormatName) {
+                case "ISO8601" -> FULL_DATE_FORMAT;
+                case "date" -> DATE_FORMAT;
+                case "time" -> TIME_FORMAT;
+                default -> BASIC_DATE_FORMAT;
+            };
+        }
+
+        void write(JsonGenerator gen, Object fieldValue) {
+            switch (fieldValue) {
+                case null -> {
+                }
+                case Integer number -> gen.writeNumberProperty(name, number);
+                case Long number -> gen.writeNumberProperty(name, number);
+                case Double number -> gen.writeNumberProperty(name, number);
+                case Float number -> gen.writeNumberProperty(name, number);
+                case BigDecimal number -> gen.writeNumberProperty(name, number);
+                case String text -> gen.writeStringProperty(name, text);
+                case Date date -> gen.writeStringProperty(name, dateFormat.get().format(date));
+                case TemporalAccessor temporal -> writeTemporal(gen, temporal);
+                case Boolean bool -> gen.writeBooleanProperty(name, bool);
+                default -> {
+                    if (DomainUtils.isEntity(fieldValue)) {
+                        writeEntity(gen, fieldValue);
+                    } else {
+                        gen.writePOJOProperty(name, fieldValue);
+                    }
+                }
+            }
+        }
+
+        private void writeTemporal(JsonGenerator gen, TemporalAccessor value) {
+            String valueStr;
+            if (format != null && !format.isEmpty()) {
+                valueStr = DateTimeUtils.getFormatter(format).format(value);
+            } else {
+                valueStr = switch (value) {
+                    case java.time.LocalDateTime localDateTime -> Formatters.formatDateTime(localDateTime);
+                    case java.time.LocalDate localDate -> Formatters.formatDate(localDate);
+                    case java.time.LocalTime localTime -> Formatters.formatTime(localTime);
+                    case java.time.ZonedDateTime zonedDateTime -> Formatters.formatZonedDateTime(zonedDateTime);
+                    case java.time.OffsetDateTime offsetDateTime -> Formatters.formatOffsetDateTime(offsetDateTime);
+                    case java.time.Instant instant -> Formatters.formatInstant(instant);
+                    default -> value.toString();
+                };
+            }
+
+            gen.writeStringProperty(name, valueStr);
+        }
+
+        private void writeEntity(JsonGenerator gen, Object entity) {
+            JsonViewSerializationPlan plan = includeEntity ? getEntityPlan() : null;
+            if (plan != null) {
+                gen.writeName(name);
+                plan.write(entity, gen);
+            } else {
+                gen.writeObjectPropertyStart(name);
+                Object id = DomainUtils.findEntityId(entity);
+                if (id != null) {
+                    ENTITY_ID.write(gen, id);
+                }
+                gen.writeStringProperty("name", entity.toString());
+                if (entity instanceof URLable urlable) {
+                    gen.writeStringProperty("url", urlable.toURL());
+                }
+                gen.writeEndObject();
+            }
+        }
+
+        private JsonViewSerializationPlan getEntityPlan() {
+            JsonViewSerializationPlan plan = entityPlan;
+            if (plan == null || plan.isStale()) {
+                plan = planOf(entityClass);
+                entityPlan = plan;
+            }
+            return plan;
+        }
+    }
+
+    /**
+     * Plain property, or a {@link Reference} property written as {@code {id, name}}
+     */
+    private final class SimpleNode implements Node {
+        private final Accessor accessor;
+        private final Leaf leaf;
+        private final Reference reference;
+        private volatile EntityReferenceRepository<Serializable> repository;
+
+        SimpleNode(Field field, Reference reference) {
+            this.accessor = new Accessor(field.getName());
+            this.leaf = new Leaf(field.getName(), field);
+            this.reference = reference;
+        }
+
+        @Override
+        public void write(Object bean, JsonGenerator gen) {
+            Object fieldValue = accessor.get(bean);
+            if (reference != null) {
+                writeReference(gen, fieldValue);
+            } else {
+                leaf.write(gen, fieldValue);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void writeReference(JsonGenerator gen, Object fieldValue) {
+            EntityReferenceRepository<Serializable> repo = repository;
+            if (repo == null) {
+                repo = DomainUtils.getEntityReferenceRepositoryByAlias(reference.value());
+                repository = repo;
+            }
+
+            EntityReference<?> entityReference = repo != null ? repo.load((Serializable) fieldValue) : null;
+            if (entityReference != null) {
+                gen.writeObjectPropertyStart(leaf.name);
+                idLeaf.write(gen, entityReference.getId());
+                nameLeaf.write(gen, entityReference.getName());
+                gen.writeEndObject();
+            } else {
+                leaf.write(gen, fieldValue);
+            }
+        }
+    }
+
+    /**
+     * Collection property written as an array of objects using the element class descriptor
+     */
+    private final class CollectionNode implements Node {
+        private final Field field;
+        private final PropertyInfo fieldInfo;
+        private final Accessor accessor;
+        private final boolean entity;
+        private volatile String parentName;
+        private volatile JsonViewSerializationPlan elementPlan;
+
+        CollectionNode(Field field, PropertyInfo fieldInfo) {
+            this.field = field;
+            this.fieldInfo = fieldInfo;
+            this.accessor = new Accessor(field.getName());
+            this.entity = field.isEntity();
+        }
+
+        @Override
+        public void write(Object bean, JsonGenerator gen) {
+            Collection<?> collection = null;
+            try {
+                collection = (Collection<?>) accessor.get(bean);
+                // trigger lazy-loading check: if it throws, we fall back below
+                int size = collection.size();
+                if (size == 0) return;
+            } catch (Throwable e) {
+                if (entity) {
+                    String parent = getParentName();
+                    if (parent != null) {
+                        collection = DomainUtils.lookupCrudService().find(fieldInfo.getGenericType(), parent, bean);
+                    }
+                } else {
+                    collection = null;
+                    LOGGER.warn("Cannot serialize collection " + field.getName() + " of class " + viewDescriptor.getBeanClass() + ": " + e.getMessage());
+                }
+            }
+
+            if (collection != null && !collection.isEmpty()) {
+                gen.writeArrayPropertyStart(field.getName());
+                JsonViewSerializationPlan plan = getElementPlan();
+                if (plan != null) {
+                    for (Object item : collection) {
+                        plan.write(item, gen);
+                    }
+                }
+                gen.writeEndArray();
+            }
+        }
+
+        private String getParentName() {
+            String parent = parentName;
+            if (parent == null) {
+                parent = ObjectOperations.findParentPropertyName(viewDescriptor.getBeanClass(), fieldInfo.getGenericType());
+                parentName = parent;
+            }
+            return parent;
+        }
+
+        private JsonViewSerializationPlan getElementPlan() {
+            JsonViewSerializationPlan plan = elementPlan;
+            if (plan == null || plan.isStale()) {
+                plan = planOf(fieldInfo.getGenericType());
+                elementPlan = plan;
+            }
+            return plan;
+        }
+    }
+
+    /**
+     * Dot-path fields written as a nested object, e.g. {@code category.id, category.type.name} are written as
+     * {@code "category": {"id": 1, "type": {"name": "..."}}}. The object is omitted when it has no leaf values
+     * and no nested groups
+     */
+    private record PathGroupNode(String name, Leaf[] leaves, Accessor[] accessors,
+                                 PathGroupNode[] subGroups) implements Node {
+
+        @Override
+        public void write(Object bean, JsonGenerator gen) {
+            Object[] values = new Object[leaves.length];
+            boolean hasLeafValues = false;
+            for (int i = 0; i < leaves.length; i++) {
+                values[i] = accessors[i].get(bean);
+                hasLeafValues |= values[i] != null;
+            }
+
+            if (!hasLeafValues && subGroups.length == 0) {
+                return;
+            }
+
+            gen.writeObjectPropertyStart(name);
+            for (int i = 0; i < leaves.length; i++) {
+                if (values[i] != null) {
+                    try {
+                        leaves[i].write(gen, values[i]);
+                    } catch (Exception e) {
+                        LOGGER.warn("Cannot write path field " + accessors[i].path + " to json: " + e.getMessage());
+                    }
+                }
+            }
+            for (PathGroupNode subGroup : subGroups) {
+                subGroup.write(bean, gen);
+            }
+            gen.writeEndObject();
+        }
+    }
+}
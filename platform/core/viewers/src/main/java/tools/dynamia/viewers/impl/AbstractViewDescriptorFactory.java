@@ -16,26 +16,38 @@
  */
 package tools.dynamia.viewers.impl;
 
-import tools.dynamia.commons.SimpleCache;
 import tools.dynamia.commons.logger.LoggingService;
 import tools.dynamia.commons.logger.SLF4JLoggingService;
 import tools.dynamia.integration.Containers;
 import tools.dynamia.io.IOUtils;
 import tools.dynamia.io.Resource;
+import tools.dynamia.viewers.JsonView;
+import tools.dynamia.viewers.JsonViewDescriptorSerializer;
 import tools.dynamia.viewers.MergeableViewDescriptor;
 import tools.dynamia.viewers.ViewDescriptor;
 import tools.dynamia.viewers.ViewDescriptorFactory;
 import tools.dynamia.viewers.ViewDescriptorNotFoundException;
 import tools.dynamia.viewers.ViewDescriptorReader;
 import tools.dynamia.viewers.ViewDescriptorReaderCustomizer;
+import tools.dynamia.viewers.ViewDescriptorReaderException;
 import tools.dynamia.viewers.ViewDescriptorsProvider;
 import tools.dynamia.viewers.util.ViewDescriptorInterceptorUtils;
 import tools.dynamia.viewers.util.ViewDescriptorReaderUtils;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * A factory for creating AbstractViewDescriptor objects.
@@ -48,36 +60,44 @@ public abstract class AbstractViewDescriptorFactory implements ViewDescriptorFac
     private static final String DEFAULT_DEVICE = "screen";
 
     /**
-     * The Constant FULLYLOADED.
+     * The logger.
      */
-    private final static String FULLYLOADED = "FullyLoaded";
+    private final LoggingService logger = new SLF4JLoggingService(getClass());
 
     /**
-     * The logger.
+     * Published view descriptors. Lookups read the current snapshot without locking, changes build and publish a new one
      */
-    private final LoggingService logger = new SLF4JLoggingService(getClass());
+    private volatile Registry registry = Registry.EMPTY;
+
+    /**
+     * Guards registry changes and descriptors loading
+     */
+    private final Object registryLock = new Object();
 
     /**
-     * View Descriptors Cache
+     * Descriptors added while loading, published all together when loading finish
      */
-    // devices = [type = [class = descriptor]]
-    private final SimpleCache<String, SimpleCache<String, SimpleCache<Class, ViewDescriptor>>> descriptors = new SimpleCache<>();
+    private List<ViewDescriptor> pending;
 
     /**
-     * The last changes.
+     * Descriptors already merged with the descriptor they extend. Guarded by registryLock
      */
-    private final SimpleCache<ViewDescriptor, ViewDescriptorMetainfo> lastChanges = new SimpleCache<>();
+    private final Set<ViewDescriptor> mergedDescriptors = Collections.newSetFromMap(new IdentityHashMap<>());
 
     /**
-     * The all descriptors.
+     * Descriptor files in the file system and the descriptor read from each one
      */
-    private final Set<ViewDescriptor> allDescriptors = new HashSet<>();
+    private final Map<Path, ViewDescriptorMetainfo> watchedFiles = new ConcurrentHashMap<>();
+
+    private ViewDescriptorFileWatcher watcher;
 
     /**
      * The descriptors location.
      */
     private String descriptorsLocation = "classpath*:META-INF/descriptors/**/*.*";
 
+    private String descriptorsIndexLocation = "classpath*:" + ViewDescriptorIndex.INDEX_FILE;
+
     /**
      * The autoreload mode.
      */
@@ -85,9 +105,7 @@ public abstract class AbstractViewDescriptorFactory implements ViewDescriptorFac
 
     @Override
     public ViewDescriptor getDescriptor(Class beanClass, String device, String viewType) {
-        if (allDescriptors.isEmpty()) {
-            loadViewDescriptors();
-        }
+        ensureLoaded();
 
         logger.debug("Getting view descriptor for " + beanClass + "  type:" + viewType);
 
@@ -102,13 +120,6 @@ public abstract class AbstractViewDescriptorFactory implements ViewDescriptorFac
             logger.warn("NO view descriptor found for " + beanClass + ":" + viewType + ":" + device
                     + " using default view descriptor");
             viewDescriptor = getDefaultViewDescriptor(beanClass, viewType);
-        } else if (isAutoreloadMode()) {
-            ViewDescriptorMetainfo metainfo = lastChanges.get(viewDescriptor);
-            ViewDescriptor reloaded = reloadViewDescriptor(viewDescriptor, metainfo);
-            if (reloaded != null) {
-                addViewDescriptor(reloaded);
-                viewDescriptor = reloaded;
-            }
         }
         viewDescriptor = fullyLoad(viewDescriptor, beanClass, viewType);
         return viewDescriptor;
@@ -126,7 +137,9 @@ public abstract class AbstractViewDescriptorFactory implements ViewDescriptorFac
     }
 
     /**
-     * Fully load.
+     * Fully load. Descriptors extending other descriptor by id are merged before publishing (see
+     * {@link #createRegistry(List)}), published descriptors are never changed here. Descriptors extending the
+     * parent class descriptor are merged in a new descriptor.
      *
      * @param viewDescriptor the view descriptor
      * @param beanClass      the bean class
@@ -134,20 +147,12 @@ public abstract class AbstractViewDescriptorFactory implements ViewDescriptorFac
      * @return the view descriptor
      */
     private ViewDescriptor fullyLoad(ViewDescriptor viewDescriptor, Class beanClass, String viewType) {
-        if (!isFullyLoaded(viewDescriptor)) {
-            String extendsValue = "";
-            if (viewDescriptor.getExtends() != null) {
-                extendsValue = viewDescriptor.getExtends();
-            }
-
-            if (extendsValue.equals("parent") && beanClass != null) {
-                viewDescriptor = findAndMergeWithParent(beanClass, viewType, viewDescriptor);
-            } else if (!extendsValue.isEmpty()) {
-                ViewDescriptor parent = getDescriptor(extendsValue);
-                merge(viewDescriptor, parent);
-            }
+        if (registry.unresolved.contains(viewDescriptor)) {
+            throw new ViewDescriptorNotFoundException("Cannot found view descriptor using id: " + viewDescriptor.getExtends());
+        }
 
-            setFullyLoaded(viewDescriptor, true);
+        if ("parent".equals(viewDescriptor.getExtends()) && beanClass != null) {
+            viewDescriptor = findAndMergeWithParent(beanClass, viewType, viewDescriptor);
         }
         return viewDescriptor;
     }
@@ -213,15 +218,9 @@ public abstract class AbstractViewDescriptorFactory implements ViewDescriptorFac
     public ViewDescriptor getDescriptor(String id, String preferredDevice) {
         final String device = preferredDevice != null ? preferredDevice : DEFAULT_DEVICE;
 
-        if (allDescriptors.isEmpty()) {
-            loadViewDescriptors();
-        }
+        ensureLoaded();
 
-        ViewDescriptor viewDescriptor = allDescriptors.stream()
-                .filter(vd -> vd.getId().equals(id))
-                .filter(vd -> vd.getDevice().equals(device))
-                .findFirst()
-                .orElse(null);
+        ViewDescriptor viewDescriptor = registry.findById(id, device);
 
         if (viewDescriptor == null) {
             if (device.equals(DEFAULT_DEVICE)) {
@@ -229,24 +228,6 @@ public abstract class AbstractViewDescriptorFactory implements ViewDescriptorFac
             } else {
                 return null;
             }
-        } else if (isAutoreloadMode()) {
-            ViewDescriptorMetainfo metainfo = lastChanges.get(viewDescriptor);
-            ViewDescriptor reloaded = reloadViewDescriptor(viewDescriptor, metainfo);
-            if (reloaded != null) {
-                if (viewDescriptor.getBeanClass() != null) {
-                    var devicesCache = descriptors.get(viewDescriptor.getDevice());
-                    if (devicesCache != null) {
-                        var viewTypeCache = devicesCache.get(viewDescriptor.getViewTypeName());
-                        if (viewTypeCache != null) {
-                            viewTypeCache.remove(viewDescriptor.getBeanClass());
-                        }
-                    }
-                }
-                allDescriptors.remove(viewDescriptor);
-
-                addViewDescriptor(reloaded);
-                viewDescriptor = reloaded;
-            }
         }
         viewDescriptor = fullyLoad(viewDescriptor, viewDescriptor.getBeanClass(), id);
 
@@ -270,23 +251,85 @@ public abstract class AbstractViewDescriptorFactory implements ViewDescriptorFac
      */
     public void addViewDescriptor(ViewDescriptor viewDescriptor) {
         if (viewDescriptor != null) {
-            if (viewDescriptor.getBeanClass() != null) {
-                var classDescriptorCache = descriptors.get(viewDescriptor.getDevice());
+            update(all -> all.add(viewDescriptor));
+        }
+    }
 
-                if (classDescriptorCache == null) {
-                    classDescriptorCache = new SimpleCache<>();
-                    descriptors.add(viewDescriptor.getDevice(), classDescriptorCache);
-                }
+    /**
+     * Apply changes to a copy of current descriptors and publish it. While loading, changes are collected and
+     * published when loading finish
+     */
+    private void update(Consumer<List<ViewDescriptor>> changes) {
+        synchronized (registryLock) {
+            if (pending != null) {
+                changes.accept(pending);
+            } else {
+                List<ViewDescriptor> all = new ArrayList<>(registry.all);
+                changes.accept(all);
+                registry = createRegistry(all);
+            }
+        }
+    }
 
-                var descriptorsByTypeCache = classDescriptorCache.get(viewDescriptor.getViewTypeName());
-                if (descriptorsByTypeCache == null) {
-                    descriptorsByTypeCache = new SimpleCache<>();
-                    classDescriptorCache.add(viewDescriptor.getViewTypeName(), descriptorsByTypeCache);
+    /**
+     * Run the loader collecting all added descriptors and publish them at once
+     */
+    private void batch(Runnable loader) {
+        synchronized (registryLock) {
+            boolean outer = pending == null;
+            if (outer) {
+                pending = new ArrayList<>(registry.all);
+            }
+            try {
+                loader.run();
+            } finally {
+                if (outer) {
+                    registry = createRegistry(pending);
+                    pending = null;
                 }
-                descriptorsByTypeCache.add(viewDescriptor.getBeanClass(), viewDescriptor);
             }
-            allDescriptors.add(viewDescriptor);
+        }
+    }
+
+    /**
+     * Create a registry snapshot merging new descriptors with the descriptors they extend, so descriptors are
+     * complete before other threads can see them. Descriptors whose parent is not found yet are tried again when
+     * the next snapshot is created.
+     */
+    private Registry createRegistry(List<ViewDescriptor> descriptors) {
+        Registry snapshot = new Registry(descriptors);
+        for (ViewDescriptor viewDescriptor : snapshot.all) {
+            mergeWithExtends(snapshot, viewDescriptor, Collections.newSetFromMap(new IdentityHashMap<>()));
+        }
+        return snapshot;
+    }
+
+    private boolean mergeWithExtends(Registry snapshot, ViewDescriptor viewDescriptor, Set<ViewDescriptor> visiting) {
+        String extendsValue = viewDescriptor.getExtends();
+        if (extendsValue == null || extendsValue.isEmpty() || extendsValue.equals("parent")
+                || mergedDescriptors.contains(viewDescriptor)) {
+            return true;
+        }
 
+        ViewDescriptor parent = snapshot.findById(extendsValue, DEFAULT_DEVICE);
+        if (parent == null || !visiting.add(viewDescriptor) || !mergeWithExtends(snapshot, parent, visiting)) {
+            snapshot.unresolved.add(viewDescriptor);
+            return false;
+        }
+
+        merge(viewDescriptor, parent);
+        mergedDescriptors.add(viewDescriptor);
+        return true;
+    }
+
+    private void ensureLoaded() {
+        if (registry.all.isEmpty()) {
+            synchronized (registryLock) {
+                // pending is not null when called from the loading thread
+                if (registry.all.isEmpty() && pending == null) {
+                    batch(this::loadViewDescriptors);
+                }
+            }
         }
     }
 
@@ -297,23 +340,25 @@ public abstract class AbstractViewDescriptorFactory implements ViewDescriptorFac
     public void loadViewDescriptors() {
         loadViewDescriptorFromProviders(Containers.get().findObjects(ViewDescriptorsProvider.class));
         loadViewDescriptorsFromFiles();
+        JsonViewDescriptorSerializer.clearCache();
     }
 
     protected void loadViewDescriptorFromProviders(Collection<ViewDescriptorsProvider> providers) {
         if (providers != null && !providers.isEmpty()) {
-            providers.forEach(provider -> {
+            batch(() -> providers.forEach(provider -> {
                 logger.info("Loading view descriptors from provider: " + provider.getClass());
                 provider.getDescriptors().forEach(newViewDescriptor -> {
                     addViewDescriptor(newViewDescriptor);
                     ViewDescriptorInterceptorUtils.fireInterceptorsFor(newViewDescriptor);
                 });
-            });
+            }));
         }
     }
 
     protected void loadViewDescriptorsFromFiles() {
         try {
             logger.info("Loading view Descriptors from location " + getDescriptorsLocation());
+            long start = System.currentTimeMillis();
             Resource[] descFiles = IOUtils.getResources(getDescriptorsLocation());
 
             if (descFiles == null || descFiles.length == 0) {
@@ -322,58 +367,140 @@ public abstract class AbstractViewDescriptorFactory implements ViewDescriptorFac
             }
 
             logger.info(descFiles.length + " view descriptors found");
-            for (Resource resource : descFiles) {
-                logger.info("Reading view descriptor " + resource.getFilename());
-
-                createNewViewDescriptor(resource);
+            ViewDescriptorIndex index = loadDescriptorsIndex();
+            AtomicInteger indexed = new AtomicInteger();
+
+            // parse in parallel, then add and intercept in resources order
+            List<Future<ViewDescriptor>> results = new ArrayList<>(descFiles.length);
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (Resource resource : descFiles) {
+                    results.add(executor.submit(() -> read(resource, index, indexed)));
+                }
             }
 
+            batch(() -> {
+                for (int i = 0; i < descFiles.length; i++) {
+                    ViewDescriptor viewDescriptor = getResult(descFiles[i], results.get(i));
+                    if (viewDescriptor != null) {
+                        createNewViewDescriptor(descFiles[i], viewDescriptor);
+                    }
+                }
+            });
+            logger.info(descFiles.length + " view descriptors loaded in " + (System.currentTimeMillis() - start)
+                    + "ms, " + indexed.get() + " from index");
+
         } catch (IOException ex) {
             logger.error("Error loading view descriptors", ex);
         }
     }
 
+    private ViewDescriptorIndex loadDescriptorsIndex() {
+        try {
+            if (getDescriptorsIndexLocation() != null) {
+                return ViewDescriptorIndex.load(IOUtils.getResources(getDescriptorsIndexLocation()));
+            }
+        } catch (IOException ex) {
+            logger.warn("Cannot load view descriptors index, descriptors will be parsed: " + ex.getMessage());
+        }
+        return null;
+    }
+
+    private ViewDescriptor getResult(Resource resource, Future<ViewDescriptor> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ViewDescriptorReaderException("Interrupted reading view descriptor " + resource.getFilename(), ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            logger.error("Error reading view descriptor " + resource.getFilename(), ex.getCause());
+            return null;
+        }
+    }
+
     /**
-     * Creates a new AbstractViewDescriptor object.
+     * Add a view descriptor read from resource.
      *
-     * @param resource the resource
-     * @return the view descriptor
-     * @throws IOException Signals that an I/O exception has occurred.
+     * @param resource          the resource
+     * @param newViewDescriptor the view descriptor
      */
-    private ViewDescriptor createNewViewDescriptor(Resource resource) throws IOException {
-        ViewDescriptor newViewDescriptor = read(resource);
+    private void createNewViewDescriptor(Resource resource, ViewDescriptor newViewDescriptor) {
         addViewDescriptor(newViewDescriptor);
-        if (newViewDescriptor != null && isAutoreloadMode()) {
-            lastChanges.add(newViewDescriptor, new ViewDescriptorMetainfo(resource, resource.getLastModified()));
+        if (isAutoreloadMode()) {
+            watch(resource, newViewDescriptor);
         }
         ViewDescriptorInterceptorUtils.fireInterceptorsFor(newViewDescriptor);
-        return newViewDescriptor;
     }
 
     /**
-     * Reload view descriptor.
-     *
-     * @param original the original
-     * @param metainfo the metainfo
-     * @return the view descriptor
+     * Watch the descriptor file for changes. Only descriptors in the file system are watched, descriptors
+     * packaged in jars cannot change while the application is running.
      */
-    private ViewDescriptor reloadViewDescriptor(ViewDescriptor original, ViewDescriptorMetainfo metainfo) {
+    private void watch(Resource resource, ViewDescriptor viewDescriptor) {
+        Path file = getFilePath(resource);
+        if (file == null) {
+            return;
+        }
+
+        synchronized (registryLock) {
+            try {
+                if (watcher == null) {
+                    watcher = new ViewDescriptorFileWatcher(this::reloadViewDescriptor);
+                }
+                watcher.watch(file);
+                watchedFiles.put(file, new ViewDescriptorMetainfo(resource, viewDescriptor));
+            } catch (IOException e) {
+                logger.warn("Cannot watch view descriptor " + file + " for changes: " + e.getMessage());
+            }
+        }
+    }
+
+    private Path getFilePath(Resource resource) {
         try {
-            if (metainfo != null && metainfo.changed()) {
-                logger.info("Reloading ViewDescriptor for " + original.getBeanClass() + " --> "
-                        + original.getViewTypeName());
-                ViewDescriptor reloaded = read(metainfo.getResource());
-                metainfo.update();
-                lastChanges.remove(original);
-                lastChanges.add(reloaded, metainfo);
-                return reloaded;
+            URI uri = resource.getURI();
+            if ("file".equals(uri.getScheme())) {
+                return Path.of(uri).toAbsolutePath().normalize();
             }
-        } catch (IOException iOException) {
-            logger.error("Error reloading viewdescriptor: " + iOException.getMessage());
+        } catch (IOException | RuntimeException e) {
+            // not a file system resource
         }
         return null;
     }
 
+    /**
+     * Reload the view descriptor of a changed file and replace the original one
+     *
+     * @param file the changed file
+     */
+    private void reloadViewDescriptor(Path file) {
+        ViewDescriptorMetainfo metainfo = watchedFiles.get(file);
+        if (metainfo == null) {
+            return;
+        }
+
+        try {
+            ViewDescriptor original = metainfo.getViewDescriptor();
+            logger.info("Reloading ViewDescriptor for " + original.getBeanClass() + " --> "
+                    + original.getViewTypeName());
+            ViewDescriptor reloaded = read(metainfo.getResource());
+            if (reloaded == null) {
+                return;
+            }
+            ViewDescriptorInterceptorUtils.fireInterceptorsFor(reloaded);
+            update(all -> {
+                all.remove(original);
+                all.add(reloaded);
+            });
+            watchedFiles.put(file, new ViewDescriptorMetainfo(metainfo.getResource(), reloaded));
+            JsonView.evictJsonMapper(original);
+            JsonViewDescriptorSerializer.clearCache();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Error reloading viewdescriptor " + file + ": " + e.getMessage());
+        }
+    }
+
     /**
      * Read.
      *
@@ -382,11 +509,32 @@ public abstract class AbstractViewDescriptorFactory implements ViewDescriptorFac
      * @throws IOException Signals that an I/O exception has occurred.
      */
     private ViewDescriptor read(Resource resource) throws IOException {
+        return read(resource, null, null);
+    }
+
+    /**
+     * Read the view descriptor using the parsed document from index if resource content didn't change
+     */
+    private ViewDescriptor read(Resource resource, ViewDescriptorIndex index, AtomicInteger indexed) throws IOException {
+        logger.info("Reading view descriptor " + resource.getFilename());
         ViewDescriptor viewDescriptor = null;
         ViewDescriptorReader reader = ViewDescriptorReaderUtils.getReaderFor(resource.getFileExtension());
         if (reader != null) {
             List<ViewDescriptorReaderCustomizer> customizers = ViewDescriptorReaderUtils.getCustomizers(reader);
-            try (InputStreamReader streamReader = new InputStreamReader(resource.getInputStream())) {
+            byte[] content;
+            try (InputStream input = resource.getInputStream()) {
+                content = input.readAllBytes();
+            }
+
+            if (index != null && !index.isEmpty() && reader instanceof YamlViewDescriptorReader yamlReader) {
+                Map<String, Object> document = index.find(resource.getURI().toString(), content);
+                if (document != null) {
+                    indexed.incrementAndGet();
+                    return yamlReader.read(resource, document, customizers);
+                }
+            }
+
+            try (InputStreamReader streamReader = new InputStreamReader(new ByteArrayInputStream(content))) {
                 viewDescriptor = reader.read(resource, streamReader, customizers);
             }
         } else {
@@ -414,7 +562,21 @@ public abstract class AbstractViewDescriptorFactory implements ViewDescriptorFac
     }
 
     /**
-     * Checks if is autoreaload mode.
+     * Location of precompiled descriptors indexes, null to always parse descriptors
+     *
+     * @see ViewDescriptorIndex
+     */
+    public String getDescriptorsIndexLocation() {
+        return descriptorsIndexLocation;
+    }
+
+    public void setDescriptorsIndexLocation(String descriptorsIndexLocation) {
+        this.descriptorsIndexLocation = descriptorsIndexLocation;
+    }
+
+    /**
+     * Checks if is autoreaload mode. When enabled, descriptor files found in the file system (i.e. exploded classes
+     * during development) are watched and reloaded when they change. Disable it in production to skip the watcher.
      *
      * @return true, if is autoreaload mode
      */
@@ -429,6 +591,15 @@ public abstract class AbstractViewDescriptorFactory implements ViewDescriptorFac
      */
     public void setAutoreloadMode(boolean autoreloadMode) {
         this.autoreloadMode = autoreloadMode;
+        if (!autoreloadMode) {
+            synchronized (registryLock) {
+                if (watcher != null) {
+                    watcher.close();
+                    watcher = null;
+                }
+                watchedFiles.clear();
+            }
+        }
     }
 
     @Override
@@ -443,18 +614,7 @@ public abstract class AbstractViewDescriptorFactory implements ViewDescriptorFac
             device = DEFAULT_DEVICE;
         }
 
-        SimpleCache<String, SimpleCache<Class, ViewDescriptor>> classDescriptors = descriptors.get(device);
-        SimpleCache<Class, ViewDescriptor> viewsDescriptors = null;
-
-        if (classDescriptors != null) {
-            viewsDescriptors = classDescriptors.get(viewType);
-        }
-
-        ViewDescriptor viewDescriptor = null;
-
-        if (viewsDescriptors != null) {
-            viewDescriptor = viewsDescriptors.get(beanClass);
-        }
+        ViewDescriptor viewDescriptor = registry.find(beanClass, device, viewType);
 
         if (viewDescriptor == null && !DEFAULT_DEVICE.equals(device)) {
             return findDescriptor(beanClass, DEFAULT_DEVICE, viewType);
@@ -491,112 +651,79 @@ public abstract class AbstractViewDescriptorFactory implements ViewDescriptorFac
     }
 
     /**
-     * Sets the fully loaded.
-     *
-     * @param viewDescriptor the view descriptor
-     * @param b              the b
+     * Store the file resource a view descriptor was read from. Useful to reload the view descriptor when file change
      */
-    private void setFullyLoaded(ViewDescriptor viewDescriptor, boolean b) {
-        if (viewDescriptor != null) {
-            viewDescriptor.getParams().put(FULLYLOADED, b);
+    private static class ViewDescriptorMetainfo {
+
+        private final Resource resource;
+        private final ViewDescriptor viewDescriptor;
+
+        ViewDescriptorMetainfo(Resource resource, ViewDescriptor viewDescriptor) {
+            this.resource = resource;
+            this.viewDescriptor = viewDescriptor;
         }
-    }
 
-    /**
-     * Checks if is fully loaded.
-     *
-     * @param viewDescriptor the view descriptor
-     * @return true, if is fully loaded
-     */
-    private boolean isFullyLoaded(ViewDescriptor viewDescriptor) {
-        if (viewDescriptor != null) {
-            return viewDescriptor.getParams().get(FULLYLOADED) == Boolean.TRUE;
-        } else {
-            return false;
+        Resource getResource() {
+            return resource;
+        }
+
+        ViewDescriptor getViewDescriptor() {
+            return viewDescriptor;
         }
     }
 
     /**
-     * Store view descriptor info about origin and modified time. Useful to check if viewdescriptor changed
+     * Immutable snapshot of loaded view descriptors indexed by device, view type and bean class, by device and id
+     * and by bean class. When several descriptors share the same key the last added wins.
      */
-    private class ViewDescriptorMetainfo {
-
-        /**
-         * The resource.
-         */
-        private final Resource resource;
-
-        /**
-         * The last modified.
-         */
-        private long lastModified;
-
-        /**
-         * Instantiates a new view descriptor metainfo.
-         *
-         * @param viewDescriptor the view descriptor
-         * @param lastModified   the last modified
-         */
-        public ViewDescriptorMetainfo(Resource viewDescriptor, long lastModified) {
-            this.resource = viewDescriptor;
-            this.lastModified = lastModified;
-        }
-
-        /**
-         * Sets the last modified.
-         *
-         * @param lastModified the new last modified
-         */
-        public void setLastModified(long lastModified) {
-            this.lastModified = lastModified;
-        }
-
-        /**
-         * Gets the resource.
-         *
-         * @return the resource
-         */
-        public Resource getResource() {
-            return resource;
+    private static final class Registry {
+
+        static final Registry EMPTY = new Registry(List.of());
+
+        final List<ViewDescriptor> all;
+        // devices = [type = [class = descriptor]]
+        final Map<String, Map<String, Map<Class, ViewDescriptor>>> byType = new HashMap<>();
+        // devices = [id = descriptor]
+        final Map<String, Map<String, ViewDescriptor>> byId = new HashMap<>();
+        final Map<Class, Set<ViewDescriptor>> byClass = new HashMap<>();
+        // descriptors whose extended descriptor is not found
+        final Set<ViewDescriptor> unresolved = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        Registry(List<ViewDescriptor> descriptors) {
+            this.all = List.copyOf(descriptors);
+            for (ViewDescriptor vd : all) {
+                if (vd.getBeanClass() != null) {
+                    byType.computeIfAbsent(vd.getDevice(), k -> new HashMap<>())
+                            .computeIfAbsent(vd.getViewTypeName(), k -> new HashMap<>())
+                            .put(vd.getBeanClass(), vd);
+                    byClass.computeIfAbsent(vd.getBeanClass(), k -> new LinkedHashSet<>()).add(vd);
+                }
+                if (vd.getId() != null) {
+                    byId.computeIfAbsent(vd.getDevice(), k -> new HashMap<>()).put(vd.getId(), vd);
+                }
+            }
         }
 
-        /**
-         * Changed.
-         *
-         * @return true, if successful
-         */
-        private boolean changed() {
-            try {
-                return getResource().getLastModified() != lastModified;
-            } catch (IOException iOException) {
-                logger.error("Error getting lastModified from Resource " + getResource().getFilename() + ": "
-                        + iOException.getMessage());
-                return false;
-            }
+        ViewDescriptor find(Class beanClass, String device, String viewType) {
+            Map<String, Map<Class, ViewDescriptor>> types = byType.get(device);
+            Map<Class, ViewDescriptor> classes = types != null ? types.get(viewType) : null;
+            return classes != null ? classes.get(beanClass) : null;
         }
 
-        /**
-         * Update.
-         */
-        private void update() {
-            try {
-                setLastModified(getResource().getLastModified());
-            } catch (IOException ex) {
-                logger.error(ex);
-            }
+        ViewDescriptor findById(String id, String device) {
+            Map<String, ViewDescriptor> ids = byId.get(device);
+            return ids != null ? ids.get(id) : null;
         }
     }
 
     @Override
     public Set<Map.Entry<Class, ViewDescriptor>> findDescriptorsByType(String viewType) {
-        return descriptors.get(DEFAULT_DEVICE).get(viewType).entrySet();
+        Map<String, Map<Class, ViewDescriptor>> types = registry.byType.getOrDefault(DEFAULT_DEVICE, Map.of());
+        return Collections.unmodifiableMap(types.getOrDefault(viewType, Map.of())).entrySet();
     }
 
     @Override
     public Set<ViewDescriptor> findDescriptorByClass(Class entityClass) {
-        return allDescriptors.stream()
-                .filter(vd -> vd.getBeanClass() != null)
-                .filter(vd -> vd.getBeanClass().equals(entityClass))
-                .collect(Collectors.toSet());
+        return new HashSet<>(registry.byClass.getOrDefault(entityClass, Set.of()));
     }
 }
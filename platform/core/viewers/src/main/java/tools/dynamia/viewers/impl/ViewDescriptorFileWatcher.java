@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.viewers.impl;
+
+import tools.dynamia.commons.logger.LoggingService;
+import tools.dynamia.commons.logger.SLF4JLoggingService;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Watch view descriptor files using a {@link WatchService} and notify when one of them is created or modified.
+ * Events are handled by a virtual thread, so lookups never check files for changes.
+ *
+ * @author Mario A. Serrano Leones
+ */
+class ViewDescriptorFileWatcher {
+
+    /**
+     * Editors usually fire several events per save, wait a little to handle them once
+     */
+    private static final long DEBOUNCE_MILLIS = 100;
+
+    private final LoggingService logger = new SLF4JLoggingService(ViewDescriptorFileWatcher.class);
+    private final WatchService watchService;
+    private final Consumer<Path> onChange;
+    private final Set<Path> files = ConcurrentHashMap.newKeySet();
+    private final Set<Path> directories = ConcurrentHashMap.newKeySet();
+
+    ViewDescriptorFileWatcher(Consumer<Path> onChange) throws IOException {
+        this.onChange = onChange;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        Thread.ofVirtual().name("view-descriptors-watcher").start(this::run);
+    }
+
+    /**
+     * Watch the file. Its parent directory is registered the first time
+     */
+    void watch(Path file) throws IOException {
+        Path directory = file.getParent();
+        if (directory != null && directories.add(directory)) {
+            try {
+                directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            } catch (IOException | RuntimeException e) {
+                directories.remove(directory);
+                throw e;
+            }
+        }
+        files.add(file);
+    }
+
+    void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.error("Error closing view descriptors watcher", e);
+        }
+    }
+
+    private void run() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+                Thread.sleep(DEBOUNCE_MILLIS);
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Path directory = (Path) key.watchable();
+            Set<Path> changed = new LinkedHashSet<>();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    // events lost, reload every file in the directory
+                    files.stream().filter(file -> directory.equals(file.getParent())).forEach(changed::add);
+                } else {
+                    Path file = directory.resolve((Path) event.context());
+                    if (files.contains(file)) {
+                        changed.add(file);
+                    }
+                }
+            }
+            key.reset();
+
+            for (Path file : changed) {
+                try {
+                    onChange.accept(file);
+                } catch (Exception e) {
+                    logger.error("Error handling change of view descriptor " + file, e);
+                }
+            }
+        }
+    }
+}
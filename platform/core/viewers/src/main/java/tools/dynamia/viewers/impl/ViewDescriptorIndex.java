@@ -0,0 +1,315 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.viewers.impl;
+
+import org.yaml.snakeyaml.Yaml;
+import tools.dynamia.commons.logger.LoggingService;
+import tools.dynamia.commons.logger.SLF4JLoggingService;
+import tools.dynamia.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Precompiled index of YML view descriptors. It is generated at build time running {@link #main(String[])} with the
+ * classes output directory (see the descriptors-index profile in the parent pom) and stored in the jar as
+ * {@link #INDEX_FILE}. Each entry holds the parsed YML document of a descriptor file in a compact binary form, so
+ * view descriptors factories can skip YML parsing at startup. Entries are matched by path and content checksum,
+ * changed or unknown files are parsed as usual.
+ *
+ * @author Mario A. Serrano Leones
+ */
+public final class ViewDescriptorIndex {
+
+    public static final String INDEX_FILE = "META-INF/dynamia/descriptors.idx";
+    public static final String DESCRIPTORS_FOLDER = "META-INF/descriptors/";
+
+    private static final LoggingService LOGGER = new SLF4JLoggingService(ViewDescriptorIndex.class);
+
+    private static final int MAGIC = 0x44564458;
+    private static final int VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte BIG_INTEGER = 6;
+    private static final byte DATE = 7;
+    private static final byte MAP = 8;
+    private static final byte LIST = 9;
+
+    // path@checksum = encoded document
+    private final Map<String, byte[]> documents = new HashMap<>();
+
+    /**
+     * Load and merge the index files found in classpath
+     *
+     * @param indexFiles index resources, usually one per jar
+     * @return the index, empty if no index files
+     */
+    public static ViewDescriptorIndex load(Resource[] indexFiles) throws IOException {
+        ViewDescriptorIndex index = new ViewDescriptorIndex();
+        if (indexFiles != null) {
+            for (Resource indexFile : indexFiles) {
+                try (InputStream input = indexFile.getInputStream()) {
+                    index.read(input);
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Find the parsed document of descriptor file.
+     *
+     * @param path    path of the descriptor file or resource, only the part starting at {@link #DESCRIPTORS_FOLDER} is used
+     * @param content current content of the descriptor file
+     * @return a new mutable copy of parsed document or null if the index has no entry for this path and content
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> find(String path, byte[] content) throws IOException {
+        String relativePath = getRelativePath(path);
+        if (relativePath == null) {
+            return null;
+        }
+
+        byte[] document = documents.get(key(relativePath, content));
+        if (document == null) {
+            return null;
+        }
+        return (Map<String, Object>) readValue(new DataInputStream(new ByteArrayInputStream(document)));
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public boolean isEmpty() {
+        return documents.isEmpty();
+    }
+
+    /**
+     * Parse every YML descriptor found in classes directory and write the index in {@link #INDEX_FILE}
+     *
+     * @param classesDirectory build output directory, i.e. target/classes
+     * @return number of indexed descriptors
+     */
+    public static int write(Path classesDirectory) throws IOException {
+        Path descriptorsDirectory = classesDirectory.resolve(DESCRIPTORS_FOLDER);
+        if (!Files.isDirectory(descriptorsDirectory)) {
+            return 0;
+        }
+
+        Map<String, byte[]> entries = new TreeMap<>();
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(descriptorsDirectory)) {
+            files = walk.filter(Files::isRegularFile).filter(ViewDescriptorIndex::isYaml).toList();
+        }
+
+        for (Path file : files) {
+            byte[] content = Files.readAllBytes(file);
+            String relativePath = classesDirectory.relativize(file).toString().replace('\\', '/');
+            try {
+                Object document = new Yaml().load(new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8));
+                if (document instanceof Map) {
+                    ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+                    writeValue(new DataOutputStream(encoded), document);
+                    entries.put(key(relativePath, content), encoded.toByteArray());
+                }
+            } catch (RuntimeException e) {
+                // invalid or unsupported documents are left to the runtime reader
+                LOGGER.warn("Skipping view descriptor " + relativePath + ": " + e.getMessage());
+            }
+        }
+
+        Path indexFile = classesDirectory.resolve(INDEX_FILE);
+        Files.createDirectories(indexFile.getParent());
+        try (OutputStream output = Files.newOutputStream(indexFile)) {
+            DataOutputStream data = new DataOutputStream(output);
+            data.writeInt(MAGIC);
+            data.writeInt(VERSION);
+            data.writeInt(entries.size());
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                data.writeUTF(entry.getKey());
+                data.writeInt(entry.getValue().length);
+                data.write(entry.getValue());
+            }
+            data.flush();
+        }
+        return entries.size();
+    }
+
+    /**
+     * Build time entry point. Usage: ViewDescriptorIndex classesDirectory
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: ViewDescriptorIndex <classesDirectory>");
+        }
+        int count = write(Path.of(args[0]));
+        LOGGER.info(count + " view descriptors indexed in " + Path.of(args[0]).resolve(INDEX_FILE));
+    }
+
+    static String getRelativePath(String path) {
+        if (path == null) {
+            return null;
+        }
+        path = path.replace('\\', '/');
+        int index = path.lastIndexOf(DESCRIPTORS_FOLDER);
+        return index >= 0 ? path.substring(index) : null;
+    }
+
+    private static boolean isYaml(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".yml") || name.endsWith(".yaml");
+    }
+
+    private static String key(String relativePath, byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return relativePath + "@" + Long.toHexString(crc.getValue()) + ":" + content.length;
+    }
+
+    private void read(InputStream input) throws IOException {
+        DataInputStream data = new DataInputStream(input);
+        if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+            throw new IOException("Invalid view descriptors index");
+        }
+        int count = data.readInt();
+        for (int i = 0; i < count; i++) {
+            String key = data.readUTF();
+            byte[] document = new byte[data.readInt()];
+            data.readFully(document);
+            documents.put(key, document);
+        }
+    }
+
+    private static void writeValue(DataOutputStream data, Object value) throws IOException {
+        switch (value) {
+            case null -> data.writeByte(NULL);
+            case String string -> {
+                data.writeByte(STRING);
+                writeString(data, string);
+            }
+            case Boolean bool -> {
+                data.writeByte(BOOLEAN);
+                data.writeBoolean(bool);
+            }
+            case Integer number -> {
+                data.writeByte(INT);
+                data.writeInt(number);
+            }
+            case Long number -> {
+                data.writeByte(LONG);
+                data.writeLong(number);
+            }
+            case Double number -> {
+                data.writeByte(DOUBLE);
+                data.writeDouble(number);
+            }
+            case BigInteger number -> {
+                data.writeByte(BIG_INTEGER);
+                writeString(data, number.toString());
+            }
+            case Date date -> {
+                data.writeByte(DATE);
+                data.writeLong(date.getTime());
+            }
+            case Map<?, ?> map -> {
+                data.writeByte(MAP);
+                data.writeInt(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeValue(data, entry.getKey());
+                    writeValue(data, entry.getValue());
+                }
+            }
+            case List<?> list -> {
+                data.writeByte(LIST);
+                data.writeInt(list.size());
+                for (Object item : list) {
+                    writeValue(data, item);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unsupported value type " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(DataInputStream data) throws IOException {
+        byte type = data.readByte();
+        return switch (type) {
+            case NULL -> null;
+            case STRING -> readString(data);
+            case BOOLEAN -> data.readBoolean();
+            case INT -> data.readInt();
+            case LONG -> data.readLong();
+            case DOUBLE -> data.readDouble();
+            case BIG_INTEGER -> new BigInteger(readString(data));
+            case DATE -> new Date(data.readLong());
+            case MAP -> {
+                int size = data.readInt();
+                Map<Object, Object> map = new LinkedHashMap<>(size * 2);
+                for (int i = 0; i < size; i++) {
+                    Object key = readValue(data);
+                    map.put(key, readValue(data));
+                }
+                yield map;
+            }
+            case LIST -> {
+                int size = data.readInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(data));
+                }
+                yield list;
+            }
+            default -> throw new IOException("Invalid value type " + type + " in view descriptors index");
+        };
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    private static String readString(DataInputStream data) throws IOException {
+        byte[] bytes = new byte[data.readInt()];
+        data.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -120,11 +120,30 @@ public class YamlViewDescriptorReader implements ViewDescriptorReader {
     @Override
     public ViewDescriptor read(Resource descriptorResource, Reader reader,
                                List<ViewDescriptorReaderCustomizer> customizers) {
+        Map map;
         try {
             Yaml yml = new Yaml();
-            Map map = yml.load(reader);
-            parseExpressions(map);
-            return runViewDescriptorReaderCustomizer(map, customizers);
+            map = yml.load(reader);
+        } catch (Exception ex) {
+            throw new ViewDescriptorReaderException(
+                    "Error parsing YML ViewDescriptor " + descriptorResource.getFilename() + ": " + ex.getMessage(),
+                    ex);
+        }
+        return read(descriptorResource, map, customizers);
+    }
+
+    /**
+     * Build the view descriptor from an already parsed YML document, like the ones stored in {@link ViewDescriptorIndex}
+     *
+     * @param descriptorResource the descriptor resource
+     * @param document           the parsed YML document
+     * @param customizers        the customizers
+     * @return the view descriptor
+     */
+    public ViewDescriptor read(Resource descriptorResource, Map document, List<ViewDescriptorReaderCustomizer> customizers) {
+        try {
+            parseExpressions(document);
+            return runViewDescriptorReaderCustomizer(document, customizers);
         } catch (Exception ex) {
             throw new ViewDescriptorReaderException(
                     "Error parsing YML ViewDescriptor " + descriptorResource.getFilename() + ": " + ex.getMessage(),
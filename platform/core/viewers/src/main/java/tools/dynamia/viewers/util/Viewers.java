@@ -112,6 +112,8 @@ public class Viewers {
     public static final String PARAM_MULTIVIEW = "multiview";
     public static final String PARAM_VISIBLE = "visible";
     public static final String PARAM_READ_ONLY = "readonly";
+    public static final String PARAM_RENDER_MODE = "renderMode";
+    public static final String RENDER_MODE_FAST = "fast";
 
     /**
      * Find view descriptor. Return null if nothing found
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.viewers;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static tools.dynamia.viewers.ViewDescriptorBuilder.field;
+import static tools.dynamia.viewers.ViewDescriptorBuilder.viewDescriptor;
+
+public class JsonViewTest {
+
+    private final ViewDescriptor descriptor = viewDescriptor("json", Product.class, false)
+            .fields(field("name"), field("category.name"), field("category.type.name"))
+            .build();
+
+    @Test
+    public void shouldRenderNestedPathGroups() {
+        String json = new JsonView<>(product(), descriptor).renderJson();
+
+        assertTrue(json, json.contains("\"name\":\"Phone\""));
+        assertTrue(json, json.contains("\"category\":{\"name\":\"Mobiles\",\"type\":{\"name\":\"Electronics\"}}"));
+    }
+
+    @Test
+    public void shouldRenderCompactByDefault() {
+        assertFalse(new JsonView<>(product(), descriptor).renderJson().contains("\n"));
+        assertTrue(new JsonView<>(product(), descriptor).renderJson(true).contains("\n"));
+    }
+
+    @Test
+    public void shouldStreamSameJson() {
+        JsonView<Product> view = new JsonView<>(product(), descriptor);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        view.renderJson(out, false);
+
+        assertEquals(view.renderJson(), out.toString(StandardCharsets.UTF_8));
+    }
+
+    private static Product product() {
+        Product product = new Product();
+        product.setName("Phone");
+        product.setCategory(new Category());
+        product.getCategory().setName("Mobiles");
+        product.getCategory().setType(new CategoryType());
+        product.getCategory().getType().setName("Electronics");
+        return product;
+    }
+
+    public static class Product {
+        private String name;
+        private Category category;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Category getCategory() {
+            return category;
+        }
+
+        public void setCategory(Category category) {
+            this.category = category;
+        }
+    }
+
+    public static class Category {
+        private String name;
+        private CategoryType type;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public CategoryType getType() {
+            return type;
+        }
+
+        public void setType(CategoryType type) {
+            this.type = type;
+        }
+    }
+
+    public static class CategoryType {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
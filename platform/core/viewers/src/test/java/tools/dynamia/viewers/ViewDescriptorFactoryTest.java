@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.viewers;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import tools.dynamia.integration.Containers;
+import tools.dynamia.integration.SimpleObjectContainer;
+import tools.dynamia.io.Resource;
+import tools.dynamia.viewers.impl.AbstractViewDescriptor;
+import tools.dynamia.viewers.impl.DefaultViewDescriptorFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static tools.dynamia.viewers.ViewDescriptorBuilder.viewDescriptor;
+
+public class ViewDescriptorFactoryTest {
+
+    private Path directory;
+
+    @Before
+    public void setup() throws IOException {
+        var container = new SimpleObjectContainer();
+        container.addObject("vdReader", new TypeOnlyReader());
+        Containers.get().installObjectContainer(container);
+        directory = Files.createTempDirectory("descriptors");
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        Containers.get().removeAllContainers();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void shouldFindDescriptorsById() {
+        DefaultViewDescriptorFactory factory = new DefaultViewDescriptorFactory();
+        ViewDescriptor form = viewDescriptor("form", SomeBean.class).id("someForm").build();
+        ViewDescriptor table = viewDescriptor("table", SomeBean.class).id("someTable").build();
+        factory.addViewDescriptor(form);
+        factory.addViewDescriptor(table);
+
+        assertSame(form, factory.getDescriptor("someForm"));
+        assertSame(table, factory.findDescriptor(SomeBean.class, "smartphone", "table"));
+        assertNull(factory.getDescriptor("someForm", "smartphone"));
+        assertThrows(ViewDescriptorNotFoundException.class, () -> factory.getDescriptor("none"));
+        assertEquals(2, factory.findDescriptorByClass(SomeBean.class).size());
+    }
+
+    @Test
+    public void shouldMergeExtendedDescriptorsBeforePublishing() {
+        DefaultViewDescriptorFactory factory = new DefaultViewDescriptorFactory();
+        ViewDescriptor child = viewDescriptor("form", SomeBean.class).id("childForm").params("size", "small").build();
+        ((AbstractViewDescriptor) child).setExtends("baseForm");
+        factory.addViewDescriptor(child);
+
+        assertThrows(ViewDescriptorNotFoundException.class, () -> factory.getDescriptor("childForm"));
+        assertNull(child.getParams().get("color"));
+
+        ViewDescriptor parent = viewDescriptor("form", SomeBean.class).id("baseForm").params("color", "red").build();
+        factory.addViewDescriptor(parent);
+
+        ViewDescriptor merged = factory.getDescriptor("childForm");
+        assertSame(child, merged);
+        assertEquals("red", merged.getParams().get("color"));
+        assertEquals("small", merged.getParams().get("size"));
+        assertNull(parent.getParams().get("size"));
+    }
+
+    @Test
+    public void shouldReloadChangedDescriptorFiles() throws Exception {
+        Path file = Files.writeString(directory.resolve("some.vd"), "form");
+        DefaultViewDescriptorFactory factory = new DefaultViewDescriptorFactory();
+        factory.setDescriptorsLocation(directory.toUri() + "*.vd");
+        factory.loadViewDescriptors();
+
+        assertEquals("form", factory.getDescriptor("some").getViewTypeName());
+
+        Files.writeString(file, "table");
+        long timeout = System.currentTimeMillis() + 10000;
+        while (!"table".equals(factory.getDescriptor("some").getViewTypeName()) && System.currentTimeMillis() < timeout) {
+            Thread.sleep(50);
+        }
+
+        assertEquals("table", factory.getDescriptor("some").getViewTypeName());
+        assertTrue(factory.findDescriptorsByType("form").isEmpty());
+        factory.setAutoreloadMode(false);
+    }
+
+    /**
+     * Read descriptors with id from file name and view type from file content
+     */
+    public static class TypeOnlyReader implements ViewDescriptorReader {
+
+        @Override
+        public ViewDescriptor read(Resource descriptorResource, Reader reader, List<ViewDescriptorReaderCustomizer> customizers) {
+            try {
+                String type = new BufferedReader(reader).readLine().trim();
+                String id = descriptorResource.getFilename().replace(".vd", "");
+                return viewDescriptor(type, SomeBean.class).id(id).build();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public String[] getSupportedFileExtensions() {
+            return new String[]{"vd"};
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.viewers;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.yaml.snakeyaml.Yaml;
+import tools.dynamia.io.IOUtils;
+import tools.dynamia.viewers.impl.ViewDescriptorIndex;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ViewDescriptorIndexTest {
+
+    private static final String YML = """
+            view: form
+            beanClass: tools.dynamia.viewers.SomeBean
+            fields:
+              name:
+                label: Nombre
+                params:
+                  span: 2
+                  big: 12345678901234
+                  ratio: 1.5
+              email:
+            layout:
+              columns: 4
+            """;
+
+    private Path classes;
+
+    @Before
+    public void setup() throws IOException {
+        classes = Files.createTempDirectory("classes");
+        Path descriptors = Files.createDirectories(classes.resolve(ViewDescriptorIndex.DESCRIPTORS_FOLDER + "forms"));
+        Files.writeString(descriptors.resolve("SomeBeanForm.yml"), YML);
+        Files.writeString(descriptors.resolve("Invalid.yml"), "view: [");
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        try (var files = Files.walk(classes)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void shouldIndexParsedDocuments() throws IOException {
+        assertEquals(1, ViewDescriptorIndex.write(classes));
+
+        ViewDescriptorIndex index = load();
+        Map<String, Object> document = index.find("jar:file:/app.jar!/META-INF/descriptors/forms/SomeBeanForm.yml",
+                YML.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(new Yaml().load(YML), document);
+    }
+
+    @Test
+    public void shouldIgnoreChangedOrUnknownFiles() throws IOException {
+        ViewDescriptorIndex.write(classes);
+        ViewDescriptorIndex index = load();
+
+        assertNull(index.find("META-INF/descriptors/forms/SomeBeanForm.yml", (YML + "  id: other").getBytes(StandardCharsets.UTF_8)));
+        assertNull(index.find("META-INF/descriptors/SomeBeanForm.yml", YML.getBytes(StandardCharsets.UTF_8)));
+        assertNull(index.find("META-INF/descriptors/forms/Invalid.yml", "view: [".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private ViewDescriptorIndex load() throws IOException {
+        return ViewDescriptorIndex.load(IOUtils.getResources(classes.resolve(ViewDescriptorIndex.INDEX_FILE).toUri().toString()));
+    }
+}
@@ -0,0 +1,28 @@
+package tools.dynamia.web;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import tools.dynamia.domain.util.ReadRouting;
+
+import java.io.IOException;
+
+/**
+ * Servlet filter that forget the read routing state of the request thread ({@link ReadRouting#clear()}) before and
+ * after each request, so writes of one request don't make reads of the next request served by the same pooled
+ * thread stick to the primary database.
+ */
+public class ReadRoutingRequestFilter implements Filter {
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        ReadRouting.clear();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadRouting.clear();
+        }
+    }
+}
@@ -25,6 +25,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import tools.dynamia.commons.logger.LoggingService;
 import tools.dynamia.commons.logger.SLF4JLoggingService;
 import tools.dynamia.domain.ValidationError;
+import tools.dynamia.domain.jdbc.QueryInterruptedException;
 import tools.dynamia.navigation.NavigationNotAllowedException;
 import tools.dynamia.navigation.PageNotFoundException;
 
@@ -43,6 +44,7 @@ import tools.dynamia.navigation.PageNotFoundException;
  *   <tr><td>{@link NavigationNotAllowedException}</td><td>403 Forbidden</td><td>The current user lacks access to the requested page</td></tr>
  *   <tr><td>{@link ValidationError}</td><td>422 Unprocessable Entity</td><td>The submitted entity failed business / bean-validation rules</td></tr>
  *   <tr><td>{@link IllegalArgumentException}</td><td>400 Bad Request</td><td>A request parameter or body could not be parsed or is semantically invalid</td></tr>
+ *   <tr><td>{@link QueryInterruptedException}</td><td>503 Service Unavailable</td><td>The query exceeded the request deadline or was cancelled</td></tr>
  *   <tr><td>{@link Exception} (catch-all)</td><td>500 Internal Server Error</td><td>Any unexpected server-side failure</td></tr>
  * </table>
  *
@@ -150,6 +152,24 @@ public class RestApiExceptionHandler {
         return errorResponse(HttpStatus.BAD_REQUEST, "BAD_REQUEST", ex.getMessage(), request);
     }
 
+    // -------------------------------------------------------------------------
+    // 503 — query timeout / cancelled
+    // -------------------------------------------------------------------------
+
+    /**
+     * Handles {@link QueryInterruptedException}, raised when a query exceeds the deadline of the request
+     * (see {@link RestNavigationController#setQueryTimeout(java.time.Duration)}) or is cancelled.
+     *
+     * @param ex      the interrupted-query exception
+     * @param request the current HTTP request
+     * @return a {@code 503 Service Unavailable} JSON response
+     */
+    @ExceptionHandler(QueryInterruptedException.class)
+    public ResponseEntity<ErrorResult> handleQueryInterrupted(QueryInterruptedException ex, HttpServletRequest request) {
+        logger.warn("Query interrupted on: " + request.getRequestURI() + " - " + ex.getMessage());
+        return errorResponse(HttpStatus.SERVICE_UNAVAILABLE, "QUERY_TIMEOUT", ex.getMessage(), request);
+    }
+
     // -------------------------------------------------------------------------
     // 500 — catch-all
     // -------------------------------------------------------------------------
@@ -1,6 +1,7 @@
 package tools.dynamia.web.navigation;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.bind.annotation.RequestMethod;
@@ -52,7 +53,7 @@ public class RestApiNavigationConfiguration {
 
 
         Method routeReadAll = RestNavigationController.class.getMethod("routeReadAll",
-                HttpServletRequest.class);
+                HttpServletRequest.class, HttpServletResponse.class);
         Method routeReadOne = RestNavigationController.class.getMethod("routeReadOne",
                 Long.class, HttpServletRequest.class);
         Method routeCreate = RestNavigationController.class.getMethod("routeCreate",
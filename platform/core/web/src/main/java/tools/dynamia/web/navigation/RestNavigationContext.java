@@ -18,6 +18,7 @@ package tools.dynamia.web.navigation;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -35,6 +36,11 @@ import tools.dynamia.viewers.ViewDescriptor;
 import tools.dynamia.viewers.util.Viewers;
 import tools.jackson.core.JacksonException;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -257,6 +263,33 @@ public class RestNavigationContext {
         return new ResponseEntity<>(StringPojoParser.convertPojoToJson(result), headers, HttpStatus.OK);
     }
 
+    /**
+     * Writes a paginated list result as JSON directly to the servlet response output stream, so large pages are
+     * not rendered into an intermediate {@code String} first.
+     * Falls back to generic JSON serialization when no {@link ViewDescriptor} is available.
+     *
+     * <p>The status and the first bytes are held back until the response buffer fills or the page is fully
+     * written, so an error while reading the first rows still reaches the exception handlers with an uncommitted
+     * response and is mapped to an error status instead of a truncated {@code 200 OK}.</p>
+     *
+     * @param response       the current HTTP response
+     * @param readDescriptor the view descriptor controlling field serialization; may be {@code null}
+     * @param result         the {@link ListResult} to serialize
+     */
+    public static void writeJsonResponse(HttpServletResponse response, ViewDescriptor readDescriptor, ListResult result) {
+        try {
+            DeferredResponseOutputStream out = new DeferredResponseOutputStream(response);
+            if (readDescriptor != null) {
+                new JsonView<>(result, readDescriptor).renderJson(out, false);
+            } else {
+                StringPojoParser.getJsonWriter(false).writeValue(out, result);
+            }
+            out.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing json response", e);
+        }
+    }
+
     // -------------------------------------------------------------------------
     // Metadata helper
     // -------------------------------------------------------------------------
@@ -273,7 +306,7 @@ public class RestNavigationContext {
     public static ResponseEntity<String> getMetadata(HttpServletRequest request, ViewDescriptor viewDescriptor) {
         if (viewDescriptor != null && request.getParameter("_metadata") != null) {
             try {
-                return new ResponseEntity<>(StringPojoParser.createJsonMapper().writeValueAsString(viewDescriptor), HttpStatus.OK);
+                return new ResponseEntity<>(StringPojoParser.getJsonWriter(true).writeValueAsString(viewDescriptor), HttpStatus.OK);
             } catch (JacksonException e) {
                 return new ResponseEntity<>("ERROR: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
             }
@@ -297,6 +330,87 @@ public class RestNavigationContext {
         return headers;
     }
 
+    /**
+     * Output stream that keeps the JSON in memory until it reaches the response buffer size, and only then sets the
+     * {@code 200 OK} status and headers and starts writing to the servlet output stream.
+     */
+    static class DeferredResponseOutputStream extends OutputStream {
+
+        private static final int DEFAULT_THRESHOLD = 8192;
+
+        private final HttpServletResponse response;
+        private final int threshold;
+        private ByteArrayOutputStream buffer;
+        private OutputStream target;
+
+        DeferredResponseOutputStream(HttpServletResponse response) {
+            this.response = response;
+            this.threshold = response.getBufferSize() > 0 ? response.getBufferSize() : DEFAULT_THRESHOLD;
+            this.buffer = new ByteArrayOutputStream(Math.min(threshold, DEFAULT_THRESHOLD));
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (target == null && buffer.size() + 1 > threshold) {
+                open();
+            }
+            if (target != null) {
+                target.write(b);
+            } else {
+                buffer.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (target == null && buffer.size() + len > threshold) {
+                open();
+            }
+            if (target != null) {
+                target.write(b, off, len);
+            } else {
+                buffer.write(b, off, len);
+            }
+        }
+
+        /**
+         * Flushes are ignored while the output is held back, the serializer must not commit the response early.
+         */
+        @Override
+        public void flush() throws IOException {
+            if (target != null) {
+                target.flush();
+            }
+        }
+
+        /**
+         * Writes whatever is still held back and flushes the response. Called once the whole result was serialized.
+         */
+        void commit() throws IOException {
+            if (target == null) {
+                open();
+            }
+            target.flush();
+        }
+
+        /**
+         * Ignored, the servlet output stream is owned by the container.
+         */
+        @Override
+        public void close() {
+            // nothing to close
+        }
+
+        private void open() throws IOException {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            target = response.getOutputStream();
+            buffer.writeTo(target);
+            buffer = null;
+        }
+    }
+
     // -------------------------------------------------------------------------
     // Inner DTOs
     // -------------------------------------------------------------------------
@@ -17,6 +17,7 @@
 package tools.dynamia.web.navigation;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -24,6 +25,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 import tools.dynamia.crud.CrudPage;
 import tools.dynamia.domain.query.DataPaginator;
+import tools.dynamia.domain.query.QueryDeadline;
 import tools.dynamia.domain.services.CrudService;
 import tools.dynamia.domain.util.QueryBuilder;
 import tools.dynamia.navigation.ModuleContainer;
@@ -31,7 +33,9 @@ import tools.dynamia.viewers.ViewDescriptor;
 import tools.dynamia.web.navigation.RestNavigationContext.ListResult;
 import tools.dynamia.web.navigation.RestNavigationContext.SimpleResult;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * REST controller that handles CRUD operations on entities exposed through the application's
@@ -64,6 +68,7 @@ public class RestNavigationController {
     private final RestNavigationCreateOperation createOp;
     private final RestNavigationUpdateOperation updateOp;
     private final RestNavigationDeleteOperation deleteOp;
+    private Duration queryTimeout;
 
     /**
      * Constructs a new {@code RestNavigationController} and initialises all operation delegates.
@@ -90,7 +95,19 @@ public class RestNavigationController {
      * @return a JSON response containing the paginated entity list
      */
     public ResponseEntity<String> routeReadAll(HttpServletRequest request) {
-        return readOp.readAll(ctx.getPath(request), request);
+        return withQueryDeadline(() -> readOp.readAll(ctx.getPath(request), request));
+    }
+
+    /**
+     * Entry point for reading all entities at the resolved path, streaming the JSON page directly to the response.
+     *
+     * @param request  the current HTTP request
+     * @param response the current HTTP response
+     * @return a metadata response when {@code _metadata} is requested, otherwise {@code null} because the page was
+     * already written to the response
+     */
+    public ResponseEntity<String> routeReadAll(HttpServletRequest request, HttpServletResponse response) {
+        return withQueryDeadline(() -> readOp.readAll(ctx.getPath(request), request, response));
     }
 
     /**
@@ -101,7 +118,7 @@ public class RestNavigationController {
      * @return a JSON response containing the requested entity
      */
     public ResponseEntity<String> routeReadOne(@PathVariable Long id, HttpServletRequest request) {
-        return readOp.readOne(ctx.getPath(request).replace("/" + id, ""), id, request);
+        return withQueryDeadline(() -> readOp.readOne(ctx.getPath(request).replace("/" + id, ""), id, request));
     }
 
     /**
@@ -138,6 +155,22 @@ public class RestNavigationController {
         return deleteOp.delete(ctx.getPath(request).replace("/" + id, ""), id, request);
     }
 
+    private <T> T withQueryDeadline(Supplier<T> read) {
+        return queryTimeout != null ? QueryDeadline.of(queryTimeout).call(read) : read.get();
+    }
+
+    public Duration getQueryTimeout() {
+        return queryTimeout;
+    }
+
+    /**
+     * Max time read requests can spend querying the database. Slower queries are cancelled and the client
+     * receives a {@code 503} error. Null (default) disable the timeout
+     */
+    public void setQueryTimeout(Duration queryTimeout) {
+        this.queryTimeout = queryTimeout;
+    }
+
     // -------------------------------------------------------------------------
     // Public static API — preserved for backward compatibility
     // -------------------------------------------------------------------------
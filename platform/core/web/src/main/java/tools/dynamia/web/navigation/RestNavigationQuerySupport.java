@@ -19,6 +19,7 @@ package tools.dynamia.web.navigation;
 import jakarta.servlet.http.HttpServletRequest;
 import tools.dynamia.commons.ObjectOperations;
 import tools.dynamia.commons.logger.LoggingService;
+import tools.dynamia.domain.query.DataPaginator;
 import tools.dynamia.domain.query.QueryConditions;
 import tools.dynamia.domain.util.QueryBuilder;
 import tools.dynamia.viewers.Field;
@@ -46,7 +47,7 @@ import java.util.Set;
 public final class RestNavigationQuerySupport {
 
     /** Reserved parameter names that must never be treated as field filters. */
-    private static final Set<String> RESERVED_PARAMS = Set.of("page", "size");
+    private static final Set<String> RESERVED_PARAMS = Set.of("page", "size", "cursor", "count");
 
     private RestNavigationQuerySupport() {
         // utility class — no instances
@@ -83,7 +84,7 @@ public final class RestNavigationQuerySupport {
      * Applies dynamic field filters derived from HTTP query parameters to the given {@link QueryBuilder}.
      *
      * <p>Any request parameter whose name does not start with {@code _} and is not a reserved
-     * pagination keyword ({@code page}, {@code size}) is treated as a potential field filter.
+     * pagination keyword ({@code page}, {@code size}, {@code cursor}, {@code count}) is treated as a potential field filter.
      * The filter value is matched against the entity field registered in the {@link ViewDescriptor}
      * and the appropriate {@link QueryConditions} condition is selected based on the field's Java type:</p>
      *
@@ -258,6 +259,24 @@ public final class RestNavigationQuerySupport {
         return 0;
     }
 
+    /**
+     * Reads the {@code count} request parameter: {@code false} skips the total count query
+     * ({@link DataPaginator.CountMode#DEFERRED}), {@code estimate} counts only up to a limit
+     * ({@link DataPaginator.CountMode#ESTIMATED}). Any other value uses an exact count.
+     *
+     * @param request the current HTTP request
+     * @return the count mode
+     */
+    public static DataPaginator.CountMode getCountMode(HttpServletRequest request) {
+        String value = request.getParameter("count");
+        if ("false".equalsIgnoreCase(value)) {
+            return DataPaginator.CountMode.DEFERRED;
+        } else if ("estimate".equalsIgnoreCase(value)) {
+            return DataPaginator.CountMode.ESTIMATED;
+        }
+        return DataPaginator.CountMode.EXACT;
+    }
+
     // -------------------------------------------------------------------------
     // Internal numeric parser
     // -------------------------------------------------------------------------
@@ -17,6 +17,7 @@
 package tools.dynamia.web.navigation;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.ResponseEntity;
 import tools.dynamia.commons.collect.PagedList;
 import tools.dynamia.crud.CrudPage;
@@ -75,7 +76,11 @@ public class RestNavigationReadOperation {
      *   <li>Apply static conditions from the {@link ViewDescriptor}.</li>
      *   <li>Apply dynamic field filters from request parameters.</li>
      *   <li>Apply dynamic ordering from {@code _sort} / {@code _order}.</li>
-     *   <li>Paginate using {@code page} / {@code size}.</li>
+     *   <li>Paginate using {@code page} / {@code size}. The requested page is fetched by the same query, so a
+     *   request costs one round-trip plus the count. {@code keyset=true} enables keyset pagination, so the
+     *   response includes a {@code nextCursor}. When a {@code cursor} (the {@code nextCursor} of the previous
+     *   page) is sent, the page is loaded seeking after it instead of skipping rows.</li>
+     *   <li>{@code count=false} skips the total count and {@code count=estimate} counts only up to a limit.</li>
      * </ol>
      *
      * @param path    the navigation path resolving to a {@link CrudPage}
@@ -83,6 +88,19 @@ public class RestNavigationReadOperation {
      * @return a paginated JSON response, or a metadata JSON response when {@code _metadata} is requested
      */
     public ResponseEntity<String> readAll(String path, HttpServletRequest request) {
+        return readAll(path, request, null);
+    }
+
+    /**
+     * Same as {@link #readAll(String, HttpServletRequest)} but when {@code response} is not null the page is
+     * serialized directly to the response output stream and {@code null} is returned.
+     *
+     * @param path     the navigation path resolving to a {@link CrudPage}
+     * @param request  the current HTTP request
+     * @param response the current HTTP response; may be {@code null}
+     * @return a paginated JSON response, a metadata JSON response, or {@code null} if the page was streamed
+     */
+    public ResponseEntity<String> readAll(String path, HttpServletRequest request, HttpServletResponse response) {
         CrudPage page = ctx.findCrudPage(path);
         Class entityClass = page.getEntityClass();
 
@@ -109,13 +127,27 @@ public class RestNavigationReadOperation {
         }
         query.getQueryParameters().paginate(pageSize);
 
-        List content = ctx.getCrudService().executeQuery(query);
+        // requested page is loaded by the first query, no extra round-trip to move from page 1
         DataPaginator paginator = query.getQueryParameters().getPaginator();
-        if (paginator != null) {
-            paginator.setPage(currentPage);
+        paginator.setCountMode(RestNavigationQuerySupport.getCountMode(request));
+        paginator.setInitialPage(currentPage);
+
+        if (Boolean.parseBoolean(request.getParameter("keyset"))) {
+            paginator.setKeyset(true);
+        }
+        String cursor = request.getParameter("cursor");
+        if (cursor != null && !cursor.isBlank()) {
+            paginator.setPageCursor(currentPage, cursor);
+        }
+
+        List content = ctx.getCrudService().executeQuery(query);
+        ListResult result = buildListResult(content, paginator, 0);
+        if (response != null) {
+            RestNavigationContext.writeJsonResponse(response, descriptor, result);
+            return null;
         }
 
-        return RestNavigationContext.buildJsonResponse(descriptor, buildListResult(content, paginator, currentPage), "OK");
+        return RestNavigationContext.buildJsonResponse(descriptor, result, "OK");
     }
 
     // -------------------------------------------------------------------------
@@ -83,7 +83,7 @@ public class RestNavigationUpdateOperation extends AbstractLoggable {
 
         ViewDescriptor descriptor = RestNavigationContext.getJsonFormDescriptor(entityClass, true);
         try {
-            JsonNode node = StringPojoParser.createJsonMapper().readTree(jsonData);
+            JsonNode node = StringPojoParser.getJsonMapper().readTree(jsonData);
             node.properties().forEach(entry -> {
                 Field field = descriptor.getField(entry.getKey());
                 if (field != null) {
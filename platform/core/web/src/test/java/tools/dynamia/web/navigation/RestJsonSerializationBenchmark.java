@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.web.navigation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import tools.dynamia.commons.StringPojoParser;
+import tools.dynamia.domain.query.DataPaginator;
+import tools.dynamia.viewers.JsonView;
+import tools.dynamia.viewers.JsonViewDescriptorDeserializer;
+import tools.dynamia.viewers.JsonViewDescriptorSerializer;
+import tools.dynamia.viewers.ViewDescriptor;
+import tools.dynamia.viewers.impl.DefaultViewDescriptor;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.module.SimpleModule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the REST navigation JSON serialization path for a page of 50 entities. Compares building
+ * a mapper per response (previous behavior) with the shared mappers of {@link JsonView} and {@link StringPojoParser}.
+ * <p>
+ * Run with: <code>mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=tools.dynamia.web.navigation.RestJsonSerializationBenchmark</code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RestJsonSerializationBenchmark {
+
+    private ViewDescriptor descriptor;
+    private RestNavigationContext.ListResult result;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        descriptor = new DefaultViewDescriptor(RoundTripCountingCrudService.Item.class, "json", true);
+
+        List<RoundTripCountingCrudService.Item> items = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            items.add(new RoundTripCountingCrudService.Item((long) i, "Item " + i));
+        }
+        DataPaginator paginator = new DataPaginator(1000, 50, 1);
+        result = RestNavigationReadOperation.buildListResult(items, paginator, 0);
+        result.setPageable(paginator);
+    }
+
+    @Benchmark
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public String mapperPerResponse() {
+        SimpleModule module = new SimpleModule();
+        module.addSerializer(descriptor.getBeanClass(), new JsonViewDescriptorSerializer(descriptor));
+        module.addDeserializer((Class) descriptor.getBeanClass(), new JsonViewDescriptorDeserializer(descriptor));
+        JsonMapper mapper = JsonMapper.builder()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                .addModule(module)
+                .build();
+        return mapper.writeValueAsString(result);
+    }
+
+    @Benchmark
+    public String sharedJsonView() {
+        return new JsonView<>(result, descriptor).renderJson();
+    }
+
+    @Benchmark
+    public String sharedJsonViewPretty() {
+        return new JsonView<>(result, descriptor).renderJson(true);
+    }
+
+    @Benchmark
+    public String pojoMapperPerResponse() {
+        return StringPojoParser.createJsonMapper().writeValueAsString(result);
+    }
+
+    @Benchmark
+    public String sharedPojoMapper() {
+        return StringPojoParser.convertPojoToJson(result);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RestJsonSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
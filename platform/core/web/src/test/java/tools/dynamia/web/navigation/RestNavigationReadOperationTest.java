@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.web.navigation;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.dynamia.crud.CrudPage;
+import tools.dynamia.integration.Containers;
+import tools.dynamia.integration.SimpleObjectContainer;
+import tools.dynamia.navigation.ModuleContainer;
+import tools.dynamia.viewers.ViewDescriptorFactory;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+public class RestNavigationReadOperationTest {
+
+    private RoundTripCountingCrudService crudService;
+    private RestNavigationReadOperation readOperation;
+    private SimpleObjectContainer container;
+
+    @Before
+    public void setup() {
+        container = new SimpleObjectContainer("restReadTest");
+        container.addObject(noDescriptorsFactory());
+        Containers.get().installObjectContainer(container);
+
+        crudService = new RoundTripCountingCrudService(100, 0);
+        readOperation = new RestNavigationReadOperation(testContext(crudService));
+    }
+
+    @After
+    public void tearDown() {
+        Containers.get().removeContainer(container.getName());
+    }
+
+    @Test
+    public void shouldLoadRequestedPageWithCountAndOneQuery() {
+        var response = readOperation.readAll("demo/items", request("page", "3", "size", "10"));
+
+        Assert.assertEquals(2, crudService.getRoundTrips());
+        Assert.assertTrue(response.getBody().contains("\"Item 21\""));
+        Assert.assertFalse(response.getBody().contains("\"Item 1\""));
+    }
+
+    @Test
+    public void shouldSkipCountQuery() {
+        var response = readOperation.readAll("demo/items", request("page", "3", "size", "10", "count", "false"));
+
+        Assert.assertEquals(1, crudService.getRoundTrips());
+        Assert.assertTrue(response.getBody().contains("\"Item 30\""));
+    }
+
+    @Test
+    public void shouldUseFirstPageWhenPageIsOutOfRange() {
+        var response = readOperation.readAll("demo/items", request("page", "50", "size", "10"));
+
+        Assert.assertEquals(2, crudService.getRoundTrips());
+        Assert.assertTrue(response.getBody().contains("\"Item 1\""));
+    }
+
+    @Test
+    public void shouldEnableKeysetPaginationFromRequestFlag() {
+        var offset = readOperation.readAll("demo/items", request("page", "1", "size", "10"));
+        Assert.assertTrue(offset.getBody().contains("\"nextCursor\":null"));
+
+        var keyset = readOperation.readAll("demo/items", request("page", "1", "size", "10", "keyset", "true"));
+        Assert.assertTrue(keyset.getBody().contains("\"keyset\":true"));
+        Assert.assertFalse(keyset.getBody().contains("\"nextCursor\":null"));
+        Assert.assertTrue(keyset.getBody().contains("\"nextCursor\":\""));
+    }
+
+    @Test
+    public void shouldStreamPageToResponse() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        var result = readOperation.readAll("demo/items", request("page", "3", "size", "10"), response);
+
+        Assert.assertNull(result);
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertTrue(response.getContentType().startsWith("application/json"));
+        Assert.assertTrue(response.getContentAsString().contains("\"Item 21\""));
+    }
+
+    @Test
+    public void shouldNotCommitResponseWhenFirstRowFails() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RestNavigationContext.ListResult result = new RestNavigationContext.ListResult();
+        result.setData(List.of(new FailingRow()));
+
+        Assert.assertThrows(RuntimeException.class, () -> RestNavigationContext.writeJsonResponse(response, null, result));
+        Assert.assertFalse(response.isCommitted());
+        Assert.assertNull(response.getContentType());
+        Assert.assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void shouldStreamPagesLargerThanResponseBuffer() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setBufferSize(256);
+        var result = readOperation.readAll("demo/items", request("page", "1", "size", "100"), response);
+
+        Assert.assertNull(result);
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertTrue(response.isCommitted());
+        Assert.assertTrue(response.getContentAsString().contains("\"Item 1\""));
+        Assert.assertTrue(response.getContentAsString().contains("\"Item 100\""));
+    }
+
+    public static class FailingRow {
+
+        public String getName() {
+            throw new IllegalStateException("row not readable");
+        }
+    }
+
+    static MockHttpServletRequest request(String... params) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/demo/items");
+        for (int i = 0; i < params.length; i += 2) {
+            request.addParameter(params[i], params[i + 1]);
+        }
+        return request;
+    }
+
+    static RestNavigationContext testContext(RoundTripCountingCrudService crudService) {
+        CrudPage page = new CrudPage("items", "Items", RoundTripCountingCrudService.Item.class);
+        return new RestNavigationContext(new ModuleContainer(), crudService) {
+            @Override
+            public CrudPage findCrudPage(String path) {
+                return page;
+            }
+        };
+    }
+
+    static ViewDescriptorFactory noDescriptorsFactory() {
+        return (ViewDescriptorFactory) Proxy.newProxyInstance(ViewDescriptorFactory.class.getClassLoader(),
+                new Class[]{ViewDescriptorFactory.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "NoDescriptorsFactory";
+                    default -> null;
+                });
+    }
+}
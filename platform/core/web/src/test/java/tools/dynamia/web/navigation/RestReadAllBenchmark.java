@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.web.navigation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import tools.dynamia.domain.query.DataPaginator;
+import tools.dynamia.domain.util.QueryBuilder;
+import tools.dynamia.integration.Containers;
+import tools.dynamia.integration.SimpleObjectContainer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the REST {@code readAll} endpoint for page 5 with a simulated 200us database round-trip.
+ * Compares the previous flow (count + page 1 + requested page = 3 round-trips) with the single query page fetch
+ * (count + requested page) and {@code count=false} (requested page only).
+ * <p>
+ * Run with: <code>mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=tools.dynamia.web.navigation.RestReadAllBenchmark</code>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RestReadAllBenchmark {
+
+    private static final long ROUND_TRIP_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private RoundTripCountingCrudService crudService;
+    private RestNavigationReadOperation readOperation;
+    private SimpleObjectContainer container;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        container = new SimpleObjectContainer("restReadBenchmark");
+        container.addObject(RestNavigationReadOperationTest.noDescriptorsFactory());
+        Containers.get().installObjectContainer(container);
+
+        crudService = new RoundTripCountingCrudService(10_000, ROUND_TRIP_NANOS);
+        readOperation = new RestNavigationReadOperation(RestNavigationReadOperationTest.testContext(crudService));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Containers.get().removeContainer(container.getName());
+    }
+
+    @Benchmark
+    public Object previousReadAll() {
+        QueryBuilder query = QueryBuilder.select().from(RoundTripCountingCrudService.Item.class, "e");
+        query.getQueryParameters().paginate(50);
+
+        List content = crudService.executeQuery(query);
+        DataPaginator paginator = query.getQueryParameters().getPaginator();
+        paginator.setPage(5);
+
+        ResponseEntity<String> response = RestNavigationContext.buildJsonResponse(null,
+                RestNavigationReadOperation.buildListResult(content, paginator, 5), "OK");
+        return response.getBody();
+    }
+
+    @Benchmark
+    public Object readAll() {
+        return readOperation.readAll("demo/items", RestNavigationReadOperationTest.request("page", "5", "size", "50")).getBody();
+    }
+
+    @Benchmark
+    public Object readAllWithoutCount() {
+        return readOperation.readAll("demo/items", RestNavigationReadOperationTest.request("page", "5", "size", "50", "count", "false")).getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RestReadAllBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
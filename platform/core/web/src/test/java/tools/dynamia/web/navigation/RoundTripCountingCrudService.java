@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.web.navigation;
+
+import tools.dynamia.commons.collect.PagedList;
+import tools.dynamia.domain.InMemoryCrudService;
+import tools.dynamia.domain.query.DataPaginator;
+import tools.dynamia.domain.query.DataPaginatorPagedListDataSource;
+import tools.dynamia.domain.query.QueryMetadata;
+import tools.dynamia.domain.query.QueryParameters;
+import tools.dynamia.domain.util.QueryBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * CrudService that simulates a database: paginated queries return {@link PagedList}s like JpaCrudService, every
+ * count or page query is a round-trip with an optional latency.
+ */
+@SuppressWarnings("unchecked")
+public class RoundTripCountingCrudService extends InMemoryCrudService {
+
+    private final int rows;
+    private final long latencyNanos;
+    private final AtomicInteger roundTrips = new AtomicInteger();
+
+    public RoundTripCountingCrudService(int rows, long latencyNanos) {
+        this.rows = rows;
+        this.latencyNanos = latencyNanos;
+    }
+
+    @Override
+    public <T> List<T> executeQuery(QueryBuilder queryBuilder, QueryParameters parameters) {
+        DataPaginator paginator = parameters.getPaginator();
+        if (paginator == null) {
+            return (List<T>) load(0, rows);
+        }
+
+        if (paginator.getTotalSize() == 0 && paginator.getCountMode() != DataPaginator.CountMode.DEFERRED) {
+            roundTrip();
+            paginator.setTotalSize(rows);
+        }
+
+        List<T> page = (List<T>) loadPage(paginator);
+        var dataSource = new DataPaginatorPagedListDataSource<T>(paginator,
+                new QueryMetadata(queryBuilder.toString(), queryBuilder, parameters), page) {
+            @Override
+            public List<T> loadActivePageData() {
+                return (List<T>) loadPage(paginator);
+            }
+        };
+        return new PagedList<>(dataSource);
+    }
+
+    private List<Item> loadPage(DataPaginator paginator) {
+        boolean openEnded = paginator.isOpenEnded();
+        List<Item> page = load(paginator.getFirstResult(), paginator.getPageSize() + (openEnded ? 1 : 0));
+        if (openEnded) {
+            long loaded = (long) paginator.getFirstResult() + Math.min(page.size(), paginator.getPageSize());
+            if (page.size() > paginator.getPageSize()) {
+                page = page.subList(0, paginator.getPageSize());
+                paginator.setTotalSize(loaded + 1);
+            } else {
+                paginator.setTotalSize(loaded);
+            }
+        }
+        if (paginator.isKeyset() && !page.isEmpty()) {
+            // remember the last key like JpaCrudService does
+            paginator.setPageKey(paginator.getPage(), new Object[]{page.getLast().getId()});
+        }
+        return page;
+    }
+
+    private List<Item> load(int first, int max) {
+        roundTrip();
+        List<Item> result = new ArrayList<>();
+        for (int i = first; i < Math.min(rows, first + max); i++) {
+            result.add(new Item(i + 1L, "Item " + (i + 1)));
+        }
+        return result;
+    }
+
+    private void roundTrip() {
+        roundTrips.incrementAndGet();
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+    }
+
+    public int getRoundTrips() {
+        return roundTrips.get();
+    }
+
+    public void resetRoundTrips() {
+        roundTrips.set(0);
+    }
+
+    public static class Item {
+        private final Long id;
+        private final String name;
+
+        public Item(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -54,6 +54,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * ZK Framework implementation of the CRUD controller for managing entity operations in web applications.
@@ -490,6 +491,75 @@ public class CrudController<E> extends SelectorComposer implements Serializable,
         return QueryProjectionBuilder.buildFromViewDescriptor(getEntityClass(), dataSetView.getViewDescriptor(), getParams());
     }
 
+    /**
+     * Checks if current query can be executed again as a stream using {@link #streamQuery()}. Results of
+     * {@link QueryExecuter} entities and query-by-example cannot be streamed.
+     *
+     * @return true if current query can be streamed
+     */
+    public boolean isQueryStreamable() {
+        return entityClass != null && !alwaysFindByExample && !ObjectOperations.isAssignable(entityClass, QueryExecuter.class);
+    }
+
+    /**
+     * Executes current query again as a server side stream, without paginator. Rows are fetched while the stream is
+     * consumed, so exports and batch processes can read the whole result without keeping it in memory. Like
+     * {@link CrudService#stream(Class, QueryParameters)} the stream must be consumed inside a transaction and closed.
+     * Call it from the event thread, background tasks should use {@link #streamQuery(QueryParameters, QueryBuilder)}.
+     *
+     * @return a stream that must be closed
+     * @throws IllegalStateException if the query is not streamable, see {@link #isQueryStreamable()}
+     */
+    public Stream<?> streamQuery() {
+        QueryParameters parameters = getStreamQueryParams();
+        return streamQuery(parameters, getStreamQueryProjection(parameters));
+    }
+
+    /**
+     * Copy of current query parameters without paginator, used to stream the query. Call it from the event thread
+     *
+     * @return the query parameters
+     * @throws IllegalStateException if the query is not streamable, see {@link #isQueryStreamable()}
+     */
+    public QueryParameters getStreamQueryParams() {
+        if (!isQueryStreamable()) {
+            throw new IllegalStateException("Query of " + entityClass + " cannot be streamed");
+        }
+
+        QueryParameters parameters = getParams().clone();
+        parameters.paginate(null);
+        return parameters;
+    }
+
+    /**
+     * Projection of current view used to stream the query, or null if the query is not a projection. Call it from the
+     * event thread
+     *
+     * @param parameters the stream query parameters
+     * @return the projection query or null
+     */
+    public QueryBuilder getStreamQueryProjection(QueryParameters parameters) {
+        return isQueryProjection() ? QueryProjectionBuilder.buildFromViewDescriptor(getEntityClass(),
+                dataSetView.getViewDescriptor(), parameters) : null;
+    }
+
+    /**
+     * Executes the query as a server side stream using parameters and projection created in the event thread, see
+     * {@link #getStreamQueryParams()} and {@link #getStreamQueryProjection(QueryParameters)}. Safe to call from
+     * background tasks.
+     *
+     * @param parameters the stream query parameters
+     * @param projection the projection query or null
+     * @return a stream that must be closed
+     */
+    public Stream<?> streamQuery(QueryParameters parameters, QueryBuilder projection) {
+        if (projection != null) {
+            return crudService.executeQueryStream(projection);
+        } else {
+            return crudService.stream(entityClass, parameters);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -989,7 +1059,9 @@ public class CrudController<E> extends SelectorComposer implements Serializable,
 
     /**
      * Configures the data paginator from the ZK paginator component if present.
-     * This method sets up pagination parameters for the query.
+     * This method sets up pagination parameters for the query. View descriptor params
+     * {@code keysetPagination: true} and {@code countMode: deferred} enable keyset pagination and
+     * skip the total count query.
      */
     private void configurePaginator() {
         if (paginator != null) {
@@ -997,9 +1069,16 @@ public class CrudController<E> extends SelectorComposer implements Serializable,
             dataPaginator.setPageSize(paginator.getPageSize());
             getParams().paginate(dataPaginator);
 
-            if (dataSetView.getViewDescriptor().getParams().get("pagination") == Boolean.FALSE) {
+            var viewParams = dataSetView.getViewDescriptor().getParams();
+            if (viewParams.get("pagination") == Boolean.FALSE) {
                 getParams().paginate(null);
             }
+            if (viewParams.get("keysetPagination") == Boolean.TRUE) {
+                dataPaginator.setKeyset(true);
+            }
+            if (viewParams.get("countMode") != null) {
+                dataPaginator.setCountMode(DataPaginator.CountMode.valueOf(viewParams.get("countMode").toString().toUpperCase()));
+            }
         }
     }
 
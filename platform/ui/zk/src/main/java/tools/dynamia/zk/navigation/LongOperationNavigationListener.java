@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.zk.navigation;
+
+import org.zkoss.zk.ui.Executions;
+import tools.dynamia.integration.sterotypes.Listener;
+import tools.dynamia.navigation.NavigationListener;
+import tools.dynamia.navigation.PageEvent;
+import tools.dynamia.zk.util.LongOperation;
+import tools.dynamia.zk.util.ZKUtil;
+
+/**
+ * Cancel {@link LongOperation}s started with {@link LongOperation#cancelOnPageLeave()} and their running queries
+ * when the user leaves or closes the page that started them.
+ *
+ * @author Mario A. Serrano Leones
+ */
+@Listener
+public class LongOperationNavigationListener implements NavigationListener {
+
+    @Override
+    public void onPageLoad(PageEvent evt) {
+        // nothing to do
+    }
+
+    @Override
+    public void onPageUnload(PageEvent evt) {
+        cancelOperations(evt);
+    }
+
+    @Override
+    public void onPageClose(PageEvent evt) {
+        cancelOperations(evt);
+    }
+
+    private void cancelOperations(PageEvent evt) {
+        if (evt.getPage() != null && ZKUtil.isInEventListener()) {
+            LongOperation.cancelPageOperations(Executions.getCurrent().getDesktop(), evt.getPage());
+        }
+    }
+}
@@ -24,7 +24,11 @@ import tools.dynamia.actions.ActionGroup;
 import tools.dynamia.actions.ReadableOnly;
 import tools.dynamia.commons.ClassMessages;
 import tools.dynamia.commons.Messages;
+import tools.dynamia.commons.collect.PagedList;
 import tools.dynamia.domain.query.DataSet;
+import tools.dynamia.domain.query.QueryParameters;
+import tools.dynamia.domain.util.QueryBuilder;
+import tools.dynamia.integration.ProgressMonitor;
 import tools.dynamia.reports.ReportOutputType;
 import tools.dynamia.reports.SimpleReportDescriptor;
 import tools.dynamia.ui.MessageType;
@@ -32,11 +36,14 @@ import tools.dynamia.ui.UIMessages;
 import tools.dynamia.viewers.ViewDescriptor;
 import tools.dynamia.viewers.util.Viewers;
 import tools.dynamia.zk.crud.CrudController;
+import tools.dynamia.zk.ui.LongOperationMonitorWindow;
+import tools.dynamia.zk.util.LongOperation;
 import tools.dynamia.zk.util.ZKUtil;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.stream.Stream;
 
 public abstract class AbstractExportAction extends AbstractLocalAction implements ReadableOnly {
 
@@ -53,6 +60,18 @@ public abstract class AbstractExportAction extends AbstractLocalAction implement
 
     public void actionPerformed(ActionEvent evt) {
         DataSet dataSet = crudController != null ? crudController.getQueryResult() : null;
+
+        if (dataSet != null && dataSet.getData() instanceof PagedList<?> pagedList
+                && this instanceof StreamingExportAction streaming && crudController.isQueryStreamable()) {
+            long total = pagedList.size();
+            if (total > LARGE) {
+                UIMessages.showQuestion(MESSAGES.get("confirm_large_export"), () -> exportQuery(streaming, total, getViewDescriptor()));
+            } else {
+                exportQuery(streaming, total, getViewDescriptor());
+            }
+            return;
+        }
+
         Collection data = null;
         if (dataSet != null && dataSet.getData() != null) {
             if (dataSet.getData() instanceof Collection collection) {
@@ -76,6 +95,41 @@ public abstract class AbstractExportAction extends AbstractLocalAction implement
 
     protected abstract void export(Collection data, ViewDescriptor descriptor);
 
+    /**
+     * Export current crud controller query in a background {@link LongOperation}. The query is executed again
+     * as a server side stream inside a transaction, so rows are written while fetched and memory use does not
+     * depend on result size. Query parameters and projection are created here, in the event thread.
+     *
+     * @param exporter   the streaming export
+     * @param total      expected rows, used for progress
+     * @param descriptor export view descriptor
+     */
+    protected void exportQuery(StreamingExportAction exporter, long total, ViewDescriptor descriptor) {
+        File temp = createTempFile();
+        if (temp == null) {
+            return;
+        }
+
+        CrudController controller = crudController;
+        QueryParameters parameters = controller.getStreamQueryParams();
+        QueryBuilder projection = controller.getStreamQueryProjection(parameters);
+        ProgressMonitor monitor = new ProgressMonitor();
+        LongOperation operation = LongOperation.create()
+                .execute(() -> controller.getCrudService().executeWithinTransaction(() -> {
+                    try (Stream<?> data = controller.streamQuery(parameters, projection)) {
+                        exporter.export(data, total, descriptor, temp, monitor);
+                    }
+                }))
+                .onFinish(() -> download(temp))
+                .onException(e -> log("Error exporting query of " + controller.getEntityClass(), e))
+                .start();
+
+        LongOperationMonitorWindow monitorWindow = new LongOperationMonitorWindow(operation, monitor);
+        monitorWindow.setMessageTemplate(MESSAGES.get("exporting_progress"));
+        monitorWindow.setTitle(MESSAGES.get("exporting"));
+        monitorWindow.doModal();
+    }
+
 
     public abstract ReportOutputType getOuputType();
 
@@ -32,9 +32,10 @@ import tools.dynamia.zk.util.LongOperation;
 
 import java.io.File;
 import java.util.Collection;
+import java.util.stream.Stream;
 
 @InstallAction
-public class ExportCSVAction extends AbstractExportAction {
+public class ExportCSVAction extends AbstractExportAction implements StreamingExportAction {
 
 
 
@@ -51,17 +52,7 @@ public class ExportCSVAction extends AbstractExportAction {
 
 	public void export(Collection data, ViewDescriptor descriptor) {
 
-		PlainFileExporter exporter = new PlainFileExporter();
-
-		Viewers.getFields(descriptor).stream().filter(f -> f.isVisible() && !f.isCollection()).forEach(f -> {
-			ExporterColumn column = new ExporterColumn(f.getName(), f.getLocalizedLabel(), getFormatPattern(f),
-					f.getFieldClass());
-			if (f.getParams().get("entityAlias") != null) {
-				column.setEntityAlias((String) f.getParams().get("entityAlias"));
-			}
-			//noinspection unchecked
-			exporter.addColumn(column);
-		});
+		PlainFileExporter exporter = createExporter(descriptor);
 
 		File temp = createTempFile();
 
@@ -77,6 +68,27 @@ public class ExportCSVAction extends AbstractExportAction {
 		monitorWindow.doModal();
 	}
 
+	@Override
+	@SuppressWarnings("unchecked")
+	public void export(Stream<?> data, long total, ViewDescriptor descriptor, File file, ProgressMonitor monitor) {
+		createExporter(descriptor).export(file, (Stream) data, total, monitor);
+	}
+
+	private PlainFileExporter createExporter(ViewDescriptor descriptor) {
+		PlainFileExporter exporter = new PlainFileExporter();
+
+		Viewers.getFields(descriptor).stream().filter(f -> f.isVisible() && !f.isCollection()).forEach(f -> {
+			ExporterColumn column = new ExporterColumn(f.getName(), f.getLocalizedLabel(), getFormatPattern(f),
+					f.getFieldClass());
+			if (f.getParams().get("entityAlias") != null) {
+				column.setEntityAlias((String) f.getParams().get("entityAlias"));
+			}
+			//noinspection unchecked
+			exporter.addColumn(column);
+		});
+		return exporter;
+	}
+
 	private static String getFormatPattern(Field f) {
 		String formatPattern = (String) f.getParams().get(Viewers.PARAM_FORMAT_PATTERN);
 		if (formatPattern == null || formatPattern.isEmpty()) {
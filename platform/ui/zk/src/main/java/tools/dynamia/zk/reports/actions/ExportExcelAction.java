@@ -37,10 +37,11 @@ import tools.dynamia.zk.util.LongOperation;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.Collection;
+import java.util.stream.Stream;
 
 @SuppressWarnings("unchecked")
 @InstallAction
-public class ExportExcelAction extends AbstractExportAction implements ReadableOnly {
+public class ExportExcelAction extends AbstractExportAction implements ReadableOnly, StreamingExportAction {
 
     private static final int LARGE = 5000;
     private static final ClassMessages MESSAGES = ClassMessages.get(ExportExcelAction.class);
@@ -53,6 +54,26 @@ public class ExportExcelAction extends AbstractExportAction implements ReadableO
 
 
     public void export(Collection data, ViewDescriptor descriptor) {
+        ExcelCollectionExporter exporter = createExporter(descriptor);
+        File temp = createTempFile();
+        export(data, temp, exporter);
+    }
+
+    @Override
+    public void export(Stream<?> data, long total, ViewDescriptor descriptor, File file, ProgressMonitor monitor) {
+        createExporter(descriptor).export(file, (Stream) data, total, monitor);
+    }
+
+    @Override
+    protected void download(File temp) {
+        try {
+            Filedownload.save(temp, ReportOutputType.EXCEL.getContentType());
+        } catch (FileNotFoundException e) {
+            log("Error downloading file", e);
+        }
+    }
+
+    private ExcelCollectionExporter createExporter(ViewDescriptor descriptor) {
         ExcelCollectionExporter exporter = new ExcelCollectionExporter();
 
         Viewers.getFields(descriptor).stream().filter(f -> f.isVisible() && !f.isCollection()).forEach(f -> {
@@ -64,8 +85,7 @@ public class ExportExcelAction extends AbstractExportAction implements ReadableO
             //noinspection unchecked
             exporter.addColumn(column);
         });
-        File temp = createTempFile();
-        export(data, temp, exporter);
+        return exporter;
     }
 
 
@@ -64,7 +64,7 @@ public class ExportJsonAction extends AbstractExportAction {
         try {
             JsonView jsonView = new JsonView(data, descriptor);
             File temp = createTempFile();
-            IOUtils.copy(jsonView.renderJson().getBytes(StandardCharsets.UTF_8), temp);
+            IOUtils.copy(jsonView.renderJson(true).getBytes(StandardCharsets.UTF_8), temp);
             download(temp);
         } catch (IOException e) {
             throw new RuntimeException(e);
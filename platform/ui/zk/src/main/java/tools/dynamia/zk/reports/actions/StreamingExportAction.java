@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.zk.reports.actions;
+
+import tools.dynamia.integration.ProgressMonitor;
+import tools.dynamia.viewers.ViewDescriptor;
+
+import java.io.File;
+import java.util.stream.Stream;
+
+/**
+ * Export actions that can write rows streamed from the crud controller query. {@link AbstractExportAction} export
+ * paged query results of actions implementing this interface executing the query again as a stream, instead of
+ * iterating the in-memory result page by page.
+ */
+public interface StreamingExportAction {
+
+    /**
+     * Write rows streamed from crud controller query to file. Called from a background thread
+     *
+     * @param data       rows stream
+     * @param total      expected rows
+     * @param descriptor export view descriptor
+     * @param file       output file
+     * @param monitor    progress monitor
+     */
+    void export(Stream<?> data, long total, ViewDescriptor descriptor, File file, ProgressMonitor monitor);
+}
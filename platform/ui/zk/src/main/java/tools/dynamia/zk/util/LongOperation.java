@@ -16,19 +16,26 @@
  */
 package tools.dynamia.zk.util;
 
+import org.zkoss.zk.ui.Desktop;
+import org.zkoss.zk.ui.Executions;
 import org.zkoss.zk.ui.event.Event;
 import org.zkoss.zk.ui.event.EventListener;
 import org.zkoss.zk.ui.event.EventQueue;
 import org.zkoss.zk.ui.event.EventQueues;
 import tools.dynamia.commons.Callback;
 import tools.dynamia.commons.logger.LoggingService;
+import tools.dynamia.domain.query.QueryDeadline;
 import tools.dynamia.integration.ProgressEvent;
 import tools.dynamia.integration.scheduling.SchedulerUtil;
+import tools.dynamia.navigation.Page;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
@@ -53,6 +60,7 @@ import java.util.function.Consumer;
 public class LongOperation implements Runnable {
 
     private static final LoggingService LOGGER = LoggingService.get(LongOperation.class);
+    private static final Set<LongOperation> PAGE_BOUND = ConcurrentHashMap.newKeySet();
     private EventQueue<LongOpEvent> opQueue;
 
     /**
@@ -107,6 +115,11 @@ public class LongOperation implements Runnable {
 
     private CompletableFuture<Void> future;
     private final AtomicBoolean cancelled = new AtomicBoolean(false);
+    private Duration queryTimeout;
+    private volatile QueryDeadline queryDeadline;
+    private boolean cancelOnPageLeave;
+    private Desktop desktop;
+    private Page page;
 
     /**
      * Create a new LongOperation instance.
@@ -185,6 +198,22 @@ public class LongOperation implements Runnable {
         return this;
     }
 
+    /**
+     * Stop database queries executed by this operation after the timeout
+     */
+    public LongOperation queryTimeout(Duration timeout) {
+        this.queryTimeout = timeout;
+        return this;
+    }
+
+    /**
+     * Cancel this operation and its running queries when the user leaves or closes the current page
+     */
+    public LongOperation cancelOnPageLeave() {
+        this.cancelOnPageLeave = true;
+        return this;
+    }
+
     /**
      * Notify the UI of current progress.
      * Safe to call from background execution.
@@ -199,6 +228,7 @@ public class LongOperation implements Runnable {
      */
     public void cancel() {
         cancelled.set(true);
+        if (queryDeadline != null) queryDeadline.cancel();
         if (future != null) future.cancel(true);
         postEvent(LongOpEventType.CANCEL, null, null);
         LOGGER.warn("Task {} cancelled", name);
@@ -219,6 +249,12 @@ public class LongOperation implements Runnable {
         registerQueueListener();
         postEvent(LongOpEventType.START, null, null);
         LOGGER.info("Starting task: {}", name);
+        queryDeadline = queryTimeout != null ? QueryDeadline.of(queryTimeout) : QueryDeadline.cancellable();
+        if (cancelOnPageLeave && ZKUtil.isInEventListener()) {
+            desktop = Executions.getCurrent().getDesktop();
+            page = ZKUtil.getExecutionNavigationPage();
+            PAGE_BOUND.add(this);
+        }
         future = SchedulerUtil.run(this);
         return this;
     }
@@ -226,11 +262,16 @@ public class LongOperation implements Runnable {
     @Override
     public void run() {
         try {
-            if (!cancelled.get()) safeExecute(executeCallback);
+            if (!cancelled.get()) {
+                try (QueryDeadline.Scope ignored = queryDeadline != null ? queryDeadline.bind() : null) {
+                    safeExecute(executeCallback);
+                }
+            }
             if (!cancelled.get()) postEvent(LongOpEventType.FINISH, null, null);
         } catch (Exception ex) {
-            postEvent(LongOpEventType.EXCEPTION, null, cast(ex));
+            if (!cancelled.get()) postEvent(LongOpEventType.EXCEPTION, null, cast(ex));
         } finally {
+            PAGE_BOUND.remove(this);
             postEvent(LongOpEventType.CLEANUP, null, null);
         }
     }
@@ -302,6 +343,17 @@ public class LongOperation implements Runnable {
         }
     }
 
+    /**
+     * Cancel operations started with {@link #cancelOnPageLeave()} from the page in the desktop
+     */
+    public static void cancelPageOperations(Desktop desktop, Page page) {
+        for (LongOperation op : PAGE_BOUND) {
+            if (op.desktop == desktop && op.page != null && op.page.equals(page)) {
+                op.cancel();
+            }
+        }
+    }
+
     /**
      * Factory shortcut
      */
@@ -448,9 +448,13 @@ public class TableView<T> extends Listbox implements TableViewComponent<T>, CanB
     public void updateSelectedItem() {
         try {
             var selectRow = getSelectedItem();
-            var binder = (Binder) selectRow.getAttribute(TableViewRowRenderer.ROW_BINDER_NAME);
             ZKBindingUtil.bindBean(selectRow, Viewers.BEAN, selectRow.getValue());
-            binder.loadComponent(selectRow, false);
+            if (getItemRenderer() instanceof TableViewRowRenderer rowRenderer) {
+                rowRenderer.reloadRow(selectRow);
+            } else {
+                var binder = (Binder) selectRow.getAttribute(TableViewRowRenderer.ROW_BINDER_NAME);
+                binder.loadComponent(selectRow, false);
+            }
         } catch (Exception e) {
             //cannot doit
         }
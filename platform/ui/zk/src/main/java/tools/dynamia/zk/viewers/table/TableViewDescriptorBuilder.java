@@ -85,6 +85,14 @@ public class TableViewDescriptorBuilder extends ViewDescriptorBuilder {
         return this;
     }
 
+    /**
+     * Render read-only label cells without a row binder, see {@link TableViewRowRenderer}
+     */
+    public TableViewDescriptorBuilder fastRender() {
+        params(Viewers.PARAM_RENDER_MODE, Viewers.RENDER_MODE_FAST);
+        return this;
+    }
+
     @Override
     public TableViewDescriptorBuilder fields(FieldBuilder... fields) {
         return (TableViewDescriptorBuilder) super.fields(fields);
@@ -19,6 +19,7 @@
 package tools.dynamia.zk.viewers.table;
 
 import org.zkoss.bind.Binder;
+import org.zkoss.bind.Converter;
 import org.zkoss.zk.ui.Component;
 import org.zkoss.zk.ui.HtmlBasedComponent;
 import org.zkoss.zk.ui.event.Events;
@@ -48,17 +49,23 @@ import tools.dynamia.zk.util.ZKUtil;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Default row renderer for {@link TableView} list items.
  * <p>
  * It creates per-row binders, renders common cells and field cells,
  * attaches row actions, and applies enum-based visual styles.
+ * <p>
+ * When the descriptor has the param <code>renderMode: fast</code> rows are rendered without binder. Label cells
+ * are loaded directly from bean properties and converters, and a row binder is only created when a cell or action
+ * of the row needs bindings or the row is edited (see {@link #getRowBinder(Listitem)}).
  */
 public class TableViewRowRenderer implements ListitemRenderer<Object> {
     private LoggingService logger = new SLF4JLoggingService(TableViewRowRenderer.class);
     private static final String VIEW_TYPE_NAME = "table";
     public static final String ROW_BINDER_NAME = "rowBinder";
+    public static final String ROW_FAST_CELLS = "rowFastCells";
 
     private ViewDescriptor viewDescriptor;
     private TableView tableView;
@@ -66,6 +73,7 @@ public class TableViewRowRenderer implements ListitemRenderer<Object> {
 
     private SimpleCache<String, LocalAction> actionsCache = new SimpleCache<>();
     private ActionLoader<ViewAction> actionLoader = new ActionLoader<>(ViewAction.class);
+    private final Map<String, Optional<Converter>> convertersCache = new HashMap<>();
 
     /**
      * Creates a renderer without descriptor/table references.
@@ -113,9 +121,7 @@ public class TableViewRowRenderer implements ListitemRenderer<Object> {
     @Override
     public void render(Listitem item, Object data, int index) {
         if (data != null) {
-            Binder binder = ZKBindingUtil.createBinder();
-            ZKBindingUtil.initBinder(binder, item, item);
-            item.setAttribute(ROW_BINDER_NAME, binder);
+            Binder binder = isFastRenderMode() ? null : getRowBinder(item);
             item.setAttribute(Viewers.BEAN, data);
             item.setValue(data);
 
@@ -124,7 +130,62 @@ public class TableViewRowRenderer implements ListitemRenderer<Object> {
     }
 
     /**
-     * Renders all row cells, actions and writable listeners for a data item.
+     * Returns the binder of the row, creating it the first time. In fast render mode rows are rendered
+     * without binder, call this method to bind components when the row enter edit mode.
+     *
+     * @param item the row
+     * @return the row binder
+     */
+    public Binder getRowBinder(Listitem item) {
+        Binder binder = (Binder) item.getAttribute(ROW_BINDER_NAME);
+        if (binder == null) {
+            binder = createRowBinder(item);
+            item.setAttribute(ROW_BINDER_NAME, binder);
+        }
+        return binder;
+    }
+
+    /**
+     * Creates and initializes a new binder for the row
+     *
+     * @param item the row
+     * @return the new binder
+     */
+    protected Binder createRowBinder(Listitem item) {
+        Binder binder = ZKBindingUtil.createBinder();
+        ZKBindingUtil.initBinder(binder, item, item);
+        return binder;
+    }
+
+    /**
+     * Reload row cells from its bean, fast rendered cells are read again and bound cells are loaded by row binder.
+     *
+     * @param item the row
+     */
+    @SuppressWarnings("unchecked")
+    public void reloadRow(Listitem item) {
+        Map<Label, Field> fastCells = (Map<Label, Field>) item.getAttribute(ROW_FAST_CELLS);
+        if (fastCells != null) {
+            Object data = item.getValue();
+            fastCells.forEach((label, field) -> loadFastCell(label, field, getFieldValue(data, field)));
+        }
+
+        Binder binder = (Binder) item.getAttribute(ROW_BINDER_NAME);
+        if (binder != null) {
+            binder.loadComponent(item, false);
+        }
+    }
+
+    /**
+     * Returns true if descriptor param <code>renderMode</code> is <code>fast</code>
+     */
+    public boolean isFastRenderMode() {
+        return viewDescriptor != null
+                && Viewers.RENDER_MODE_FAST.equals(viewDescriptor.getParams().get(Viewers.PARAM_RENDER_MODE));
+    }
+
+    /**
+     * Renders all row cells, actions and writable listeners for a data item. Binder is null in fast render mode.
      */
     protected void renderRow(Listitem item, Object data, int index, Binder binder) {
         Map<String, TableFieldComponent> fieldsComponentsMap = new HashMap<>();
@@ -147,14 +208,17 @@ public class TableViewRowRenderer implements ListitemRenderer<Object> {
             renderActions(item, data, binder);
         }
 
-        binder.loadComponent(item, false);
+        Binder rowBinder = binder != null ? binder : (Binder) item.getAttribute(ROW_BINDER_NAME);
+        if (rowBinder != null) {
+            rowBinder.loadComponent(item, false);
+        }
 
         if (viewDescriptor.getParams().get(Viewers.PARAM_WRITABLE) == Boolean.TRUE) {
             if (data instanceof PropertyChangeListenerContainer) {
                 ((PropertyChangeListenerContainer) data).addPropertyChangeListener(evt -> {
                     Field field = viewDescriptor.getField(evt.propertyName());
                     if (field != null) {
-                        binder.loadComponent(item, false);
+                        reloadRow(item);
                         tableView.computeFooters();
                     }
                 });
@@ -202,7 +266,7 @@ public class TableViewRowRenderer implements ListitemRenderer<Object> {
                     }
                     if (actionRef.getAttributes() != null && actionRef.getAttributes().containsKey(Viewers.PARAM_BINDINGS)) {
                         Map bindingMap = (Map) actionRef.getAttributes().get(Viewers.PARAM_BINDINGS);
-                        ZKBindingUtil.bindComponent(binder, actionComp, bindingMap, Viewers.BEAN);
+                        ZKBindingUtil.bindComponent(binder != null ? binder : getRowBinder(item), actionComp, bindingMap, Viewers.BEAN);
                     }
                 }
 
@@ -239,17 +303,14 @@ public class TableViewRowRenderer implements ListitemRenderer<Object> {
         Listcell cell = new Listcell();
         cell.setParent(item);
         ObjectOperations.setupBean(cell, (Map) field.getParam("cell"));
+        Object value = null;
         Object cellValue = "";
 
         try {
-
-            if (field.getFieldClass() != null && field.getFieldClass().equals(boolean.class)) {
-                cellValue = ObjectOperations.invokeBooleanGetMethod(data, field.getName());
-            } else {
-                cellValue = ObjectOperations.invokeGetMethod(data, field.getName());
-                if (cellValue != null && !ObjectOperations.isStandardClass(cellValue.getClass())) {
-                    cellValue = ObjectOperations.getInstanceName(cellValue);
-                }
+            value = readFieldValue(data, field);
+            cellValue = value;
+            if (cellValue != null && !ObjectOperations.isStandardClass(cellValue.getClass())) {
+                cellValue = ObjectOperations.getInstanceName(cellValue);
             }
         } catch (ReflectionException e) {
             // nothing to do
@@ -289,13 +350,22 @@ public class TableViewRowRenderer implements ListitemRenderer<Object> {
                 if (isBindiable(field, comp)) {
                     Object bmapObject = field.getParam(Viewers.PARAM_BINDINGS);
                     if (bmapObject instanceof Map bindingMap) {
-                        ZKBindingUtil.bindComponent(binder, comp, bindingMap, Viewers.BEAN);
+                        ZKBindingUtil.bindComponent(binder != null ? binder : getRowBinder(item), comp, bindingMap, Viewers.BEAN);
+                    } else if (binder == null && isFastRenderable(field, comp)) {
+                        Label label = (Label) comp;
+                        loadFastCell(label, field, value);
+                        Map<Label, Field> fastCells = (Map<Label, Field>) item.getAttribute(ROW_FAST_CELLS);
+                        if (fastCells == null) {
+                            fastCells = new HashMap<>();
+                            item.setAttribute(ROW_FAST_CELLS, fastCells);
+                        }
+                        fastCells.put(label, field);
                     } else {
                         String converterExpression = (String) field.getParam(Viewers.PARAM_CONVERTER);
                         converterExpression = Util.checkConverterClass(converterExpression);
                         String attr = (String) field.getParam(Viewers.PARAM_BINDING_ATTRIBUTE);
                         String expression = data instanceof BeanMap ? Viewers.BEAN + "['" + field.getName() + "']" : Viewers.BEAN + "." + field.getName();
-                        ZKBindingUtil.bindComponent(binder, comp, attr, expression, converterExpression);
+                        ZKBindingUtil.bindComponent(binder != null ? binder : getRowBinder(item), comp, attr, expression, converterExpression);
                     }
                 }
             }
@@ -319,6 +389,64 @@ public class TableViewRowRenderer implements ListitemRenderer<Object> {
         }
     }
 
+    private Object readFieldValue(Object data, Field field) {
+        if (field.getFieldClass() != null && field.getFieldClass().equals(boolean.class)) {
+            return ObjectOperations.invokeBooleanGetMethod(data, field.getName());
+        } else {
+            return ObjectOperations.invokeGetMethod(data, field.getName());
+        }
+    }
+
+    private Object getFieldValue(Object data, Field field) {
+        try {
+            return readFieldValue(data, field);
+        } catch (ReflectionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Only plain labels bound by value can be rendered without binder
+     */
+    private boolean isFastRenderable(Field field, Component comp) {
+        if (comp.getClass() != Label.class) {
+            return false;
+        }
+        Object attr = field.getParam(Viewers.PARAM_BINDING_ATTRIBUTE);
+        return attr == null || "value".equals(attr);
+    }
+
+    /**
+     * Set the label value like a binder does, applying field converter if any
+     */
+    @SuppressWarnings("unchecked")
+    private void loadFastCell(Label label, Field field, Object value) {
+        Object uiValue = value;
+        Converter converter = getConverter(field);
+        if (converter != null) {
+            uiValue = converter.coerceToUi(value, label, null);
+            if (uiValue == Converter.IGNORED_VALUE) {
+                return;
+            }
+        }
+        label.setValue(uiValue != null ? uiValue.toString() : null);
+    }
+
+    private Converter getConverter(Field field) {
+        return convertersCache.computeIfAbsent(field.getName(), name -> {
+            String converterClass = Util.checkConverterClass((String) field.getParam(Viewers.PARAM_CONVERTER));
+            if (converterClass == null) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of((Converter) ObjectOperations.newInstance(Class.forName(converterClass)));
+            } catch (Exception e) {
+                logger.warn("Cannot load converter class " + converterClass + ": " + e.getMessage());
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
     /**
      * Creates the component used to display a field value in a table cell.
      */
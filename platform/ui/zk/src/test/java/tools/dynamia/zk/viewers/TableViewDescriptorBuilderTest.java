@@ -26,10 +26,13 @@ import tools.dynamia.viewers.ViewDescriptor;
 import tools.dynamia.viewers.ViewDescriptorFactory;
 import tools.dynamia.viewers.impl.DefaultViewDescriptorFactory;
 import tools.dynamia.viewers.impl.YamlViewDescriptorReader;
+import tools.dynamia.viewers.util.Viewers;
+import tools.dynamia.zk.viewers.table.TableViewRowRenderer;
 
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static tools.dynamia.zk.viewers.table.TableViewDescriptorBuilder.column;
 import static tools.dynamia.zk.viewers.table.TableViewDescriptorBuilder.f;
 import static tools.dynamia.zk.viewers.table.TableViewDescriptorBuilder.h;
@@ -96,4 +99,15 @@ public class TableViewDescriptorBuilderTest {
 
     }
 
+    @Test
+    public void shouldSetFastRenderMode() {
+        ViewDescriptor descriptor = tableViewDescriptor(DummyBean.class, false)
+                .fields(column("name"))
+                .fastRender()
+                .build();
+
+        assertEquals(Viewers.RENDER_MODE_FAST, descriptor.getParams().get(Viewers.PARAM_RENDER_MODE));
+        assertTrue(new TableViewRowRenderer(descriptor, null).isFastRenderMode());
+    }
+
 }
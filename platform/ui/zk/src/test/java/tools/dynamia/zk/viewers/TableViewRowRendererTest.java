@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2023 Dynamia Soluciones IT S.A.S - NIT 900302344-1
+ * Colombia / South America
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tools.dynamia.zk.viewers;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.zkoss.bind.Binder;
+import org.zkoss.zk.ui.Component;
+import org.zkoss.zul.Label;
+import org.zkoss.zul.Listcell;
+import org.zkoss.zul.Listitem;
+import tools.dynamia.commons.MapBuilder;
+import tools.dynamia.integration.Containers;
+import tools.dynamia.integration.SimpleObjectContainer;
+import tools.dynamia.viewers.ViewDescriptor;
+import tools.dynamia.viewers.util.Viewers;
+import tools.dynamia.zk.viewers.table.TableView;
+import tools.dynamia.zk.viewers.table.TableViewRowRenderer;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static tools.dynamia.zk.viewers.table.TableViewDescriptorBuilder.column;
+import static tools.dynamia.zk.viewers.table.TableViewDescriptorBuilder.tableViewDescriptor;
+
+public class TableViewRowRendererTest {
+
+    private List<String> binderCalls;
+
+    @Before
+    public void init() {
+        Containers.get().installObjectContainer(new SimpleObjectContainer());
+        binderCalls = new ArrayList<>();
+    }
+
+    @Test
+    public void shouldRenderFastRowsWithoutBinder() {
+        TableViewRowRenderer renderer = renderer(tableViewDescriptor(DummyBean.class, false)
+                .fields(column("name"), column("age").params(Viewers.PARAM_CONVERTER, "converters.Integer"))
+                .fastRender()
+                .build());
+
+        Listitem item = new Listitem();
+        renderer.render(item, bean("Mario", 12500), 0);
+
+        assertNull(item.getAttribute(TableViewRowRenderer.ROW_BINDER_NAME));
+        assertEquals(0, binderCalls.size());
+        assertEquals("Mario", label(item, 0).getValue());
+        assertEquals(formatInteger(12500), label(item, 1).getValue());
+    }
+
+    @Test
+    public void shouldCreateBinderOnlyForRowsThatNeedIt() {
+        TableViewRowRenderer renderer = renderer(tableViewDescriptor(DummyBean.class, false)
+                .fields(column("name"), column("lastName").params(Viewers.PARAM_BINDINGS, MapBuilder.put("value", "lastName")))
+                .fastRender()
+                .build());
+
+        Listitem item = new Listitem();
+        renderer.render(item, bean("Mario", 30), 0);
+
+        assertNotNull(item.getAttribute(TableViewRowRenderer.ROW_BINDER_NAME));
+        assertEquals(List.of("create", "loadComponent"), binderCalls);
+        assertEquals("Mario", label(item, 0).getValue());
+    }
+
+    @Test
+    public void shouldReuseRowBinderAndReloadFastCells() {
+        TableViewRowRenderer renderer = renderer(tableViewDescriptor(DummyBean.class, false)
+                .fields(column("name"), column("age").params(Viewers.PARAM_CONVERTER, "converters.Integer"))
+                .fastRender()
+                .build());
+
+        Listitem item = new Listitem();
+        DummyBean bean = bean("Mario", 30);
+        renderer.render(item, bean, 0);
+
+        bean.setName("Ana");
+        bean.setAge(4000);
+        renderer.reloadRow(item);
+
+        assertEquals("Ana", label(item, 0).getValue());
+        assertEquals(formatInteger(4000), label(item, 1).getValue());
+        assertEquals(0, binderCalls.size());
+
+        Binder binder = renderer.getRowBinder(item);
+        assertSame(binder, renderer.getRowBinder(item));
+        renderer.reloadRow(item);
+
+        assertEquals(List.of("create", "loadComponent"), binderCalls);
+    }
+
+    private TableViewRowRenderer renderer(ViewDescriptor descriptor) {
+        return new TableViewRowRenderer(descriptor, new TableView<>(descriptor)) {
+            @Override
+            protected Binder createRowBinder(Listitem item) {
+                binderCalls.add("create");
+                return recordingBinder();
+            }
+        };
+    }
+
+    private Binder recordingBinder() {
+        return (Binder) Proxy.newProxyInstance(Binder.class.getClassLoader(), new Class[]{Binder.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "RecordingBinder";
+                        case "loadComponent":
+                            binderCalls.add("loadComponent");
+                            return null;
+                        default:
+                            return method.getReturnType() == boolean.class ? false : null;
+                    }
+                });
+    }
+
+    private static DummyBean bean(String name, int age) {
+        DummyBean bean = new DummyBean();
+        bean.setName(name);
+        bean.setAge(age);
+        return bean;
+    }
+
+    /**
+     * Same output the binder gets from the column converter
+     */
+    private static Object formatInteger(int value) {
+        return new tools.dynamia.zk.converters.Integer().coerceToUi(value, new Label(), null);
+    }
+
+    private static Label label(Listitem item, int cell) {
+        Component component = ((Listcell) item.getChildren().get(cell)).getFirstChild();
+        return (Label) component;
+    }
+}